@@ -0,0 +1,70 @@
+//  DJIDroneStateAdapterBenchmark.java
+//  DronelinkDJI
+//
+//  Created by Jim McAndrew on 10/18/26.
+//  Copyright © 2026 Dronelink. All rights reserved.
+//
+package com.dronelink.dji;
+
+import android.location.Location;
+
+import com.dronelink.core.adapters.DroneStateAdapter;
+import com.dronelink.core.kernel.core.Orientation3;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+//the derived getters, both between updates and with a new flight controller state before every read
+//android.location.Location comes from the mockable android jar here, so it costs less than it does on a device
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DJIDroneStateAdapterBenchmark {
+    private DroneStateAdapter state;
+    private int tick = 0;
+
+    @Setup
+    public void setUp(final DJISessionState session) {
+        state = session.session.getState().value;
+    }
+
+    //getState hands out a snapshot, so reads after an update go through a new one
+    private DroneStateAdapter update(final DJISessionState session) {
+        session.aircraft.updateFlightControllerState(session.flightControllerStates[tick++ & (session.flightControllerStates.length - 1)]);
+        return session.session.getState().value;
+    }
+
+    @Benchmark
+    public Location getLocation() {
+        return state.getLocation();
+    }
+
+    @Benchmark
+    public Location getLocationAfterUpdate(final DJISessionState session) {
+        return update(session).getLocation();
+    }
+
+    @Benchmark
+    public double getHorizontalSpeed() {
+        return state.getHorizontalSpeed();
+    }
+
+    @Benchmark
+    public Orientation3 getOrientation() {
+        return state.getOrientation();
+    }
+
+    @Benchmark
+    public Orientation3 getOrientationAfterUpdate(final DJISessionState session) {
+        return update(session).getOrientation();
+    }
+}
@@ -0,0 +1,31 @@
+//  DJIFlightControllerStateBenchmark.java
+//  DronelinkDJI
+//
+//  Created by Jim McAndrew on 10/18/26.
+//  Copyright © 2026 Dronelink. All rights reserved.
+//
+package com.dronelink.dji;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+//the flight controller state callback the session registers in initFlightController, at the rate a single SDK thread can deliver
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DJIFlightControllerStateBenchmark {
+    private int tick = 0;
+
+    @Benchmark
+    public boolean flightControllerStateCallback(final DJISessionState session) {
+        return session.aircraft.updateFlightControllerState(session.flightControllerStates[tick++ & (session.flightControllerStates.length - 1)]);
+    }
+}
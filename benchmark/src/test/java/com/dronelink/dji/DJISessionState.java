@@ -0,0 +1,88 @@
+//  DJISessionState.java
+//  DronelinkDJI
+//
+//  Created by Jim McAndrew on 10/18/26.
+//  Copyright © 2026 Dronelink. All rights reserved.
+//
+package com.dronelink.dji;
+
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.Collections;
+
+import dji.common.camera.SystemState;
+import dji.common.flightcontroller.Attitude;
+import dji.common.flightcontroller.FlightControllerState;
+import dji.common.flightcontroller.LocationCoordinate3D;
+import dji.common.gimbal.GimbalState;
+import dji.common.product.Model;
+import dji.sdk.camera.Camera;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+//a real session opened for a stand-in aircraft with one camera and one gimbal, seeded so every read path has a value
+//the stand-in SDK values are stub-only mocks, they don't record calls, so reading them allocates very little
+@State(Scope.Benchmark)
+public class DJISessionState {
+    public static final int Channel = 0;
+    private static final long SeedTimeoutMillis = 5000;
+
+    public DJIFakeSdk sdk;
+    public DJIFakeSdk.FakeAircraft aircraft;
+    public DJIDroneSessionManager manager;
+    public DJIDroneSession session;
+    //a power of two, so the benchmarks can cycle through them with a mask
+    public final FlightControllerState[] flightControllerStates = new FlightControllerState[64];
+
+    public static FlightControllerState flightControllerState(final long tick) {
+        final FlightControllerState state = new FlightControllerState();
+        state.setAircraftLocation(new LocationCoordinate3D(37.0 + tick * 0.000001, -122.0, 30 + tick % 10));
+        state.setAttitude(new Attitude(tick % 10, -(tick % 10), tick % 360));
+        state.setVelocityX(3);
+        state.setVelocityY(4);
+        state.setVelocityZ(0);
+        state.setSatelliteCount(12);
+        state.setFlying(true);
+        state.setAreMotorsOn(true);
+        return state;
+    }
+
+    @Setup
+    public void setUp() throws InterruptedException {
+        sdk = new DJIFakeSdk();
+        aircraft = sdk.createAircraft(Model.MAVIC_2_PRO);
+        final Camera camera = mock(Camera.class, withSettings().stubOnly());
+        when(camera.getIndex()).thenReturn(Channel);
+        when(aircraft.aircraft.getCameras()).thenReturn(Collections.singletonList(camera));
+
+        manager = new DJIDroneSessionManager(sdk.context);
+        session = manager.openSession(aircraft.aircraft);
+        for (int i = 0; i < flightControllerStates.length; i++) {
+            flightControllerStates[i] = flightControllerState(i);
+        }
+
+        aircraft.updateFlightControllerState(flightControllerStates[0]);
+        session.updateCameraSystemState(Channel, mock(SystemState.class, withSettings().stubOnly()));
+        session.updateGimbalState(Channel, mock(GimbalState.class, withSettings().stubOnly()));
+
+        //the camera and gimbal states are applied on their lanes
+        final long deadline = System.currentTimeMillis() + SeedTimeoutMillis;
+        while (session.getCameraState(Channel) == null || session.getGimbalState(Channel) == null) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new IllegalStateException("session never applied the seeded camera and gimbal states");
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        manager.closeSession();
+        sdk.close();
+    }
+}
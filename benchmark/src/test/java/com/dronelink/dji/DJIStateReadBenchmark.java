@@ -0,0 +1,41 @@
+//  DJIStateReadBenchmark.java
+//  DronelinkDJI
+//
+//  Created by Jim McAndrew on 10/18/26.
+//  Copyright © 2026 Dronelink. All rights reserved.
+//
+package com.dronelink.dji;
+
+import com.dronelink.core.DatedValue;
+import com.dronelink.core.adapters.CameraStateAdapter;
+import com.dronelink.core.adapters.DroneStateAdapter;
+import com.dronelink.core.adapters.GimbalStateAdapter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Warmup;
+
+//the state reads the core polls every tick, against states that aren't changing underneath them
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DJIStateReadBenchmark {
+    @Benchmark
+    public DatedValue<DroneStateAdapter> getState(final DJISessionState session) {
+        return session.session.getState();
+    }
+
+    @Benchmark
+    public DatedValue<CameraStateAdapter> getCameraState(final DJISessionState session) {
+        return session.session.getCameraState(DJISessionState.Channel);
+    }
+
+    @Benchmark
+    public DatedValue<GimbalStateAdapter> getGimbalState(final DJISessionState session) {
+        return session.session.getGimbalState(DJISessionState.Channel);
+    }
+}
@@ -0,0 +1,146 @@
+//  DronelinkDJIBenchmark.java
+//  DronelinkDJI
+//
+//  Created by Jim McAndrew on 10/18/26.
+//  Copyright © 2026 Dronelink. All rights reserved.
+//
+package com.dronelink.dji;
+
+import com.dronelink.core.kernel.component.DJIWaypointMissionComponent;
+import com.dronelink.core.kernel.component.DJIWaypointMissionComponentWaypoint;
+import com.dronelink.core.kernel.component.DJIWaypointMissionComponentWaypointAction;
+import com.dronelink.core.kernel.core.GeoCoordinate;
+import com.dronelink.core.kernel.core.enums.CameraISO;
+import com.dronelink.core.kernel.core.enums.CameraMode;
+import com.dronelink.core.kernel.core.enums.CameraPhotoFileFormat;
+import com.dronelink.core.kernel.core.enums.CameraShutterSpeed;
+import com.dronelink.core.kernel.core.enums.CameraWhiteBalancePreset;
+import com.dronelink.core.kernel.core.enums.DJIWaypointActionType;
+import com.dronelink.core.kernel.core.enums.DJIWaypointMissionFinishedAction;
+import com.dronelink.core.kernel.core.enums.DJIWaypointMissionFlightPathMode;
+import com.dronelink.core.kernel.core.enums.DJIWaypointMissionGotoWaypointMode;
+import com.dronelink.core.kernel.core.enums.DJIWaypointMissionHeadingMode;
+import com.dronelink.core.kernel.core.enums.DJIWaypointTurnMode;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import dji.common.camera.SettingsDefinitions;
+import dji.common.mission.waypoint.WaypointMission;
+
+//the enum conversions the camera commands and state adapters run through, in both directions, and the waypoint mission conversion
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DronelinkDJIBenchmark {
+    private final CameraISO[] isos = CameraISO.values();
+    private final SettingsDefinitions.ISO[] djiISOs = SettingsDefinitions.ISO.values();
+    private final CameraShutterSpeed[] shutterSpeeds = CameraShutterSpeed.values();
+    private final SettingsDefinitions.ShutterSpeed[] djiShutterSpeeds = SettingsDefinitions.ShutterSpeed.values();
+    private final CameraWhiteBalancePreset[] whiteBalancePresets = CameraWhiteBalancePreset.values();
+    private final SettingsDefinitions.WhiteBalancePreset[] djiWhiteBalancePresets = SettingsDefinitions.WhiteBalancePreset.values();
+    private final CameraMode[] modes = CameraMode.values();
+    private final CameraPhotoFileFormat[] photoFileFormats = CameraPhotoFileFormat.values();
+
+    @Param({ "10", "99" })
+    public int waypoints;
+    private DJIWaypointMissionComponent mission;
+
+    @Setup
+    public void setUp() {
+        mission = new DJIWaypointMissionComponent();
+        mission.id = "benchmark";
+        mission.autoFlightSpeed = 8;
+        mission.maxFlightSpeed = 15;
+        mission.gotoFirstWaypointMode = DJIWaypointMissionGotoWaypointMode.SAFELY;
+        mission.exitMissionOnRCSignalLost = false;
+        mission.repeatTimes = 1;
+        mission.rotateGimbalPitch = true;
+        mission.headingMode = DJIWaypointMissionHeadingMode.USING_WAYPOINT_HEADING;
+        mission.flightPathMode = DJIWaypointMissionFlightPathMode.NORMAL;
+        mission.finishedAction = DJIWaypointMissionFinishedAction.NO_ACTION;
+        mission.waypoints = new DJIWaypointMissionComponentWaypoint[waypoints];
+        for (int i = 0; i < waypoints; i++) {
+            final DJIWaypointMissionComponentWaypoint waypoint = new DJIWaypointMissionComponentWaypoint();
+            waypoint.coordinate = new GeoCoordinate(37.0 + i * 0.0001, -122.0);
+            waypoint.altitude = 50;
+            waypoint.heading = i * 0.1;
+            waypoint.cornerRadius = 5;
+            waypoint.turnMode = DJIWaypointTurnMode.CLOCKWISE;
+            waypoint.gimbalPitch = -Math.PI / 4;
+            waypoint.speed = 8;
+            waypoint.shootPhotoTimeInterval = 0;
+            waypoint.shootPhotoDistanceInterval = 0;
+            waypoint.actionRepeatTimes = 1;
+            waypoint.actionTimeout = 60;
+            final DJIWaypointMissionComponentWaypointAction gimbal = new DJIWaypointMissionComponentWaypointAction();
+            gimbal.type = DJIWaypointActionType.ROTATE_GIMBAL_PITCH;
+            gimbal.param = -Math.PI / 2;
+            final DJIWaypointMissionComponentWaypointAction photo = new DJIWaypointMissionComponentWaypointAction();
+            photo.type = DJIWaypointActionType.SHOOT_PHOTO;
+            waypoint.actions = new DJIWaypointMissionComponentWaypointAction[] { gimbal, photo };
+            mission.waypoints[i] = waypoint;
+        }
+    }
+
+    @Benchmark
+    public void cameraISO(final Blackhole blackhole) {
+        for (final CameraISO value : isos) {
+            blackhole.consume(DronelinkDJI.getCameraISO(value));
+        }
+        for (final SettingsDefinitions.ISO value : djiISOs) {
+            blackhole.consume(DronelinkDJI.getCameraISO(value));
+        }
+    }
+
+    @Benchmark
+    public void cameraShutterSpeed(final Blackhole blackhole) {
+        for (final CameraShutterSpeed value : shutterSpeeds) {
+            blackhole.consume(DronelinkDJI.getCameraShutterSpeed(value));
+        }
+        for (final SettingsDefinitions.ShutterSpeed value : djiShutterSpeeds) {
+            blackhole.consume(DronelinkDJI.getCameraShutterSpeed(value));
+        }
+    }
+
+    @Benchmark
+    public void cameraWhiteBalancePreset(final Blackhole blackhole) {
+        for (final CameraWhiteBalancePreset value : whiteBalancePresets) {
+            blackhole.consume(DronelinkDJI.getCameraWhiteBalancePreset(value));
+        }
+        for (final SettingsDefinitions.WhiteBalancePreset value : djiWhiteBalancePresets) {
+            blackhole.consume(DronelinkDJI.getCameraWhiteBalancePreset(value));
+        }
+    }
+
+    @Benchmark
+    public void cameraMode(final Blackhole blackhole) {
+        for (final CameraMode value : modes) {
+            blackhole.consume(DronelinkDJI.getCameraMode(value));
+            blackhole.consume(DronelinkDJI.getCameraModeFlat(value));
+        }
+    }
+
+    @Benchmark
+    public void cameraPhotoFileFormat(final Blackhole blackhole) {
+        for (final CameraPhotoFileFormat value : photoFileFormats) {
+            blackhole.consume(DronelinkDJI.getCameraPhotoFileFormat(value));
+        }
+    }
+
+    @Benchmark
+    public WaypointMission getWaypointMission() {
+        return DronelinkDJI.getWaypointMission(mission);
+    }
+}
@@ -0,0 +1,49 @@
+//  DJIChannelStateStore.java
+//  DronelinkDJI
+//
+//  Created by Jim McAndrew on 10/18/26.
+//  Copyright © 2026 Dronelink. All rights reserved.
+//
+package com.dronelink.dji;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+//channel indexed values with wait-free reads, writes are serialized and only copy when a new channel grows the store
+public class DJIChannelStateStore<V> {
+    private volatile AtomicReferenceArray<V> values = new AtomicReferenceArray<>(4);
+
+    public V get(final int channel) {
+        final AtomicReferenceArray<V> values = this.values;
+        if (channel < 0 || channel >= values.length()) {
+            return null;
+        }
+        return values.get(channel);
+    }
+
+    public synchronized void put(final int channel, final V value) {
+        if (channel < 0) {
+            return;
+        }
+
+        AtomicReferenceArray<V> values = this.values;
+        if (channel >= values.length()) {
+            if (value == null) {
+                return;
+            }
+
+            final AtomicReferenceArray<V> grown = new AtomicReferenceArray<>(Math.max(channel + 1, values.length() * 2));
+            for (int i = 0; i < values.length(); i++) {
+                grown.set(i, values.get(i));
+            }
+            this.values = values = grown;
+        }
+        values.set(channel, value);
+    }
+
+    public synchronized void clear() {
+        final AtomicReferenceArray<V> values = this.values;
+        for (int i = 0; i < values.length(); i++) {
+            values.set(i, null);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+//  DJICommandCoalescer.java
+//  DronelinkDJI
+//
+//  Created by Jim McAndrew on 10/18/26.
+//  Copyright © 2026 Dronelink. All rights reserved.
+//
+package com.dronelink.dji;
+
+import com.dronelink.core.kernel.command.Command;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+//sits in front of a multi channel command queue
+//a setting command queued directly behind one of the same type on the same channel supersedes it if that one hasn't started,
+//and a command the current state already satisfies is skipped, either way the skipped command still finishes (successfully) in queue order
+public class DJICommandCoalescer {
+    public interface Satisfied<C extends Command> {
+        boolean isSatisfied(C command);
+    }
+
+    public class Entry {
+        private static final int Queued = 0;
+        private static final int Started = 1;
+        private static final int Superseded = 2;
+
+        public final Command command;
+        private final AtomicInteger status = new AtomicInteger(Queued);
+
+        private Entry(final Command command) {
+            this.command = command;
+        }
+
+        private boolean supersede() {
+            return status.compareAndSet(Queued, Superseded);
+        }
+
+        public boolean isSuperseded() {
+            return status.get() == Superseded;
+        }
+
+        //true if the command should run, false if it should finish without doing anything
+        public boolean start() {
+            if (!status.compareAndSet(Queued, Started)) {
+                //retries of a command that already started run again
+                return status.get() == Started;
+            }
+
+            final Satisfied<Command> satisfied = coalescible.get(command);
+            if (satisfied != null && satisfied.isSatisfied(command)) {
+                satisfiedCount.incrementAndGet();
+                return false;
+            }
+            return true;
+        }
+    }
+
+    private final DJICommandRegistry<Command, Satisfied<Command>> coalescible = new DJICommandRegistry<>();
+    private final DJIChannelStateStore<Entry> lastQueued = new DJIChannelStateStore<>();
+    private final AtomicLong supersededCount = new AtomicLong();
+    private final AtomicLong satisfiedCount = new AtomicLong();
+
+    private static final Satisfied<Command> Never = new Satisfied<Command>() {
+        @Override
+        public boolean isSatisfied(final Command command) {
+            return false;
+        }
+    };
+
+    public DJICommandCoalescer register(final Class<? extends Command> type) {
+        coalescible.register(type, Never);
+        return this;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <C extends Command> DJICommandCoalescer register(final Class<C> type, final Satisfied<? super C> satisfied) {
+        coalescible.register(type, (Satisfied<Command>)satisfied);
+        return this;
+    }
+
+    public Entry add(final int channel, final Command command) {
+        final Entry entry = new Entry(command);
+        synchronized (lastQueued) {
+            final Entry previous = lastQueued.get(channel);
+            if (previous != null
+                    && previous.command.getClass() == command.getClass()
+                    && coalescible.get(command) != null
+                    && previous.supersede()) {
+                supersededCount.incrementAndGet();
+            }
+            lastQueued.put(channel, entry);
+        }
+        return entry;
+    }
+
+    public long getSupersededCount() {
+        return supersededCount.get();
+    }
+
+    public long getSatisfiedCount() {
+        return satisfiedCount.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.US, "superseded=%d satisfied=%d", getSupersededCount(), getSatisfiedCount());
+    }
+}
@@ -0,0 +1,34 @@
+//  DJICommandPump.java
+//  DronelinkDJI
+//
+//  Created by Jim McAndrew on 10/18/26.
+//  Copyright © 2026 Dronelink. All rights reserved.
+//
+package com.dronelink.dji;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+//runs the pump on its lane as soon as there is something to do, signals that arrive while a run is pending collapse into it
+public class DJICommandPump {
+    private final DJISessionScheduler.Lane lane;
+    private final Runnable pump;
+    private final AtomicBoolean pending = new AtomicBoolean(false);
+    private final Runnable run = new Runnable() {
+        @Override
+        public void run() {
+            pending.set(false);
+            pump.run();
+        }
+    };
+
+    public DJICommandPump(final DJISessionScheduler.Lane lane, final Runnable pump) {
+        this.lane = lane;
+        this.pump = pump;
+    }
+
+    public void signal() {
+        if (pending.compareAndSet(false, true)) {
+            lane.execute(run);
+        }
+    }
+}
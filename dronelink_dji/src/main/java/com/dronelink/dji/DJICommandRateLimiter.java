@@ -0,0 +1,182 @@
+//  DJICommandRateLimiter.java
+//  DronelinkDJI
+//
+//  Created by Jim McAndrew on 10/18/26.
+//  Copyright © 2026 Dronelink. All rights reserved.
+//
+package com.dronelink.dji;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import dji.common.product.Model;
+
+//keeps commands at least a minimum interval apart, a command that arrives too soon waits as the newest pending command
+//and goes out when the interval elapses, anything still pending when a newer command arrives is replaced (coalesced)
+//commands run without holding the limiter, a command that goes out later runs on the limiter's own thread rather than the shared session pool
+public class DJICommandRateLimiter {
+    private static final Map<Model, Long> virtualStickMinIntervalMillis = new ConcurrentHashMap<>();
+
+    static {
+        //sending virtual stick commands to any P4 model faster than 150ms results in sudden stopping and resuming every few seconds!
+        for (final Model model : new Model[] { Model.PHANTOM_4, Model.PHANTOM_4_PRO, Model.PHANTOM_4_PRO_V2, Model.PHANTOM_4_ADVANCED, Model.PHANTOM_4_RTK }) {
+            virtualStickMinIntervalMillis.put(model, 150L);
+        }
+    }
+
+    //null (or 0) removes the limit for the model
+    //a session resolves its model's interval once, when its first stick command goes out (or its sender starts), so a change applies to sessions from then on
+    public static void setVirtualStickMinIntervalMillis(final Model model, final Long millis) {
+        if (millis == null || millis <= 0) {
+            virtualStickMinIntervalMillis.remove(model);
+            return;
+        }
+        virtualStickMinIntervalMillis.put(model, millis);
+    }
+
+    public static long getVirtualStickMinIntervalMillis(final Model model) {
+        if (model == null) {
+            return 0;
+        }
+
+        final Long millis = virtualStickMinIntervalMillis.get(model);
+        return millis == null ? 0 : millis;
+    }
+
+    private final String name;
+    private final long minIntervalNanos;
+    private ScheduledThreadPoolExecutor executor;
+    private Runnable pending;
+    private ScheduledFuture<?> flushTask;
+    private long sentNanos = 0;
+    private long submittedCount = 0;
+    private long sentCount = 0;
+    private long coalescedCount = 0;
+    private long droppedCount = 0;
+    private boolean closed = false;
+
+    private final Runnable flush = new Runnable() {
+        @Override
+        public void run() {
+            final Runnable command;
+            synchronized (DJICommandRateLimiter.this) {
+                flushTask = null;
+                command = pending;
+                pending = null;
+                if (command == null) {
+                    return;
+                }
+                onSent();
+            }
+            command.run();
+        }
+    };
+
+    public DJICommandRateLimiter(final String name, final long minIntervalMillis) {
+        this.name = name;
+        this.minIntervalNanos = Math.max(0, minIntervalMillis) * 1000000L;
+    }
+
+    public long getMinIntervalMillis() {
+        return minIntervalNanos / 1000000L;
+    }
+
+    //a command that can go out now runs on the caller's thread, after the limiter has recorded it as sent
+    public void submit(final Runnable command) {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+
+            submittedCount++;
+            final long elapsedNanos = System.nanoTime() - sentNanos;
+            if (pending != null || (sentCount > 0 && elapsedNanos < minIntervalNanos)) {
+                if (pending != null) {
+                    coalescedCount++;
+                }
+                pending = command;
+
+                if (flushTask == null) {
+                    flushTask = getExecutor().schedule(flush, Math.max(0, minIntervalNanos - elapsedNanos), TimeUnit.NANOSECONDS);
+                }
+                return;
+            }
+
+            onSent();
+        }
+        command.run();
+    }
+
+    //a command still waiting to go out is dropped
+    public synchronized void clear() {
+        if (flushTask != null) {
+            flushTask.cancel(false);
+            flushTask = null;
+        }
+
+        if (pending != null) {
+            pending = null;
+            droppedCount++;
+        }
+    }
+
+    //drops anything pending and lets the limiter's thread go, later commands are ignored
+    public synchronized void close() {
+        clear();
+        closed = true;
+        if (executor != null) {
+            executor.shutdown();
+            executor = null;
+        }
+    }
+
+    //called holding the limiter
+    private ScheduledThreadPoolExecutor getExecutor() {
+        if (executor == null) {
+            executor = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+                @Override
+                public Thread newThread(final Runnable runnable) {
+                    final Thread thread = new Thread(runnable, "DronelinkDJI " + name);
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+            executor.setRemoveOnCancelPolicy(true);
+        }
+        return executor;
+    }
+
+    private void onSent() {
+        sentNanos = System.nanoTime();
+        sentCount++;
+    }
+
+    public synchronized long getSubmittedCount() {
+        return submittedCount;
+    }
+
+    public synchronized long getSentCount() {
+        return sentCount;
+    }
+
+    //replaced by a newer command before the interval elapsed
+    public synchronized long getCoalescedCount() {
+        return coalescedCount;
+    }
+
+    //pending when the limiter was cleared
+    public synchronized long getDroppedCount() {
+        return droppedCount;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format(Locale.US, "interval=%dms submitted=%d sent=%d coalesced=%d dropped=%d",
+                getMinIntervalMillis(), submittedCount, sentCount, coalescedCount, droppedCount);
+    }
+}
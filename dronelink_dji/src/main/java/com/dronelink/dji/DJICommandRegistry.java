@@ -0,0 +1,77 @@
+//  DJICommandRegistry.java
+//  DronelinkDJI
+//
+//  Created by Jim McAndrew on 10/18/26.
+//  Copyright © 2026 Dronelink. All rights reserved.
+//
+package com.dronelink.dji;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+//maps command classes to handlers, a concrete class resolves to the handler registered for it or its nearest registered supertype
+//resolution happens once per concrete class, after that dispatch is a single map lookup
+public class DJICommandRegistry<C, H> {
+    private static final Object Unhandled = new Object();
+
+    private final Map<Class<?>, H> handlers = new HashMap<>();
+    private final ConcurrentHashMap<Class<?>, Object> resolved = new ConcurrentHashMap<>();
+
+    public synchronized DJICommandRegistry<C, H> register(final Class<? extends C> type, final H handler) {
+        handlers.put(type, handler);
+        resolved.clear();
+        return this;
+    }
+
+    public H get(final C command) {
+        return command == null ? null : get(command.getClass());
+    }
+
+    @SuppressWarnings("unchecked")
+    public H get(final Class<?> type) {
+        Object handler = resolved.get(type);
+        if (handler == null) {
+            handler = resolve(type);
+            resolved.put(type, handler);
+        }
+        return handler == Unhandled ? null : (H)handler;
+    }
+
+    public synchronized int size() {
+        return handlers.size();
+    }
+
+    private synchronized Object resolve(final Class<?> type) {
+        for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+            final H handler = handlers.get(current);
+            if (handler != null) {
+                return handler;
+            }
+        }
+
+        //fall back to interfaces, nearest first
+        final Deque<Class<?>> interfaces = new ArrayDeque<>();
+        for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+            for (final Class<?> i : current.getInterfaces()) {
+                interfaces.add(i);
+            }
+        }
+
+        while (!interfaces.isEmpty()) {
+            final Class<?> current = interfaces.poll();
+            final H handler = handlers.get(current);
+            if (handler != null) {
+                return handler;
+            }
+
+            for (final Class<?> i : current.getInterfaces()) {
+                interfaces.add(i);
+            }
+        }
+
+        return Unhandled;
+    }
+}
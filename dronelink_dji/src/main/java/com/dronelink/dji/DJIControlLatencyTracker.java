@@ -0,0 +1,189 @@
+//  DJIControlLatencyTracker.java
+//  DronelinkDJI
+//
+//  Created by Jim McAndrew on 10/18/26.
+//  Copyright © 2026 Dronelink. All rights reserved.
+//
+package com.dronelink.dji;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import dji.common.error.DJIError;
+import dji.common.flightcontroller.FlightControllerState;
+import dji.common.flightcontroller.virtualstick.FlightControlData;
+import dji.common.util.CommonCallbacks;
+
+//follows virtual stick commands from the kernel to the aircraft, per flight (motors on to the next motors on):
+//dispatch: command issued to it going out to the flight controller (rate limiting, sender mailbox)
+//acknowledge: going out to the SDK completion callback
+//response: command issued to the first flight controller state that covers half of the velocity change it asked for
+public class DJIControlLatencyTracker {
+    private static final int MaxFlights = 16;
+    private static final double ResponseToleranceMetersPerSecond = 0.3;
+    private static final long ResponseTimeoutNanos = 3000000000L;
+
+    public class Flight {
+        public final long started = System.currentTimeMillis();
+        public final DJILatencyHistogram dispatch = new DJILatencyHistogram();
+        public final DJILatencyHistogram acknowledge = new DJILatencyHistogram();
+        public final DJILatencyHistogram response = new DJILatencyHistogram();
+        private long commandCount = 0;
+        private long sentCount = 0;
+        private long acknowledgeErrorCount = 0;
+        private long responseSupersededCount = 0;
+        private long responseTimedOutCount = 0;
+
+        public JSONObject toJSON() throws JSONException {
+            final JSONObject json = new JSONObject();
+            synchronized (DJIControlLatencyTracker.this) {
+                json.put("started", started);
+                json.put("commands", commandCount);
+                json.put("sent", sentCount);
+                json.put("acknowledgeErrors", acknowledgeErrorCount);
+                json.put("responsesSuperseded", responseSupersededCount);
+                json.put("responsesTimedOut", responseTimedOutCount);
+            }
+            json.put("dispatch", dispatch.toJSON());
+            json.put("acknowledge", acknowledge.toJSON());
+            json.put("response", response.toJSON());
+            return json;
+        }
+    }
+
+    public class Probe {
+        private final Flight flight;
+        private final long commandNanos = System.nanoTime();
+        //false for commands (like attitude sticks) whose response isn't a ground velocity
+        private final boolean velocity;
+        private final double targetHorizontal;
+        private final double targetVertical;
+        private long sentNanos = 0;
+        private double initialError;
+
+        private Probe(final Flight flight, final boolean velocity, final FlightControlData data) {
+            this.flight = flight;
+            this.velocity = velocity;
+            this.targetHorizontal = Math.hypot(data.getPitch(), data.getRoll());
+            this.targetVertical = data.getVerticalThrottle();
+        }
+
+        //only the horizontal speed is compared, the axes of the command and the state don't have to line up
+        private double getError(final double horizontal, final double vertical) {
+            return Math.hypot(targetHorizontal - horizontal, targetVertical - vertical);
+        }
+
+        //called as the command goes out to the flight controller, returns the callback to pass along with it
+        public CommonCallbacks.CompletionCallback onSent() {
+            sentNanos = System.nanoTime();
+            flight.dispatch.record(sentNanos - commandNanos);
+            synchronized (DJIControlLatencyTracker.this) {
+                flight.sentCount++;
+                if (velocity) {
+                    track(this);
+                }
+            }
+
+            return new CommonCallbacks.CompletionCallback() {
+                @Override
+                public void onResult(final DJIError djiError) {
+                    if (djiError != null) {
+                        synchronized (DJIControlLatencyTracker.this) {
+                            flight.acknowledgeErrorCount++;
+                        }
+                        return;
+                    }
+                    flight.acknowledge.recordSince(sentNanos);
+                }
+            };
+        }
+    }
+
+    private final Deque<Flight> flights = new ArrayDeque<>();
+    private Flight flight;
+    private Probe responseProbe;
+    private double horizontal = 0;
+    private double vertical = 0;
+
+    public synchronized void startFlight() {
+        responseProbe = null;
+        flight = new Flight();
+        flights.add(flight);
+        while (flights.size() > MaxFlights) {
+            flights.poll();
+        }
+    }
+
+    public synchronized Probe onCommand(final boolean velocity, final FlightControlData data) {
+        if (flight == null) {
+            startFlight();
+        }
+        flight.commandCount++;
+        return new Probe(flight, velocity, data);
+    }
+
+    private void track(final Probe probe) {
+        probe.initialError = probe.getError(horizontal, vertical);
+        if (responseProbe != null) {
+            //the same setpoint sent again keeps waiting on the original
+            if (Math.abs(responseProbe.targetHorizontal - probe.targetHorizontal) < ResponseToleranceMetersPerSecond
+                    && Math.abs(responseProbe.targetVertical - probe.targetVertical) < ResponseToleranceMetersPerSecond) {
+                return;
+            }
+            responseProbe.flight.responseSupersededCount++;
+            responseProbe = null;
+        }
+
+        //already there, nothing to respond to
+        if (probe.initialError < ResponseToleranceMetersPerSecond) {
+            return;
+        }
+        responseProbe = probe;
+    }
+
+    //called at the SDK's full update rate, must not allocate
+    public synchronized void onFlightControllerState(final FlightControllerState state) {
+        horizontal = Math.hypot(state.getVelocityX(), state.getVelocityY());
+        //the state is north east down
+        vertical = -state.getVelocityZ();
+
+        final Probe probe = responseProbe;
+        if (probe == null) {
+            return;
+        }
+
+        final long now = System.nanoTime();
+        if (probe.getError(horizontal, vertical) <= probe.initialError / 2) {
+            probe.flight.response.record(now - probe.commandNanos);
+            responseProbe = null;
+        }
+        else if (now - probe.sentNanos > ResponseTimeoutNanos) {
+            probe.flight.responseTimedOutCount++;
+            responseProbe = null;
+        }
+    }
+
+    public synchronized Flight getCurrentFlight() {
+        return flight;
+    }
+
+    public JSONObject toJSON() throws JSONException {
+        final Flight[] flights;
+        synchronized (this) {
+            flights = this.flights.toArray(new Flight[0]);
+        }
+
+        final JSONArray array = new JSONArray();
+        for (final Flight flight : flights) {
+            array.put(flight.toJSON());
+        }
+
+        final JSONObject json = new JSONObject();
+        json.put("flights", array);
+        return json;
+    }
+}
@@ -12,7 +12,6 @@ import android.graphics.PointF;
 import android.location.Location;
 import android.os.Handler;
 import android.util.Log;
-import android.util.SparseArray;
 
 import androidx.annotation.NonNull;
 
@@ -146,6 +145,7 @@ import com.dronelink.core.kernel.core.Orientation3;
 import com.dronelink.core.kernel.core.Orientation3Optional;
 import com.dronelink.core.kernel.core.PercentZoomSpecification;
 import com.dronelink.core.kernel.core.enums.CameraMode;
+import com.dronelink.core.kernel.core.enums.CameraPhotoMode;
 import com.dronelink.core.kernel.core.enums.CameraStorageLocation;
 import com.dronelink.core.kernel.core.enums.ExecutionEngine;
 import com.dronelink.core.kernel.core.enums.GimbalMode;
@@ -159,17 +159,22 @@ import com.dronelink.dji.adapters.DJILiveStreamingStateAdapter;
 import com.dronelink.dji.adapters.DJIRemoteControllerStateAdapter;
 
 import org.json.JSONException;
+import org.json.JSONObject;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
-import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicLong;
 
 import dji.common.airlink.ChannelSelectionMode;
 import dji.common.airlink.LightbridgeFrequencyBand;
@@ -186,11 +191,13 @@ import dji.common.camera.StorageState;
 import dji.common.camera.SystemState;
 import dji.common.camera.WhiteBalance;
 import dji.common.error.DJIError;
+import dji.common.flightcontroller.Attitude;
 import dji.common.flightcontroller.CompassState;
 import dji.common.flightcontroller.ConnectionFailSafeBehavior;
 import dji.common.flightcontroller.FlightControllerState;
 import dji.common.flightcontroller.FlightMode;
 import dji.common.flightcontroller.LandingGearState;
+import dji.common.flightcontroller.LocationCoordinate3D;
 import dji.common.flightcontroller.VisionDetectionState;
 import dji.common.flightcontroller.VisionSensorPosition;
 import dji.common.flightcontroller.adsb.AirSenseSystemInformation;
@@ -241,13 +248,22 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
     private final DJIDroneAdapter adapter;
 
     private final Date opened = new Date();
-    private boolean closed = false;
+    private volatile boolean closed = false;
     public boolean isClosed() {
         return closed;
     }
 
-    private final List<Listener> listeners = new LinkedList<>();
-    private final ExecutorService listenerExecutor = Executors.newSingleThreadExecutor();
+    private final DJISessionScheduler scheduler = DJISessionScheduler.getInstance();
+    private final DJISessionScheduler.Lane listenerExecutor = scheduler.createLane("listeners");
+    private final DJIListenerRegistry<Listener> listeners = new DJIListenerRegistry<>("listener");
+    public DJIListenerRegistry<Listener> getListenerRegistry() {
+        return listeners;
+    }
+    private final List<DJITelemetryStream<?>> telemetryStreams = new CopyOnWriteArrayList<>();
+    private final DJITelemetryStream<DatedValue<DroneStateAdapter>> flightControllerStateStream = createTelemetryStream("flightController");
+    private final DJITelemetryStream<DatedValue<RemoteControllerStateAdapter>> remoteControllerStateStream = createTelemetryStream("remoteController");
+    private final DJIChannelStateStore<DJITelemetryStream<DatedValue<CameraStateAdapter>>> cameraStateStreams = new DJIChannelStateStore<>();
+    private final DJIChannelStateStore<DJITelemetryStream<DatedValue<GimbalStateAdapter>>> gimbalStateStreams = new DJIChannelStateStore<>();
     private final CommandQueue droneCommands = new CommandQueue();
     private final CommandQueue liveStreamingCommands = new CommandQueue();
     private final CommandQueue rtkCommands = new CommandQueue();
@@ -255,202 +271,348 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
     private final MultiChannelCommandQueue cameraCommands = new MultiChannelCommandQueue();
     private final MultiChannelCommandQueue gimbalCommands = new MultiChannelCommandQueue();
 
-    private final ExecutorService stateSerialQueue = Executors.newSingleThreadExecutor();
-    private final DJIDroneStateAdapter state;
+    private interface SettingGetter<V> {
+        void get(CommonCallbacks.CompletionCallbackWith<V> callback);
+    }
+
+    private interface CommandRoute {
+        CommandError execute(com.dronelink.core.kernel.command.Command command, Command.Finisher finished);
+        void addCommand(com.dronelink.core.kernel.command.Command command, Command c);
+        DJICommandCoalescer.Entry coalesce(com.dronelink.core.kernel.command.Command command);
+    }
+
+    private interface DroneCommandHandler {
+        CommandError execute(DroneCommand command, Command.Finisher finished);
+    }
+
+    private interface FlightAssistantCommandHandler {
+        CommandError execute(DroneCommand command, FlightAssistant flightAssistant, Command.Finisher finished);
+    }
+
+    private interface LandingGearCommandHandler {
+        CommandError execute(DroneCommand command, LandingGear landingGear, Command.Finisher finished);
+    }
+
+    private interface LightbridgeCommandHandler {
+        CommandError execute(DroneCommand command, LightbridgeLink link, Command.Finisher finished);
+    }
+
+    private interface OcuSyncCommandHandler {
+        CommandError execute(DroneCommand command, OcuSyncLink link, Command.Finisher finished);
+    }
+
+    private interface AccessoryCommandHandler {
+        CommandError execute(DroneCommand command, AccessoryAggregation accessoryAggregation, Command.Finisher finished);
+    }
+
+    private interface FlightControllerCommandHandler {
+        CommandError execute(DroneCommand command, FlightController flightController, Command.Finisher finished);
+    }
+
+    private interface CameraCommandHandler {
+        CommandError execute(CameraCommand command, Camera camera, DJICameraStateAdapter djiState, Command.Finisher finished);
+    }
+
+    private interface GimbalCommandHandler {
+        CommandError execute(GimbalCommand command, Gimbal gimbal, DatedValue<GimbalStateAdapter> state, Command.Finisher finished);
+    }
+
+    private final DJICommandRegistry<com.dronelink.core.kernel.command.Command, CommandRoute> commandRoutes = new DJICommandRegistry<>();
+    private final DJICommandRegistry<DroneCommand, DroneCommandHandler> droneCommandHandlers = new DJICommandRegistry<>();
+    private final DJICommandRegistry<CameraCommand, CameraCommandHandler> cameraCommandHandlers = new DJICommandRegistry<>();
+    private final DJICommandRegistry<GimbalCommand, GimbalCommandHandler> gimbalCommandHandlers = new DJICommandRegistry<>();
+    private final DJICommandCoalescer cameraCommandCoalescer = new DJICommandCoalescer();
+    private final DJICommandCoalescer gimbalCommandCoalescer = new DJICommandCoalescer();
+    private volatile boolean commandCoalescingEnabled = false;
+    private static final double ModeCommandFinishDelayMillis = 1500;
+    private final Map<Model, Double> modeCommandFinishDelayFallbacks = new ConcurrentHashMap<>();
+    private final DJILatencyHistogram modeCommandConfirmationLatency = new DJILatencyHistogram();
+    private final AtomicLong modeCommandConfirmationTimedOutCount = new AtomicLong();
+    private final AtomicLong modeCommandConfirmationSavedNanos = new AtomicLong();
+    private static final long HousekeepingIntervalMillis = 100;
+    private static final Object ListenerKeyMotorsChanged = new Object();
+    private final DJISessionScheduler.Lane commandSerialQueue = scheduler.createLane("commands");
+    private final DJICommandPump commandPump = new DJICommandPump(commandSerialQueue, new Runnable() {
+        @Override
+        public void run() {
+            if (!closed) {
+                processCommands();
+            }
+        }
+    });
+    private final DJICommandPump housekeepingPump = new DJICommandPump(commandSerialQueue, new Runnable() {
+        @Override
+        public void run() {
+            housekeeping();
+        }
+    });
+    private volatile ScheduledFuture<?> housekeepingTask;
+    private final DJILatencyHistogram commandExecutionLatency = new DJILatencyHistogram();
 
-    private final ExecutorService remoteControllerSerialQueue = Executors.newSingleThreadExecutor();
-    private Date remoteControllerInitialized;
-    private DatedValue<HardwareState> remoteControllerState;
-    private GPSData remoteControllerGPSData;
-
-    private final ExecutorService cameraSerialQueue = Executors.newSingleThreadExecutor();
-    private final SparseArray<DatedValue<SystemState>> cameraStates = new SparseArray<>();
-    private final SparseArray<DatedValue<CameraVideoStreamSource>> cameraVideoStreamSources = new SparseArray<>();
-    private final Map<String, DatedValue<FocusState>> cameraFocusStates = new HashMap<>();
-    private final SparseArray<Map<CameraStorageLocation, DatedValue<StorageState>>> cameraStorageStates = new SparseArray<>();
-    private final Map<String, DatedValue<ExposureSettings>> cameraExposureSettings = new HashMap<>();
-    private final SparseArray<DatedValue<SettingsDefinitions.ExposureCompensation>> cameraExposureCompensation = new SparseArray<>();
-    private final Map<String, DatedValue<short[]>> cameraHistograms = new HashMap<>();
-    private final SparseArray<DatedValue<String>> cameraLensInformation = new SparseArray<>();
-
-    private final ExecutorService gimbalSerialQueue = Executors.newSingleThreadExecutor();
-    private final SparseArray<DatedValue<GimbalState>> gimbalStates = new SparseArray<>();
+    private final DJISessionScheduler.Lane stateSerialQueue = scheduler.createLane("state");
+    private final DJIDroneStateAdapter state;
+    private double flightControllerStateLastNonZeroFlyingAltitude = Double.NaN;
+    private boolean flightControllerStateIsFlyingPrevious = false;
+    private boolean flightControllerStateAreMotorsOnPrevious = false;
+
+    private final DJISessionScheduler.Lane remoteControllerSerialQueue = scheduler.createLane("remoteController");
+    private volatile Date remoteControllerInitialized;
+    private volatile DatedValue<HardwareState> remoteControllerState;
+    private volatile GPSData remoteControllerGPSData;
+
+    private final DJISessionScheduler.Lane cameraSerialQueue = scheduler.createLane("camera");
+    private final DJIChannelStateStore<DatedValue<SystemState>> cameraStates = new DJIChannelStateStore<>();
+    private final DJIChannelStateStore<DatedValue<CameraVideoStreamSource>> cameraVideoStreamSources = new DJIChannelStateStore<>();
+    private final DJILensStateStore<DatedValue<FocusState>> cameraFocusStates = new DJILensStateStore<>();
+    private final DJIChannelStateStore<Map<CameraStorageLocation, DatedValue<StorageState>>> cameraStorageStates = new DJIChannelStateStore<>();
+    private final DJILensStateStore<DatedValue<ExposureSettings>> cameraExposureSettings = new DJILensStateStore<>();
+    private final DJIChannelStateStore<DatedValue<SettingsDefinitions.ExposureCompensation>> cameraExposureCompensation = new DJIChannelStateStore<>();
+    private final DJILensStateStore<DatedValue<short[]>> cameraHistograms = new DJILensStateStore<>();
+    private final DJIChannelStateStore<DatedValue<String>> cameraLensInformation = new DJIChannelStateStore<>();
+    private final DJIVersionedCache<DatedValue<CameraStateAdapter>> cameraStateCache = new DJIVersionedCache<>();
+    private final DJIStateWaiters<DatedValue<CameraStateAdapter>> cameraStateWaiters = new DJIStateWaiters<>(scheduler);
+    private final DJIChannelStateStore<DJIPhotoCapturePipeline> photoCapturePipelines = new DJIChannelStateStore<>();
+    //when each camera was last seen starting a photo, consumed by the camera file it produces
+    private final DJIChannelStateStore<Long> cameraShutterNanos = new DJIChannelStateStore<>();
+    private volatile boolean photoCapturePipelineEnabled = false;
+
+    private final DJISessionScheduler.Lane gimbalSerialQueue = scheduler.createLane("gimbal");
+    private final DJIChannelStateStore<DatedValue<GimbalState>> gimbalStates = new DJIChannelStateStore<>();
+    private final DJIStateWaiters<DatedValue<GimbalStateAdapter>> gimbalStateWaiters = new DJIStateWaiters<>(scheduler);
+
+    //~25s of poses at the SDK's 10Hz so camera files can be tagged where the photo was taken instead of where the file showed up
+    private static final int PoseHistoryCapacity = 256;
+    private static final long PoseHistoryMaxGapMillis = 1000;
+    private static final long CameraShutterMaxAgeMillis = 5000;
+    //latitude, longitude, altitude, pitch, roll, yaw
+    private final DJIPoseHistory aircraftPoseHistory = new DJIPoseHistory(PoseHistoryCapacity, new boolean[] { false, false, false, true, true, true }, PoseHistoryMaxGapMillis);
+    private final double[] aircraftPose = new double[6];
+    //pitch, roll, yaw
+    private final DJIChannelStateStore<DJIPoseHistory> gimbalPoseHistories = new DJIChannelStateStore<>();
+    private final double[] gimbalPose = new double[3];
     private final DJILiveStreamingStateAdapter liveStreamingState;
 
-    private DatedValue<SettingsDefinitions.ExposureMode> exposureMode;
-    private DatedValue<SettingsDefinitions.StorageLocation> storageLocation;
-    private DatedValue<SettingsDefinitions.ShootPhotoMode> photoMode;
-    private DatedValue<SettingsDefinitions.PhotoTimeIntervalSettings> photoTimeIntervalSettings;
-    private DatedValue<SettingsDefinitions.PhotoFileFormat> photoFileFormat;
-    private DatedValue<SettingsDefinitions.PhotoAspectRatio> photoAspectRatio;
-    private DatedValue<SettingsDefinitions.PhotoBurstCount> burstCount;
-    private DatedValue<SettingsDefinitions.PhotoAEBCount> aebCount;
-    private DatedValue<SettingsDefinitions.VideoFileFormat> videoFileFormat;
-    private DatedValue<ResolutionAndFrameRate> videoResolutionAndFrameRate;
-    private DatedValue<WhiteBalance> whiteBalance;
-    private DatedValue<SettingsDefinitions.ISO> iso;
-    private DatedValue<SettingsDefinitions.ShutterSpeed> shutterSpeed;
-    private DatedValue<SettingsDefinitions.FocusMode> focusMode;
-    private DatedValue<Double> focusRingValue;
-    private DatedValue<Double> focusRingMax;
-    private DatedValue<Double> zoomValue;
-    private DatedValue<SettingsDefinitions.HybridZoomSpec> hybridZoomSpecification;
-    private DatedValue<SettingsDefinitions.MeteringMode> meteringMode;
-    private DatedValue<Boolean> autoExposureLock;
-    private DatedValue<HardwareState.Button> remoteControllerFunctionButton;
-
-    private DatedValue<CameraFile> mostRecentCameraFile;
+    private volatile DatedValue<SettingsDefinitions.ExposureMode> exposureMode;
+    private volatile DatedValue<SettingsDefinitions.StorageLocation> storageLocation;
+    private volatile DatedValue<SettingsDefinitions.ShootPhotoMode> photoMode;
+    private volatile DatedValue<SettingsDefinitions.PhotoTimeIntervalSettings> photoTimeIntervalSettings;
+    private volatile DatedValue<SettingsDefinitions.PhotoFileFormat> photoFileFormat;
+    private volatile DatedValue<SettingsDefinitions.PhotoAspectRatio> photoAspectRatio;
+    private volatile DatedValue<SettingsDefinitions.PhotoBurstCount> burstCount;
+    private volatile DatedValue<SettingsDefinitions.PhotoAEBCount> aebCount;
+    private volatile DatedValue<SettingsDefinitions.VideoFileFormat> videoFileFormat;
+    private volatile DatedValue<ResolutionAndFrameRate> videoResolutionAndFrameRate;
+    private volatile DatedValue<WhiteBalance> whiteBalance;
+    private volatile DatedValue<SettingsDefinitions.ISO> iso;
+    private volatile DatedValue<SettingsDefinitions.ShutterSpeed> shutterSpeed;
+    private volatile DatedValue<SettingsDefinitions.FocusMode> focusMode;
+    private volatile DatedValue<Double> focusRingValue;
+    private volatile DatedValue<Double> focusRingMax;
+    private volatile DatedValue<Double> zoomValue;
+    private volatile DatedValue<SettingsDefinitions.HybridZoomSpec> hybridZoomSpecification;
+    private volatile DatedValue<SettingsDefinitions.MeteringMode> meteringMode;
+    private volatile DatedValue<Boolean> autoExposureLock;
+    private volatile DatedValue<HardwareState.Button> remoteControllerFunctionButton;
+
+    private volatile DatedValue<CameraFile> mostRecentCameraFile;
     public DatedValue<CameraFile> getMostRecentCameraFile() {
         return mostRecentCameraFile;
     }
 
-    private List<KeyListener> djiKeyListeners = new ArrayList<>();
+    //cameras register their keys as they connect, so these are read while they grow
+    private final List<DJIKey> djiKeys = new CopyOnWriteArrayList<>();
+    private final List<KeyListener> djiKeyListeners = new CopyOnWriteArrayList<>();
+    private final DJIResourceLedger resources = new DJIResourceLedger();
+    private final DJISettingsCache settingsCache = new DJISettingsCache();
+    //camera keys the command handlers read through the settings cache, initListeners observes them for camera 0
+    private static final String[] ObservedCameraSettingKeys = {
+            CameraKey.PHOTO_AEB_COUNT, CameraKey.AE_LOCK, CameraKey.CAMERA_STORAGE_LOCATION, CameraKey.EXPOSURE_MODE, CameraKey.FOCUS_MODE,
+            CameraKey.METERING_MODE, CameraKey.PHOTO_ASPECT_RATIO, CameraKey.PHOTO_FILE_FORMAT, CameraKey.PHOTO_TIME_INTERVAL_SETTINGS,
+            CameraKey.RESOLUTION_FRAME_RATE, CameraKey.SHOOT_PHOTO_MODE, CameraKey.VIDEO_FILE_FORMAT, CameraKey.WHITE_BALANCE
+    };
+    private final Set<Integer> observedCameraSettingIndexes = Collections.newSetFromMap(new ConcurrentHashMap<Integer, Boolean>());
+    public DJISettingsCache getSettingsCache() {
+        return settingsCache;
+    }
+    public DJIResourceLedger getResourceLedger() {
+        return resources;
+    }
+    private volatile DJIFlightDataRecorder flightDataRecorder;
+    public DJIFlightDataRecorder getFlightDataRecorder() {
+        return flightDataRecorder;
+    }
 
     public DJIDroneSession(final Context context, final DroneSessionManager manager, final Aircraft drone) {
         this.context = context;
         this.state = new DJIDroneStateAdapter(context, drone);
+        flightControllerStateStream.setSource(state::toDatedValue);
         this.manager = manager;
         this.adapter = new DJIDroneAdapter(drone);
         this.liveStreamingState = new DJILiveStreamingStateAdapter(context);
+        initCommandRoutes();
+        initDroneCommandHandlers();
+        initCameraCommandHandlers();
+        initGimbalCommandHandlers();
+        initCommandCoalescers();
+        initModeCommandFinishDelayFallbacks();
+        for (final DJISessionScheduler.Lane lane : getLanes()) {
+            resources.acquire("lane." + lane.name, lane::close);
+        }
+        resources.acquire("listeners", listeners::removeAll);
+        resources.acquire("virtualStickRateLimiter", adapter::closeVirtualStickRateLimiter);
+        resources.acquire("stateWaiters", () -> {
+            cameraStateWaiters.cancelAll();
+            gimbalStateWaiters.cancelAll();
+        });
+        resources.acquire("telemetryStreams", () -> {
+            for (final DJITelemetryStream<?> stream : telemetryStreams) {
+                stream.cancelAll();
+            }
+        });
         initDrone();
 
-        new Thread() {
+        housekeepingTask = scheduler.scheduleWithFixedDelay(new Runnable() {
             @Override
             public void run() {
-                try {
-                    while (!closed) {
-                        if (!state.initialized && state.serialNumber != null && state.name != null && state.model != null && state.firmwarePackageVersion != null) {
-                            state.initialized = true;
-                            onInitialized();
-                        }
-
-                        final Location location = state.getLocation();
-                        if (state.getLocation() != null) {
-                            if (!state.located) {
-                                state.located = true;
-                                onLocated();
-                            }
+                housekeepingPump.signal();
+            }
+        }, HousekeepingIntervalMillis);
+        resources.acquire("housekeeping", () -> housekeepingTask.cancel(false));
+    }
 
-                            if (!state.isFlying()) {
-                                state.lastKnownGroundLocation = location;
-                            }
-                        }
+    private void housekeeping() {
+        if (closed) {
+            return;
+        }
 
-                        if (!state.initVirtualStickDisabled) {
-                            final FlightController flightController = drone.getFlightController();
-                            final DatedValue<FlightControllerState> flightControllerState = state.flightControllerState;
-                            if (flightController != null && flightControllerState != null && flightControllerState.value != null) {
-                                state.initVirtualStickDisabled = true;
-                                if (flightControllerState.value.getFlightMode() != FlightMode.GPS_WAYPOINT) {
-                                    flightController.getVirtualStickModeEnabled(new CommonCallbacks.CompletionCallbackWith<Boolean>() {
-                                        @Override
-                                        public void onSuccess(final Boolean enabled) {
-                                            if (enabled) {
-                                                flightController.setVirtualStickModeEnabled(false, new CommonCallbacks.CompletionCallback() {
-                                                    @Override
-                                                    public void onResult(final DJIError djiError) {
-                                                        if (djiError == null) {
-                                                            Log.i(TAG, "Flight controller virtual stick deactivated");
-                                                        }
-                                                    }
-                                                });
-                                            }
-                                        }
+        if (!state.initialized && state.serialNumber != null && state.name != null && state.model != null && state.firmwarePackageVersion != null) {
+            onInitialized();
+        }
 
-                                        @Override
-                                        public void onFailure(final DJIError djiError) {}
-                                    });
-                                }
-                            }
-                        }
+        final Location location = state.getLocation();
+        if (location != null) {
+            if (!state.located) {
+                onLocated();
+            }
 
-                        if (remoteControllerInitialized == null) {
-                            final RemoteController remoteController = adapter.getDrone().getRemoteController();
-                            if (remoteController != null) {
-                                initRemoteController(remoteController);
+            if (!state.isFlying()) {
+                state.lastKnownGroundLocation = location;
+            }
+        }
+
+        if (!state.initVirtualStickDisabled) {
+            final FlightController flightController = adapter.getDrone().getFlightController();
+            final FlightControllerState flightControllerState = state.flightControllerState.getValue();
+            if (flightController != null && flightControllerState != null) {
+                state.initVirtualStickDisabled = true;
+                if (flightControllerState.getFlightMode() != FlightMode.GPS_WAYPOINT) {
+                    flightController.getVirtualStickModeEnabled(new CommonCallbacks.CompletionCallbackWith<Boolean>() {
+                        @Override
+                        public void onSuccess(final Boolean enabled) {
+                            if (enabled) {
+                                flightController.setVirtualStickModeEnabled(false, new CommonCallbacks.CompletionCallback() {
+                                    @Override
+                                    public void onResult(final DJIError djiError) {
+                                        if (djiError == null) {
+                                            Log.i(TAG, "Flight controller virtual stick deactivated");
+                                        }
+                                    }
+                                });
                             }
                         }
 
-                        droneCommands.process();
-                        liveStreamingCommands.process();
-                        rtkCommands.process();
-                        remoteControllerCommands.process();
-                        cameraCommands.process();
-                        gimbalCommands.process();
+                        @Override
+                        public void onFailure(final DJIError djiError) {}
+                    });
+                }
+            }
+        }
+
+        if (remoteControllerInitialized == null) {
+            final RemoteController remoteController = adapter.getDrone().getRemoteController();
+            if (remoteController != null) {
+                initRemoteController(remoteController);
+            }
+        }
 
-                        final MissionExecutor missionExecutor = Dronelink.getInstance().getMissionExecutor();
-                        final ModeExecutor modeExecutor = Dronelink.getInstance().getModeExecutor();
-                        final boolean missionExecutorEngaged = (missionExecutor != null && missionExecutor.isEngaged());
-                        if (missionExecutorEngaged || (modeExecutor != null && modeExecutor.isEngaged())) {
-                            gimbalSerialQueue.execute(new Runnable() {
-                                @Override
-                                public void run() {
-                                    //work-around for this issue: https://support.dronelink.com/hc/en-us/community/posts/360034749773-Seeming-to-have-a-Heading-error-
-                                    for (final GimbalAdapter gimbalAdapter : adapter.getGimbals()) {
-                                        //don't issue competing speed rotations, OrientationGimbalCommand always takes precedent
-                                        final CommandQueue queue = gimbalCommands.get(gimbalAdapter.getIndex());
-                                        if (queue != null) {
-                                            final Command currentCommand = queue.getCurrentCommand();
-                                            if (currentCommand != null && currentCommand.kernelCommand instanceof OrientationGimbalCommand) {
-                                                return;
-                                            }
-                                        }
+        processCommands();
 
-                                        if (gimbalAdapter instanceof DJIGimbalAdapter) {
-                                            final DJIGimbalAdapter djiGimbalAdapter = (DJIGimbalAdapter) gimbalAdapter;
-                                            Rotation.Builder rotationBuilder = djiGimbalAdapter.getPendingSpeedRotation();
-                                            djiGimbalAdapter.setPendingSpeedRotationBuilder(null);
-                                            final DatedValue<GimbalState> gimbalState = gimbalStates.get(djiGimbalAdapter.getIndex());
-                                            if (gimbalState != null) {
-                                                Double gimbalYawRelativeToAircraftHeadingCorrected = gimbalYawRelativeToAircraftHeadingCorrected(gimbalState.value);
-                                                if (gimbalYawRelativeToAircraftHeadingCorrected != null) {
-                                                    if (rotationBuilder == null) {
-                                                        rotationBuilder = new Rotation.Builder();
-                                                        rotationBuilder.mode(RotationMode.SPEED);
-                                                    }
-
-                                                    rotationBuilder.yaw((float) Math.min(Math.max(-Convert.RadiansToDegrees(gimbalYawRelativeToAircraftHeadingCorrected) * 0.25, -25.0), 25.0));
-                                                }
-                                            }
+        final MissionExecutor missionExecutor = Dronelink.getInstance().getMissionExecutor();
+        final ModeExecutor modeExecutor = Dronelink.getInstance().getModeExecutor();
+        final boolean missionExecutorEngaged = (missionExecutor != null && missionExecutor.isEngaged());
+        if (missionExecutorEngaged || (modeExecutor != null && modeExecutor.isEngaged())) {
+            gimbalSerialQueue.execute(new Runnable() {
+                @Override
+                public void run() {
+                    //work-around for this issue: https://support.dronelink.com/hc/en-us/community/posts/360034749773-Seeming-to-have-a-Heading-error-
+                    for (final GimbalAdapter gimbalAdapter : adapter.getGimbals()) {
+                        //don't issue competing speed rotations, OrientationGimbalCommand always takes precedent
+                        final CommandQueue queue = gimbalCommands.get(gimbalAdapter.getIndex());
+                        if (queue != null) {
+                            final Command currentCommand = queue.getCurrentCommand();
+                            if (currentCommand != null && currentCommand.kernelCommand instanceof OrientationGimbalCommand) {
+                                return;
+                            }
+                        }
 
-                                            if (missionExecutorEngaged && DronelinkDJI.isAdjustPitchSupported(djiGimbalAdapter.gimbal)) {
-                                                final DatedValue<Integer> remoteControllerGimbalChannel = state.remoteControllerGimbalChannel;
-                                                final int channel = remoteControllerGimbalChannel == null || remoteControllerGimbalChannel.value == null ? 0 : remoteControllerGimbalChannel.value;
-                                                if (channel == gimbalAdapter.getIndex()) {
-                                                    final DatedValue<RemoteControllerStateAdapter> remoteControllerState = getRemoteControllerState(channel);
-                                                    if (remoteControllerState != null && remoteControllerState.value != null && remoteControllerState.value.getLeftWheel().value != 0) {
-                                                        if (rotationBuilder == null) {
-                                                            rotationBuilder = new Rotation.Builder();
-                                                            rotationBuilder.mode(RotationMode.SPEED);
-                                                        }
-
-                                                        rotationBuilder.pitch((int) (remoteControllerState.value.getLeftWheel().value * 10));
-                                                    }
-                                                }
-                                            }
+                        if (gimbalAdapter instanceof DJIGimbalAdapter) {
+                            final DJIGimbalAdapter djiGimbalAdapter = (DJIGimbalAdapter) gimbalAdapter;
+                            Rotation.Builder rotationBuilder = djiGimbalAdapter.getPendingSpeedRotation();
+                            djiGimbalAdapter.setPendingSpeedRotationBuilder(null);
+                            final DatedValue<GimbalState> gimbalState = gimbalStates.get(djiGimbalAdapter.getIndex());
+                            if (gimbalState != null) {
+                                Double gimbalYawRelativeToAircraftHeadingCorrected = gimbalYawRelativeToAircraftHeadingCorrected(gimbalState.value);
+                                if (gimbalYawRelativeToAircraftHeadingCorrected != null) {
+                                    if (rotationBuilder == null) {
+                                        rotationBuilder = new Rotation.Builder();
+                                        rotationBuilder.mode(RotationMode.SPEED);
+                                    }
 
-                                            if (rotationBuilder != null) {
-                                                djiGimbalAdapter.gimbal.rotate(rotationBuilder.build(), null);
-                                            }
+                                    rotationBuilder.yaw((float) Math.min(Math.max(-Convert.RadiansToDegrees(gimbalYawRelativeToAircraftHeadingCorrected) * 0.25, -25.0), 25.0));
+                                }
+                            }
+
+                            if (missionExecutorEngaged && DronelinkDJI.isAdjustPitchSupported(djiGimbalAdapter.gimbal)) {
+                                final DatedValue<Integer> remoteControllerGimbalChannel = state.remoteControllerGimbalChannel;
+                                final int channel = remoteControllerGimbalChannel == null || remoteControllerGimbalChannel.value == null ? 0 : remoteControllerGimbalChannel.value;
+                                if (channel == gimbalAdapter.getIndex()) {
+                                    final DatedValue<RemoteControllerStateAdapter> remoteControllerState = getRemoteControllerState(channel);
+                                    if (remoteControllerState != null && remoteControllerState.value != null && remoteControllerState.value.getLeftWheel().value != 0) {
+                                        if (rotationBuilder == null) {
+                                            rotationBuilder = new Rotation.Builder();
+                                            rotationBuilder.mode(RotationMode.SPEED);
                                         }
+
+                                        rotationBuilder.pitch((int) (remoteControllerState.value.getLeftWheel().value * 10));
                                     }
                                 }
-                            });
-                        }
-                        sleep(100);
-                    }
+                            }
 
-                    final KeyManager manager = DJISDKManager.getInstance().getKeyManager();
-                    if (manager != null) {
-                        for (final KeyListener listener : djiKeyListeners) {
-                            manager.removeListener(listener);
+                            if (rotationBuilder != null) {
+                                djiGimbalAdapter.gimbal.rotate(rotationBuilder.build(), null);
+                            }
                         }
                     }
-                    Log.i(TAG, "Drone session closed");
                 }
-                catch (final InterruptedException e) {}
-            }
-        }.start();
+            });
+        }
+    }
+
+    private void processCommands() {
+        droneCommands.process();
+        liveStreamingCommands.process();
+        rtkCommands.process();
+        remoteControllerCommands.process();
+        cameraCommands.process();
+        gimbalCommands.process();
+    }
+
+    public DJILatencyHistogram getCommandExecutionLatency() {
+        return commandExecutionLatency;
+    }
+
+    public List<DJISessionScheduler.Lane> getLanes() {
+        return Arrays.asList(commandSerialQueue, listenerExecutor, stateSerialQueue, remoteControllerSerialQueue, cameraSerialQueue, gimbalSerialQueue);
     }
 
     private Double gimbalYawRelativeToAircraftHeadingCorrected(final GimbalState gimbalState) {
@@ -484,8 +646,10 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
         Log.i(TAG, "Drone session opened");
 
         VideoFeeder.getInstance().addPhysicalSourceListener(this);
+        resources.acquire("videoFeeder.physicalSourceListener", () -> VideoFeeder.getInstance().removePhysicalSourceListener(this));
 
         final Aircraft drone = adapter.getDrone();
+        resources.acquire("drone.diagnosticsInformationCallback", () -> drone.setDiagnosticsInformationCallback(null));
         drone.setDiagnosticsInformationCallback(new DJIDiagnostics.DiagnosticsInformationCallback() {
             @Override
             public void onUpdate(final List<DJIDiagnostics> list) {
@@ -607,110 +771,55 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
             public void onFailure(final DJIError djiError) {}
         });
 
+        resources.acquire("flightController.stateCallback", () -> flightController.setStateCallback(null));
+        flightControllerStateIsFlyingPrevious = false;
+        flightControllerStateAreMotorsOnPrevious = false;
+        flightControllerStateLastNonZeroFlyingAltitude = Double.NaN;
         flightController.setStateCallback(new FlightControllerState.Callback() {
-            private Double lastNonZeroFlyingAltitude = null;
-            private boolean isFlyingPrevious = false;
-            private boolean areMotorsOnPrevious = false;
-
             @Override
             public void onUpdate(@NonNull final FlightControllerState flightControllerStateUpdated) {
-                stateSerialQueue.execute(new Runnable() {
-                    @Override
-                    public void run() {
-                        if (isFlyingPrevious && !flightControllerStateUpdated.isFlying()) {
-                            if (Dronelink.getInstance().droneOffsets.droneAltitudeContinuity) {
-                                //automatically adjust the drone altitude offset if:
-                                //1) altitude continuity is enabled
-                                //2) the drone is going from flying to not flying
-                                //3) the altitude reference is ground level
-                                //4) the current drone altitude offset is not zero
-                                //5) the last flight altitude is available
-                                //6) the absolute value of last non-zero flying altitude is more than 1m
-                                if ((Dronelink.getInstance().droneOffsets.droneAltitudeReference == null || Dronelink.getInstance().droneOffsets.droneAltitudeReference == 0) &&
-                                        lastNonZeroFlyingAltitude != null && Math.abs(lastNonZeroFlyingAltitude) > 1) {
-                                    //adjust by the last non-zero flying altitude
-                                    Dronelink.getInstance().droneOffsets.droneAltitude -= lastNonZeroFlyingAltitude;
-                                }
-                            } else {
-                                Dronelink.getInstance().droneOffsets.droneAltitude = 0;
-                            }
-                        }
-
-                        state.flightControllerState = new DatedValue<>(flightControllerStateUpdated);
-                        if (areMotorsOnPrevious != flightControllerStateUpdated.areMotorsOn()) {
-                            onMotorsChanged(flightControllerStateUpdated.areMotorsOn());
-                        }
-
-                        isFlyingPrevious = flightControllerStateUpdated.isFlying();
-                        areMotorsOnPrevious = flightControllerStateUpdated.areMotorsOn();
-
-                        if (flightControllerStateUpdated.isFlying()) {
-                            if (flightControllerStateUpdated.getAircraftLocation().getAltitude() != 0) {
-                                lastNonZeroFlyingAltitude = (double)flightControllerStateUpdated.getAircraftLocation().getAltitude();
-                            }
-                        }
-                        else {
-                            lastNonZeroFlyingAltitude = null;
-                        }
-                    }
-                });
+                updateFlightControllerState(flightControllerStateUpdated);
             }
         });
 
+        resources.acquire("flightController.asbInformationCallback", () -> flightController.setASBInformationCallback(null));
         flightController.setASBInformationCallback(new AirSenseSystemInformation.Callback() {
             @Override
             public void onUpdate(@NonNull final AirSenseSystemInformation airSenseSystemInformation) {
-                stateSerialQueue.execute(new Runnable() {
-                    @Override
-                    public void run() {
-                        state.flightControllerAirSenseState = new DatedValue<>(airSenseSystemInformation);
-                    }
-                });
+                state.flightControllerAirSenseState.set(airSenseSystemInformation);
             }
         });
 
         final Compass compass = flightController.getCompass();
         if (compass != null) {
+            resources.acquire("compass.compassStateCallback", () -> compass.setCompassStateCallback(null));
             compass.setCompassStateCallback(new CompassState.Callback() {
                 @Override
                 public void onUpdate(@NonNull final CompassState compassState) {
-                    stateSerialQueue.execute(new Runnable() {
-                        @Override
-                        public void run() {
-                            state.compassState = new DatedValue<>(compassState);
-                        }
-                    });
+                    state.compassState.set(compassState);
                 }
             });
         }
 
         final Battery battery = drone.getBattery();
         if (battery != null) {
+            resources.acquire("battery.stateCallback", () -> battery.setStateCallback(null));
             battery.setStateCallback(new BatteryState.Callback() {
                 @Override
                 public void onUpdate(final BatteryState batteryState) {
-                    stateSerialQueue.execute(new Runnable() {
-                        @Override
-                        public void run() {
-                            state.batteryState = new DatedValue<>(batteryState);
-                        }
-                    });
+                    updateBatteryState(batteryState);
                 }
             });
         }
 
         final FlightAssistant flightAssistant = flightController.getFlightAssistant();
         if (flightAssistant != null) {
+            resources.acquire("flightAssistant.visionDetectionStateUpdatedCallback", () -> flightAssistant.setVisionDetectionStateUpdatedCallback(null));
             flightAssistant.setVisionDetectionStateUpdatedCallback(new VisionDetectionState.Callback() {
                 @Override
                 public void onUpdate(@NonNull final VisionDetectionState visionDetectionState) {
                     if (visionDetectionState.getPosition() == VisionSensorPosition.NOSE) {
-                        stateSerialQueue.execute(new Runnable() {
-                            @Override
-                            public void run() {
-                                state.visionDetectionState = new DatedValue<>(visionDetectionState);
-                            }
-                        });
+                        state.visionDetectionState.set(visionDetectionState);
                     }
                 }
             });
@@ -728,22 +837,104 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
 
         final AirLink airlink = adapter.getDrone().getAirLink();
         if (airlink != null) {
+            resources.acquire("airLink.uplinkSignalQualityCallback", () -> airlink.setUplinkSignalQualityCallback(null));
             airlink.setUplinkSignalQualityCallback(new SignalQualityCallback() {
                 @Override
                 public void onUpdate(int i) {
-                    state.uplinkSignalQuality = new DatedValue<>(i);
+                    updateSignalQuality(true, i);
                 }
             });
 
+            resources.acquire("airLink.downlinkSignalQualityCallback", () -> airlink.setDownlinkSignalQualityCallback(null));
             airlink.setDownlinkSignalQualityCallback(new SignalQualityCallback() {
                 @Override
                 public void onUpdate(int i) {
-                    state.downlinkSignalQuality = new DatedValue<>(i);
+                    updateSignalQuality(false, i);
                 }
             });
         }
     }
 
+    public void updateBatteryState(final BatteryState batteryState) {
+        state.batteryState.set(batteryState);
+        final DJIFlightDataRecorder flightDataRecorder = this.flightDataRecorder;
+        if (flightDataRecorder != null) {
+            flightDataRecorder.recordBatteryState(0, batteryState);
+        }
+    }
+
+    public void updateSignalQuality(final boolean uplink, final int quality) {
+        if (uplink) {
+            state.uplinkSignalQuality = new DatedValue<>(quality);
+        }
+        else {
+            state.downlinkSignalQuality = new DatedValue<>(quality);
+        }
+
+        final DJIFlightDataRecorder flightDataRecorder = this.flightDataRecorder;
+        if (flightDataRecorder != null) {
+            flightDataRecorder.recordSignalQuality(uplink, quality);
+        }
+    }
+
+    //called at the SDK's full update rate, so this runs inline and must not allocate (beyond scheduling a delivery to a subscriber that has none pending)
+    public void updateFlightControllerState(final FlightControllerState flightControllerStateUpdated) {
+        final long received = System.nanoTime();
+        final DJIFlightDataRecorder flightDataRecorder = this.flightDataRecorder;
+        if (flightDataRecorder != null) {
+            flightDataRecorder.recordFlightControllerState(flightControllerStateUpdated);
+        }
+
+        final boolean motorsChanged;
+        synchronized (state.flightControllerState) {
+            if (flightControllerStateIsFlyingPrevious && !flightControllerStateUpdated.isFlying()) {
+                if (Dronelink.getInstance().droneOffsets.droneAltitudeContinuity) {
+                    //automatically adjust the drone altitude offset if:
+                    //1) altitude continuity is enabled
+                    //2) the drone is going from flying to not flying
+                    //3) the altitude reference is ground level
+                    //4) the current drone altitude offset is not zero
+                    //5) the last flight altitude is available
+                    //6) the absolute value of last non-zero flying altitude is more than 1m
+                    if ((Dronelink.getInstance().droneOffsets.droneAltitudeReference == null || Dronelink.getInstance().droneOffsets.droneAltitudeReference == 0) &&
+                            !Double.isNaN(flightControllerStateLastNonZeroFlyingAltitude) && Math.abs(flightControllerStateLastNonZeroFlyingAltitude) > 1) {
+                        //adjust by the last non-zero flying altitude
+                        Dronelink.getInstance().droneOffsets.droneAltitude -= flightControllerStateLastNonZeroFlyingAltitude;
+                    }
+                } else {
+                    Dronelink.getInstance().droneOffsets.droneAltitude = 0;
+                }
+            }
+
+            state.flightControllerState.set(flightControllerStateUpdated);
+            addAircraftPose(received, flightControllerStateUpdated);
+            //subscribers take the state snapshot on their own lane, building it here would allocate on every update
+            flightControllerStateStream.signal();
+            adapter.getControlLatencyTracker().onFlightControllerState(flightControllerStateUpdated);
+            motorsChanged = flightControllerStateAreMotorsOnPrevious != flightControllerStateUpdated.areMotorsOn();
+            if (motorsChanged && flightControllerStateUpdated.areMotorsOn()) {
+                adapter.getControlLatencyTracker().startFlight();
+            }
+
+            flightControllerStateIsFlyingPrevious = flightControllerStateUpdated.isFlying();
+            flightControllerStateAreMotorsOnPrevious = flightControllerStateUpdated.areMotorsOn();
+
+            if (flightControllerStateUpdated.isFlying()) {
+                if (flightControllerStateUpdated.getAircraftLocation().getAltitude() != 0) {
+                    flightControllerStateLastNonZeroFlyingAltitude = flightControllerStateUpdated.getAircraftLocation().getAltitude();
+                }
+            }
+            else {
+                flightControllerStateLastNonZeroFlyingAltitude = Double.NaN;
+            }
+        }
+
+        //dispatched outside the state monitor so listeners are never queued behind (or holding up) the next update
+        if (motorsChanged) {
+            onMotorsChanged(flightControllerStateUpdated.areMotorsOn());
+        }
+    }
+
     private void initSerialNumber(final FlightController flightController, final int attempt) {
         if (attempt < 3) {
             flightController.getSerialNumber(new CommonCallbacks.CompletionCallbackWith<String>() {
@@ -776,18 +967,16 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
 
     private void initCamera(final Camera camera) {
         Log.i(TAG, String.format("Camera[%d] connected: %s", camera.getIndex(), camera.getDisplayName() == null ? "unknown" : camera.getDisplayName()));
+        observeCameraSettings(camera.getIndex());
+        resources.acquire(String.format("camera[%d].systemStateCallback", camera.getIndex()), () -> camera.setSystemStateCallback(null));
         camera.setSystemStateCallback(new SystemState.Callback() {
             @Override
             public void onUpdate(@NonNull final SystemState systemState) {
-                cameraSerialQueue.execute(new Runnable() {
-                    @Override
-                    public void run() {
-                        cameraStates.put(camera.getIndex(), new DatedValue<>(systemState));
-                    }
-                });
+                updateCameraSystemState(camera.getIndex(), systemState);
             }
         });
 
+        resources.acquire(String.format("camera[%d].videoStreamSourceCallback", camera.getIndex()), () -> camera.setCameraVideoStreamSourceCallback(null));
         camera.setCameraVideoStreamSourceCallback(new CameraVideoStreamSource.Callback() {
             @Override
             public void onUpdate(final CameraVideoStreamSource cameraVideoStreamSource) {
@@ -795,6 +984,7 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
                     @Override
                     public void run() {
                         cameraVideoStreamSources.put(camera.getIndex(), new DatedValue<>(cameraVideoStreamSource));
+                        invalidateCameraState(camera.getIndex());
                     }
                 });
             }
@@ -808,6 +998,7 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
                     @Override
                     public void run() {
                         cameraVideoStreamSources.put(camera.getIndex(), new DatedValue<>(cameraVideoStreamSource));
+                        invalidateCameraState(camera.getIndex());
                     }
                 });
             }
@@ -816,18 +1007,22 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
             public void onFailure(final DJIError djiError) {}
         });
 
+        resources.acquire(String.format("camera[%d].focusStateCallback", camera.getIndex()), () -> camera.setFocusStateCallback(null));
         camera.setFocusStateCallback(new FocusState.Callback() {
             @Override
             public void onUpdate(final FocusState focusState) {
                 cameraSerialQueue.execute(new Runnable() {
                     @Override
                     public void run() {
-                        cameraFocusStates.put(camera.getIndex() + ".0", new DatedValue<>(focusState));
+                        cameraFocusStates.put(camera.getIndex(), 0, new DatedValue<>(focusState));
+                        invalidateCameraState(camera.getIndex());
+                        evaluateCameraStateWaiters(camera.getIndex());
                     }
                 });
             }
         });
 
+        resources.acquire(String.format("camera[%d].storageStateCallback", camera.getIndex()), () -> camera.setStorageStateCallBack(null));
         camera.setStorageStateCallBack(new StorageState.Callback() {
             @Override
             public void onUpdate(final StorageState storageState) {
@@ -837,22 +1032,25 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
                         final SettingsDefinitions.StorageLocation storageLocation = storageState.getStorageLocation() == null ? SettingsDefinitions.StorageLocation.UNKNOWN : storageState.getStorageLocation();
                         Map<CameraStorageLocation, DatedValue<StorageState>> cameraStorageState = cameraStorageStates.get(camera.getIndex());
                         if (cameraStorageState == null) {
-                            cameraStorageState = new HashMap<CameraStorageLocation, DatedValue<StorageState>>();
+                            cameraStorageState = new ConcurrentHashMap<CameraStorageLocation, DatedValue<StorageState>>();
                             cameraStorageStates.put(camera.getIndex(), cameraStorageState);
                         }
                         cameraStorageState.put(DronelinkDJI.getCameraStorageLocation(storageLocation), new DatedValue<>(storageState));
+                        invalidateCameraState(camera.getIndex());
                     }
                 });
             }
         });
 
+        resources.acquire(String.format("camera[%d].exposureSettingsCallback", camera.getIndex()), () -> camera.setExposureSettingsCallback(null));
         camera.setExposureSettingsCallback(new ExposureSettings.Callback() {
             @Override
             public void onUpdate(@NonNull final ExposureSettings exposureSettings) {
                 cameraSerialQueue.execute(new Runnable() {
                     @Override
                     public void run() {
-                        cameraExposureSettings.put(camera.getIndex() + ".0", new DatedValue<>(exposureSettings));
+                        cameraExposureSettings.put(camera.getIndex(), 0, new DatedValue<>(exposureSettings));
+                        invalidateCameraState(camera.getIndex());
 
                         //KLUGE: the phantom 4 appears to be lying to us about the ev!
                         final String cameraName = camera.getDisplayName();
@@ -864,6 +1062,7 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
                                         @Override
                                         public void run() {
                                             cameraExposureCompensation.put(camera.getIndex(), new DatedValue<>(exposureCompensation));
+                                            invalidateCameraState(camera.getIndex());
                                         }
                                     });
                                 }
@@ -877,38 +1076,20 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
             }
         });
 
+        resources.acquire(String.format("camera[%d].histogramCallback", camera.getIndex()), () -> camera.setHistogramCallback(null));
         camera.setHistogramCallback(new Camera.HistogramCallback() {
             @Override
             public void onUpdate(final short[] shorts) {
-                cameraHistograms.put(camera.getIndex() + ".0", new DatedValue<>(shorts));
+                cameraHistograms.put(camera.getIndex(), 0, new DatedValue<>(shorts));
+                invalidateCameraState(camera.getIndex());
             }
         });
 
+        resources.acquire(String.format("camera[%d].mediaFileCallback", camera.getIndex()), () -> camera.setMediaFileCallback(null));
         camera.setMediaFileCallback(new MediaFile.Callback() {
             @Override
             public void onNewFile(@NonNull final MediaFile mediaFile) {
-                listenerExecutor.execute(new Runnable() {
-                    @Override
-                    public void run() {
-                        Orientation3 orientation = state.getOrientation();
-                        final DatedValue<GimbalStateAdapter> gimbalState = getGimbalState(camera.getIndex());
-                        if (gimbalState != null) {
-                            orientation.x = gimbalState.value.getOrientation().x;
-                            orientation.y = gimbalState.value.getOrientation().y;
-                            if (gimbalState.value.getMode() == GimbalMode.FREE) {
-                                orientation.z = gimbalState.value.getOrientation().z;
-                            }
-                        } else {
-                            orientation.x = 0.0;
-                            orientation.y = 0.0;
-                        }
-
-                        final DatedValue<DroneStateAdapter> state = getState();
-                        final DJICameraFile cameraFile = new DJICameraFile(camera.getIndex(), mediaFile, state.value.getLocation(), state.value.getAltitude(), orientation);
-                        mostRecentCameraFile = new DatedValue<CameraFile>(cameraFile);
-                        onCameraFileGenerated(cameraFile);
-                    }
-                });
+                updateCameraMediaFile(camera.getIndex(), mediaFile);
             }
         });
 
@@ -938,6 +1119,7 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
                     @Override
                     public void run() {
                         cameraLensInformation.put(camera.getIndex(), new DatedValue<>(info));
+                        invalidateCameraState(camera.getIndex());
                     }
                 });
             }
@@ -948,25 +1130,30 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
 
         if (camera.getLenses() != null) {
             for (final Lens lens : camera.getLenses()) {
+                resources.acquire(String.format("camera[%d].lens[%d].focusStateCallback", camera.getIndex(), lens.getIndex()), () -> lens.setFocusStateCallback(null));
                 lens.setFocusStateCallback(new FocusState.Callback() {
                     @Override
                     public void onUpdate(@NonNull final FocusState focusState) {
                         cameraSerialQueue.execute(new Runnable() {
                             @Override
                             public void run() {
-                                cameraFocusStates.put(camera.getIndex() + "." + lens.getIndex(), new DatedValue<>(focusState));
+                                cameraFocusStates.put(camera.getIndex(), lens.getIndex(), new DatedValue<>(focusState));
+                                invalidateCameraState(camera.getIndex());
+                                evaluateCameraStateWaiters(camera.getIndex());
                             }
                         });
                     }
                 });
 
+                resources.acquire(String.format("camera[%d].lens[%d].exposureSettingsCallback", camera.getIndex(), lens.getIndex()), () -> lens.setExposureSettingsCallback(null));
                 lens.setExposureSettingsCallback(new ExposureSettings.Callback() {
                     @Override
                     public void onUpdate(@NonNull final ExposureSettings exposureSettings) {
                         cameraSerialQueue.execute(new Runnable() {
                             @Override
                             public void run() {
-                                cameraExposureSettings.put(camera.getIndex() + "." + lens.getIndex(), new DatedValue<>(exposureSettings));
+                                cameraExposureSettings.put(camera.getIndex(), lens.getIndex(), new DatedValue<>(exposureSettings));
+                                invalidateCameraState(camera.getIndex());
                             }
                         });
                     }
@@ -1019,17 +1206,179 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
         });
     }
 
-    private void initGimbal(final Gimbal gimbal) {
-        Log.i(TAG, String.format("Gimbal[%d] connected", gimbal.getIndex()));
-        gimbal.setStateCallback(new GimbalState.Callback() {
+    public void updateCameraSystemState(final int channel, final SystemState systemState) {
+        final long received = System.nanoTime();
+        final DJIFlightDataRecorder flightDataRecorder = this.flightDataRecorder;
+        if (flightDataRecorder != null) {
+            flightDataRecorder.recordCameraSystemState(channel, systemState);
+        }
+
+        cameraSerialQueue.execute(new Runnable() {
             @Override
-            public void onUpdate(@NonNull final GimbalState gimbalState) {
-                gimbalSerialQueue.execute(new Runnable() {
+            public void run() {
+                final DatedValue<SystemState> previous = cameraStates.get(channel);
+                if (isShootingPhoto(systemState) && (previous == null || !isShootingPhoto(previous.value))) {
+                    cameraShutterNanos.put(channel, received);
+                }
+                cameraStates.put(channel, new DatedValue<>(systemState));
+                invalidateCameraState(channel);
+                evaluateCameraStateWaiters(channel);
+                final DJITelemetryStream<DatedValue<CameraStateAdapter>> cameraStateStream = cameraStateStreams.get(channel);
+                if (cameraStateStream != null && cameraStateStream.hasSubscribers()) {
+                    cameraStateStream.publish(getCameraState(channel));
+                }
+                final DJIPhotoCapturePipeline photoCapturePipeline = photoCapturePipelines.get(channel);
+                if (photoCapturePipeline != null) {
+                    photoCapturePipeline.onCameraStateUpdated();
+                }
+                commandPump.signal();
+            }
+        });
+    }
+
+    public void updateCameraMediaFile(final int channel, final MediaFile mediaFile) {
+        final long received = System.nanoTime();
+        listenerExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                final DJICameraFile cameraFile = createCameraFile(channel, mediaFile, received);
+                mostRecentCameraFile = new DatedValue<CameraFile>(cameraFile);
+                final DJIPhotoCapturePipeline photoCapturePipeline = photoCapturePipelines.get(channel);
+                if (photoCapturePipeline != null && isPhoto(mediaFile)) {
+                    photoCapturePipeline.onFileGenerated(received, getFileStem(mediaFile));
+                }
+                cameraSerialQueue.execute(new Runnable() {
                     @Override
                     public void run() {
-                        gimbalStates.put(gimbal.getIndex(), new DatedValue<>(gimbalState));
+                        evaluateCameraStateWaiters(channel);
                     }
                 });
+                onCameraFileGenerated(cameraFile);
+            }
+        });
+    }
+
+    private static boolean isShootingPhoto(final SystemState systemState) {
+        return systemState.isShootingSinglePhoto() || systemState.isShootingSinglePhotoInRAWFormat();
+    }
+
+    //called with the flight controller state lock held, so one writer at a time
+    private void addAircraftPose(final long nanos, final FlightControllerState flightControllerState) {
+        final LocationCoordinate3D location = flightControllerState.getAircraftLocation();
+        final Attitude attitude = flightControllerState.getAttitude();
+        if (location == null || attitude == null) {
+            return;
+        }
+
+        final boolean locationValid = flightControllerState.getSatelliteCount() > 0
+                && !(Math.abs(location.getLatitude()) < 0.000001 && Math.abs(location.getLongitude()) < 0.000001);
+        aircraftPose[0] = locationValid ? location.getLatitude() : Double.NaN;
+        aircraftPose[1] = locationValid ? location.getLongitude() : Double.NaN;
+        aircraftPose[2] = location.getAltitude();
+        aircraftPose[3] = Convert.DegreesToRadians(attitude.pitch);
+        aircraftPose[4] = Convert.DegreesToRadians(attitude.roll);
+        aircraftPose[5] = Convert.DegreesToRadians(attitude.yaw);
+        aircraftPoseHistory.add(nanos, aircraftPose);
+    }
+
+    //only called on the gimbal lane
+    private void addGimbalPose(final long nanos, final int channel, final GimbalState gimbalState) {
+        final dji.common.gimbal.Attitude attitude = gimbalState.getAttitudeInDegrees();
+        if (attitude == null) {
+            return;
+        }
+
+        DJIPoseHistory history = gimbalPoseHistories.get(channel);
+        if (history == null) {
+            history = new DJIPoseHistory(PoseHistoryCapacity, new boolean[] { true, true, true }, PoseHistoryMaxGapMillis);
+            gimbalPoseHistories.put(channel, history);
+        }
+
+        gimbalPose[0] = Convert.DegreesToRadians(attitude.getPitch());
+        gimbalPose[1] = Convert.DegreesToRadians(attitude.getRoll());
+        gimbalPose[2] = Convert.DegreesToRadians(attitude.getYaw());
+        history.add(nanos, gimbalPose);
+    }
+
+    //tags the file with the poses from when the camera started the photo (or when the file arrived if that wasn't seen),
+    //falling back to the latest state if the histories don't reach that far
+    private static boolean isPhoto(final MediaFile mediaFile) {
+        final MediaFile.MediaType type = mediaFile.getMediaType();
+        return type == MediaFile.MediaType.JPEG || type == MediaFile.MediaType.RAW_DNG || type == MediaFile.MediaType.TIFF;
+    }
+
+    private static String getFileStem(final MediaFile mediaFile) {
+        final String name = mediaFile.getFileName();
+        if (name == null) {
+            return null;
+        }
+
+        final int extension = name.lastIndexOf('.');
+        return extension < 0 ? name : name.substring(0, extension);
+    }
+
+    private DJICameraFile createCameraFile(final int channel, final MediaFile mediaFile, final long received) {
+        long captured = received;
+        final Long shutter = cameraShutterNanos.get(channel);
+        if (shutter != null) {
+            cameraShutterNanos.put(channel, null);
+            if (shutter <= received && received - shutter <= CameraShutterMaxAgeMillis * 1000000L) {
+                captured = shutter;
+            }
+        }
+
+        final double[] aircraft = new double[6];
+        if (!aircraftPoseHistory.get(captured, aircraft)) {
+            final DatedValue<DroneStateAdapter> state = getState();
+            final Location location = state.value.getLocation();
+            final Orientation3 orientation = state.value.getOrientation();
+            aircraft[0] = location == null ? Double.NaN : location.getLatitude();
+            aircraft[1] = location == null ? Double.NaN : location.getLongitude();
+            aircraft[2] = state.value.getAltitude();
+            aircraft[3] = orientation.x;
+            aircraft[4] = orientation.y;
+            aircraft[5] = orientation.z;
+        }
+
+        final Orientation3 orientation = new Orientation3();
+        orientation.x = 0.0;
+        orientation.y = 0.0;
+        orientation.z = aircraft[5];
+        final DatedValue<GimbalState> gimbalState = gimbalStates.get(channel);
+        if (gimbalState != null) {
+            final double[] gimbal = new double[3];
+            final DJIPoseHistory history = gimbalPoseHistories.get(channel);
+            if (history == null || !history.get(captured, gimbal)) {
+                final Orientation3 gimbalOrientation = new DJIGimbalStateAdapter(gimbalState.value).getOrientation();
+                gimbal[0] = gimbalOrientation.x;
+                gimbal[1] = gimbalOrientation.y;
+                gimbal[2] = gimbalOrientation.z;
+            }
+
+            orientation.x = gimbal[0];
+            orientation.y = gimbal[1];
+            if (gimbalState.value.getMode() == dji.common.gimbal.GimbalMode.FREE) {
+                orientation.z = gimbal[2];
+            }
+        }
+
+        Location location = null;
+        if (!Double.isNaN(aircraft[0]) && !Double.isNaN(aircraft[1])) {
+            location = new Location("");
+            location.setLatitude(aircraft[0]);
+            location.setLongitude(aircraft[1]);
+        }
+
+        return new DJICameraFile(channel, mediaFile, location, aircraft[2], orientation);
+    }
+
+    private void initGimbal(final Gimbal gimbal) {
+        Log.i(TAG, String.format("Gimbal[%d] connected", gimbal.getIndex()));
+        resources.acquire(String.format("gimbal[%d].stateCallback", gimbal.getIndex()), () -> gimbal.setStateCallback(null));
+        gimbal.setStateCallback(new GimbalState.Callback() {
+            @Override
+            public void onUpdate(@NonNull final GimbalState gimbalState) {
+                updateGimbalState(gimbal.getIndex(), gimbalState);
             }
         });
 
@@ -1053,20 +1402,41 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
         });
     }
 
+    public void updateGimbalState(final int channel, final GimbalState gimbalState) {
+        final long received = System.nanoTime();
+        final DJIFlightDataRecorder flightDataRecorder = this.flightDataRecorder;
+        if (flightDataRecorder != null) {
+            flightDataRecorder.recordGimbalState(channel, gimbalState);
+        }
+
+        gimbalSerialQueue.execute(new Runnable() {
+            @Override
+            public void run() {
+                gimbalStates.put(channel, new DatedValue<>(gimbalState));
+                addGimbalPose(received, channel, gimbalState);
+                if (gimbalStateWaiters.isWaiting(channel)) {
+                    gimbalStateWaiters.evaluate(channel, getGimbalState(channel));
+                }
+                final DJITelemetryStream<DatedValue<GimbalStateAdapter>> gimbalStateStream = gimbalStateStreams.get(channel);
+                if (gimbalStateStream != null && gimbalStateStream.hasSubscribers()) {
+                    gimbalStateStream.publish(getGimbalState(channel));
+                }
+                commandPump.signal();
+            }
+        });
+    }
+
     private void initRemoteController(final RemoteController remoteController) {
         remoteControllerInitialized = new Date();
+        resources.acquire("remoteController.hardwareStateCallback", () -> remoteController.setHardwareStateCallback(null));
         remoteController.setHardwareStateCallback(new HardwareState.HardwareStateCallback() {
             @Override
             public void onUpdate(@NonNull final HardwareState hardwareState) {
-                remoteControllerSerialQueue.execute(new Runnable() {
-                    @Override
-                    public void run() {
-                        remoteControllerState = new DatedValue<>(hardwareState);
-                    }
-                });
+                updateRemoteControllerHardwareState(hardwareState);
             }
         });
 
+        resources.acquire("remoteController.gpsDataCallback", () -> remoteController.setGPSDataCallback(null));
         remoteController.setGPSDataCallback(new GPSData.Callback() {
             @Override
             public void onUpdate(@NonNull final GPSData gpsData) {
@@ -1075,6 +1445,73 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
         });
     }
 
+    public void updateRemoteControllerHardwareState(final HardwareState hardwareState) {
+        final DJIFlightDataRecorder flightDataRecorder = this.flightDataRecorder;
+        if (flightDataRecorder != null) {
+            flightDataRecorder.recordRemoteControllerHardwareState(hardwareState);
+        }
+
+        remoteControllerSerialQueue.execute(new Runnable() {
+            @Override
+            public void run() {
+                remoteControllerState = new DatedValue<>(hardwareState);
+                if (remoteControllerStateStream.hasSubscribers()) {
+                    remoteControllerStateStream.publish(getRemoteControllerState(0));
+                }
+            }
+        });
+    }
+
+    public synchronized DJIFlightDataRecorder startRecordingFlightData(final File directory) throws IOException {
+        if (flightDataRecorder != null) {
+            return flightDataRecorder;
+        }
+
+        final DJIFlightDataRecorder flightDataRecorder = new DJIFlightDataRecorder(directory).start();
+        resources.acquire("flightDataRecorder", () -> {
+            this.flightDataRecorder = null;
+            flightDataRecorder.stop();
+        });
+        this.flightDataRecorder = flightDataRecorder;
+        return flightDataRecorder;
+    }
+
+    public void stopRecordingFlightData() {
+        resources.release("flightDataRecorder");
+    }
+
+    //stick commands stream from a fixed rate sender until stopped instead of going out on the caller's schedule
+    public synchronized DJIVirtualStickSender startVirtualStickSender(final double rateHz) {
+        final DJIVirtualStickSender existing = adapter.getVirtualStickSender();
+        if (existing != null) {
+            return existing;
+        }
+
+        //the sender never goes faster than the model's rate limit allows
+        final long minIntervalMillis = DJICommandRateLimiter.getVirtualStickMinIntervalMillis(adapter.getDrone().getModel());
+        final double maxRateHz = minIntervalMillis > 0 ? 1000.0 / minIntervalMillis : rateHz;
+        final DJIVirtualStickSender virtualStickSender = new DJIVirtualStickSender(adapter.getDrone(), Math.min(rateHz, maxRateHz), DJIVirtualStickSender.DefaultStaleMillis).start();
+        resources.acquire("virtualStickSender", () -> {
+            adapter.setVirtualStickSender(null);
+            virtualStickSender.stop();
+        });
+        adapter.setVirtualStickSender(virtualStickSender);
+        return virtualStickSender;
+    }
+
+    public void stopVirtualStickSender() {
+        resources.release("virtualStickSender");
+    }
+
+    public DJIControlLatencyTracker getControlLatencyTracker() {
+        return adapter.getControlLatencyTracker();
+    }
+
+    //control latency histograms for the most recent flights of this session
+    public JSONObject exportControlLatency() throws JSONException {
+        return adapter.getControlLatencyTracker().toJSON();
+    }
+
     private void initListeners() {
         startListeningForChanges(FlightControllerKey.create(FlightControllerKey.MAX_FLIGHT_HEIGHT), (oldValue, newValue) -> stateSerialQueue.execute(() -> {
             if (newValue instanceof Integer)
@@ -1094,6 +1531,10 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
                 state.lowBatteryWarningThreshold = null;
         }));
 
+        //only observed so the settings cache stays current
+        startListeningForChanges(FlightControllerKey.create(FlightControllerKey.MAX_FLIGHT_RADIUS), (oldValue, newValue) -> {});
+        startListeningForChanges(FlightControllerKey.create(FlightControllerKey.GO_HOME_HEIGHT_IN_METERS), (oldValue, newValue) -> {});
+
         startListeningForChanges(AirLinkKey.createLightbridgeLinkKey(AirLinkKey.LB_FREQUENCY_BAND), (oldValue, newValue) -> {
             state.lightbridgeFrequencyBand = newValue == null ? null : new DatedValue<>((LightbridgeFrequencyBand)newValue);
         });
@@ -1102,63 +1543,63 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
             state.ocuSyncFrequencyBand = newValue == null ? null : new DatedValue<>((OcuSyncFrequencyBand)newValue);
         });
 
-        startListeningForChanges(CameraKey.create(CameraKey.EXPOSURE_MODE), (oldValue, newValue) -> {
+        startListeningForCameraChanges(CameraKey.create(CameraKey.EXPOSURE_MODE), (oldValue, newValue) -> {
             exposureMode = newValue == null ? null : new DatedValue<>((SettingsDefinitions.ExposureMode)newValue);
         });
 
-        startListeningForChanges(CameraKey.create(CameraKey.CAMERA_STORAGE_LOCATION), (oldValue, newValue) -> {
+        startListeningForCameraChanges(CameraKey.create(CameraKey.CAMERA_STORAGE_LOCATION), (oldValue, newValue) -> {
             storageLocation = newValue == null ? null : new DatedValue<>((SettingsDefinitions.StorageLocation)newValue);
         });
 
-        startListeningForChanges(CameraKey.create(CameraKey.SHOOT_PHOTO_MODE), (oldValue, newValue) -> {
+        startListeningForCameraChanges(CameraKey.create(CameraKey.SHOOT_PHOTO_MODE), (oldValue, newValue) -> {
             photoMode = newValue == null ? null : new DatedValue<>((SettingsDefinitions.ShootPhotoMode)newValue);
         });
 
-        startListeningForChanges(CameraKey.create(CameraKey.PHOTO_ASPECT_RATIO), (oldValue, newValue) -> {
+        startListeningForCameraChanges(CameraKey.create(CameraKey.PHOTO_ASPECT_RATIO), (oldValue, newValue) -> {
             photoAspectRatio = newValue == null ? null : new DatedValue<>((SettingsDefinitions.PhotoAspectRatio)newValue);
         });
 
-        startListeningForChanges(CameraKey.create(CameraKey.PHOTO_BURST_COUNT), (oldValue, newValue) -> {
+        startListeningForCameraChanges(CameraKey.create(CameraKey.PHOTO_BURST_COUNT), (oldValue, newValue) -> {
             burstCount = newValue == null ? null : new DatedValue<>((SettingsDefinitions.PhotoBurstCount)newValue);
         });
 
-        startListeningForChanges(CameraKey.create(CameraKey.PHOTO_AEB_COUNT), (oldValue, newValue) -> {
+        startListeningForCameraChanges(CameraKey.create(CameraKey.PHOTO_AEB_COUNT), (oldValue, newValue) -> {
             aebCount = newValue == null ? null : new DatedValue<>((SettingsDefinitions.PhotoAEBCount)newValue);
         });
 
-        startListeningForChanges(CameraKey.create(CameraKey.PHOTO_TIME_INTERVAL_SETTINGS), (oldValue, newValue) -> {
+        startListeningForCameraChanges(CameraKey.create(CameraKey.PHOTO_TIME_INTERVAL_SETTINGS), (oldValue, newValue) -> {
             photoTimeIntervalSettings = newValue == null ? null : new DatedValue<>((SettingsDefinitions.PhotoTimeIntervalSettings)newValue);
         });
 
-        startListeningForChanges(CameraKey.create(CameraKey.PHOTO_FILE_FORMAT), (oldValue, newValue) -> {
+        startListeningForCameraChanges(CameraKey.create(CameraKey.PHOTO_FILE_FORMAT), (oldValue, newValue) -> {
             photoFileFormat = newValue == null ? null : new DatedValue<>((SettingsDefinitions.PhotoFileFormat)newValue);
         });
 
-        startListeningForChanges(CameraKey.create(CameraKey.VIDEO_FILE_FORMAT), (oldValue, newValue) -> {
+        startListeningForCameraChanges(CameraKey.create(CameraKey.VIDEO_FILE_FORMAT), (oldValue, newValue) -> {
             videoFileFormat = newValue == null ? null : new DatedValue<>((SettingsDefinitions.VideoFileFormat)newValue);
         });
 
-        startListeningForChanges(CameraKey.create(CameraKey.RESOLUTION_FRAME_RATE), (oldValue, newValue) -> {
+        startListeningForCameraChanges(CameraKey.create(CameraKey.RESOLUTION_FRAME_RATE), (oldValue, newValue) -> {
             videoResolutionAndFrameRate = newValue == null ? null : new DatedValue<>((ResolutionAndFrameRate) newValue);
         });
 
-        startListeningForChanges(CameraKey.create(CameraKey.WHITE_BALANCE), (oldValue, newValue) -> {
+        startListeningForCameraChanges(CameraKey.create(CameraKey.WHITE_BALANCE), (oldValue, newValue) -> {
             whiteBalance = newValue == null ? null : new DatedValue<>((WhiteBalance)newValue);
         });
 
-        startListeningForChanges(CameraKey.create(CameraKey.ISO), (oldValue, newValue) -> {
+        startListeningForCameraChanges(CameraKey.create(CameraKey.ISO), (oldValue, newValue) -> {
             iso = newValue == null ? null : new DatedValue<>((SettingsDefinitions.ISO) newValue);
         });
 
-        startListeningForChanges(CameraKey.create(CameraKey.SHUTTER_SPEED), (oldValue, newValue) -> {
+        startListeningForCameraChanges(CameraKey.create(CameraKey.SHUTTER_SPEED), (oldValue, newValue) -> {
             shutterSpeed = newValue == null ? null : new DatedValue<>((SettingsDefinitions.ShutterSpeed) newValue);
         });
 
-        startListeningForChanges(CameraKey.create(CameraKey.FOCUS_MODE), (oldValue, newValue) -> {
+        startListeningForCameraChanges(CameraKey.create(CameraKey.FOCUS_MODE), (oldValue, newValue) -> {
             focusMode = newValue == null ? null : new DatedValue<>((SettingsDefinitions.FocusMode)newValue);
         });
 
-        startListeningForChanges(CameraKey.create(CameraKey.FOCUS_RING_VALUE), (oldValue, newValue) -> {
+        startListeningForCameraChanges(CameraKey.create(CameraKey.FOCUS_RING_VALUE), (oldValue, newValue) -> {
             if (newValue instanceof Integer) {
                 focusRingValue = new DatedValue<>(((Integer) newValue).doubleValue());
             }
@@ -1167,7 +1608,7 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
             }
         });
 
-        startListeningForChanges(CameraKey.create(CameraKey.FOCUS_RING_VALUE_UPPER_BOUND), (oldValue, newValue) -> {
+        startListeningForCameraChanges(CameraKey.create(CameraKey.FOCUS_RING_VALUE_UPPER_BOUND), (oldValue, newValue) -> {
             if (newValue instanceof Integer) {
                 focusRingMax = new DatedValue<>(((Integer) newValue).doubleValue());
             }
@@ -1176,7 +1617,7 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
             }
         });
 
-        startListeningForChanges(CameraKey.create(CameraKey.HYBRID_ZOOM_FOCAL_LENGTH), (oldValue, newValue) -> {
+        startListeningForCameraChanges(CameraKey.create(CameraKey.HYBRID_ZOOM_FOCAL_LENGTH), (oldValue, newValue) -> {
             if (newValue instanceof Integer) {
                 zoomValue = new DatedValue<>(((Integer) newValue).doubleValue());
             }
@@ -1185,7 +1626,7 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
             }
         });
 
-        startListeningForChanges(CameraKey.create(CameraKey.HYBRID_ZOOM_SPEC), (oldValue, newValue) -> {
+        startListeningForCameraChanges(CameraKey.create(CameraKey.HYBRID_ZOOM_SPEC), (oldValue, newValue) -> {
             final SettingsDefinitions.HybridZoomSpec zoomSpecification = newValue == null ? null : (SettingsDefinitions.HybridZoomSpec) newValue;
             if (zoomSpecification != null) {
                 hybridZoomSpecification = new DatedValue<>(zoomSpecification);
@@ -1194,11 +1635,11 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
             }
         });
 
-        startListeningForChanges(CameraKey.create(CameraKey.METERING_MODE), (oldValue, newValue) -> {
+        startListeningForCameraChanges(CameraKey.create(CameraKey.METERING_MODE), (oldValue, newValue) -> {
             meteringMode = newValue == null ? null : new DatedValue<>((SettingsDefinitions.MeteringMode)newValue);
         });
 
-        startListeningForChanges(CameraKey.create(CameraKey.AE_LOCK), (oldValue, newValue) -> {
+        startListeningForCameraChanges(CameraKey.create(CameraKey.AE_LOCK), (oldValue, newValue) -> {
             if (newValue instanceof Boolean) {
                 autoExposureLock = new DatedValue<>(((Boolean) newValue));
             }
@@ -1231,14 +1672,47 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
         });
     }
 
-    private void startListeningForChanges(final DJIKey key, final KeyListener listener) {
+    private void startListeningForCameraChanges(final DJIKey key, final KeyListener listener) {
+        startListeningForChanges(key, (oldValue, newValue) -> {
+            listener.onValueChange(oldValue, newValue);
+            cameraStateCache.invalidateAll();
+        });
+    }
+
+    //keeps the settings cache current for the other cameras, once per index since the listeners outlive a reconnect
+    private void observeCameraSettings(final int index) {
+        if (index == 0 || !observedCameraSettingIndexes.add(index)) {
+            return;
+        }
+
+        for (final String key : ObservedCameraSettingKeys) {
+            startListeningForChanges(CameraKey.create(key, index), (oldValue, newValue) -> {});
+        }
+    }
+
+    public void updateKeyValue(final DJIKey key, final Object value) {
+        for (int i = 0; i < djiKeys.size(); i++) {
+            if (djiKeys.get(i).equals(key)) {
+                djiKeyListeners.get(i).onValueChange(null, value);
+            }
+        }
+    }
+
+    private void startListeningForChanges(final DJIKey key, final KeyListener keyListener) {
+        final KeyListener listener = (oldValue, newValue) -> {
+            settingsCache.observe(key, newValue);
+            keyListener.onValueChange(oldValue, newValue);
+        };
+        //listener first, updateKeyValue walks the keys and expects a listener at each index
         djiKeyListeners.add(listener);
+        djiKeys.add(key);
         final KeyManager manager = DJISDKManager.getInstance().getKeyManager();
         if (manager == null) {
             return;
         }
 
         manager.addListener(key, listener);
+        resources.acquire(String.format("keyManager.listener[%d]", djiKeyListeners.indexOf(listener)), () -> manager.removeListener(listener));
         manager.getValue(key, new GetCallback() {
             @Override
             public void onSuccess(@NonNull final Object newValue) {
@@ -1270,39 +1744,29 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
     public void componentDisconnected(final BaseComponent component) {
         if (component instanceof FlightController) {
             Log.i(TAG, "Flight controller disconnected");
-            stateSerialQueue.execute(new Runnable() {
-                @Override
-                public void run() {
-                    state.flightControllerState = null;
-                    state.visionDetectionState = null;
-                }
-            });
+            settingsCache.clear();
+            state.flightControllerState.clear();
+            state.visionDetectionState.clear();
         }
         else if (component instanceof Camera) {
             final Camera camera = (Camera)component;
+            settingsCache.clear();
             cameraSerialQueue.execute(new Runnable() {
                 @Override
                 public void run() {
                     cameraStates.put(camera.getIndex(), null);
-                    cameraVideoStreamSources.put(camera.getIndex(), null);
-                    for (final String key : cameraFocusStates.keySet().toArray(new String[]{})) {
-                        if (key.startsWith(camera.getIndex() + ".")) {
-                            cameraFocusStates.remove(key);
-                        }
+                    final DJIPhotoCapturePipeline photoCapturePipeline = photoCapturePipelines.get(camera.getIndex());
+                    if (photoCapturePipeline != null) {
+                        photoCapturePipeline.clear(new CommandError(context.getString(R.string.MissionDisengageReason_drone_camera_unavailable_title)));
                     }
+                    cameraVideoStreamSources.put(camera.getIndex(), null);
+                    cameraFocusStates.clear(camera.getIndex());
                     cameraStorageStates.put(camera.getIndex(), null);
-                    for (final String key : cameraExposureSettings.keySet().toArray(new String[]{})) {
-                        if (key.startsWith(camera.getIndex() + ".")) {
-                            cameraExposureSettings.remove(key);
-                        }
-                    }
+                    cameraExposureSettings.clear(camera.getIndex());
                     cameraExposureCompensation.put(camera.getIndex(), null);
-                    for (final String key : cameraHistograms.keySet().toArray(new String[]{})) {
-                        if (key.startsWith(camera.getIndex() + ".")) {
-                            cameraHistograms.remove(key);
-                        }
-                    }
+                    cameraHistograms.clear(camera.getIndex());
                     cameraLensInformation.put(camera.getIndex(), null);
+                    invalidateCameraState(camera.getIndex());
                 }
             });
             Log.i(TAG, String.format("Camera[%d] disconnected", camera.getIndex()));
@@ -1335,31 +1799,11 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
 
     @Override
     public DatedValue<DroneStateAdapter> getState() {
-        try {
-            return stateSerialQueue.submit(new Callable<DatedValue<DroneStateAdapter>>() {
-                @Override
-                public DatedValue<DroneStateAdapter> call() {
-                    return state.toDatedValue();
-                }
-            }).get();
-        }
-        catch (final ExecutionException | InterruptedException e) {
-            return null;
-        }
+        return state.toDatedValue();
     }
 
     public DatedValue<FlightControllerState> getFlightControllerState() {
-        try {
-            return stateSerialQueue.submit(new Callable<DatedValue<FlightControllerState>>() {
-                @Override
-                public DatedValue<FlightControllerState> call() {
-                    return state.flightControllerState;
-                }
-            }).get();
-        }
-        catch (final ExecutionException | InterruptedException e) {
-            return null;
-        }
+        return state.flightControllerState.get();
     }
 
     @Override
@@ -1427,8 +1871,8 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
             return new Message(context.getString(R.string.MissionDisengageReason_drone_control_unavailable_title));
         }
 
-        final DatedValue<FlightControllerState> flightControllerState = state.flightControllerState;
-        if (flightControllerState == null || flightControllerState.value == null) {
+        final FlightControllerState flightControllerState = state.flightControllerState.getValue();
+        if (flightControllerState == null) {
             return new Message(context.getString(R.string.DJIDroneSession_telemetry_unavailable));
         }
 
@@ -1436,11 +1880,11 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
             return new Message(context.getString(R.string.MissionDisengageReason_telemetry_delayed_title), context.getString(R.string.MissionDisengageReason_telemetry_delayed_details));
         }
 
-        if (flightControllerState.value.hasReachedMaxFlightHeight()) {
+        if (flightControllerState.hasReachedMaxFlightHeight()) {
             return new Message(context.getString(R.string.MissionDisengageReason_drone_max_altitude_title), context.getString(R.string.MissionDisengageReason_drone_max_altitude_details));
         }
 
-        if (flightControllerState.value.hasReachedMaxFlightRadius()) {
+        if (flightControllerState.hasReachedMaxFlightRadius()) {
             return new Message(context.getString(R.string.MissionDisengageReason_drone_max_distance_title), context.getString(R.string.MissionDisengageReason_drone_max_distance_details));
         }
 
@@ -1455,174 +1899,532 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
     @Override
     public void addListener(final Listener listener) {
         final DroneSession self = this;
-        listenerExecutor.execute(new Runnable() {
-            @Override
-            public void run() {
-                listeners.add(listener);
+        //paired with onInitialized and onLocated so a new listener hears about each exactly once
+        //(only events are queued while the monitor is held, listeners are called later on their own threads)
+        synchronized (listeners) {
+            final boolean initialized = state.initialized;
+            final boolean located = state.located;
+            listeners.add(listener, new DJIListenerRegistry.Event<Listener>() {
+                @Override
+                public void dispatch(final Listener listener) {
+                    if (initialized) {
+                        listener.onInitialized(self);
+                    }
+
+                    if (located) {
+                        listener.onLocated(self);
+                    }
+                }
+            });
+        }
+    }
+
+    private <V> DJITelemetryStream<V> createTelemetryStream(final String name) {
+        final DJITelemetryStream<V> stream = new DJITelemetryStream<>(name);
+        telemetryStreams.add(stream);
+        return stream;
+    }
+
+    private <V> DJITelemetryStream<V> getTelemetryStream(final DJIChannelStateStore<DJITelemetryStream<V>> streams, final String name, final int channel) {
+        synchronized (streams) {
+            DJITelemetryStream<V> stream = streams.get(channel);
+            if (stream == null) {
+                stream = createTelemetryStream(String.format(Locale.US, "%s[%d]", name, channel));
+                streams.put(channel, stream);
+            }
+            return stream;
+        }
+    }
+
+    //each subscriber gets updates on its own lane, at most maxRateHz (<= 0 for every update it keeps up with),
+    //and only the latest value if it falls behind, so a slow subscriber never holds up the session or other subscribers
+    public DJITelemetryStream<DatedValue<DroneStateAdapter>>.Subscription subscribeFlightControllerState(final DJITelemetryStream.Subscriber<DatedValue<DroneStateAdapter>> subscriber, final double maxRateHz) {
+        return flightControllerStateStream.subscribe(subscriber, maxRateHz);
+    }
+
+    public DJITelemetryStream<DatedValue<RemoteControllerStateAdapter>>.Subscription subscribeRemoteControllerState(final DJITelemetryStream.Subscriber<DatedValue<RemoteControllerStateAdapter>> subscriber, final double maxRateHz) {
+        return remoteControllerStateStream.subscribe(subscriber, maxRateHz);
+    }
+
+    public DJITelemetryStream<DatedValue<CameraStateAdapter>>.Subscription subscribeCameraState(final int channel, final DJITelemetryStream.Subscriber<DatedValue<CameraStateAdapter>> subscriber, final double maxRateHz) {
+        return getTelemetryStream(cameraStateStreams, "camera", channel).subscribe(subscriber, maxRateHz);
+    }
 
-                if (state.initialized) {
+    public DJITelemetryStream<DatedValue<GimbalStateAdapter>>.Subscription subscribeGimbalState(final int channel, final DJITelemetryStream.Subscriber<DatedValue<GimbalStateAdapter>> subscriber, final double maxRateHz) {
+        return getTelemetryStream(gimbalStateStreams, "gimbal", channel).subscribe(subscriber, maxRateHz);
+    }
+
+    @Override
+    public void removeListener(final Listener listener) {
+        listeners.remove(listener);
+    }
+
+    private void onInitialized() {
+        final DJIDroneSession self = this;
+        synchronized (listeners) {
+            state.initialized = true;
+            listeners.dispatch(new DJIListenerRegistry.Event<Listener>() {
+                @Override
+                public void dispatch(final Listener listener) {
                     listener.onInitialized(self);
                 }
+            });
+        }
+    }
 
-                if (state.located) {
+    private void onLocated() {
+        final DJIDroneSession self = this;
+        synchronized (listeners) {
+            state.located = true;
+            listeners.dispatch(new DJIListenerRegistry.Event<Listener>() {
+                @Override
+                public void dispatch(final Listener listener) {
                     listener.onLocated(self);
                 }
+            });
+        }
+    }
+
+    private void onMotorsChanged(final boolean value) {
+        final DJIDroneSession self = this;
+        listeners.dispatch(ListenerKeyMotorsChanged, new DJIListenerRegistry.Event<Listener>() {
+            @Override
+            public void dispatch(final Listener listener) {
+                listener.onMotorsChanged(self, value);
             }
         });
     }
 
-    @Override
-    public void removeListener(final Listener listener) {
-        listenerExecutor.execute(new Runnable() {
+    private void onCommandExecuted(final com.dronelink.core.kernel.command.Command command) {
+        final DJIDroneSession self = this;
+        listeners.dispatch(new DJIListenerRegistry.Event<Listener>() {
             @Override
-            public void run() {
-                listeners.remove(listener);
+            public void dispatch(final Listener listener) {
+                listener.onCommandExecuted(self, command);
             }
         });
     }
 
-    private void onInitialized() {
+    private void onCommandFinished(final com.dronelink.core.kernel.command.Command command, final CommandError error) {
         final DJIDroneSession self = this;
-        listenerExecutor.execute(new Runnable() {
+        listeners.dispatch(new DJIListenerRegistry.Event<Listener>() {
             @Override
-            public void run() {
-                for (final Listener listener : listeners) {
-                    listener.onInitialized(self);
-                }
+            public void dispatch(final Listener listener) {
+                listener.onCommandFinished(self, command, error);
             }
         });
     }
 
-    private void onLocated() {
+    private void onCameraFileGenerated(final DJICameraFile file) {
         final DJIDroneSession self = this;
-        listenerExecutor.execute(new Runnable() {
+        listeners.dispatch(new DJIListenerRegistry.Event<Listener>() {
             @Override
-            public void run() {
-                for (final Listener listener : listeners) {
-                    listener.onLocated(self);
-                }
+            public void dispatch(final Listener listener) {
+                listener.onCameraFileGenerated(self, file);
             }
         });
     }
 
-    private void onMotorsChanged(final boolean value) {
-        final DJIDroneSession self = this;
-        listenerExecutor.execute(new Runnable() {
-            @Override
-            public void run() {
-                for (final Listener listener : listeners) {
-                    listener.onMotorsChanged(self, value);
+    private void initCommandRoutes() {
+        commandRoutes.register(DroneCommand.class, new CommandRoute() {
+            @Override
+            public CommandError execute(final com.dronelink.core.kernel.command.Command command, final Command.Finisher finished) {
+                return executeDroneCommand((DroneCommand)command, finished);
+            }
+
+            @Override
+            public void addCommand(final com.dronelink.core.kernel.command.Command command, final Command c) {
+                droneCommands.addCommand(c);
+            }
+
+            @Override
+            public DJICommandCoalescer.Entry coalesce(final com.dronelink.core.kernel.command.Command command) {
+                return null;
+            }
+        });
+
+        commandRoutes.register(LiveStreamingCommand.class, new CommandRoute() {
+            @Override
+            public CommandError execute(final com.dronelink.core.kernel.command.Command command, final Command.Finisher finished) {
+                return executeLiveStreamingCommand((LiveStreamingCommand)command, finished);
+            }
+
+            @Override
+            public void addCommand(final com.dronelink.core.kernel.command.Command command, final Command c) {
+                liveStreamingCommands.addCommand(c);
+            }
+
+            @Override
+            public DJICommandCoalescer.Entry coalesce(final com.dronelink.core.kernel.command.Command command) {
+                return null;
+            }
+        });
+
+        commandRoutes.register(RemoteControllerCommand.class, new CommandRoute() {
+            @Override
+            public CommandError execute(final com.dronelink.core.kernel.command.Command command, final Command.Finisher finished) {
+                return executeRemoteControllerCommand((RemoteControllerCommand) command, finished);
+            }
+
+            @Override
+            public void addCommand(final com.dronelink.core.kernel.command.Command command, final Command c) {
+                remoteControllerCommands.addCommand(((RemoteControllerCommand)command).channel, c);
+            }
+
+            @Override
+            public DJICommandCoalescer.Entry coalesce(final com.dronelink.core.kernel.command.Command command) {
+                return null;
+            }
+        });
+
+        commandRoutes.register(CameraCommand.class, new CommandRoute() {
+            @Override
+            public CommandError execute(final com.dronelink.core.kernel.command.Command command, final Command.Finisher finished) {
+                return executeCameraCommand((CameraCommand)command, finished);
+            }
+
+            @Override
+            public void addCommand(final com.dronelink.core.kernel.command.Command command, final Command c) {
+                cameraCommands.addCommand(((CameraCommand)command).channel, c);
+            }
+
+            @Override
+            public DJICommandCoalescer.Entry coalesce(final com.dronelink.core.kernel.command.Command command) {
+                return commandCoalescingEnabled ? cameraCommandCoalescer.add(((CameraCommand)command).channel, command) : null;
+            }
+        });
+
+        commandRoutes.register(GimbalCommand.class, new CommandRoute() {
+            @Override
+            public CommandError execute(final com.dronelink.core.kernel.command.Command command, final Command.Finisher finished) {
+                return executeGimbalCommand((GimbalCommand)command, finished);
+            }
+
+            @Override
+            public void addCommand(final com.dronelink.core.kernel.command.Command command, final Command c) {
+                gimbalCommands.addCommand(((GimbalCommand)command).channel, c);
+            }
+
+            @Override
+            public DJICommandCoalescer.Entry coalesce(final com.dronelink.core.kernel.command.Command command) {
+                return commandCoalescingEnabled ? gimbalCommandCoalescer.add(((GimbalCommand)command).channel, command) : null;
+            }
+        });
+
+        commandRoutes.register(RTKCommand.class, new CommandRoute() {
+            @Override
+            public CommandError execute(final com.dronelink.core.kernel.command.Command command, final Command.Finisher finished) {
+                return new CommandError(context.getString(R.string.MissionDisengageReason_command_type_unsupported));
+            }
+
+            @Override
+            public void addCommand(final com.dronelink.core.kernel.command.Command command, final Command c) {
+                rtkCommands.addCommand(c);
+            }
+
+            @Override
+            public DJICommandCoalescer.Entry coalesce(final com.dronelink.core.kernel.command.Command command) {
+                return null;
+            }
+        });
+    }
+
+    private void initCommandCoalescers() {
+        //color, contrast, saturation, sharpness and video standard aren't observed anywhere, so only their handlers can tell
+        cameraCommandCoalescer
+                .register(AEBCountCameraCommand.class, createCachedSettingSatisfied(CameraKey.PHOTO_AEB_COUNT, SettingsDefinitions.PhotoAEBCount.class,
+                        (AEBCountCameraCommand command) -> DronelinkDJI.getCameraAEBCount(command.aebCount)))
+                .register(ApertureCameraCommand.class, new DJICommandCoalescer.Satisfied<ApertureCameraCommand>() {
+                    @Override
+                    public boolean isSatisfied(final ApertureCameraCommand command) {
+                        final ExposureSettings exposureSettings = getExposureSettings(command.channel);
+                        return exposureSettings != null && exposureSettings.getAperture() == DronelinkDJI.getCameraAperture(command.aperture);
+                    }
+                })
+                .register(AutoExposureLockCameraCommand.class, createCachedSettingSatisfied(CameraKey.AE_LOCK, Boolean.class,
+                        (AutoExposureLockCameraCommand command) -> command.enabled))
+                .register(ColorCameraCommand.class)
+                .register(ContrastCameraCommand.class)
+                .register(ExposureCompensationCameraCommand.class, new DJICommandCoalescer.Satisfied<ExposureCompensationCameraCommand>() {
+                    @Override
+                    public boolean isSatisfied(final ExposureCompensationCameraCommand command) {
+                        final DJICameraStateAdapter state = getDJICameraState(command.channel);
+                        return state != null && state.getExposureCompensation() != null
+                                && DronelinkDJI.getCameraExposureCompensation(state.getExposureCompensation()) == DronelinkDJI.getCameraExposureCompensation(command.exposureCompensation);
+                    }
+                })
+                .register(ExposureModeCameraCommand.class, createCachedSettingSatisfied(CameraKey.EXPOSURE_MODE, SettingsDefinitions.ExposureMode.class,
+                        (ExposureModeCameraCommand command) -> DronelinkDJI.getCameraExposureMode(command.exposureMode)))
+                .register(FocusModeCameraCommand.class, createCachedSettingSatisfied(CameraKey.FOCUS_MODE, SettingsDefinitions.FocusMode.class,
+                        (FocusModeCameraCommand command) -> DronelinkDJI.getCameraFocusMode(command.focusMode)))
+                .register(ISOCameraCommand.class, new DJICommandCoalescer.Satisfied<ISOCameraCommand>() {
+                    @Override
+                    public boolean isSatisfied(final ISOCameraCommand command) {
+                        final ExposureSettings exposureSettings = getExposureSettings(command.channel);
+                        return exposureSettings != null && exposureSettings.getISO() == DronelinkDJI.getCameraISO(command.iso).value();
+                    }
+                })
+                .register(MeteringModeCameraCommand.class, createCachedSettingSatisfied(CameraKey.METERING_MODE, SettingsDefinitions.MeteringMode.class,
+                        (MeteringModeCameraCommand command) -> DronelinkDJI.getCameraMeteringMode(command.meteringMode)))
+                .register(PhotoAspectRatioCameraCommand.class, createCachedSettingSatisfied(CameraKey.PHOTO_ASPECT_RATIO, SettingsDefinitions.PhotoAspectRatio.class,
+                        (PhotoAspectRatioCameraCommand command) -> DronelinkDJI.getCameraPhotoAspectRatio(command.photoAspectRatio)))
+                .register(PhotoFileFormatCameraCommand.class, createCachedSettingSatisfied(CameraKey.PHOTO_FILE_FORMAT, SettingsDefinitions.PhotoFileFormat.class,
+                        (PhotoFileFormatCameraCommand command) -> DronelinkDJI.getCameraPhotoFileFormat(command.photoFileFormat)))
+                .register(PhotoIntervalCameraCommand.class, new DJICommandCoalescer.Satisfied<PhotoIntervalCameraCommand>() {
+                    @Override
+                    public boolean isSatisfied(final PhotoIntervalCameraCommand command) {
+                        final SettingsDefinitions.PhotoTimeIntervalSettings current = getCachedCameraSetting(command.channel, CameraKey.PHOTO_TIME_INTERVAL_SETTINGS, SettingsDefinitions.PhotoTimeIntervalSettings.class);
+                        return current != null && current.getCaptureCount() == 255 && current.getTimeIntervalInSeconds() == (int)command.photoInterval;
+                    }
+                })
+                .register(PhotoModeCameraCommand.class)
+                .register(SaturationCameraCommand.class)
+                .register(SharpnessCameraCommand.class)
+                .register(ShutterSpeedCameraCommand.class, new DJICommandCoalescer.Satisfied<ShutterSpeedCameraCommand>() {
+                    @Override
+                    public boolean isSatisfied(final ShutterSpeedCameraCommand command) {
+                        final ExposureSettings exposureSettings = getExposureSettings(command.channel);
+                        return exposureSettings != null && exposureSettings.getShutterSpeed() == DronelinkDJI.getCameraShutterSpeed(command.shutterSpeed);
+                    }
+                })
+                .register(StorageLocationCameraCommand.class, createCachedSettingSatisfied(CameraKey.CAMERA_STORAGE_LOCATION, SettingsDefinitions.StorageLocation.class,
+                        (StorageLocationCameraCommand command) -> DronelinkDJI.getCameraStorageLocation(command.storageLocation)))
+                .register(VideoFileFormatCameraCommand.class, createCachedSettingSatisfied(CameraKey.VIDEO_FILE_FORMAT, SettingsDefinitions.VideoFileFormat.class,
+                        (VideoFileFormatCameraCommand command) -> DronelinkDJI.getCameraVideoFileFormat(command.videoFileFormat)))
+                .register(VideoResolutionFrameRateCameraCommand.class, new DJICommandCoalescer.Satisfied<VideoResolutionFrameRateCameraCommand>() {
+                    @Override
+                    public boolean isSatisfied(final VideoResolutionFrameRateCameraCommand command) {
+                        final ResolutionAndFrameRate current = getCachedCameraSetting(command.channel, CameraKey.RESOLUTION_FRAME_RATE, ResolutionAndFrameRate.class);
+                        return current != null
+                                && current.getResolution() == DronelinkDJI.getCameraVideoResolution(command.videoResolution)
+                                && current.getFrameRate() == DronelinkDJI.getCameraVideoFrameRate(command.videoFrameRate)
+                                && current.getFov() == DronelinkDJI.getCameraVideoFieldOfView(command.videoFieldOfView);
+                    }
+                })
+                .register(VideoStandardCameraCommand.class)
+                .register(WhiteBalanceCustomCameraCommand.class, new DJICommandCoalescer.Satisfied<WhiteBalanceCustomCameraCommand>() {
+                    @Override
+                    public boolean isSatisfied(final WhiteBalanceCustomCameraCommand command) {
+                        final WhiteBalance current = getCachedCameraSetting(command.channel, CameraKey.WHITE_BALANCE, WhiteBalance.class);
+                        return current != null && current.getWhiteBalancePreset() == SettingsDefinitions.WhiteBalancePreset.CUSTOM && current.getColorTemperature() == command.whiteBalanceCustom;
+                    }
+                })
+                .register(WhiteBalancePresetCameraCommand.class, new DJICommandCoalescer.Satisfied<WhiteBalancePresetCameraCommand>() {
+                    @Override
+                    public boolean isSatisfied(final WhiteBalancePresetCameraCommand command) {
+                        final WhiteBalance current = getCachedCameraSetting(command.channel, CameraKey.WHITE_BALANCE, WhiteBalance.class);
+                        return current != null && current.getWhiteBalancePreset() == DronelinkDJI.getCameraWhiteBalancePreset(command.whiteBalancePreset);
+                    }
+                })
+                .register(ModeCameraCommand.class, new DJICommandCoalescer.Satisfied<ModeCameraCommand>() {
+                    @Override
+                    public boolean isSatisfied(final ModeCameraCommand command) {
+                        //flat mode cameras can be in the right mode with the wrong flat mode, leave those to the handler
+                        final Camera camera = DronelinkDJI.getCamera(adapter.getDrone(), command.channel);
+                        final DatedValue<CameraStateAdapter> state = getCameraState(command.channel);
+                        return camera != null && !camera.isFlatCameraModeSupported() && state != null && state.value.getMode() == command.mode;
+                    }
+                });
+
+        gimbalCommandCoalescer
+                .register(ModeGimbalCommand.class, new DJICommandCoalescer.Satisfied<ModeGimbalCommand>() {
+                    @Override
+                    public boolean isSatisfied(final ModeGimbalCommand command) {
+                        final DatedValue<GimbalStateAdapter> state = getGimbalState(command.channel);
+                        return state != null && state.value.getMode() == command.mode;
+                    }
+                });
+    }
+
+    private interface CameraSettingTarget<C extends CameraCommand, V> {
+        V get(C command);
+    }
+
+    private DJICameraStateAdapter getDJICameraState(final int channel) {
+        final DatedValue<CameraStateAdapter> state = getCameraState(channel);
+        return state != null && state.value instanceof DJICameraStateAdapter ? (DJICameraStateAdapter)state.value : null;
+    }
+
+    private ExposureSettings getExposureSettings(final int channel) {
+        final DJICameraStateAdapter state = getDJICameraState(channel);
+        return state == null ? null : state.exposureSettings;
+    }
+
+    //only looks in the settings cache, never reads through to the SDK, so a miss just leaves the command to its handler
+    private <V> V getCachedCameraSetting(final int channel, final String key, final Class<V> type) {
+        final Camera camera = DronelinkDJI.getCamera(adapter.getDrone(), channel);
+        return camera == null ? null : settingsCache.get(CameraKey.create(key, camera.getIndex()), type);
+    }
+
+    private <C extends CameraCommand, V> DJICommandCoalescer.Satisfied<C> createCachedSettingSatisfied(final String key, final Class<V> type, final CameraSettingTarget<C, V> target) {
+        return new DJICommandCoalescer.Satisfied<C>() {
+            @Override
+            public boolean isSatisfied(final C command) {
+                final V current = getCachedCameraSetting(command.channel, key, type);
+                return current != null && current.equals(target.get(command));
+            }
+        };
+    }
+
+    public boolean isCommandCoalescingEnabled() {
+        return commandCoalescingEnabled;
+    }
+
+    public void setCommandCoalescingEnabled(final boolean enabled) {
+        commandCoalescingEnabled = enabled;
+    }
+
+    public DJICommandCoalescer getCameraCommandCoalescer() {
+        return cameraCommandCoalescer;
+    }
+
+    public DJICommandCoalescer getGimbalCommandCoalescer() {
+        return gimbalCommandCoalescer;
+    }
+
+    private void initModeCommandFinishDelayFallbacks() {
+        //the P4 cameras have been seen reporting stale state (see the exposure settings kluge), so keep the fixed delay for them
+        for (final Model model : new Model[] { Model.PHANTOM_4, Model.PHANTOM_4_PRO, Model.PHANTOM_4_PRO_V2, Model.PHANTOM_4_ADVANCED, Model.PHANTOM_4_RTK }) {
+            modeCommandFinishDelayFallbacks.put(model, ModeCommandFinishDelayMillis);
+        }
+    }
+
+    //null removes the fallback for the model, so its mode commands wait for the mode to be observed
+    public void setModeCommandFinishDelayFallbackMillis(final Model model, final Double millis) {
+        if (millis == null) {
+            modeCommandFinishDelayFallbacks.remove(model);
+        }
+        else {
+            modeCommandFinishDelayFallbacks.put(model, millis);
+        }
+    }
+
+    private Double getModeCommandFinishDelayFallbackMillis() {
+        final Aircraft drone = adapter.getDrone();
+        final Model model = drone == null ? null : drone.getModel();
+        return model == null ? null : modeCommandFinishDelayFallbacks.get(model);
+    }
+
+    public boolean isPhotoCapturePipelineEnabled() {
+        return photoCapturePipelineEnabled;
+    }
+
+    //single photo start capture commands finish once the camera accepts the shot, see DJIPhotoCapturePipeline
+    //commands that verify the file was created go through the pipeline too, but finish when their own file arrives
+    public void setPhotoCapturePipelineEnabled(final boolean enabled) {
+        photoCapturePipelineEnabled = enabled;
+    }
+
+    public DJIPhotoCapturePipeline getPhotoCapturePipeline(final int channel) {
+        DJIPhotoCapturePipeline photoCapturePipeline = photoCapturePipelines.get(channel);
+        if (photoCapturePipeline == null) {
+            synchronized (photoCapturePipelines) {
+                photoCapturePipeline = photoCapturePipelines.get(channel);
+                if (photoCapturePipeline == null) {
+                    photoCapturePipeline = new DJIPhotoCapturePipeline(scheduler, new DJIPhotoCapturePipeline.Readiness() {
+                        @Override
+                        public boolean isReady() {
+                            //without state let the SDK decide
+                            final DatedValue<CameraStateAdapter> state = getCameraState(channel);
+                            return state == null || (!state.value.isBusy() && !state.value.isCapturing());
+                        }
+                    });
+                    photoCapturePipelines.put(channel, photoCapturePipeline);
                 }
             }
-        });
+        }
+        return photoCapturePipeline;
     }
 
-    private void onCommandExecuted(final com.dronelink.core.kernel.command.Command command) {
-        final DJIDroneSession self = this;
-        listenerExecutor.execute(new Runnable() {
-            @Override
-            public void run() {
-                for (final Listener listener : listeners) {
-                    listener.onCommandExecuted(self, command);
-                }
-            }
-        });
+    public DJILatencyHistogram getModeCommandConfirmationLatency() {
+        return modeCommandConfirmationLatency;
     }
 
-    private void onCommandFinished(final com.dronelink.core.kernel.command.Command command, final CommandError error) {
-        final DJIDroneSession self = this;
-        listenerExecutor.execute(new Runnable() {
-            @Override
-            public void run() {
-                for (final Listener listener : listeners) {
-                    listener.onCommandFinished(self, command, error);
-                }
-            }
-        });
+    public long getModeCommandConfirmationTimedOutCount() {
+        return modeCommandConfirmationTimedOutCount.get();
     }
 
-    private void onCameraFileGenerated(final DJICameraFile file) {
-        final DJIDroneSession self = this;
-        listenerExecutor.execute(new Runnable() {
+    //compared to the fixed delay mode commands used to finish with
+    public double getModeCommandConfirmationSavedMillis() {
+        return modeCommandConfirmationSavedNanos.get() / 1000000.0;
+    }
+
+    private <V> void finishModeCommandWhenObserved(final com.dronelink.core.kernel.command.Command command, final DJIStateWaiters<V> waiters, final int channel, final V value, final DJIStateWaiters.Condition<V> observed, final Command.Finisher finished) {
+        if (getModeCommandFinishDelayFallbackMillis() != null) {
+            finished.execute(null);
+            return;
+        }
+
+        final long started = System.nanoTime();
+        waiters.await(channel, value, (long)ModeCommandFinishDelayMillis, observed, new DJIStateWaiters.Listener<V>() {
             @Override
-            public void run() {
-                for (final Listener listener : listeners) {
-                    listener.onCameraFileGenerated(self, file);
+            public void onResult(final V value, final boolean satisfied) {
+                final long elapsed = System.nanoTime() - started;
+                if (satisfied) {
+                    modeCommandConfirmationLatency.record(elapsed);
+                    modeCommandConfirmationSavedNanos.addAndGet(Math.max(0, (long)(ModeCommandFinishDelayMillis * 1000000) - elapsed));
+                }
+                else {
+                    modeCommandConfirmationTimedOutCount.incrementAndGet();
+                    Log.d(TAG, "Mode command finished without observing the new mode (" + command.id + ")");
                 }
+                //the SDK already reported success, so finish either way
+                finished.execute(null);
             }
         });
     }
 
     @Override
     public void addCommand(final com.dronelink.core.kernel.command.Command command) throws Dronelink.UnregisteredException, CommandTypeUnhandledException {
-        Command.Executor executor = null;
-
-        if (command instanceof DroneCommand) {
-            executor = new Command.Executor() {
-                @Override
-                public CommandError execute(final Command.Finisher finished) {
-                    onCommandExecuted(command);
-                    return executeDroneCommand((DroneCommand)command, finished);
-                }
-            };
-        }
-        else if (command instanceof LiveStreamingCommand) {
-            executor = new Command.Executor() {
-                @Override
-                public CommandError execute(final Command.Finisher finished) {
-                    onCommandExecuted(command);
-                    return executeLiveStreamingCommand((LiveStreamingCommand)command, finished);
-                }
-            };
-        }
-        else if (command instanceof RemoteControllerCommand) {
-            executor = new Command.Executor() {
-                @Override
-                public CommandError execute(final Command.Finisher finished) {
-                    onCommandExecuted(command);
-                    return executeRemoteControllerCommand((RemoteControllerCommand) command, finished);
-                }
-            };
-        }
-        else if (command instanceof CameraCommand) {
-            executor = new Command.Executor() {
-                @Override
-                public CommandError execute(final Command.Finisher finished) {
-                    onCommandExecuted(command);
-                    return executeCameraCommand((CameraCommand)command, finished);
-                }
-            };
-        }
-        else if (command instanceof GimbalCommand) {
-            executor = new Command.Executor() {
-                @Override
-                public CommandError execute(final Command.Finisher finished) {
-                    onCommandExecuted(command);
-                    return executeGimbalCommand((GimbalCommand)command, finished);
-                }
-            };
-        }
-        else if (command instanceof RTKCommand) {
-            executor = new Command.Executor() {
-                @Override
-                public CommandError execute(final Command.Finisher finished) {
-                    onCommandExecuted(command);
-                    return new CommandError(context.getString(R.string.MissionDisengageReason_command_type_unsupported));
-                }
-            };
-        }
-
-        if (executor != null) {
+        final CommandRoute route = commandRoutes.get(command);
+        if (route != null) {
+            final long enqueued = System.nanoTime();
+            final CommandConfig config = command.getConfig();
+            final DJICommandCoalescer.Entry coalesced = route.coalesce(command);
             final Command c = new Command(
                 command,
-                executor,
+                new Command.Executor() {
+                    private boolean executed = false;
+
+                    @Override
+                    public CommandError execute(final Command.Finisher finished) {
+                        if (!executed) {
+                            executed = true;
+                            commandExecutionLatency.recordSince(enqueued);
+                        }
+
+                        onCommandExecuted(command);
+                        if (coalesced != null && !coalesced.start()) {
+                            //superseded or already satisfied, so there is nothing to wait for either
+                            config.finishDelayMillis = null;
+                            finished.execute(null);
+                            commandPump.signal();
+                            return null;
+                        }
+
+                        try {
+                            return route.execute(command, new Command.Finisher() {
+                                @Override
+                                public void execute(final CommandError error) {
+                                    finished.execute(error);
+                                    commandPump.signal();
+                                }
+                            });
+                        }
+                        finally {
+                            //errors returned synchronously are handled by the queue immediately, so make sure the next command doesn't wait
+                            commandPump.signal();
+                        }
+                    }
+                },
                 new Command.Finisher() {
                     @Override
                     public void execute(final CommandError error) {
                         onCommandFinished(command, error);
+                        commandPump.signal();
                     }
                 },
-                command.getConfig());
+                config);
 
             if (c.config.retriesEnabled == null) {
                 //disable retries when the DJI SDK reports that the product does not support the feature
@@ -1637,31 +2439,15 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
                 };
 
                 if (c.config.finishDelayMillis == null) {
-                    //adding a 1.5 second delay after camera and gimbal mode commands
+                    //camera and gimbal mode commands finish once the new mode is observed, unless the model needs a fixed delay instead
                     if (command instanceof ModeCameraCommand || command instanceof ModeGimbalCommand) {
-                        c.config.finishDelayMillis = 1500.0;
+                        c.config.finishDelayMillis = getModeCommandFinishDelayFallbackMillis();
                     }
                 }
             }
 
-            if (command instanceof DroneCommand) {
-                droneCommands.addCommand(c);
-            }
-            else if (command instanceof LiveStreamingCommand) {
-                liveStreamingCommands.addCommand(c);
-            }
-            else if (command instanceof RTKCommand) {
-                rtkCommands.addCommand(c);
-            }
-            else if (command instanceof RemoteControllerCommand) {
-                remoteControllerCommands.addCommand(((RemoteControllerCommand)command).channel, c);
-            }
-            else if (command instanceof CameraCommand) {
-                cameraCommands.addCommand(((CameraCommand)command).channel, c);
-            }
-            else if (command instanceof GimbalCommand) {
-                gimbalCommands.addCommand(((GimbalCommand)command).channel, c);
-            }
+            route.addCommand(command, c);
+            commandPump.signal();
             return;
         }
 
@@ -1718,109 +2504,100 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
 
     @Override
     public DatedValue<RemoteControllerStateAdapter> getRemoteControllerState(final int channel) {
-        try {
-            return remoteControllerSerialQueue.submit(new Callable<DatedValue<RemoteControllerStateAdapter>>() {
-                @Override
-                public DatedValue<RemoteControllerStateAdapter> call() {
-                    if (remoteControllerState == null) {
-                        return null;
-                    }
-
-                    final RemoteControllerStateAdapter remoteControllerStateAdapter = new DJIRemoteControllerStateAdapter(remoteControllerState.value, remoteControllerGPSData,
-                            //Refer to comment in the listener for remoteControllerFunctionButton to understand why we are hard coding 250ms
-                            remoteControllerFunctionButton != null && new Date().getTime() - remoteControllerFunctionButton.date.getTime() <= 250 ? remoteControllerFunctionButton.value : null, state.model);
-                    return new DatedValue<>(remoteControllerStateAdapter, remoteControllerState.date);
-                }
-            }).get();
-        }
-        catch (final ExecutionException | InterruptedException e) {
+        final DatedValue<HardwareState> remoteControllerState = this.remoteControllerState;
+        if (remoteControllerState == null) {
             return null;
         }
+
+        final DatedValue<HardwareState.Button> remoteControllerFunctionButton = this.remoteControllerFunctionButton;
+        final RemoteControllerStateAdapter remoteControllerStateAdapter = new DJIRemoteControllerStateAdapter(remoteControllerState.value, remoteControllerGPSData,
+                //Refer to comment in the listener for remoteControllerFunctionButton to understand why we are hard coding 250ms
+                remoteControllerFunctionButton != null && new Date().getTime() - remoteControllerFunctionButton.date.getTime() <= 250 ? remoteControllerFunctionButton.value : null, state.model);
+        return new DatedValue<>(remoteControllerStateAdapter, remoteControllerState.date);
     }
 
     @Override
     public DatedValue<CameraStateAdapter> getCameraState(final int channel) {
-        try {
-            return cameraSerialQueue.submit(new Callable<DatedValue<CameraStateAdapter>>() {
-                @Override
-                public DatedValue<CameraStateAdapter> call() {
-                    final DatedValue<SystemState> systemState = cameraStates.get(channel);
-                    final CameraAdapter camera = getDrone().getCamera(channel);
-                    if (systemState == null || camera == null) {
-                        return null;
-                    }
+        final CameraAdapter camera = getDrone().getCamera(channel);
+        if (camera == null) {
+            return null;
+        }
+
+        final long version = cameraStateCache.getVersion(channel);
+        final DatedValue<CameraStateAdapter> cached = cameraStateCache.get(channel, camera, version);
+        if (cached != null) {
+            return cached;
+        }
 
-                    int lensIndexResolved = 0;
-                    final DatedValue<CameraVideoStreamSource> videoStreamSource = cameraVideoStreamSources.get(channel);
-                    //FIXME
-//                    if (videoStreamSource != null && videoStreamSource.value != null) {
-//                        lensIndexResolved = camera.getLensIndex(DronelinkDJI.getCameraVideoStreamSource(videoStreamSource.value));
-//                    }
-
-                    final DatedValue<FocusState> focusState = cameraFocusStates.get(channel + "." + lensIndexResolved);
-                    final Map<CameraStorageLocation, DatedValue<StorageState>> storageState = cameraStorageStates.get(channel);
-                    final DatedValue<ExposureSettings> exposureSettings = cameraExposureSettings.get(channel + "." + lensIndexResolved);
-                    final DatedValue<short[]> histogram = cameraHistograms.get(channel + "." + lensIndexResolved);
-                    final DatedValue<SettingsDefinitions.ExposureCompensation> exposureCompensation = cameraExposureCompensation.get(channel);
-                    final DatedValue<String> lensInformation = cameraLensInformation.get(channel);
-                    final CameraStateAdapter cameraStateAdapter = new DJICameraStateAdapter(
-                            camera instanceof DJICameraAdapter ? ((DJICameraAdapter) camera).camera : null,
-                            systemState.value,
-                            videoStreamSource == null ? null : videoStreamSource.value,
-                            focusState == null ? null : focusState.value,
-                            storageLocation == null || storageState == null || storageState.get(DronelinkDJI.getCameraStorageLocation(storageLocation.value)) == null ? null : storageState.get(DronelinkDJI.getCameraStorageLocation(storageLocation.value)).value,
-                            exposureMode == null ? null : exposureMode.value,
-                            exposureSettings == null ? null : exposureSettings.value,
-                            histogram == null ? null : histogram.value,
-                            lensInformation == null ? null : lensInformation.value,
-                            storageLocation == null ? null : storageLocation.value,
-                            photoMode == null ? null : photoMode.value,
-                            photoTimeIntervalSettings == null ? null : photoTimeIntervalSettings.value,
-                            photoFileFormat == null ? null : photoFileFormat.value,
-                            photoAspectRatio == null ? null : photoAspectRatio.value,
-                            burstCount == null ? null : burstCount.value,
-                            aebCount == null ? null : aebCount.value,
-                            videoFileFormat == null ? null : videoFileFormat.value,
-                            videoResolutionAndFrameRate == null ? null : videoResolutionAndFrameRate.value.getFrameRate(),
-                            videoResolutionAndFrameRate == null ? null : videoResolutionAndFrameRate.value.getResolution(),
-                            whiteBalance == null ? null : whiteBalance.value,
-                            iso == null ? null : iso.value,
-                            shutterSpeed == null ? null : shutterSpeed.value,
-                            focusMode == null ? null : focusMode.value,
-                            focusRingValue == null ? null : focusRingValue.value,
-                            focusRingMax == null ? null : focusRingMax.value,
-                            zoomValue == null ? null : zoomValue.value,
-                            hybridZoomSpecification == null ? null : hybridZoomSpecification.value,
-                            meteringMode == null ? null : meteringMode.value,
-                            autoExposureLock == null ? null : autoExposureLock.value);
-                    return new DatedValue<>(cameraStateAdapter, systemState.date);
-                }
-            }).get();
-        }
-        catch (final ExecutionException | InterruptedException e) {
+        final DatedValue<SystemState> systemState = cameraStates.get(channel);
+        if (systemState == null) {
             return null;
         }
+
+        int lensIndexResolved = 0;
+        final DatedValue<CameraVideoStreamSource> videoStreamSource = cameraVideoStreamSources.get(channel);
+        //FIXME
+//        if (videoStreamSource != null && videoStreamSource.value != null) {
+//            lensIndexResolved = camera.getLensIndex(DronelinkDJI.getCameraVideoStreamSource(videoStreamSource.value));
+//        }
+
+        final DatedValue<FocusState> focusState = cameraFocusStates.get(channel, lensIndexResolved);
+        final Map<CameraStorageLocation, DatedValue<StorageState>> storageState = cameraStorageStates.get(channel);
+        final DatedValue<ExposureSettings> exposureSettings = cameraExposureSettings.get(channel, lensIndexResolved);
+        final DatedValue<short[]> histogram = cameraHistograms.get(channel, lensIndexResolved);
+        final DatedValue<SettingsDefinitions.ExposureCompensation> exposureCompensation = cameraExposureCompensation.get(channel);
+        final DatedValue<String> lensInformation = cameraLensInformation.get(channel);
+        final DatedValue<SettingsDefinitions.StorageLocation> storageLocation = this.storageLocation;
+        final DatedValue<StorageState> storageLocationState = storageLocation == null || storageState == null ? null : storageState.get(DronelinkDJI.getCameraStorageLocation(storageLocation.value));
+        final DatedValue<ResolutionAndFrameRate> videoResolutionAndFrameRate = this.videoResolutionAndFrameRate;
+        final CameraStateAdapter cameraStateAdapter = new DJICameraStateAdapter(
+                camera instanceof DJICameraAdapter ? ((DJICameraAdapter) camera).camera : null,
+                systemState.value,
+                videoStreamSource == null ? null : videoStreamSource.value,
+                focusState == null ? null : focusState.value,
+                storageLocationState == null ? null : storageLocationState.value,
+                exposureMode == null ? null : exposureMode.value,
+                exposureSettings == null ? null : exposureSettings.value,
+                histogram == null ? null : histogram.value,
+                lensInformation == null ? null : lensInformation.value,
+                storageLocation == null ? null : storageLocation.value,
+                photoMode == null ? null : photoMode.value,
+                photoTimeIntervalSettings == null ? null : photoTimeIntervalSettings.value,
+                photoFileFormat == null ? null : photoFileFormat.value,
+                photoAspectRatio == null ? null : photoAspectRatio.value,
+                burstCount == null ? null : burstCount.value,
+                aebCount == null ? null : aebCount.value,
+                videoFileFormat == null ? null : videoFileFormat.value,
+                videoResolutionAndFrameRate == null ? null : videoResolutionAndFrameRate.value.getFrameRate(),
+                videoResolutionAndFrameRate == null ? null : videoResolutionAndFrameRate.value.getResolution(),
+                whiteBalance == null ? null : whiteBalance.value,
+                iso == null ? null : iso.value,
+                shutterSpeed == null ? null : shutterSpeed.value,
+                focusMode == null ? null : focusMode.value,
+                focusRingValue == null ? null : focusRingValue.value,
+                focusRingMax == null ? null : focusRingMax.value,
+                zoomValue == null ? null : zoomValue.value,
+                hybridZoomSpecification == null ? null : hybridZoomSpecification.value,
+                meteringMode == null ? null : meteringMode.value,
+                autoExposureLock == null ? null : autoExposureLock.value);
+        final DatedValue<CameraStateAdapter> cameraState = new DatedValue<>(cameraStateAdapter, systemState.date);
+        cameraStateCache.put(channel, camera, version, cameraState);
+        return cameraState;
+    }
+
+    private void invalidateCameraState(final int channel) {
+        cameraStateCache.invalidate(channel);
     }
 
     @Override
     public DatedValue<GimbalStateAdapter> getGimbalState(final int channel) {
-        try {
-            return gimbalSerialQueue.submit(new Callable<DatedValue<GimbalStateAdapter>>() {
-                @Override
-                public DatedValue<GimbalStateAdapter> call() {
-                    final DatedValue<GimbalState> gimbalState = gimbalStates.get(channel);
-                    if (gimbalState == null) {
-                        return null;
-                    }
-
-                    final GimbalStateAdapter gimbalStateAdapter = new DJIGimbalStateAdapter(gimbalState.value);
-                    return new DatedValue<>(gimbalStateAdapter, gimbalState.date);
-                }
-            }).get();
-        }
-        catch (final ExecutionException | InterruptedException e) {
+        final DatedValue<GimbalState> gimbalState = gimbalStates.get(channel);
+        if (gimbalState == null) {
             return null;
         }
+
+        final GimbalStateAdapter gimbalStateAdapter = new DJIGimbalStateAdapter(gimbalState.value);
+        return new DatedValue<>(gimbalStateAdapter, gimbalState.date);
     }
 
     @Override
@@ -1857,7 +2634,14 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
 
     @Override
     public void close() {
+        if (closed) {
+            return;
+        }
+
         this.closed = true;
+        removeCommands();
+        resources.releaseAll();
+        Log.i(TAG, "Drone session closed");
     }
 
     protected void sendResetVelocityCommand(final CommonCallbacks.CompletionCallback completion) {
@@ -1944,33 +2728,64 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
         };
     }
 
-    private CommandError executeDroneCommand(final DroneCommand command, final Command.Finisher finished) {
-        if (command instanceof FlightAssistantDroneCommand) {
-            return executeFlightAssistantDroneCommand((FlightAssistantDroneCommand) command, finished);
+    //answers from the settings cache when it has a fresh value, otherwise reads through to the SDK
+    private <V> void getSetting(final DJIKey key, final Class<V> type, final SettingGetter<V> getter, final Command.FinisherWith<V> success, final Command.Finisher error) {
+        final V cached = settingsCache.get(key, type);
+        if (cached != null) {
+            success.execute(cached);
+            return;
         }
 
-        if (command instanceof LandingGearDroneCommand) {
-            return executeLandingGearDroneCommand((LandingGearDroneCommand) command, finished);
-        }
+        getter.get(createCompletionCallbackWith(new Command.FinisherWith<V>() {
+            @Override
+            public void execute(final V value) {
+                settingsCache.put(key, value);
+                success.execute(value);
+            }
+        }, error));
+    }
 
-        if (command instanceof LightbridgeDroneCommand) {
-            return executeLightbridgeDroneCommand((LightbridgeDroneCommand) command, finished);
-        }
+    //the device may adjust or reject the value, so drop it and let the key listener or the next read report what it settled on
+    private CommonCallbacks.CompletionCallback createSettingCompletionCallback(final DJIKey key, final Command.Finisher finished) {
+        settingsCache.invalidate(key);
+        return createCompletionCallback(new Command.Finisher() {
+            @Override
+            public void execute(final CommandError error) {
+                settingsCache.invalidate(key);
+                finished.execute(error);
+            }
+        });
+    }
 
-        if (command instanceof OcuSyncDroneCommand) {
-            return executeOcuSyncDroneCommand((OcuSyncDroneCommand) command, finished);
+    private CommandError executeDroneCommand(final DroneCommand command, final Command.Finisher finished) {
+        final DroneCommandHandler handler = droneCommandHandlers.get(command);
+        if (handler == null) {
+            if (adapter.getDrone().getFlightController() == null) {
+                return new CommandError(context.getString(R.string.MissionDisengageReason_drone_control_unavailable_title));
+            }
+            return new CommandError(context.getString(R.string.MissionDisengageReason_command_type_unhandled));
         }
+        return handler.execute(command, finished);
+    }
 
-        if (command instanceof AccessoryDroneCommand) {
-            return executeAccessoryDroneCommand((AccessoryDroneCommand) command, finished);
-        }
+    private void registerFlightControllerCommandHandler(final Class<? extends DroneCommand> type, final FlightControllerCommandHandler handler) {
+        droneCommandHandlers.register(type, (command, finished) -> {
+            final FlightController flightController = adapter.getDrone().getFlightController();
+            if (flightController == null) {
+                return new CommandError(context.getString(R.string.MissionDisengageReason_drone_control_unavailable_title));
+            }
+            return handler.execute(command, flightController, finished);
+        });
+    }
 
-        final FlightController flightController = adapter.getDrone().getFlightController();
-        if (flightController == null) {
-            return new CommandError(context.getString(R.string.MissionDisengageReason_drone_control_unavailable_title));
-        }
+    private void initDroneCommandHandlers() {
+        initFlightAssistantCommandHandlers();
+        initLandingGearCommandHandlers();
+        initLightbridgeCommandHandlers();
+        initOcuSyncCommandHandlers();
+        initAccessoryCommandHandlers();
 
-        if (command instanceof ConnectionFailSafeBehaviorDroneCommand) {
+        registerFlightControllerCommandHandler(ConnectionFailSafeBehaviorDroneCommand.class, (command, flightController, finished) -> {
             flightController.getConnectionFailSafeBehavior(createCompletionCallbackWith(new Command.FinisherWith<ConnectionFailSafeBehavior>() {
                 @Override
                 public void execute(final ConnectionFailSafeBehavior current) {
@@ -1984,63 +2799,66 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
                 }
             }, finished));
             return null;
-        }
+        });
 
-        if (command instanceof HomeLocationDroneCommand) {
+        registerFlightControllerCommandHandler(HomeLocationDroneCommand.class, (command, flightController, finished) -> {
             final GeoCoordinate coordinate = ((HomeLocationDroneCommand) command).coordinate;
             flightController.setHomeLocation(DronelinkDJI.getCoordinate(coordinate), createCompletionCallback(finished));
             return null;
-        }
+        });
 
-        if (command instanceof LowBatteryWarningThresholdDroneCommand) {
-            flightController.getLowBatteryWarningThreshold(createCompletionCallbackWith(new Command.FinisherWith<Integer>() {
+        registerFlightControllerCommandHandler(LowBatteryWarningThresholdDroneCommand.class, (command, flightController, finished) -> {
+            final DJIKey key = FlightControllerKey.create(FlightControllerKey.LOW_BATTERY_WARNING_THRESHOLD);
+            getSetting(key, Integer.class, flightController::getLowBatteryWarningThreshold, new Command.FinisherWith<Integer>() {
                 @Override
                 public void execute(final Integer current) {
                     final Integer target = (int)(((LowBatteryWarningThresholdDroneCommand) command).lowBatteryWarningThreshold * 100);
                     Command.conditionallyExecute(!target.equals(current), finished, new Command.ConditionalExecutor() {
                         @Override
                         public void execute() {
-                            flightController.setLowBatteryWarningThreshold(target, createCompletionCallback(finished));
+                            flightController.setLowBatteryWarningThreshold(target, createSettingCompletionCallback(key, finished));
                         }
                     });
                 }
-            }, finished));
+            }, finished);
             return null;
-        }
+        });
 
-        if (command instanceof MaxAltitudeDroneCommand) {
-            flightController.getMaxFlightHeight(createCompletionCallbackWith(new Command.FinisherWith<Integer>() {
+        registerFlightControllerCommandHandler(MaxAltitudeDroneCommand.class, (command, flightController, finished) -> {
+            final DJIKey key = FlightControllerKey.create(FlightControllerKey.MAX_FLIGHT_HEIGHT);
+            getSetting(key, Integer.class, flightController::getMaxFlightHeight, new Command.FinisherWith<Integer>() {
                 @Override
                 public void execute(final Integer current) {
                     final Integer target = (int)(((MaxAltitudeDroneCommand) command).maxAltitude);
                     Command.conditionallyExecute(!target.equals(current), finished, new Command.ConditionalExecutor() {
                         @Override
                         public void execute() {
-                            flightController.setMaxFlightHeight(target, createCompletionCallback(finished));
+                            flightController.setMaxFlightHeight(target, createSettingCompletionCallback(key, finished));
                         }
                     });
                 }
-            }, finished));
+            }, finished);
             return null;
-        }
+        });
 
-        if (command instanceof MaxDistanceDroneCommand) {
-            flightController.getMaxFlightRadius(createCompletionCallbackWith(new Command.FinisherWith<Integer>() {
+        registerFlightControllerCommandHandler(MaxDistanceDroneCommand.class, (command, flightController, finished) -> {
+            final DJIKey key = FlightControllerKey.create(FlightControllerKey.MAX_FLIGHT_RADIUS);
+            getSetting(key, Integer.class, flightController::getMaxFlightRadius, new Command.FinisherWith<Integer>() {
                 @Override
                 public void execute(final Integer current) {
                     final Integer target = (int)(((MaxDistanceDroneCommand) command).maxDistance);
                     Command.conditionallyExecute(!target.equals(current), finished, new Command.ConditionalExecutor() {
                         @Override
                         public void execute() {
-                            flightController.setMaxFlightRadius(target, createCompletionCallback(finished));
+                            flightController.setMaxFlightRadius(target, createSettingCompletionCallback(key, finished));
                         }
                     });
                 }
-            }, finished));
+            }, finished);
             return null;
-        }
+        });
 
-        if (command instanceof MaxDistanceLimitationDroneCommand) {
+        registerFlightControllerCommandHandler(MaxDistanceLimitationDroneCommand.class, (command, flightController, finished) -> {
             flightController.getMaxFlightRadiusLimitationEnabled(createCompletionCallbackWith(new Command.FinisherWith<Boolean>() {
                 @Override
                 public void execute(final Boolean current) {
@@ -2054,25 +2872,26 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
                 }
             }, finished));
             return null;
-        }
+        });
 
-        if (command instanceof ReturnHomeAltitudeDroneCommand) {
-            flightController.getGoHomeHeightInMeters(createCompletionCallbackWith(new Command.FinisherWith<Integer>() {
+        registerFlightControllerCommandHandler(ReturnHomeAltitudeDroneCommand.class, (command, flightController, finished) -> {
+            final DJIKey key = FlightControllerKey.create(FlightControllerKey.GO_HOME_HEIGHT_IN_METERS);
+            getSetting(key, Integer.class, flightController::getGoHomeHeightInMeters, new Command.FinisherWith<Integer>() {
                 @Override
                 public void execute(final Integer current) {
                     final Integer target = (int)(((ReturnHomeAltitudeDroneCommand) command).returnHomeAltitude);
                     Command.conditionallyExecute(!target.equals(current), finished, new Command.ConditionalExecutor() {
                         @Override
                         public void execute() {
-                            flightController.setGoHomeHeightInMeters(target, createCompletionCallback(finished));
+                            flightController.setGoHomeHeightInMeters(target, createSettingCompletionCallback(key, finished));
                         }
                     });
                 }
-            }, finished));
+            }, finished);
             return null;
-        }
+        });
 
-        if (command instanceof ReturnHomeDroneCommand) {
+        registerFlightControllerCommandHandler(ReturnHomeDroneCommand.class, (command, flightController, finished) -> {
             Command.conditionallyExecute(state.isFlying() && !state.isReturningHome(), finished, new Command.ConditionalExecutor() {
                 @Override
                 public void execute() {
@@ -2080,9 +2899,9 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
                 }
             });
             return null;
-        }
+        });
 
-        if (command instanceof SeriousLowBatteryWarningThresholdDroneCommand) {
+        registerFlightControllerCommandHandler(SeriousLowBatteryWarningThresholdDroneCommand.class, (command, flightController, finished) -> {
             flightController.getSeriousLowBatteryWarningThreshold(createCompletionCallbackWith(new Command.FinisherWith<Integer>() {
                 @Override
                 public void execute(final Integer current) {
@@ -2096,9 +2915,9 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
                 }
             }, finished));
             return null;
-        }
+        });
 
-        if (command instanceof SmartReturnHomeDroneCommand) {
+        registerFlightControllerCommandHandler(SmartReturnHomeDroneCommand.class, (command, flightController, finished) -> {
             flightController.getSmartReturnToHomeEnabled(createCompletionCallbackWith(new Command.FinisherWith<Boolean>() {
                 @Override
                 public void execute(final Boolean current) {
@@ -2112,23 +2931,24 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
                 }
             }, finished));
             return null;
-        }
-
-        return new CommandError(context.getString(R.string.MissionDisengageReason_command_type_unhandled));
+        });
     }
 
-    private CommandError executeFlightAssistantDroneCommand(final FlightAssistantDroneCommand command, final Command.Finisher finished) {
-        final FlightController flightController = adapter.getDrone().getFlightController();
-        if (flightController == null) {
-            return new CommandError(context.getString(R.string.MissionDisengageReason_drone_flight_assistant_unavailable_title));
-        }
+    private void registerFlightAssistantCommandHandler(final Class<? extends FlightAssistantDroneCommand> type, final FlightAssistantCommandHandler handler) {
+        droneCommandHandlers.register(type, (command, finished) -> {
+            final FlightController flightController = adapter.getDrone().getFlightController();
+            final FlightAssistant flightAssistant = flightController == null ? null : flightController.getFlightAssistant();
+            if (flightAssistant == null) {
+                return new CommandError(context.getString(R.string.MissionDisengageReason_drone_flight_assistant_unavailable_title));
+            }
+            return handler.execute(command, flightAssistant, finished);
+        });
+    }
 
-        final FlightAssistant flightAssistant = flightController.getFlightAssistant();
-        if (flightAssistant == null) {
-            return new CommandError(context.getString(R.string.MissionDisengageReason_drone_flight_assistant_unavailable_title));
-        }
+    private void initFlightAssistantCommandHandlers() {
+        registerFlightAssistantCommandHandler(FlightAssistantDroneCommand.class, (command, flightAssistant, finished) -> new CommandError(context.getString(R.string.MissionDisengageReason_command_type_unhandled)));
 
-        if (command instanceof AuxiliaryLightModeDroneCommand) {
+        registerFlightAssistantCommandHandler(AuxiliaryLightModeDroneCommand.class, (command, flightAssistant, finished) -> {
             final FillLightMode target = DronelinkDJI.getFillLightMode(((AuxiliaryLightModeDroneCommand) command).auxiliaryLightMode);
             switch (((AuxiliaryLightModeDroneCommand) command).auxiliaryLightPosition) {
                 case BOTTOM:
@@ -2170,9 +2990,11 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
                 case UNKNOWN:
                     break;
             }
-        }
 
-        if (command instanceof CollisionAvoidanceDroneCommand) {
+            return new CommandError(context.getString(R.string.MissionDisengageReason_command_type_unhandled));
+        });
+
+        registerFlightAssistantCommandHandler(CollisionAvoidanceDroneCommand.class, (command, flightAssistant, finished) -> {
 //            flightAssistant.getCollisionAvoidanceEnabled(createCompletionCallbackWith(new Command.FinisherWith<Boolean>() {
 //                @Override
 //                public void execute(final Boolean current) {
@@ -2188,9 +3010,9 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
             //skipping conditional execution for now because it seems like the DJI SDK always returns true for getCollisionAvoidanceEnabled
             flightAssistant.setCollisionAvoidanceEnabled(((CollisionAvoidanceDroneCommand) command).enabled, createCompletionCallback(finished));
             return null;
-        }
+        });
 
-        if (command instanceof LandingProtectionDroneCommand) {
+        registerFlightAssistantCommandHandler(LandingProtectionDroneCommand.class, (command, flightAssistant, finished) -> {
             flightAssistant.getLandingProtectionEnabled(createCompletionCallbackWith(new Command.FinisherWith<Boolean>() {
                 @Override
                 public void execute(final Boolean current) {
@@ -2204,21 +3026,15 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
                 }
             }, finished));
             return null;
-        }
+        });
 
-        if (command instanceof ObstacleAvoidanceBrakingDistanceDroneCommand) {
-            return new CommandError(context.getString(R.string.MissionDisengageReason_command_type_unsupported));
-        }
+        registerFlightAssistantCommandHandler(ObstacleAvoidanceBrakingDistanceDroneCommand.class, (command, flightAssistant, finished) -> new CommandError(context.getString(R.string.MissionDisengageReason_command_type_unsupported)));
 
-        if (command instanceof ObstacleAvoidanceModeDroneCommand) {
-            return new CommandError(context.getString(R.string.MissionDisengageReason_command_type_unsupported));
-        }
+        registerFlightAssistantCommandHandler(ObstacleAvoidanceModeDroneCommand.class, (command, flightAssistant, finished) -> new CommandError(context.getString(R.string.MissionDisengageReason_command_type_unsupported)));
 
-        if (command instanceof ObstacleAvoidanceWarningDistanceDroneCommand) {
-            return new CommandError(context.getString(R.string.MissionDisengageReason_command_type_unsupported));
-        }
+        registerFlightAssistantCommandHandler(ObstacleAvoidanceWarningDistanceDroneCommand.class, (command, flightAssistant, finished) -> new CommandError(context.getString(R.string.MissionDisengageReason_command_type_unsupported)));
 
-        if (command instanceof PrecisionLandingDroneCommand) {
+        registerFlightAssistantCommandHandler(PrecisionLandingDroneCommand.class, (command, flightAssistant, finished) -> {
             flightAssistant.getPrecisionLandingEnabled(createCompletionCallbackWith(new Command.FinisherWith<Boolean>() {
                 @Override
                 public void execute(final Boolean current) {
@@ -2232,9 +3048,9 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
                 }
             }, finished));
             return null;
-        }
+        });
 
-        if (command instanceof ReturnHomeObstacleAvoidanceDroneCommand) {
+        registerFlightAssistantCommandHandler(ReturnHomeObstacleAvoidanceDroneCommand.class, (command, flightAssistant, finished) -> {
             flightAssistant.getRTHObstacleAvoidanceEnabled(createCompletionCallbackWith(new Command.FinisherWith<Boolean>() {
                 @Override
                 public void execute(final Boolean current) {
@@ -2248,9 +3064,9 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
                 }
             }, finished));
             return null;
-        }
+        });
 
-        if (command instanceof ReturnHomeRemoteObstacleAvoidanceDroneCommand) {
+        registerFlightAssistantCommandHandler(ReturnHomeRemoteObstacleAvoidanceDroneCommand.class, (command, flightAssistant, finished) -> {
             flightAssistant.getRTHRemoteObstacleAvoidanceEnabled(createCompletionCallbackWith(new Command.FinisherWith<Boolean>() {
                 @Override
                 public void execute(final Boolean current) {
@@ -2264,9 +3080,9 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
                 }
             }, finished));
             return null;
-        }
+        });
 
-        if (command instanceof UpwardsAvoidanceDroneCommand) {
+        registerFlightAssistantCommandHandler(UpwardsAvoidanceDroneCommand.class, (command, flightAssistant, finished) -> {
             flightAssistant.getUpwardVisionObstacleAvoidanceEnabled(createCompletionCallbackWith(new Command.FinisherWith<Boolean>() {
                 @Override
                 public void execute(final Boolean current) {
@@ -2280,13 +3096,11 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
                 }
             }, finished));
             return null;
-        }
+        });
 
-        if (command instanceof DownwardAvoidanceDroneCommand) {
-            return new CommandError(context.getString(R.string.MissionDisengageReason_command_type_unsupported));
-        }
+        registerFlightAssistantCommandHandler(DownwardAvoidanceDroneCommand.class, (command, flightAssistant, finished) -> new CommandError(context.getString(R.string.MissionDisengageReason_command_type_unsupported)));
 
-        if (command instanceof VisionAssistedPositioningDroneCommand) {
+        registerFlightAssistantCommandHandler(VisionAssistedPositioningDroneCommand.class, (command, flightAssistant, finished) -> {
             flightAssistant.getVisionAssistedPositioningEnabled(createCompletionCallbackWith(new Command.FinisherWith<Boolean>() {
                 @Override
                 public void execute(final Boolean current) {
@@ -2300,18 +3114,24 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
                 }
             }, finished));
             return null;
-        }
+        });
+    }
 
-        return new CommandError(context.getString(R.string.MissionDisengageReason_command_type_unhandled));
+    private void registerLandingGearCommandHandler(final Class<? extends LandingGearDroneCommand> type, final LandingGearCommandHandler handler) {
+        droneCommandHandlers.register(type, (command, finished) -> {
+            final FlightController flightController = adapter.getDrone().getFlightController();
+            final LandingGear landingGear = flightController == null ? null : flightController.getLandingGear();
+            if (landingGear == null) {
+                return new CommandError(context.getString(R.string.MissionDisengageReason_drone_landing_gear_unavailable_title));
+            }
+            return handler.execute(command, landingGear, finished);
+        });
     }
 
-    private CommandError executeLandingGearDroneCommand(final LandingGearDroneCommand command, final Command.Finisher finished) {
-        final LandingGear landingGear = adapter.getDrone().getFlightController().getLandingGear();
-        if (landingGear == null) {
-            return new CommandError(context.getString(R.string.MissionDisengageReason_drone_landing_gear_unavailable_title));
-        }
+    private void initLandingGearCommandHandlers() {
+        registerLandingGearCommandHandler(LandingGearDroneCommand.class, (command, landingGear, finished) -> new CommandError(context.getString(R.string.MissionDisengageReason_command_type_unhandled)));
 
-        if (command instanceof LandingGearAutomaticMovementDroneCommand) {
+        registerLandingGearCommandHandler(LandingGearAutomaticMovementDroneCommand.class, (command, landingGear, finished) -> {
             landingGear.getAutomaticMovementEnabled(createCompletionCallbackWith(new Command.FinisherWith<Boolean>() {
                 @Override
                 public void execute(final Boolean current) {
@@ -2325,9 +3145,9 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
                 }
             }, finished));
             return null;
-        }
+        });
 
-        if (command instanceof LandingGearDeployDroneCommand) {
+        registerLandingGearCommandHandler(LandingGearDeployDroneCommand.class, (command, landingGear, finished) -> {
             Command.conditionallyExecute(!(landingGear.getState() == LandingGearState.DEPLOYED || landingGear.getState() == LandingGearState.DEPLOYING), finished, new Command.ConditionalExecutor() {
                 @Override
                 public void execute() {
@@ -2335,9 +3155,9 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
                 }
             });
             return null;
-        }
+        });
 
-        if (command instanceof LandingGearRetractDroneCommand) {
+        registerLandingGearCommandHandler(LandingGearRetractDroneCommand.class, (command, landingGear, finished) -> {
             Command.conditionallyExecute(!(landingGear.getState() == LandingGearState.RETRACTED || landingGear.getState() == LandingGearState.RETRACTING), finished, new Command.ConditionalExecutor() {
                 @Override
                 public void execute() {
@@ -2345,23 +3165,24 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
                 }
             });
             return null;
-        }
-
-        return new CommandError(context.getString(R.string.MissionDisengageReason_command_type_unhandled));
+        });
     }
 
-    private CommandError executeLightbridgeDroneCommand(final LightbridgeDroneCommand command, final Command.Finisher finished) {
-        final AirLink airLink = adapter.getDrone().getAirLink();
-        if (airLink == null) {
-            return new CommandError(context.getString(R.string.MissionDisengageReason_drone_lightbridge_unavailable_title));
-        }
+    private void registerLightbridgeCommandHandler(final Class<? extends LightbridgeDroneCommand> type, final LightbridgeCommandHandler handler) {
+        droneCommandHandlers.register(type, (command, finished) -> {
+            final AirLink airLink = adapter.getDrone().getAirLink();
+            final LightbridgeLink link = airLink == null ? null : airLink.getLightbridgeLink();
+            if (link == null) {
+                return new CommandError(context.getString(R.string.MissionDisengageReason_drone_lightbridge_unavailable_title));
+            }
+            return handler.execute(command, link, finished);
+        });
+    }
 
-        final LightbridgeLink link = airLink.getLightbridgeLink();
-        if (link == null) {
-            return new CommandError(context.getString(R.string.MissionDisengageReason_drone_lightbridge_unavailable_title));
-        }
+    private void initLightbridgeCommandHandlers() {
+        registerLightbridgeCommandHandler(LightbridgeDroneCommand.class, (command, link, finished) -> new CommandError(context.getString(R.string.MissionDisengageReason_command_type_unhandled)));
 
-        if (command instanceof LightbridgeChannelDroneCommand) {
+        registerLightbridgeCommandHandler(LightbridgeChannelDroneCommand.class, (command, link, finished) -> {
             link.getChannelNumber(createCompletionCallbackWith(new Command.FinisherWith<Integer>() {
                 @Override
                 public void execute(final Integer current) {
@@ -2375,9 +3196,9 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
                 }
             }, finished));
             return null;
-        }
+        });
 
-        if (command instanceof LightbridgeChannelSelectionModeDroneCommand) {
+        registerLightbridgeCommandHandler(LightbridgeChannelSelectionModeDroneCommand.class, (command, link, finished) -> {
             link.getChannelSelectionMode(createCompletionCallbackWith(new Command.FinisherWith<ChannelSelectionMode>() {
                 @Override
                 public void execute(final ChannelSelectionMode current) {
@@ -2391,9 +3212,9 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
                 }
             }, finished));
             return null;
-        }
+        });
 
-        if (command instanceof LightbridgeFrequencyBandDroneCommand) {
+        registerLightbridgeCommandHandler(LightbridgeFrequencyBandDroneCommand.class, (command, link, finished) -> {
             link.getFrequencyBand(createCompletionCallbackWith(new Command.FinisherWith<LightbridgeFrequencyBand>() {
                 @Override
                 public void execute(final LightbridgeFrequencyBand current) {
@@ -2407,23 +3228,24 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
                 }
             }, finished));
             return null;
-        }
-
-        return new CommandError(context.getString(R.string.MissionDisengageReason_command_type_unhandled));
+        });
     }
 
-    private CommandError executeOcuSyncDroneCommand(final OcuSyncDroneCommand command, final Command.Finisher finished) {
-        final AirLink airLink = adapter.getDrone().getAirLink();
-        if (airLink == null) {
-            return new CommandError(context.getString(R.string.MissionDisengageReason_drone_ocusync_unavailable_title));
-        }
+    private void registerOcuSyncCommandHandler(final Class<? extends OcuSyncDroneCommand> type, final OcuSyncCommandHandler handler) {
+        droneCommandHandlers.register(type, (command, finished) -> {
+            final AirLink airLink = adapter.getDrone().getAirLink();
+            final OcuSyncLink link = airLink == null ? null : airLink.getOcuSyncLink();
+            if (link == null) {
+                return new CommandError(context.getString(R.string.MissionDisengageReason_drone_ocusync_unavailable_title));
+            }
+            return handler.execute(command, link, finished);
+        });
+    }
 
-        final OcuSyncLink link = airLink.getOcuSyncLink();
-        if (link == null) {
-            return new CommandError(context.getString(R.string.MissionDisengageReason_drone_ocusync_unavailable_title));
-        }
+    private void initOcuSyncCommandHandlers() {
+        registerOcuSyncCommandHandler(OcuSyncDroneCommand.class, (command, link, finished) -> new CommandError(context.getString(R.string.MissionDisengageReason_command_type_unhandled)));
 
-        if (command instanceof OcuSyncChannelDroneCommand) {
+        registerOcuSyncCommandHandler(OcuSyncChannelDroneCommand.class, (command, link, finished) -> {
             link.getChannelNumber(createCompletionCallbackWith(new Command.FinisherWith<Integer>() {
                 @Override
                 public void execute(final Integer current) {
@@ -2437,9 +3259,9 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
                 }
             }, finished));
             return null;
-        }
+        });
 
-        if (command instanceof OcuSyncChannelSelectionModeDroneCommand) {
+        registerOcuSyncCommandHandler(OcuSyncChannelSelectionModeDroneCommand.class, (command, link, finished) -> {
             link.getChannelSelectionMode(createCompletionCallbackWith(new Command.FinisherWith<ChannelSelectionMode>() {
                 @Override
                 public void execute(final ChannelSelectionMode current) {
@@ -2453,9 +3275,9 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
                 }
             }, finished));
             return null;
-        }
+        });
 
-        if (command instanceof OcuSyncFrequencyBandDroneCommand) {
+        registerOcuSyncCommandHandler(OcuSyncFrequencyBandDroneCommand.class, (command, link, finished) -> {
             link.getFrequencyBand(createCompletionCallbackWith(new Command.FinisherWith<OcuSyncFrequencyBand>() {
                 @Override
                 public void execute(final OcuSyncFrequencyBand current) {
@@ -2469,26 +3291,31 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
                 }
             }, finished));
             return null;
-        }
+        });
 
-        if (command instanceof OcuSyncVideoFeedSourcesDroneCommand) {
+        registerOcuSyncCommandHandler(OcuSyncVideoFeedSourcesDroneCommand.class, (command, link, finished) -> {
             link.assignSourceToPrimaryChannel(
                     DronelinkDJI.getOcuSyncFeedSource((OcuSyncVideoFeedSourcesDroneCommand) command, 0),
                     DronelinkDJI.getOcuSyncFeedSource((OcuSyncVideoFeedSourcesDroneCommand) command, 1),
                     createCompletionCallback(finished));
             return null;
-        }
+        });
+    }
 
-        return new CommandError(context.getString(R.string.MissionDisengageReason_command_type_unhandled));
+    private void registerAccessoryCommandHandler(final Class<? extends AccessoryDroneCommand> type, final AccessoryCommandHandler handler) {
+        droneCommandHandlers.register(type, (command, finished) -> {
+            final AccessoryAggregation accessoryAggregation = adapter.getDrone().getAccessoryAggregation();
+            if (accessoryAggregation == null) {
+                return new CommandError(context.getString(R.string.MissionDisengageReason_drone_accessory_aggregation_unavailable_title));
+            }
+            return handler.execute(command, accessoryAggregation, finished);
+        });
     }
 
-    private CommandError executeAccessoryDroneCommand(final AccessoryDroneCommand command, final Command.Finisher finished) {
-        final AccessoryAggregation accessoryAggregation = adapter.getDrone().getAccessoryAggregation();
-        if (accessoryAggregation == null) {
-            return new CommandError(context.getString(R.string.MissionDisengageReason_drone_accessory_aggregation_unavailable_title));
-        }
+    private void initAccessoryCommandHandlers() {
+        registerAccessoryCommandHandler(AccessoryDroneCommand.class, (command, accessoryAggregation, finished) -> new CommandError(context.getString(R.string.MissionDisengageReason_command_type_unhandled)));
 
-        if (command instanceof BeaconDroneCommand) {
+        registerAccessoryCommandHandler(BeaconDroneCommand.class, (command, accessoryAggregation, finished) -> {
             final Beacon beacon = accessoryAggregation.getBeacon();
             if (beacon == null) {
                 return new CommandError(context.getString(R.string.MissionDisengageReason_drone_beacon_unavailable_title));
@@ -2507,35 +3334,38 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
                 }
             }, finished));
             return null;
-        }
+        });
 
-        if (command instanceof SpotlightDroneCommand || command instanceof SpotlightBrightnessDroneCommand) {
+        registerAccessoryCommandHandler(SpotlightDroneCommand.class, (command, accessoryAggregation, finished) -> {
             final Spotlight spotlight = accessoryAggregation.getSpotlight();
             if (spotlight == null) {
                 return new CommandError(context.getString(R.string.MissionDisengageReason_drone_spotlight_unavailable_title));
             }
 
-            if (command instanceof SpotlightDroneCommand) {
-                spotlight.getEnabled(createCompletionCallbackWith(new Command.FinisherWith<Boolean>() {
-                    @Override
-                    public void execute(final Boolean current) {
-                        final Boolean target = ((SpotlightDroneCommand) command).enabled;
-                        Command.conditionallyExecute(!target.equals(current), finished, new Command.ConditionalExecutor() {
-                            @Override
-                            public void execute() {
-                                spotlight.setEnabled(target, createCompletionCallback(finished));
-                            }
-                        });
-                    }
-                }, finished));
-                return null;
+            spotlight.getEnabled(createCompletionCallbackWith(new Command.FinisherWith<Boolean>() {
+                @Override
+                public void execute(final Boolean current) {
+                    final Boolean target = ((SpotlightDroneCommand) command).enabled;
+                    Command.conditionallyExecute(!target.equals(current), finished, new Command.ConditionalExecutor() {
+                        @Override
+                        public void execute() {
+                            spotlight.setEnabled(target, createCompletionCallback(finished));
+                        }
+                    });
+                }
+            }, finished));
+            return null;
+        });
+
+        registerAccessoryCommandHandler(SpotlightBrightnessDroneCommand.class, (command, accessoryAggregation, finished) -> {
+            final Spotlight spotlight = accessoryAggregation.getSpotlight();
+            if (spotlight == null) {
+                return new CommandError(context.getString(R.string.MissionDisengageReason_drone_spotlight_unavailable_title));
             }
 
             spotlight.setBrightness((int)(((SpotlightBrightnessDroneCommand) command).spotlightBrightness * 100), createCompletionCallback(finished));
             return null;
-        }
-
-        return new CommandError(context.getString(R.string.MissionDisengageReason_command_type_unhandled));
+        });
     }
 
     private CommandError executeLiveStreamingCommand(final LiveStreamingCommand command, final Command.Finisher finished) {
@@ -2625,23 +3455,32 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
         }
         final DJICameraStateAdapter djiState = (DJICameraStateAdapter)state.value;
 
-        if (command instanceof AEBCountCameraCommand) {
-            camera.getPhotoAEBCount(createCompletionCallbackWith(new Command.FinisherWith<SettingsDefinitions.PhotoAEBCount>() {
+        final CameraCommandHandler handler = cameraCommandHandlers.get(command);
+        if (handler == null) {
+            return new CommandError(context.getString(R.string.MissionDisengageReason_command_type_unhandled));
+        }
+        return handler.execute(command, camera, djiState, finished);
+    }
+
+    private void initCameraCommandHandlers() {
+        cameraCommandHandlers.register(AEBCountCameraCommand.class, (command, camera, djiState, finished) -> {
+            final DJIKey key = CameraKey.create(CameraKey.PHOTO_AEB_COUNT, camera.getIndex());
+            getSetting(key, SettingsDefinitions.PhotoAEBCount.class, camera::getPhotoAEBCount, new Command.FinisherWith<SettingsDefinitions.PhotoAEBCount>() {
                 @Override
                 public void execute(final SettingsDefinitions.PhotoAEBCount current) {
                     final SettingsDefinitions.PhotoAEBCount target = DronelinkDJI.getCameraAEBCount(((AEBCountCameraCommand) command).aebCount);
                     Command.conditionallyExecute(!target.equals(current), finished, new Command.ConditionalExecutor() {
                         @Override
                         public void execute() {
-                            camera.setPhotoAEBCount(target, createCompletionCallback(finished));
+                            camera.setPhotoAEBCount(target, createSettingCompletionCallback(key, finished));
                         }
                     });
                 }
-            }, finished));
+            }, finished);
             return null;
-        }
+        });
 
-        if (command instanceof ApertureCameraCommand) {
+        cameraCommandHandlers.register(ApertureCameraCommand.class, (command, camera, djiState, finished) -> {
             final SettingsDefinitions.Aperture target = DronelinkDJI.getCameraAperture(((ApertureCameraCommand) command).aperture);
             Command.conditionallyExecute(djiState.exposureSettings.getAperture() != target, finished, new Command.ConditionalExecutor() {
                 @Override
@@ -2650,9 +3489,9 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
                 }
             });
             return null;
-        }
+        });
 
-        if (command instanceof AutoLockGimbalCameraCommand) {
+        cameraCommandHandlers.register(AutoLockGimbalCameraCommand.class, (command, camera, djiState, finished) -> {
             camera.getAutoLockGimbalEnabled(createCompletionCallbackWith(new Command.FinisherWith<Boolean>() {
                 @Override
                 public void execute(final Boolean current) {
@@ -2666,25 +3505,26 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
                 }
             }, finished));
             return null;
-        }
+        });
 
-        if (command instanceof AutoExposureLockCameraCommand) {
-            camera.getAELock(createCompletionCallbackWith(new Command.FinisherWith<Boolean>() {
+        cameraCommandHandlers.register(AutoExposureLockCameraCommand.class, (command, camera, djiState, finished) -> {
+            final DJIKey key = CameraKey.create(CameraKey.AE_LOCK, camera.getIndex());
+            getSetting(key, Boolean.class, camera::getAELock, new Command.FinisherWith<Boolean>() {
                 @Override
                 public void execute(final Boolean current) {
                     final Boolean target = ((AutoExposureLockCameraCommand) command).enabled;
                     Command.conditionallyExecute(!target.equals(current), finished, new Command.ConditionalExecutor() {
                         @Override
                         public void execute() {
-                            camera.setAELock(target, createCompletionCallback(finished));
+                            camera.setAELock(target, createSettingCompletionCallback(key, finished));
                         }
                     });
                 }
-            }, finished));
+            }, finished);
             return null;
-        }
+        });
 
-        if (command instanceof DisplayModeCameraCommand) {
+        cameraCommandHandlers.register(DisplayModeCameraCommand.class, (command, camera, djiState, finished) -> {
             if (adapter.drone.getModel() == Model.MAVIC_2_ENTERPRISE_DUAL || camera.getDisplayName() == Camera.DisplayNameXT2_IR) {
                 camera.getDisplayMode(createCompletionCallbackWith(new Command.FinisherWith<SettingsDefinitions.DisplayMode>() {
                     @Override
@@ -2719,9 +3559,9 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
                 }
             }, finished));
             return null;
-        }
+        });
 
-        if (command instanceof ColorCameraCommand) {
+        cameraCommandHandlers.register(ColorCameraCommand.class, (command, camera, djiState, finished) -> {
             camera.getColor(createCompletionCallbackWith(new Command.FinisherWith<SettingsDefinitions.CameraColor>() {
                 @Override
                 public void execute(final SettingsDefinitions.CameraColor current) {
@@ -2735,9 +3575,9 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
                 }
             }, finished));
             return null;
-        }
+        });
 
-        if (command instanceof ContrastCameraCommand) {
+        cameraCommandHandlers.register(ContrastCameraCommand.class, (command, camera, djiState, finished) -> {
             camera.getContrast(createCompletionCallbackWith(new Command.FinisherWith<Integer>() {
                 @Override
                 public void execute(final Integer current) {
@@ -2751,13 +3591,13 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
                 }
             }, finished));
             return null;
-        }
+        });
 
-        if (command instanceof DewarpingCameraCommand) {
+        cameraCommandHandlers.register(DewarpingCameraCommand.class, (command, camera, djiState, finished) -> {
             return new CommandError(context.getString(R.string.MissionDisengageReason_command_type_unsupported));
-        }
+        });
 
-        if (command instanceof ExposureCompensationCameraCommand) {
+        cameraCommandHandlers.register(ExposureCompensationCameraCommand.class, (command, camera, djiState, finished) -> {
             final SettingsDefinitions.ExposureCompensation target = DronelinkDJI.getCameraExposureCompensation(((ExposureCompensationCameraCommand) command).exposureCompensation);
             Command.conditionallyExecute(DronelinkDJI.getCameraExposureCompensation(djiState.getExposureCompensation()) != target, finished, new Command.ConditionalExecutor() {
                 @Override
@@ -2772,9 +3612,9 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
                 }
             });
             return null;
-        }
+        });
 
-        if (command instanceof ExposureCompensationStepCameraCommand) {
+        cameraCommandHandlers.register(ExposureCompensationStepCameraCommand.class, (command, camera, djiState, finished) -> {
             final SettingsDefinitions.ExposureCompensation target = DronelinkDJI.getCameraExposureCompensation(djiState.getExposureCompensation().offset(((ExposureCompensationStepCameraCommand) command).exposureCompensationSteps));
             Command.conditionallyExecute(DronelinkDJI.getCameraExposureCompensation(djiState.getExposureCompensation()) != target, finished, new Command.ConditionalExecutor() {
                 @Override
@@ -2789,25 +3629,26 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
                 }
             });
             return null;
-        }
+        });
 
-        if (command instanceof ExposureModeCameraCommand) {
-            camera.getExposureMode(createCompletionCallbackWith(new Command.FinisherWith<SettingsDefinitions.ExposureMode>() {
+        cameraCommandHandlers.register(ExposureModeCameraCommand.class, (command, camera, djiState, finished) -> {
+            final DJIKey key = CameraKey.create(CameraKey.EXPOSURE_MODE, camera.getIndex());
+            getSetting(key, SettingsDefinitions.ExposureMode.class, camera::getExposureMode, new Command.FinisherWith<SettingsDefinitions.ExposureMode>() {
                 @Override
                 public void execute(final SettingsDefinitions.ExposureMode current) {
                     final SettingsDefinitions.ExposureMode target = DronelinkDJI.getCameraExposureMode(((ExposureModeCameraCommand) command).exposureMode);
                     Command.conditionallyExecute(!target.equals(current), finished, new Command.ConditionalExecutor() {
                         @Override
                         public void execute() {
-                            camera.setExposureMode(target, createCompletionCallback(finished));
+                            camera.setExposureMode(target, createSettingCompletionCallback(key, finished));
                         }
                     });
                 }
-            }, finished));
+            }, finished);
             return null;
-        }
+        });
 
-        if (command instanceof FileIndexModeCameraCommand) {
+        cameraCommandHandlers.register(FileIndexModeCameraCommand.class, (command, camera, djiState, finished) -> {
             camera.getFileIndexMode(createCompletionCallbackWith(new Command.FinisherWith<SettingsDefinitions.FileIndexMode>() {
                 @Override
                 public void execute(final SettingsDefinitions.FileIndexMode current) {
@@ -2821,9 +3662,9 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
                 }
             }, finished));
             return null;
-        }
+        });
 
-        if (command instanceof FocusCameraCommand) {
+        cameraCommandHandlers.register(FocusCameraCommand.class, (command, camera, djiState, finished) -> {
             final FocusCameraCommand focusCameraCommand = (FocusCameraCommand)command;
             camera.setFocusTarget(new PointF((float)focusCameraCommand.focusTarget.x, (float)focusCameraCommand.focusTarget.y), new CommonCallbacks.CompletionCallback() {
                 @Override
@@ -2833,19 +3674,19 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
                         return;
                     }
 
-                    new Handler().postDelayed(new Runnable() {
+                    cameraCommandAwaitBusy(focusCameraCommand, new Runnable() {
                         @Override
                         public void run() {
                             cameraCommandFinishFocusTargetVerifyRing(focusCameraCommand, finished);
                         }
-                    }, 500);
+                    });
                 }
             });
 
             return null;
-        }
+        });
 
-        if (command instanceof FocusDistanceCameraCommand) {
+        cameraCommandHandlers.register(FocusDistanceCameraCommand.class, (command, camera, djiState, finished) -> {
             final FocusDistanceCameraCommand focusDistanceCameraCommand = (FocusDistanceCameraCommand)command;
             final CameraFocusCalibration cameraFocusCalibration = Dronelink.getInstance().getCameraFocusCalibration(focusDistanceCameraCommand.focusCalibration.withDroneSerialNumber(getSerialNumber()));
             if (cameraFocusCalibration == null) {
@@ -2853,31 +3694,32 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
             }
             camera.setFocusRingValue(cameraFocusCalibration.ringValue.intValue(), createCompletionCallback(finished));
             return null;
-        }
+        });
 
-        if (command instanceof FocusModeCameraCommand) {
-            camera.getFocusMode(createCompletionCallbackWith(new Command.FinisherWith<SettingsDefinitions.FocusMode>() {
+        cameraCommandHandlers.register(FocusModeCameraCommand.class, (command, camera, djiState, finished) -> {
+            final DJIKey key = CameraKey.create(CameraKey.FOCUS_MODE, camera.getIndex());
+            getSetting(key, SettingsDefinitions.FocusMode.class, camera::getFocusMode, new Command.FinisherWith<SettingsDefinitions.FocusMode>() {
                 @Override
                 public void execute(final SettingsDefinitions.FocusMode current) {
                     final SettingsDefinitions.FocusMode target = DronelinkDJI.getCameraFocusMode(((FocusModeCameraCommand) command).focusMode);
                     Command.conditionallyExecute(!target.equals(current), finished, new Command.ConditionalExecutor() {
                         @Override
                         public void execute() {
-                            camera.setFocusMode(target, createCompletionCallback(finished));
+                            camera.setFocusMode(target, createSettingCompletionCallback(key, finished));
                         }
                     });
                 }
-            }, finished));
+            }, finished);
             return null;
-        }
+        });
 
-        if (command instanceof FocusRingCameraCommand) {
+        cameraCommandHandlers.register(FocusRingCameraCommand.class, (command, camera, djiState, finished) -> {
             final Double focusRingMax = djiState.getFocusRingMax();
             camera.setFocusRingValue((int)(((FocusRingCameraCommand)command).focusRingPercent * (focusRingMax == null ? 0 : focusRingMax)), createCompletionCallback(finished));
             return null;
-        }
+        });
 
-        if (command instanceof ZoomPercentCameraCommand) {
+        cameraCommandHandlers.register(ZoomPercentCameraCommand.class, (command, camera, djiState, finished) -> {
             final CameraZoomSpecification defaultZoomSpecification = djiState.getDefaultZoomSpecification();
             if (!(defaultZoomSpecification instanceof PercentZoomSpecification)) {
                 return new CommandError(context.getString(R.string.MissionDisengageReason_command_type_unsupported));
@@ -2893,14 +3735,14 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
                 }
             });
             return null;
-        }
+        });
 
-        if (command instanceof ZoomRatioCameraCommand) {
+        cameraCommandHandlers.register(ZoomRatioCameraCommand.class, (command, camera, djiState, finished) -> {
             //This command should not be supported by mSDKv4 drones, because there is no real way to retrieve zoom ratios from the DJI SDK.
             return new CommandError(context.getString(R.string.MissionDisengageReason_command_type_unsupported));
-        }
+        });
 
-        if (command instanceof ISOCameraCommand) {
+        cameraCommandHandlers.register(ISOCameraCommand.class, (command, camera, djiState, finished) -> {
             final SettingsDefinitions.ISO target = DronelinkDJI.getCameraISO(((ISOCameraCommand) command).iso);
             Command.conditionallyExecute(djiState.exposureSettings.getISO() != target.value(), finished, new Command.ConditionalExecutor() {
                 @Override
@@ -2909,9 +3751,9 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
                 }
             });
             return null;
-        }
+        });
 
-        if (command instanceof MechanicalShutterCameraCommand) {
+        cameraCommandHandlers.register(MechanicalShutterCameraCommand.class, (command, camera, djiState, finished) -> {
             camera.getMechanicalShutterEnabled(createCompletionCallbackWith(new Command.FinisherWith<Boolean>() {
                 @Override
                 public void execute(final Boolean current) {
@@ -2925,25 +3767,26 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
                 }
             }, finished));
             return null;
-        }
+        });
 
-        if (command instanceof MeteringModeCameraCommand) {
-            camera.getMeteringMode(createCompletionCallbackWith(new Command.FinisherWith<SettingsDefinitions.MeteringMode>() {
+        cameraCommandHandlers.register(MeteringModeCameraCommand.class, (command, camera, djiState, finished) -> {
+            final DJIKey key = CameraKey.create(CameraKey.METERING_MODE, camera.getIndex());
+            getSetting(key, SettingsDefinitions.MeteringMode.class, camera::getMeteringMode, new Command.FinisherWith<SettingsDefinitions.MeteringMode>() {
                 @Override
                 public void execute(final SettingsDefinitions.MeteringMode current) {
                     final SettingsDefinitions.MeteringMode target = DronelinkDJI.getCameraMeteringMode(((MeteringModeCameraCommand) command).meteringMode);
                     Command.conditionallyExecute(!target.equals(current), finished, new Command.ConditionalExecutor() {
                         @Override
                         public void execute() {
-                            camera.setMeteringMode(target, createCompletionCallback(finished));
+                            camera.setMeteringMode(target, createSettingCompletionCallback(key, finished));
                         }
                     });
                 }
-            }, finished));
+            }, finished);
             return null;
-        }
+        });
 
-        if (command instanceof ModeCameraCommand) {
+        cameraCommandHandlers.register(ModeCameraCommand.class, (command, camera, djiState, finished) -> {
             if (camera.isFlatCameraModeSupported()) {
                 camera.getFlatMode(createCompletionCallbackWith(new Command.FinisherWith<SettingsDefinitions.FlatCameraMode>() {
                     @Override
@@ -2952,7 +3795,23 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
                         Command.conditionallyExecute(!target.equals(current), finished, new Command.ConditionalExecutor() {
                             @Override
                             public void execute() {
-                                camera.setFlatMode(target, createCompletionCallback(finished));
+                                camera.setFlatMode(target, createCompletionCallback(new Command.Finisher() {
+                                    @Override
+                                    public void execute(final CommandError error) {
+                                        if (error != null) {
+                                            finished.execute(error);
+                                            return;
+                                        }
+
+                                        finishModeCommandWhenObserved(command, cameraStateWaiters, command.channel, getCameraState(command.channel), new DJIStateWaiters.Condition<DatedValue<CameraStateAdapter>>() {
+                                            @Override
+                                            public boolean isSatisfied(final DatedValue<CameraStateAdapter> state) {
+                                                final DatedValue<SystemState> systemState = cameraStates.get(command.channel);
+                                                return systemState != null && systemState.value.getFlatCameraMode() == target;
+                                            }
+                                        }, finished);
+                                    }
+                                }));
                             }
                         });
                     }
@@ -2963,62 +3822,80 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
                 Command.conditionallyExecute(djiState.getMode() != target, finished, new Command.ConditionalExecutor() {
                     @Override
                     public void execute() {
-                        camera.setMode(DronelinkDJI.getCameraMode(target), createCompletionCallback(finished));
+                        camera.setMode(DronelinkDJI.getCameraMode(target), createCompletionCallback(new Command.Finisher() {
+                            @Override
+                            public void execute(final CommandError error) {
+                                if (error != null) {
+                                    finished.execute(error);
+                                    return;
+                                }
+
+                                finishModeCommandWhenObserved(command, cameraStateWaiters, command.channel, getCameraState(command.channel), DJIStateWaiters.whenPresent(new DJIStateWaiters.Condition<CameraStateAdapter>() {
+                                    @Override
+                                    public boolean isSatisfied(final CameraStateAdapter state) {
+                                        return state.getMode() == target;
+                                    }
+                                }), finished);
+                            }
+                        }));
                     }
                 });
             }
             return null;
-        }
+        });
 
-        if (command instanceof PhotoAspectRatioCameraCommand) {
-            camera.getPhotoAspectRatio(createCompletionCallbackWith(new Command.FinisherWith<SettingsDefinitions.PhotoAspectRatio>() {
+        cameraCommandHandlers.register(PhotoAspectRatioCameraCommand.class, (command, camera, djiState, finished) -> {
+            final DJIKey key = CameraKey.create(CameraKey.PHOTO_ASPECT_RATIO, camera.getIndex());
+            getSetting(key, SettingsDefinitions.PhotoAspectRatio.class, camera::getPhotoAspectRatio, new Command.FinisherWith<SettingsDefinitions.PhotoAspectRatio>() {
                 @Override
                 public void execute(final SettingsDefinitions.PhotoAspectRatio current) {
                     final SettingsDefinitions.PhotoAspectRatio target = DronelinkDJI.getCameraPhotoAspectRatio(((PhotoAspectRatioCameraCommand) command).photoAspectRatio);
                     Command.conditionallyExecute(!target.equals(current), finished, new Command.ConditionalExecutor() {
                         @Override
                         public void execute() {
-                            camera.setPhotoAspectRatio(target, createCompletionCallback(finished));
+                            camera.setPhotoAspectRatio(target, createSettingCompletionCallback(key, finished));
                         }
                     });
                 }
-            }, finished));
+            }, finished);
             return null;
-        }
+        });
 
-        if (command instanceof PhotoFileFormatCameraCommand) {
-            camera.getPhotoFileFormat(createCompletionCallbackWith(new Command.FinisherWith<SettingsDefinitions.PhotoFileFormat>() {
+        cameraCommandHandlers.register(PhotoFileFormatCameraCommand.class, (command, camera, djiState, finished) -> {
+            final DJIKey key = CameraKey.create(CameraKey.PHOTO_FILE_FORMAT, camera.getIndex());
+            getSetting(key, SettingsDefinitions.PhotoFileFormat.class, camera::getPhotoFileFormat, new Command.FinisherWith<SettingsDefinitions.PhotoFileFormat>() {
                 @Override
                 public void execute(final SettingsDefinitions.PhotoFileFormat current) {
                     final SettingsDefinitions.PhotoFileFormat target = DronelinkDJI.getCameraPhotoFileFormat(((PhotoFileFormatCameraCommand) command).photoFileFormat);
                     Command.conditionallyExecute(!target.equals(current), finished, new Command.ConditionalExecutor() {
                         @Override
                         public void execute() {
-                            camera.setPhotoFileFormat(target, createCompletionCallback(finished));
+                            camera.setPhotoFileFormat(target, createSettingCompletionCallback(key, finished));
                         }
                     });
                 }
-            }, finished));
+            }, finished);
             return null;
-        }
+        });
 
-        if (command instanceof PhotoIntervalCameraCommand) {
-            camera.getPhotoTimeIntervalSettings(createCompletionCallbackWith(new Command.FinisherWith<SettingsDefinitions.PhotoTimeIntervalSettings>() {
+        cameraCommandHandlers.register(PhotoIntervalCameraCommand.class, (command, camera, djiState, finished) -> {
+            final DJIKey key = CameraKey.create(CameraKey.PHOTO_TIME_INTERVAL_SETTINGS, camera.getIndex());
+            getSetting(key, SettingsDefinitions.PhotoTimeIntervalSettings.class, camera::getPhotoTimeIntervalSettings, new Command.FinisherWith<SettingsDefinitions.PhotoTimeIntervalSettings>() {
                 @Override
                 public void execute(final SettingsDefinitions.PhotoTimeIntervalSettings current) {
                     final SettingsDefinitions.PhotoTimeIntervalSettings target = new SettingsDefinitions.PhotoTimeIntervalSettings(255, (int)((PhotoIntervalCameraCommand) command).photoInterval);
                     Command.conditionallyExecute(current.getCaptureCount() != target.getCaptureCount() || current.getTimeIntervalInSeconds() != target.getTimeIntervalInSeconds(), finished, new Command.ConditionalExecutor() {
                         @Override
                         public void execute() {
-                            camera.setPhotoTimeIntervalSettings(target, createCompletionCallback(finished));
+                            camera.setPhotoTimeIntervalSettings(target, createSettingCompletionCallback(key, finished));
                         }
                     });
                 }
-            }, finished));
+            }, finished);
             return null;
-        }
+        });
 
-        if (command instanceof PhotoModeCameraCommand) {
+        cameraCommandHandlers.register(PhotoModeCameraCommand.class, (command, camera, djiState, finished) -> {
             if (camera.isFlatCameraModeSupported()) {
                 camera.getFlatMode(createCompletionCallbackWith(new Command.FinisherWith<SettingsDefinitions.FlatCameraMode>() {
                     @Override
@@ -3034,23 +3911,24 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
                 }, finished));
             }
             else {
-                camera.getShootPhotoMode(createCompletionCallbackWith(new Command.FinisherWith<SettingsDefinitions.ShootPhotoMode>() {
+                final DJIKey key = CameraKey.create(CameraKey.SHOOT_PHOTO_MODE, camera.getIndex());
+                getSetting(key, SettingsDefinitions.ShootPhotoMode.class, camera::getShootPhotoMode, new Command.FinisherWith<SettingsDefinitions.ShootPhotoMode>() {
                     @Override
                     public void execute(final SettingsDefinitions.ShootPhotoMode current) {
                         final SettingsDefinitions.ShootPhotoMode target = DronelinkDJI.getCameraPhotoMode(((PhotoModeCameraCommand) command).photoMode);
                         Command.conditionallyExecute(!target.equals(current), finished, new Command.ConditionalExecutor() {
                             @Override
                             public void execute() {
-                                camera.setShootPhotoMode(target, createCompletionCallback(finished));
+                                camera.setShootPhotoMode(target, createSettingCompletionCallback(key, finished));
                             }
                         });
                     }
-                }, finished));
+                }, finished);
             }
             return null;
-        }
+        });
 
-        if (command instanceof SaturationCameraCommand) {
+        cameraCommandHandlers.register(SaturationCameraCommand.class, (command, camera, djiState, finished) -> {
             camera.getSaturation(createCompletionCallbackWith(new Command.FinisherWith<Integer>() {
                 @Override
                 public void execute(final Integer current) {
@@ -3064,9 +3942,9 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
                 }
             }, finished));
             return null;
-        }
+        });
 
-        if (command instanceof SharpnessCameraCommand) {
+        cameraCommandHandlers.register(SharpnessCameraCommand.class, (command, camera, djiState, finished) -> {
             camera.getSharpness(createCompletionCallbackWith(new Command.FinisherWith<Integer>() {
                 @Override
                 public void execute(final Integer current) {
@@ -3080,9 +3958,9 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
                 }
             }, finished));
             return null;
-        }
+        });
 
-        if (command instanceof ShutterSpeedCameraCommand) {
+        cameraCommandHandlers.register(ShutterSpeedCameraCommand.class, (command, camera, djiState, finished) -> {
             final SettingsDefinitions.ShutterSpeed target = DronelinkDJI.getCameraShutterSpeed(((ShutterSpeedCameraCommand) command).shutterSpeed);
             Command.conditionallyExecute(djiState.exposureSettings.getShutterSpeed() != target, finished, new Command.ConditionalExecutor() {
                 @Override
@@ -3091,21 +3969,29 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
                 }
             });
             return null;
-        }
+        });
 
-        if (command instanceof SpotMeteringTargetCameraCommand) {
+        cameraCommandHandlers.register(SpotMeteringTargetCameraCommand.class, (command, camera, djiState, finished) -> {
             final SpotMeteringTargetCameraCommand spotMeteringTargetCameraCommand = (SpotMeteringTargetCameraCommand)command;
             camera.setSpotMeteringTarget(new Point((int)Math.round(spotMeteringTargetCameraCommand.spotMeteringTarget.x * 11), (int)Math.round(spotMeteringTargetCameraCommand.spotMeteringTarget.y * 7)), createCompletionCallback(finished));
             return null;
-        }
+        });
 
-        if (command instanceof StartCaptureCameraCommand) {
+        cameraCommandHandlers.register(StartCaptureCameraCommand.class, (command, camera, djiState, finished) -> {
             switch (djiState.getMode()) {
                 case PHOTO:
                     if (djiState.isCapturingPhotoInterval()) {
                         Log.d(TAG, "Camera start capture skipped, already shooting interval photos");
                         finished.execute(null);
                     }
+                    else if (photoCapturePipelineEnabled && djiState.getPhotoMode() == CameraPhotoMode.SINGLE) {
+                        Log.d(TAG, "Camera start capture photo (pipelined)");
+                        //a capture that has to verify its file finishes on its own file rather than when the camera accepts the shot
+                        final CommandError fileMissedError = ((StartCaptureCameraCommand)command).verifyFileCreated
+                                ? new CommandError(context.getString(R.string.DJIDroneSession_cameraCommand_start_shoot_photo_no_file))
+                                : null;
+                        getPhotoCapturePipeline(command.channel).capture(camera::startShootPhoto, fileMissedError, finished);
+                    }
                     else {
                         Log.d(TAG, "Camera start capture photo");
                         final Date started = new Date();
@@ -3126,19 +4012,19 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
                                     return;
                                 }
 
+                                final StartCaptureCameraCommand startCaptureCameraCommand = (StartCaptureCameraCommand)command;
+                                if (startCaptureCameraCommand.verifyFileCreated) {
+                                    cameraCommandFinishStartShootPhotoVerifyFile(startCaptureCameraCommand, started, finished);
+                                    return;
+                                }
+
                                 //waiting since isBusy will still be false for a bit
-                                new Handler().postDelayed(new Runnable() {
+                                cameraCommandAwaitBusy(startCaptureCameraCommand, new Runnable() {
                                     @Override
                                     public void run() {
-                                        final StartCaptureCameraCommand startCaptureCameraCommand = (StartCaptureCameraCommand)command;
-                                        if (startCaptureCameraCommand.verifyFileCreated) {
-                                            cameraCommandFinishStartShootPhotoVerifyFile(startCaptureCameraCommand, started, finished);
-                                        }
-                                        else {
-                                            cameraCommandFinishNotBusy(startCaptureCameraCommand, finished);
-                                        }
+                                        cameraCommandFinishNotBusy(startCaptureCameraCommand, finished);
                                     }
-                                }, 500);
+                                });
                             }
                         });
                     }
@@ -3160,12 +4046,12 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
                                 }
 
                                 //waiting since isBusy will still be false for a bit
-                                new Handler().postDelayed(new Runnable() {
+                                cameraCommandAwaitBusy(command, new Runnable() {
                                     @Override
                                     public void run() {
                                         cameraCommandFinishNotBusy(command, finished);
                                     }
-                                }, 500);
+                                });
                             }
                         });
                     }
@@ -3179,9 +4065,9 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
                     return new CommandError(context.getString(R.string.MissionDisengageReason_drone_camera_mode_invalid_title));
             }
             return null;
-        }
+        });
 
-        if (command instanceof StopCaptureCameraCommand) {
+        cameraCommandHandlers.register(StopCaptureCameraCommand.class, (command, camera, djiState, finished) -> {
             switch (djiState.getMode()) {
                 case PHOTO:
                     if (djiState.isCapturingPhotoInterval()) {
@@ -3233,29 +4119,30 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
                     return new CommandError(context.getString(R.string.MissionDisengageReason_drone_camera_mode_invalid_title));
             }
             return null;
-        }
+        });
 
-        if (command instanceof StorageCustomFolderNameCameraCommand) {
+        cameraCommandHandlers.register(StorageCustomFolderNameCameraCommand.class, (command, camera, djiState, finished) -> {
             return new CommandError(context.getString(R.string.MissionDisengageReason_command_type_unsupported));
-        }
+        });
 
-        if (command instanceof StorageLocationCameraCommand) {
-            camera.getStorageLocation(createCompletionCallbackWith(new Command.FinisherWith<SettingsDefinitions.StorageLocation>() {
+        cameraCommandHandlers.register(StorageLocationCameraCommand.class, (command, camera, djiState, finished) -> {
+            final DJIKey key = CameraKey.create(CameraKey.CAMERA_STORAGE_LOCATION, camera.getIndex());
+            getSetting(key, SettingsDefinitions.StorageLocation.class, camera::getStorageLocation, new Command.FinisherWith<SettingsDefinitions.StorageLocation>() {
                 @Override
                 public void execute(final SettingsDefinitions.StorageLocation current) {
                     final SettingsDefinitions.StorageLocation target = DronelinkDJI.getCameraStorageLocation(((StorageLocationCameraCommand) command).storageLocation);
                     Command.conditionallyExecute(!target.equals(current), finished, new Command.ConditionalExecutor() {
                         @Override
                         public void execute() {
-                            camera.setStorageLocation(target, createCompletionCallback(finished));
+                            camera.setStorageLocation(target, createSettingCompletionCallback(key, finished));
                         }
                     });
                 }
-            }, finished));
+            }, finished);
             return null;
-        }
+        });
 
-        if (command instanceof VideoCaptionCameraCommand) {
+        cameraCommandHandlers.register(VideoCaptionCameraCommand.class, (command, camera, djiState, finished) -> {
             camera.getVideoCaptionEnabled(createCompletionCallbackWith(new Command.FinisherWith<Boolean>() {
                 @Override
                 public void execute(final Boolean current) {
@@ -3269,9 +4156,9 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
                 }
             }, finished));
             return null;
-        }
+        });
 
-        if (command instanceof VideoFileCompressionStandardCameraCommand) {
+        cameraCommandHandlers.register(VideoFileCompressionStandardCameraCommand.class, (command, camera, djiState, finished) -> {
             camera.getVideoFileCompressionStandard(createCompletionCallbackWith(new Command.FinisherWith<SettingsDefinitions.VideoFileCompressionStandard>() {
                 @Override
                 public void execute(final SettingsDefinitions.VideoFileCompressionStandard current) {
@@ -3285,25 +4172,26 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
                 }
             }, finished));
             return null;
-        }
+        });
 
-        if (command instanceof VideoFileFormatCameraCommand) {
-            camera.getVideoFileFormat(createCompletionCallbackWith(new Command.FinisherWith<SettingsDefinitions.VideoFileFormat>() {
+        cameraCommandHandlers.register(VideoFileFormatCameraCommand.class, (command, camera, djiState, finished) -> {
+            final DJIKey key = CameraKey.create(CameraKey.VIDEO_FILE_FORMAT, camera.getIndex());
+            getSetting(key, SettingsDefinitions.VideoFileFormat.class, camera::getVideoFileFormat, new Command.FinisherWith<SettingsDefinitions.VideoFileFormat>() {
                 @Override
                 public void execute(final SettingsDefinitions.VideoFileFormat current) {
                     final SettingsDefinitions.VideoFileFormat target = DronelinkDJI.getCameraVideoFileFormat(((VideoFileFormatCameraCommand) command).videoFileFormat);
                     Command.conditionallyExecute(!target.equals(current), finished, new Command.ConditionalExecutor() {
                         @Override
                         public void execute() {
-                            camera.setVideoFileFormat(target, createCompletionCallback(finished));
+                            camera.setVideoFileFormat(target, createSettingCompletionCallback(key, finished));
                         }
                     });
                 }
-            }, finished));
+            }, finished);
             return null;
-        }
+        });
 
-        if (command instanceof VideoModeCameraCommand) {
+        cameraCommandHandlers.register(VideoModeCameraCommand.class, (command, camera, djiState, finished) -> {
             if (camera.isFlatCameraModeSupported()) {
                 camera.getFlatMode(createCompletionCallbackWith(new Command.FinisherWith<SettingsDefinitions.FlatCameraMode>() {
                     @Override
@@ -3327,10 +4215,11 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
                 });
             }
             return null;
-        }
+        });
 
-        if (command instanceof VideoResolutionFrameRateCameraCommand) {
-            camera.getVideoResolutionAndFrameRate(createCompletionCallbackWith(new Command.FinisherWith<ResolutionAndFrameRate>() {
+        cameraCommandHandlers.register(VideoResolutionFrameRateCameraCommand.class, (command, camera, djiState, finished) -> {
+            final DJIKey key = CameraKey.create(CameraKey.RESOLUTION_FRAME_RATE, camera.getIndex());
+            getSetting(key, ResolutionAndFrameRate.class, camera::getVideoResolutionAndFrameRate, new Command.FinisherWith<ResolutionAndFrameRate>() {
                 @Override
                 public void execute(final ResolutionAndFrameRate current) {
                     final ResolutionAndFrameRate target = new ResolutionAndFrameRate(
@@ -3341,15 +4230,15 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
                     Command.conditionallyExecute(current.getResolution() != target.getResolution() || current.getFrameRate() != target.getFrameRate() || current.getFov() != target.getFov(), finished, new Command.ConditionalExecutor() {
                         @Override
                         public void execute() {
-                            camera.setVideoResolutionAndFrameRate(target, createCompletionCallback(finished));
+                            camera.setVideoResolutionAndFrameRate(target, createSettingCompletionCallback(key, finished));
                         }
                     });
                 }
-            }, finished));
+            }, finished);
             return null;
-        }
+        });
 
-        if (command instanceof VideoStandardCameraCommand) {
+        cameraCommandHandlers.register(VideoStandardCameraCommand.class, (command, camera, djiState, finished) -> {
             camera.getVideoStandard(createCompletionCallbackWith(new Command.FinisherWith<SettingsDefinitions.VideoStandard>() {
                 @Override
                 public void execute(final SettingsDefinitions.VideoStandard current) {
@@ -3363,9 +4252,9 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
                 }
             }, finished));
             return null;
-        }
+        });
 
-        if (command instanceof VideoStreamSourceCameraCommand) {
+        cameraCommandHandlers.register(VideoStreamSourceCameraCommand.class, (command, camera, djiState, finished) -> {
             camera.getCameraVideoStreamSource(createCompletionCallbackWith(new Command.FinisherWith<CameraVideoStreamSource>() {
                 @Override
                 public void execute(final CameraVideoStreamSource current) {
@@ -3379,177 +4268,179 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
                 }
             }, finished));
             return null;
-        }
+        });
 
-        if (command instanceof WhiteBalanceCustomCameraCommand) {
-            camera.getWhiteBalance(createCompletionCallbackWith(new Command.FinisherWith<WhiteBalance>() {
+        cameraCommandHandlers.register(WhiteBalanceCustomCameraCommand.class, (command, camera, djiState, finished) -> {
+            final DJIKey key = CameraKey.create(CameraKey.WHITE_BALANCE, camera.getIndex());
+            getSetting(key, WhiteBalance.class, camera::getWhiteBalance, new Command.FinisherWith<WhiteBalance>() {
                 @Override
                 public void execute(final WhiteBalance current) {
                     final WhiteBalance target = new WhiteBalance(SettingsDefinitions.WhiteBalancePreset.CUSTOM, ((WhiteBalanceCustomCameraCommand) command).whiteBalanceCustom);
                     Command.conditionallyExecute(current.getWhiteBalancePreset() != target.getWhiteBalancePreset() || current.getColorTemperature() != target.getColorTemperature(), finished, new Command.ConditionalExecutor() {
                         @Override
                         public void execute() {
-                            camera.setWhiteBalance(target, createCompletionCallback(finished));
+                            camera.setWhiteBalance(target, createSettingCompletionCallback(key, finished));
                         }
                     });
                 }
-            }, finished));
+            }, finished);
             return null;
-        }
+        });
 
-        if (command instanceof WhiteBalancePresetCameraCommand) {
-            camera.getWhiteBalance(createCompletionCallbackWith(new Command.FinisherWith<WhiteBalance>() {
+        cameraCommandHandlers.register(WhiteBalancePresetCameraCommand.class, (command, camera, djiState, finished) -> {
+            final DJIKey key = CameraKey.create(CameraKey.WHITE_BALANCE, camera.getIndex());
+            getSetting(key, WhiteBalance.class, camera::getWhiteBalance, new Command.FinisherWith<WhiteBalance>() {
                 @Override
                 public void execute(final WhiteBalance current) {
                     final WhiteBalance target = new WhiteBalance(DronelinkDJI.getCameraWhiteBalancePreset(((WhiteBalancePresetCameraCommand) command).whiteBalancePreset));
                     Command.conditionallyExecute(current.getWhiteBalancePreset() != target.getWhiteBalancePreset(), finished, new Command.ConditionalExecutor() {
                         @Override
                         public void execute() {
-                            camera.setWhiteBalance(target, createCompletionCallback(finished));
+                            camera.setWhiteBalance(target, createSettingCompletionCallback(key, finished));
                         }
                     });
                 }
-            }, finished));
+            }, finished);
             return null;
-        }
-
-        return new CommandError(context.getString(R.string.MissionDisengageReason_command_type_unhandled));
+        });
     }
 
-    private void cameraCommandFinishStopCapture(final CameraCommand cameraCommand, final Command.Finisher finished) {
-        cameraCommandFinishStopCapture(cameraCommand, 0, 20, finished);
+    private static boolean isCameraStateAvailable(final DatedValue<CameraStateAdapter> state) {
+        return state != null && state.value instanceof DJICameraStateAdapter;
     }
 
-    private void cameraCommandFinishStopCapture(final CameraCommand cameraCommand, final int attempt, final int maxAttempts, final Command.Finisher finished) {
-        if (attempt >= maxAttempts) {
-            finished.execute(new CommandError(context.getString(R.string.DJIDroneSession_cameraCommand_stop_capture_error)));
-            return;
-        }
-
-        final DatedValue<CameraStateAdapter> state = getCameraState(cameraCommand.channel);
-        if (state == null || !(state.value instanceof DJICameraStateAdapter)) {
-            finished.execute(new CommandError(context.getString(R.string.MissionDisengageReason_drone_camera_unavailable_title)));
-            return;
-        }
-
-        if (!state.value.isCapturing()) {
-            finished.execute(null);
-            return;
+    private void evaluateCameraStateWaiters(final int channel) {
+        if (cameraStateWaiters.isWaiting(channel)) {
+            cameraStateWaiters.evaluate(channel, getCameraState(channel));
         }
+    }
 
-        final long wait = 250;
-        Log.d(TAG, "Camera command finished and waiting for camera to stop capturing (" + ((attempt + 1) * wait) + "ms)... (" + cameraCommand.id + ")");
-        new Handler().postDelayed(new Runnable() {
+    //isBusy lags the command completion, so give the camera up to 500ms to report busy before checking for not busy
+    private void cameraCommandAwaitBusy(final CameraCommand cameraCommand, final Runnable next) {
+        cameraStateWaiters.await(cameraCommand.channel, getCameraState(cameraCommand.channel), 500, new DJIStateWaiters.Condition<DatedValue<CameraStateAdapter>>() {
             @Override
-            public void run() {
-                cameraCommandFinishNotBusy(cameraCommand, attempt + 1, maxAttempts, finished);
+            public boolean isSatisfied(final DatedValue<CameraStateAdapter> state) {
+                return !isCameraStateAvailable(state) || state.value.isBusy();
+            }
+        }, new DJIStateWaiters.Listener<DatedValue<CameraStateAdapter>>() {
+            @Override
+            public void onResult(final DatedValue<CameraStateAdapter> state, final boolean satisfied) {
+                next.run();
             }
-        }, wait);
+        });
     }
 
-    private void cameraCommandFinishStartShootPhotoVerifyFile(final StartCaptureCameraCommand cameraCommand, final Date started, final Command.Finisher finished) {
-        cameraCommandFinishStartShootPhoto(cameraCommand, started, 0, 20, finished);
-    }
+    private void cameraCommandFinishStopCapture(final CameraCommand cameraCommand, final Command.Finisher finished) {
+        cameraStateWaiters.await(cameraCommand.channel, getCameraState(cameraCommand.channel), 5000, new DJIStateWaiters.Condition<DatedValue<CameraStateAdapter>>() {
+            @Override
+            public boolean isSatisfied(final DatedValue<CameraStateAdapter> state) {
+                return !isCameraStateAvailable(state) || !state.value.isCapturing();
+            }
+        }, new DJIStateWaiters.Listener<DatedValue<CameraStateAdapter>>() {
+            @Override
+            public void onResult(final DatedValue<CameraStateAdapter> state, final boolean satisfied) {
+                if (!isCameraStateAvailable(state)) {
+                    finished.execute(new CommandError(context.getString(R.string.MissionDisengageReason_drone_camera_unavailable_title)));
+                    return;
+                }
 
-    private void cameraCommandFinishStartShootPhoto(final StartCaptureCameraCommand cameraCommand, final Date started, final int attempt, final int maxAttempts, final Command.Finisher finished) {
-        if (attempt >= maxAttempts) {
-            finished.execute(new CommandError(context.getString(R.string.DJIDroneSession_cameraCommand_start_shoot_photo_no_file)));
-            return;
-        }
+                if (!satisfied) {
+                    finished.execute(new CommandError(context.getString(R.string.DJIDroneSession_cameraCommand_stop_capture_error)));
+                    return;
+                }
 
-        final DatedValue<CameraFile> mostRecentCameraFile = this.mostRecentCameraFile;
-        if (mostRecentCameraFile != null) {
-            final long timeSinceMostRecentCameraFile = mostRecentCameraFile.date.getTime() - started.getTime();
-            if (timeSinceMostRecentCameraFile > 0) {
-                Log.d(TAG, "Camera start shoot photo found camera file (" + mostRecentCameraFile.value.getName() + ") after " + timeSinceMostRecentCameraFile + "ms (" + cameraCommand.id + ")");
-                cameraCommandFinishNotBusy(cameraCommand, finished);
-                return;
+                finished.execute(null);
             }
-        }
+        });
+    }
 
-        final long wait = 250;
-        Log.d(TAG, "Camera start shoot photo finished and waiting for camera file (" + ((attempt + 1) * wait) + "ms)... (" + cameraCommand.id + ")");
-        new Handler().postDelayed(new Runnable() {
+    private void cameraCommandFinishStartShootPhotoVerifyFile(final StartCaptureCameraCommand cameraCommand, final Date started, final Command.Finisher finished) {
+        //re-evaluated when the camera file arrives (updateCameraMediaFile)
+        cameraStateWaiters.await(cameraCommand.channel, null, 5000, new DJIStateWaiters.Condition<DatedValue<CameraStateAdapter>>() {
             @Override
-            public void run() {
-                cameraCommandFinishStartShootPhoto(cameraCommand, started, attempt + 1, maxAttempts, finished);
+            public boolean isSatisfied(final DatedValue<CameraStateAdapter> state) {
+                final DatedValue<CameraFile> mostRecentCameraFile = DJIDroneSession.this.mostRecentCameraFile;
+                return mostRecentCameraFile != null && mostRecentCameraFile.date.getTime() > started.getTime();
             }
-        }, wait);
-    }
+        }, new DJIStateWaiters.Listener<DatedValue<CameraStateAdapter>>() {
+            @Override
+            public void onResult(final DatedValue<CameraStateAdapter> state, final boolean satisfied) {
+                if (!satisfied) {
+                    finished.execute(new CommandError(context.getString(R.string.DJIDroneSession_cameraCommand_start_shoot_photo_no_file)));
+                    return;
+                }
 
-    private void cameraCommandFinishNotBusy(final CameraCommand cameraCommand, final Command.Finisher finished) {
-        cameraCommandFinishNotBusy(cameraCommand, 0, 10, finished);
+                final DatedValue<CameraFile> mostRecentCameraFile = DJIDroneSession.this.mostRecentCameraFile;
+                Log.d(TAG, "Camera start shoot photo found camera file (" + mostRecentCameraFile.value.getName() + ") after " + (mostRecentCameraFile.date.getTime() - started.getTime()) + "ms (" + cameraCommand.id + ")");
+                cameraCommandFinishNotBusy(cameraCommand, finished);
+            }
+        });
     }
 
-    private void cameraCommandFinishNotBusy(final CameraCommand cameraCommand, final int attempt, final int maxAttempts, final Command.Finisher finished) {
-        final DatedValue<CameraStateAdapter> state = getCameraState(cameraCommand.channel);
-        if (state == null || !(state.value instanceof DJICameraStateAdapter)) {
-            finished.execute(new CommandError(context.getString(R.string.MissionDisengageReason_drone_camera_unavailable_title)));
-            return;
-        }
-
-        if (attempt >= maxAttempts || !state.value.isBusy()) {
-            finished.execute(null);
-            return;
-        }
-
-        Log.d(TAG, "Camera command finished and waiting for camera to not be busy (" + (attempt + 1) + ")... (" + cameraCommand.id + ")");
-        new Handler().postDelayed(new Runnable() {
+    private void cameraCommandFinishNotBusy(final CameraCommand cameraCommand, final Command.Finisher finished) {
+        cameraStateWaiters.await(cameraCommand.channel, getCameraState(cameraCommand.channel), 1000, new DJIStateWaiters.Condition<DatedValue<CameraStateAdapter>>() {
             @Override
-            public void run() {
-                cameraCommandFinishNotBusy(cameraCommand, attempt + 1, maxAttempts, finished);
+            public boolean isSatisfied(final DatedValue<CameraStateAdapter> state) {
+                return !isCameraStateAvailable(state) || !state.value.isBusy();
             }
-        }, 100);
-    }
+        }, new DJIStateWaiters.Listener<DatedValue<CameraStateAdapter>>() {
+            @Override
+            public void onResult(final DatedValue<CameraStateAdapter> state, final boolean satisfied) {
+                if (!isCameraStateAvailable(state)) {
+                    finished.execute(new CommandError(context.getString(R.string.MissionDisengageReason_drone_camera_unavailable_title)));
+                    return;
+                }
 
-    private void cameraCommandFinishFocusTargetVerifyRing(final FocusCameraCommand cameraCommand, final Command.Finisher finished) {
-        cameraCommandFinishFocusTargetVerifyRing(cameraCommand, 0, 10, finished);
+                if (!satisfied) {
+                    Log.d(TAG, "Camera command finished while camera is still busy (" + cameraCommand.id + ")");
+                }
+                finished.execute(null);
+            }
+        });
     }
 
-    private void cameraCommandFinishFocusTargetVerifyRing(final FocusCameraCommand cameraCommand, final int attempt, final int maxAttempts, final Command.Finisher finished) {
+    private void cameraCommandFinishFocusTargetVerifyRing(final FocusCameraCommand cameraCommand, final Command.Finisher finished) {
         if (cameraCommand.focusRingPercentLimits == null) {
             finished.execute(null);
             return;
         }
 
-        final DatedValue<CameraStateAdapter> state = getCameraState(cameraCommand.channel);
-        if (state == null || !(state.value instanceof DJICameraStateAdapter)) {
-            finished.execute(new CommandError(context.getString(R.string.MissionDisengageReason_drone_camera_unavailable_title)));
-            return;
-        }
-
-        if (attempt >= maxAttempts) {
-            finished.execute(new CommandError(context.getString(R.string.DJIDroneSession_cameraCommand_focus_target_error)));
-            return;
-        }
-
-        if (!state.value.isBusy()) {
-            final Double focusRingValue = state.value.getFocusRingValue();
-            final Double focusRingMax = state.value.getFocusRingMax();
-            if (focusRingValue != null && focusRingMax != null && focusRingMax > 0) {
-                final double focusRingPercent = focusRingValue / focusRingMax;
-                if (focusRingPercent < cameraCommand.focusRingPercentLimits.min || focusRingPercent > cameraCommand.focusRingPercentLimits.max) {
-                    finished.execute(new CommandError(
-                            context.getString(R.string.DJIDroneSession_cameraCommand_focus_target_ring_invalid) + " " +
-                                    Dronelink.getInstance().format("percent", cameraCommand.focusRingPercentLimits.min, "") + " < " +
-                                    Dronelink.getInstance().format("percent", focusRingPercent, "") + " < " +
-                                    Dronelink.getInstance().format("percent", cameraCommand.focusRingPercentLimits.max, "")
-                            ));
+        cameraStateWaiters.await(cameraCommand.channel, getCameraState(cameraCommand.channel), 1000, new DJIStateWaiters.Condition<DatedValue<CameraStateAdapter>>() {
+            @Override
+            public boolean isSatisfied(final DatedValue<CameraStateAdapter> state) {
+                return !isCameraStateAvailable(state) || !state.value.isBusy();
+            }
+        }, new DJIStateWaiters.Listener<DatedValue<CameraStateAdapter>>() {
+            @Override
+            public void onResult(final DatedValue<CameraStateAdapter> state, final boolean satisfied) {
+                if (!isCameraStateAvailable(state)) {
+                    finished.execute(new CommandError(context.getString(R.string.MissionDisengageReason_drone_camera_unavailable_title)));
                     return;
                 }
-            }
 
-            finished.execute(null);
-            return;
-        }
+                if (!satisfied) {
+                    finished.execute(new CommandError(context.getString(R.string.DJIDroneSession_cameraCommand_focus_target_error)));
+                    return;
+                }
 
+                final Double focusRingValue = state.value.getFocusRingValue();
+                final Double focusRingMax = state.value.getFocusRingMax();
+                if (focusRingValue != null && focusRingMax != null && focusRingMax > 0) {
+                    final double focusRingPercent = focusRingValue / focusRingMax;
+                    if (focusRingPercent < cameraCommand.focusRingPercentLimits.min || focusRingPercent > cameraCommand.focusRingPercentLimits.max) {
+                        finished.execute(new CommandError(
+                                context.getString(R.string.DJIDroneSession_cameraCommand_focus_target_ring_invalid) + " " +
+                                        Dronelink.getInstance().format("percent", cameraCommand.focusRingPercentLimits.min, "") + " < " +
+                                        Dronelink.getInstance().format("percent", focusRingPercent, "") + " < " +
+                                        Dronelink.getInstance().format("percent", cameraCommand.focusRingPercentLimits.max, "")
+                                ));
+                        return;
+                    }
+                }
 
-        new Handler().postDelayed(new Runnable() {
-            @Override
-            public void run() {
-                cameraCommandFinishFocusTargetVerifyRing(cameraCommand, attempt + 1, maxAttempts, finished);
+                finished.execute(null);
             }
-        }, 100);
+        });
     }
 
     private CommandError executeGimbalCommand(final GimbalCommand command, final Command.Finisher finished) {
@@ -3559,7 +4450,15 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
             return new CommandError(context.getString(R.string.MissionDisengageReason_drone_gimbal_unavailable_title));
         }
 
-        if (command instanceof ModeGimbalCommand) {
+        final GimbalCommandHandler handler = gimbalCommandHandlers.get(command);
+        if (handler == null) {
+            return new CommandError(context.getString(R.string.MissionDisengageReason_command_type_unhandled));
+        }
+        return handler.execute(command, gimbal, state, finished);
+    }
+
+    private void initGimbalCommandHandlers() {
+        gimbalCommandHandlers.register(ModeGimbalCommand.class, (command, gimbal, state, finished) -> {
             final GimbalMode target = ((ModeGimbalCommand) command).mode;
             Command.conditionallyExecute(state.value.getMode() != target, finished, new Command.ConditionalExecutor() {
                 @Override
@@ -3572,20 +4471,37 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
                                 return;
                             }
 
+                            final Command.Finisher observed = new Command.Finisher() {
+                                @Override
+                                public void execute(final CommandError error) {
+                                    if (error != null) {
+                                        finished.execute(error);
+                                        return;
+                                    }
+
+                                    finishModeCommandWhenObserved(command, gimbalStateWaiters, command.channel, getGimbalState(command.channel), DJIStateWaiters.whenPresent(new DJIStateWaiters.Condition<GimbalStateAdapter>() {
+                                        @Override
+                                        public boolean isSatisfied(final GimbalStateAdapter state) {
+                                            return state.getMode() == target;
+                                        }
+                                    }), finished);
+                                }
+                            };
+
                             if (DronelinkDJI.getGimbalMode(target) == dji.common.gimbal.GimbalMode.YAW_FOLLOW) {
-                                gimbal.reset(createCompletionCallback(finished));
+                                gimbal.reset(createCompletionCallback(observed));
                             }
                             else {
-                                finished.execute(null);
+                                observed.execute(null);
                             }
                         }
                     });
                 }
             });
             return null;
-        }
+        });
 
-        if (command instanceof OrientationGimbalCommand) {
+        gimbalCommandHandlers.register(OrientationGimbalCommand.class, (command, gimbal, state, finished) -> {
             final Orientation3Optional orientation = ((OrientationGimbalCommand) command).orientation;
             if (orientation.getPitch() == null && orientation.getRoll() == null && orientation.getYaw() == null) {
                 finished.execute(null);
@@ -3658,9 +4574,9 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
                 }
             });
             return null;
-        }
+        });
 
-        if (command instanceof YawSimultaneousFollowGimbalCommand) {
+        gimbalCommandHandlers.register(YawSimultaneousFollowGimbalCommand.class, (command, gimbal, state, finished) -> {
 // TODO getYawSimultaneousFollowEnabled always returns false right now, DJI bug?
 //            gimbal.getYawSimultaneousFollowEnabled(createCompletionCallbackWith(new Command.FinisherWith<Boolean>() {
 //                @Override
@@ -3675,66 +4591,62 @@ public class DJIDroneSession implements DroneSession, VideoFeeder.PhysicalSource
 //                }
 //            }, finished));
             return null;
-        }
-
-        return new CommandError(context.getString(R.string.MissionDisengageReason_command_type_unhandled));
+        });
     }
 
     private void gimbalCommandFinishOrientationVerify(final OrientationGimbalCommand gimbalCommand, final Command.Finisher finished) {
-        gimbalCommandFinishOrientationVerify(gimbalCommand, 0, 20, Convert.DegreesToRadians(2.0), finished);
-    }
+        final double threshold = Convert.DegreesToRadians(2.0);
+        gimbalStateWaiters.await(gimbalCommand.channel, getGimbalState(gimbalCommand.channel), 2000, new DJIStateWaiters.Condition<DatedValue<GimbalStateAdapter>>() {
+            @Override
+            public boolean isSatisfied(final DatedValue<GimbalStateAdapter> state) {
+                final Gimbal gimbal = DronelinkDJI.getGimbal(adapter.getDrone(), gimbalCommand.channel);
+                return gimbal == null || state == null || isGimbalOrientationVerified(gimbalCommand, gimbal, state.value, threshold);
+            }
+        }, new DJIStateWaiters.Listener<DatedValue<GimbalStateAdapter>>() {
+            @Override
+            public void onResult(final DatedValue<GimbalStateAdapter> state, final boolean satisfied) {
+                if (state == null || DronelinkDJI.getGimbal(adapter.getDrone(), gimbalCommand.channel) == null) {
+                    finished.execute(new CommandError(context.getString(R.string.MissionDisengageReason_drone_gimbal_unavailable_title)));
+                    return;
+                }
 
-    private void gimbalCommandFinishOrientationVerify(final OrientationGimbalCommand gimbalCommand, final int attempt, final int maxAttempts, final double threshold, final Command.Finisher finished) {
-        final Gimbal gimbal = DronelinkDJI.getGimbal(adapter.getDrone(), gimbalCommand.channel);
-        final DatedValue<GimbalStateAdapter> state = getGimbalState(gimbalCommand.channel);
-        if (gimbal == null || state == null) {
-            finished.execute(new CommandError(context.getString(R.string.MissionDisengageReason_drone_gimbal_unavailable_title)));
-            return ;
-        }
+                if (!satisfied) {
+                    finished.execute(new CommandError(context.getString(R.string.DJIDroneSession_gimbalCommand_orientation_not_achieved)));
+                    return;
+                }
 
-        if (attempt >= maxAttempts) {
-            finished.execute(new CommandError(context.getString(R.string.DJIDroneSession_gimbalCommand_orientation_not_achieved)));
-            return;
-        }
+                finished.execute(null);
+            }
+        });
+    }
 
+    private boolean isGimbalOrientationVerified(final OrientationGimbalCommand gimbalCommand, final Gimbal gimbal, final GimbalStateAdapter state, final double threshold) {
         boolean verified = true;
 
         if (gimbalCommand.orientation.getPitch() != null && DronelinkDJI.isAdjustPitchSupported(gimbal)) {
-            verified = verified && Math.abs(Convert.AngleDifferenceSigned(gimbalCommand.orientation.getPitch(), state.value.getOrientation().getPitch())) <= threshold;
+            verified = verified && Math.abs(Convert.AngleDifferenceSigned(gimbalCommand.orientation.getPitch(), state.getOrientation().getPitch())) <= threshold;
         }
 
         if (gimbalCommand.orientation.getRoll() != null && DronelinkDJI.isAdjustRollSupported(gimbal)) {
-            verified = verified && Math.abs(Convert.AngleDifferenceSigned(gimbalCommand.orientation.getRoll(), state.value.getOrientation().getRoll())) <= threshold;
-        }
-
-        if (gimbalCommand.orientation.getYaw() != null && (state.value.getMode() == GimbalMode.FREE || DronelinkDJI.isAdjustYaw360Supported(gimbal))) {
-            verified = verified && Math.abs(Convert.AngleDifferenceSigned(gimbalCommand.orientation.getYaw(), state.value.getOrientation().getYaw())) <= threshold;
+            verified = verified && Math.abs(Convert.AngleDifferenceSigned(gimbalCommand.orientation.getRoll(), state.getOrientation().getRoll())) <= threshold;
         }
 
-        if (verified) {
-            finished.execute(null);
-            return;
+        if (gimbalCommand.orientation.getYaw() != null && (state.getMode() == GimbalMode.FREE || DronelinkDJI.isAdjustYaw360Supported(gimbal))) {
+            verified = verified && Math.abs(Convert.AngleDifferenceSigned(gimbalCommand.orientation.getYaw(), state.getOrientation().getYaw())) <= threshold;
         }
 
-        final long wait = 100;
-        Log.d(TAG, "Gimbal command finished and waiting for orientation (" + ((attempt + 1) * wait) + "ms)... (" + gimbalCommand.id + ")");
-        new Handler().postDelayed(new Runnable() {
-            @Override
-            public void run() {
-                gimbalCommandFinishOrientationVerify(gimbalCommand, attempt + 1, maxAttempts, threshold, finished);
-            }
-        }, wait);
+        return verified;
     }
 
     @Override
     public void onChange(final VideoFeeder.VideoFeed videoFeed, final PhysicalSource physicalSource) {
         final DJIDroneSession self = this;
-        listenerExecutor.execute(new Runnable() {
+        final Integer channel = DronelinkDJI.getChannel(videoFeed);
+        //only the latest source per feed matters to a listener that has fallen behind
+        listeners.dispatch(videoFeed, new DJIListenerRegistry.Event<Listener>() {
             @Override
-            public void run() {
-                for (final Listener listener : listeners) {
-                    listener.onVideoFeedSourceUpdated(self, DronelinkDJI.getChannel(videoFeed));
-                }
+            public void dispatch(final Listener listener) {
+                listener.onVideoFeedSourceUpdated(self, channel);
             }
         });
     }
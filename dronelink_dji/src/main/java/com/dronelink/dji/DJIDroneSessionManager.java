@@ -46,6 +46,7 @@ public class DJIDroneSessionManager implements DroneSessionManager {
     private DatedValue<FlyZoneState> flyZoneState;
     private DatedValue<AppActivationState> appActivationState;
     private DJIDroneSession session;
+    private DJIResourceLedger closedSessionResourceLedger;
     private final AtomicBoolean isRegistrationInProgress = new AtomicBoolean(false);
     private boolean registered = false;
     private final List<Listener> listeners = new LinkedList<>();
@@ -129,19 +130,45 @@ public class DJIDroneSessionManager implements DroneSessionManager {
         listeners.remove(listener);
     }
 
+    public DJIResourceLedger getClosedSessionResourceLedger() {
+        return closedSessionResourceLedger;
+    }
+
     @Override
     public void closeSession() {
-        final DroneSession previousSession = session;
+        final DJIDroneSession previousSession = session;
         if (previousSession != null) {
             previousSession.close();
             session = null;
 
+            closedSessionResourceLedger = previousSession.getResourceLedger();
+            final List<String> outstanding = closedSessionResourceLedger.getOutstanding();
+            if (!outstanding.isEmpty()) {
+                Log.e(TAG, "Drone session closed with outstanding resources: " + outstanding + " (failed to release: " + closedSessionResourceLedger.getFailed() + ")");
+            }
+
             for (final Listener listener : listeners) {
                 listener.onClosed(previousSession);
             }
         }
     }
 
+    //what a product connection does, closing any session open for a different aircraft first
+    DJIDroneSession openSession(final Aircraft drone) {
+        if (session != null) {
+            if (session.getAdapter().drone == drone) {
+                return session;
+            }
+            closeSession();
+        }
+
+        session = new DJIDroneSession(context, this, drone);
+        for (final Listener listener : listeners) {
+            listener.onOpened(session);
+        }
+        return session;
+    }
+
     @Override
     public void startRemoteControllerLinking(final Command.Finisher finisher) {
         final Aircraft aircraft = ((Aircraft) DJISDKManager.getInstance().getProduct());
@@ -233,7 +260,6 @@ public class DJIDroneSessionManager implements DroneSessionManager {
 
         if (isRegistrationInProgress.compareAndSet(false, true)) {
             Log.d(TAG, "Registering with DJI SDK...");
-            final DJIDroneSessionManager self = this;
             AsyncTask.execute(new Runnable() {
                 @Override
                 public void run() {
@@ -262,18 +288,7 @@ public class DJIDroneSessionManager implements DroneSessionManager {
                         @Override
                         public void onProductConnect(final BaseProduct baseProduct) {
                             if (baseProduct instanceof Aircraft) {
-                                final Aircraft drone = (Aircraft) baseProduct;
-                                if (session != null) {
-                                    if (session.getAdapter().drone == drone) {
-                                        return;
-                                    }
-                                    closeSession();
-                                }
-
-                                session = new DJIDroneSession(context, self, drone);
-                                for (final Listener listener : listeners) {
-                                    listener.onOpened(session);
-                                }
+                                openSession((Aircraft) baseProduct);
                             }
                         }
 
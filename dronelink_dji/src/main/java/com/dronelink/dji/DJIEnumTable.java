@@ -0,0 +1,60 @@
+//  DJIEnumTable.java
+//  DronelinkDJI
+//
+//  Created by Jim McAndrew on 10/18/26.
+//  Copyright © 2026 Dronelink. All rights reserved.
+//
+package com.dronelink.dji;
+
+import java.util.ArrayList;
+import java.util.List;
+
+//ordinal indexed lookup table built once from an enum conversion function
+public class DJIEnumTable<S extends Enum<S>, T> {
+    public interface Mapping<S, T> {
+        T map(S value);
+    }
+
+    private final S[] sources;
+    private final Object[] targets;
+    private final T fallback;
+
+    public DJIEnumTable(final Class<S> type, final Mapping<S, T> mapping, final T fallback) {
+        this.sources = type.getEnumConstants();
+        this.targets = new Object[sources.length];
+        this.fallback = fallback;
+        for (final S source : sources) {
+            final T target = mapping.map(source);
+            targets[source.ordinal()] = target == null ? fallback : target;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public T get(final S value) {
+        if (value == null) {
+            return fallback;
+        }
+        return (T)targets[value.ordinal()];
+    }
+
+    //source values that do not survive a conversion there and back (excluding those that map to the fallback)
+    public List<S> getRoundTripMismatches(final DJIEnumTable<?, S> inverse) {
+        final List<S> mismatches = new ArrayList<>();
+        for (final S source : sources) {
+            final T target = get(source);
+            if (target == fallback) {
+                continue;
+            }
+
+            if (roundTrip(inverse, target) != source) {
+                mismatches.add(source);
+            }
+        }
+        return mismatches;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <A extends Enum<A>, S> S roundTrip(final DJIEnumTable<A, S> inverse, final Object target) {
+        return inverse.get((A)target);
+    }
+}
@@ -0,0 +1,145 @@
+//  DJIFlightDataReader.java
+//  DronelinkDJI
+//
+//  Created by Jim McAndrew on 10/18/26.
+//  Copyright © 2026 Dronelink. All rights reserved.
+//
+package com.dronelink.dji;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileFilter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+//reads the records written by DJIFlightDataRecorder back in order, segment by segment
+public class DJIFlightDataReader implements Closeable {
+    public static List<File> getSegments(final File directory) {
+        final File[] files = directory.listFiles(new FileFilter() {
+            @Override
+            public boolean accept(final File file) {
+                return file.isFile() && file.getName().endsWith(DJIFlightDataRecorder.SegmentExtension);
+            }
+        });
+
+        if (files == null) {
+            return Collections.emptyList();
+        }
+
+        //names are <recording start millis>-<segment index>, so name order is recording order
+        Arrays.sort(files);
+        return Arrays.asList(files);
+    }
+
+    private final List<File> segments;
+    private int segmentIndex = 0;
+    private RandomAccessFile segmentFile;
+    private MappedByteBuffer segment;
+    private long recordingStartMillis;
+
+    public DJIFlightDataReader(final File directory) {
+        this(getSegments(directory));
+    }
+
+    public DJIFlightDataReader(final List<File> segments) {
+        this.segments = new ArrayList<>(segments);
+    }
+
+    public List<File> getSegments() {
+        return Collections.unmodifiableList(segments);
+    }
+
+    //returns null once every segment has been read
+    public DJIFlightDataRecord next() throws IOException {
+        while (true) {
+            if (segment == null) {
+                if (segmentIndex >= segments.size()) {
+                    return null;
+                }
+                open(segments.get(segmentIndex++));
+            }
+
+            final DJIFlightDataRecord record = read();
+            if (record != null) {
+                return record;
+            }
+
+            closeSegment();
+        }
+    }
+
+    public List<DJIFlightDataRecord> readAll() throws IOException {
+        final List<DJIFlightDataRecord> records = new ArrayList<>();
+        DJIFlightDataRecord record;
+        while ((record = next()) != null) {
+            records.add(record);
+        }
+        return records;
+    }
+
+    private void open(final File file) throws IOException {
+        segmentFile = new RandomAccessFile(file, "r");
+        segment = segmentFile.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, segmentFile.length());
+        segment.order(DJIFlightDataRecorder.SegmentByteOrder);
+        if (segment.remaining() < DJIFlightDataRecorder.SegmentHeaderSize || segment.getInt() != DJIFlightDataRecorder.SegmentMagic) {
+            closeSegment();
+            throw new IOException("Invalid flight data segment: " + file);
+        }
+
+        final short version = segment.getShort();
+        if (version != DJIFlightDataRecorder.SegmentVersion) {
+            closeSegment();
+            throw new IOException("Unsupported flight data segment version (" + version + "): " + file);
+        }
+
+        final int headerSize = segment.getShort();
+        recordingStartMillis = segment.getLong();
+        segment.position(headerSize);
+    }
+
+    private DJIFlightDataRecord read() {
+        if (segment.remaining() < DJIFlightDataRecord.HeaderSize) {
+            return null;
+        }
+
+        //a zero (or unknown) type is the unwritten tail of the segment
+        final DJIFlightDataRecord.Type type = DJIFlightDataRecord.Type.fromCode(segment.get());
+        if (type == null) {
+            return null;
+        }
+
+        final int channel = segment.get() & 0xFF;
+        final int length = segment.getShort() & 0xFFFF;
+        final long elapsedNanos = segment.getLong();
+        if (length > segment.remaining()) {
+            return null;
+        }
+
+        final ByteBuffer payload = segment.slice();
+        payload.limit(length);
+        payload.order(DJIFlightDataRecorder.SegmentByteOrder);
+        segment.position(segment.position() + length);
+        return new DJIFlightDataRecord(type, channel, elapsedNanos, recordingStartMillis, payload);
+    }
+
+    private void closeSegment() throws IOException {
+        segment = null;
+        if (segmentFile != null) {
+            segmentFile.close();
+            segmentFile = null;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        closeSegment();
+        segmentIndex = segments.size();
+    }
+}
@@ -0,0 +1,341 @@
+//  DJIFlightDataRecord.java
+//  DronelinkDJI
+//
+//  Created by Jim McAndrew on 10/18/26.
+//  Copyright © 2026 Dronelink. All rights reserved.
+//
+package com.dronelink.dji;
+
+import java.nio.ByteBuffer;
+import java.util.Date;
+
+import dji.common.battery.BatteryState;
+import dji.common.camera.SystemState;
+import dji.common.flightcontroller.Attitude;
+import dji.common.flightcontroller.FlightControllerState;
+import dji.common.flightcontroller.LocationCoordinate2D;
+import dji.common.flightcontroller.LocationCoordinate3D;
+import dji.common.gimbal.GimbalState;
+import dji.common.remotecontroller.HardwareState;
+
+//one record in a flight data log, the layout of every record type is written and read here and nowhere else
+//record: type (1) | channel (1) | payload length (2) | nanos since recording start (8) | payload
+public class DJIFlightDataRecord {
+    public static final int HeaderSize = 12;
+    public static final int MaxPayloadSize = 116;
+    public static final int MaxSize = HeaderSize + MaxPayloadSize;
+
+    public enum Type {
+        FLIGHT_CONTROLLER_STATE(1),
+        GIMBAL_STATE(2),
+        CAMERA_SYSTEM_STATE(3),
+        REMOTE_CONTROLLER_HARDWARE_STATE(4),
+        BATTERY_STATE(5),
+        UPLINK_SIGNAL_QUALITY(6),
+        DOWNLINK_SIGNAL_QUALITY(7);
+
+        public final byte code;
+
+        Type(final int code) {
+            this.code = (byte)code;
+        }
+
+        private static final Type[] codes = new Type[8];
+        static {
+            for (final Type type : values()) {
+                codes[type.code] = type;
+            }
+        }
+
+        public static Type fromCode(final int code) {
+            return code > 0 && code < codes.length ? codes[code] : null;
+        }
+    }
+
+    public final Type type;
+    public final int channel;
+    public final long elapsedNanos;
+    public final long recordingStartMillis;
+    private final ByteBuffer payload;
+
+    DJIFlightDataRecord(final Type type, final int channel, final long elapsedNanos, final long recordingStartMillis, final ByteBuffer payload) {
+        this.type = type;
+        this.channel = channel;
+        this.elapsedNanos = elapsedNanos;
+        this.recordingStartMillis = recordingStartMillis;
+        this.payload = payload;
+    }
+
+    public long getMillis() {
+        return recordingStartMillis + elapsedNanos / 1000000;
+    }
+
+    public Date getDate() {
+        return new Date(getMillis());
+    }
+
+    public ByteBuffer getPayload() {
+        return payload.duplicate().order(payload.order());
+    }
+
+    public FlightController toFlightController() {
+        return type == Type.FLIGHT_CONTROLLER_STATE ? new FlightController(getPayload()) : null;
+    }
+
+    public Gimbal toGimbal() {
+        return type == Type.GIMBAL_STATE ? new Gimbal(getPayload()) : null;
+    }
+
+    public CameraSystem toCameraSystem() {
+        return type == Type.CAMERA_SYSTEM_STATE ? new CameraSystem(getPayload()) : null;
+    }
+
+    public RemoteController toRemoteController() {
+        return type == Type.REMOTE_CONTROLLER_HARDWARE_STATE ? new RemoteController(getPayload()) : null;
+    }
+
+    public Battery toBattery() {
+        return type == Type.BATTERY_STATE ? new Battery(getPayload()) : null;
+    }
+
+    public int toSignalQuality() {
+        return type == Type.UPLINK_SIGNAL_QUALITY || type == Type.DOWNLINK_SIGNAL_QUALITY ? payload.get(payload.position()) : 0;
+    }
+
+    private static int flag(final boolean value, final int bit) {
+        return value ? 1 << bit : 0;
+    }
+
+    private static boolean flag(final int flags, final int bit) {
+        return (flags & (1 << bit)) != 0;
+    }
+
+    private static int ordinal(final Enum<?> value) {
+        return value == null ? -1 : value.ordinal();
+    }
+
+    private static int position(final HardwareState.Stick stick, final boolean vertical) {
+        return stick == null ? 0 : vertical ? stick.getVerticalPosition() : stick.getHorizontalPosition();
+    }
+
+    private static boolean clicked(final HardwareState.Button button) {
+        return button != null && button.isClicked();
+    }
+
+    public static class FlightController {
+        public final double latitude;
+        public final double longitude;
+        public final float altitude;
+        public final float velocityX;
+        public final float velocityY;
+        public final float velocityZ;
+        public final float pitch;
+        public final float roll;
+        public final float yaw;
+        public final double homeLatitude;
+        public final double homeLongitude;
+        public final float takeoffLocationAltitude;
+        public final float ultrasonicHeightInMeters;
+        public final int goHomeHeight;
+        public final int remainingFlightTime;
+        public final int flightMode;
+        public final int gpsSignalLevel;
+        public final int satelliteCount;
+        public final boolean flying;
+        public final boolean motorsOn;
+        public final boolean homeLocationSet;
+        public final boolean ultrasonicBeingUsed;
+        public final boolean reachedMaxFlightHeight;
+        public final boolean reachedMaxFlightRadius;
+
+        static void write(final ByteBuffer buffer, final FlightControllerState state) {
+            final LocationCoordinate3D location = state.getAircraftLocation();
+            buffer.putDouble(location == null ? Double.NaN : location.getLatitude());
+            buffer.putDouble(location == null ? Double.NaN : location.getLongitude());
+            buffer.putFloat(location == null ? 0 : location.getAltitude());
+            buffer.putFloat(state.getVelocityX());
+            buffer.putFloat(state.getVelocityY());
+            buffer.putFloat(state.getVelocityZ());
+            final Attitude attitude = state.getAttitude();
+            buffer.putFloat(attitude == null ? 0 : (float)attitude.pitch);
+            buffer.putFloat(attitude == null ? 0 : (float)attitude.roll);
+            buffer.putFloat(attitude == null ? 0 : (float)attitude.yaw);
+            final LocationCoordinate2D homeLocation = state.getHomeLocation();
+            buffer.putDouble(homeLocation == null ? Double.NaN : homeLocation.getLatitude());
+            buffer.putDouble(homeLocation == null ? Double.NaN : homeLocation.getLongitude());
+            buffer.putFloat(state.getTakeoffLocationAltitude());
+            buffer.putFloat(state.getUltrasonicHeightInMeters());
+            buffer.putShort((short)state.getGoHomeHeight());
+            buffer.putShort((short)(state.getGoHomeAssessment() == null ? 0 : state.getGoHomeAssessment().getRemainingFlightTime()));
+            buffer.put((byte)ordinal(state.getFlightMode()));
+            buffer.put((byte)ordinal(state.getGPSSignalLevel()));
+            buffer.put((byte)state.getSatelliteCount());
+            buffer.put((byte)(flag(state.isFlying(), 0)
+                    | flag(state.areMotorsOn(), 1)
+                    | flag(state.isHomeLocationSet(), 2)
+                    | flag(state.isUltrasonicBeingUsed(), 3)
+                    | flag(state.hasReachedMaxFlightHeight(), 4)
+                    | flag(state.hasReachedMaxFlightRadius(), 5)));
+        }
+
+        FlightController(final ByteBuffer buffer) {
+            latitude = buffer.getDouble();
+            longitude = buffer.getDouble();
+            altitude = buffer.getFloat();
+            velocityX = buffer.getFloat();
+            velocityY = buffer.getFloat();
+            velocityZ = buffer.getFloat();
+            pitch = buffer.getFloat();
+            roll = buffer.getFloat();
+            yaw = buffer.getFloat();
+            homeLatitude = buffer.getDouble();
+            homeLongitude = buffer.getDouble();
+            takeoffLocationAltitude = buffer.getFloat();
+            ultrasonicHeightInMeters = buffer.getFloat();
+            goHomeHeight = buffer.getShort();
+            remainingFlightTime = buffer.getShort();
+            flightMode = buffer.get();
+            gpsSignalLevel = buffer.get();
+            satelliteCount = buffer.get() & 0xFF;
+            final int flags = buffer.get();
+            flying = flag(flags, 0);
+            motorsOn = flag(flags, 1);
+            homeLocationSet = flag(flags, 2);
+            ultrasonicBeingUsed = flag(flags, 3);
+            reachedMaxFlightHeight = flag(flags, 4);
+            reachedMaxFlightRadius = flag(flags, 5);
+        }
+    }
+
+    public static class Gimbal {
+        public final float pitch;
+        public final float roll;
+        public final float yaw;
+        public final int mode;
+
+        static void write(final ByteBuffer buffer, final GimbalState state) {
+            final dji.common.gimbal.Attitude attitude = state.getAttitudeInDegrees();
+            buffer.putFloat(attitude == null ? 0 : attitude.getPitch());
+            buffer.putFloat(attitude == null ? 0 : attitude.getRoll());
+            buffer.putFloat(attitude == null ? 0 : attitude.getYaw());
+            buffer.put((byte)ordinal(state.getMode()));
+        }
+
+        Gimbal(final ByteBuffer buffer) {
+            pitch = buffer.getFloat();
+            roll = buffer.getFloat();
+            yaw = buffer.getFloat();
+            mode = buffer.get();
+        }
+    }
+
+    public static class CameraSystem {
+        public final int mode;
+        public final int currentVideoRecordingTimeInSeconds;
+        public final boolean recording;
+        public final boolean shootingSinglePhoto;
+        public final boolean shootingSinglePhotoInRAWFormat;
+        public final boolean shootingIntervalPhoto;
+        public final boolean shootingBurstPhoto;
+        public final boolean shootingRAWBurstPhoto;
+        public final boolean shootingShallowFocusPhoto;
+        public final boolean shootingPanoramaPhoto;
+
+        static void write(final ByteBuffer buffer, final SystemState state) {
+            buffer.put((byte)ordinal(state.getMode()));
+            buffer.putInt(state.getCurrentVideoRecordingTimeInSeconds());
+            buffer.put((byte)(flag(state.isRecording(), 0)
+                    | flag(state.isShootingSinglePhoto(), 1)
+                    | flag(state.isShootingSinglePhotoInRAWFormat(), 2)
+                    | flag(state.isShootingIntervalPhoto(), 3)
+                    | flag(state.isShootingBurstPhoto(), 4)
+                    | flag(state.isShootingRAWBurstPhoto(), 5)
+                    | flag(state.isShootingShallowFocusPhoto(), 6)
+                    | flag(state.isShootingPanoramaPhoto(), 7)));
+        }
+
+        CameraSystem(final ByteBuffer buffer) {
+            mode = buffer.get();
+            currentVideoRecordingTimeInSeconds = buffer.getInt();
+            final int flags = buffer.get();
+            recording = flag(flags, 0);
+            shootingSinglePhoto = flag(flags, 1);
+            shootingSinglePhotoInRAWFormat = flag(flags, 2);
+            shootingIntervalPhoto = flag(flags, 3);
+            shootingBurstPhoto = flag(flags, 4);
+            shootingRAWBurstPhoto = flag(flags, 5);
+            shootingShallowFocusPhoto = flag(flags, 6);
+            shootingPanoramaPhoto = flag(flags, 7);
+        }
+    }
+
+    public static class RemoteController {
+        public final int leftStickHorizontal;
+        public final int leftStickVertical;
+        public final int rightStickHorizontal;
+        public final int rightStickVertical;
+        public final int leftDial;
+        public final boolean goHomeClicked;
+        public final boolean pauseClicked;
+        public final boolean shutterClicked;
+        public final boolean recordClicked;
+        public final boolean shootPhotoAndRecordClicked;
+        public final boolean c1Clicked;
+        public final boolean c2Clicked;
+
+        static void write(final ByteBuffer buffer, final HardwareState state) {
+            buffer.putShort((short)position(state.getLeftStick(), false));
+            buffer.putShort((short)position(state.getLeftStick(), true));
+            buffer.putShort((short)position(state.getRightStick(), false));
+            buffer.putShort((short)position(state.getRightStick(), true));
+            buffer.putShort((short)state.getLeftDial());
+            buffer.put((byte)(flag(clicked(state.getGoHomeButton()), 0)
+                    | flag(clicked(state.getPauseButton()), 1)
+                    | flag(clicked(state.getShutterButton()), 2)
+                    | flag(clicked(state.getRecordButton()), 3)
+                    | flag(clicked(state.getShootPhotoAndRecordButton()), 4)
+                    | flag(clicked(state.getC1Button()), 5)
+                    | flag(clicked(state.getC2Button()), 6)));
+        }
+
+        RemoteController(final ByteBuffer buffer) {
+            leftStickHorizontal = buffer.getShort();
+            leftStickVertical = buffer.getShort();
+            rightStickHorizontal = buffer.getShort();
+            rightStickVertical = buffer.getShort();
+            leftDial = buffer.getShort();
+            final int flags = buffer.get();
+            goHomeClicked = flag(flags, 0);
+            pauseClicked = flag(flags, 1);
+            shutterClicked = flag(flags, 2);
+            recordClicked = flag(flags, 3);
+            shootPhotoAndRecordClicked = flag(flags, 4);
+            c1Clicked = flag(flags, 5);
+            c2Clicked = flag(flags, 6);
+        }
+    }
+
+    public static class Battery {
+        public final int chargeRemainingInPercent;
+        public final int chargeRemaining;
+        public final int voltage;
+        public final int current;
+        public final float temperature;
+
+        static void write(final ByteBuffer buffer, final BatteryState state) {
+            buffer.put((byte)state.getChargeRemainingInPercent());
+            buffer.putInt(state.getChargeRemaining());
+            buffer.putInt(state.getVoltage());
+            buffer.putInt(state.getCurrent());
+            buffer.putFloat(state.getTemperature());
+        }
+
+        Battery(final ByteBuffer buffer) {
+            chargeRemainingInPercent = buffer.get() & 0xFF;
+            chargeRemaining = buffer.getInt();
+            voltage = buffer.getInt();
+            current = buffer.getInt();
+            temperature = buffer.getFloat();
+        }
+    }
+}
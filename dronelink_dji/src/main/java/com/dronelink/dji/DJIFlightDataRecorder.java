@@ -0,0 +1,384 @@
+//  DJIFlightDataRecorder.java
+//  DronelinkDJI
+//
+//  Created by Jim McAndrew on 10/18/26.
+//  Copyright © 2026 Dronelink. All rights reserved.
+//
+package com.dronelink.dji;
+
+import android.util.Log;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import dji.common.battery.BatteryState;
+import dji.common.camera.SystemState;
+import dji.common.flightcontroller.FlightControllerState;
+import dji.common.gimbal.GimbalState;
+import dji.common.remotecontroller.HardwareState;
+
+//appends telemetry to memory mapped log segments
+//callback threads only fill a pooled buffer and hand it off (dropping the record if the pool is exhausted), the recorder's own thread drains the hand off queue into the mapped segment
+//file work (rotating, forcing, deleting) never runs on the session scheduler, where it would hold up the lanes
+//mapped pages belong to the kernel once written, so an app kill loses at most the records still waiting for the next drain
+//only the newest maxSegmentCount segments are kept, older ones are deleted as new ones are opened
+public class DJIFlightDataRecorder {
+    private static final String TAG = DJIFlightDataRecorder.class.getCanonicalName();
+
+    public static final String SegmentExtension = ".dlfr";
+    public static final int SegmentMagic = 0x444C4652;
+    public static final short SegmentVersion = 1;
+    public static final int SegmentHeaderSize = 32;
+    public static final ByteOrder SegmentByteOrder = ByteOrder.LITTLE_ENDIAN;
+
+    private static final int DefaultSegmentSize = 8 * 1024 * 1024;
+    private static final int DefaultBufferCount = 1024;
+    private static final int DefaultMaxSegmentCount = 32;
+    private static final long DrainIntervalMillis = 20;
+
+    private interface Writer<V> {
+        void write(ByteBuffer buffer, V value);
+    }
+
+    private static final Writer<FlightControllerState> flightControllerStateWriter = new Writer<FlightControllerState>() {
+        @Override
+        public void write(final ByteBuffer buffer, final FlightControllerState value) {
+            DJIFlightDataRecord.FlightController.write(buffer, value);
+        }
+    };
+
+    private static final Writer<GimbalState> gimbalStateWriter = new Writer<GimbalState>() {
+        @Override
+        public void write(final ByteBuffer buffer, final GimbalState value) {
+            DJIFlightDataRecord.Gimbal.write(buffer, value);
+        }
+    };
+
+    private static final Writer<SystemState> cameraSystemStateWriter = new Writer<SystemState>() {
+        @Override
+        public void write(final ByteBuffer buffer, final SystemState value) {
+            DJIFlightDataRecord.CameraSystem.write(buffer, value);
+        }
+    };
+
+    private static final Writer<HardwareState> remoteControllerHardwareStateWriter = new Writer<HardwareState>() {
+        @Override
+        public void write(final ByteBuffer buffer, final HardwareState value) {
+            DJIFlightDataRecord.RemoteController.write(buffer, value);
+        }
+    };
+
+    private static final Writer<BatteryState> batteryStateWriter = new Writer<BatteryState>() {
+        @Override
+        public void write(final ByteBuffer buffer, final BatteryState value) {
+            DJIFlightDataRecord.Battery.write(buffer, value);
+        }
+    };
+
+    private final File directory;
+    private final int segmentSize;
+    private final int maxSegmentCount;
+    private final ArrayBlockingQueue<ByteBuffer> free;
+    private final ArrayBlockingQueue<ByteBuffer> pending;
+    private final long startMillis = System.currentTimeMillis();
+    private final long startNanos = System.nanoTime();
+    private final AtomicLong recordedCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final List<File> segments = new ArrayList<>();
+    private volatile boolean recording = false;
+    private ScheduledThreadPoolExecutor executor;
+    private RandomAccessFile segmentFile;
+    private MappedByteBuffer segment;
+    private int segmentIndex = 0;
+    private long writtenBytes = 0;
+    private long deletedSegmentCount = 0;
+
+    public DJIFlightDataRecorder(final File directory) {
+        this(directory, DefaultSegmentSize, DefaultBufferCount, DefaultMaxSegmentCount);
+    }
+
+    public DJIFlightDataRecorder(final File directory, final int segmentSize, final int bufferCount, final int maxSegmentCount) {
+        this.directory = directory;
+        this.segmentSize = Math.max(SegmentHeaderSize + DJIFlightDataRecord.MaxSize, segmentSize);
+        this.maxSegmentCount = Math.max(1, maxSegmentCount);
+        free = new ArrayBlockingQueue<>(bufferCount);
+        pending = new ArrayBlockingQueue<>(bufferCount);
+        for (int i = 0; i < bufferCount; i++) {
+            free.offer(ByteBuffer.allocate(DJIFlightDataRecord.MaxSize).order(SegmentByteOrder));
+        }
+    }
+
+    public synchronized DJIFlightDataRecorder start() throws IOException {
+        if (recording) {
+            return this;
+        }
+
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Unable to create flight data directory: " + directory);
+        }
+
+        //the first segment is opened here so a directory that can't be written fails the start
+        rotate();
+        recording = true;
+        executor = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+            @Override
+            public Thread newThread(final Runnable runnable) {
+                final Thread thread = new Thread(runnable, "DronelinkDJI flightDataRecorder");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        executor.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                drain();
+            }
+        }, DrainIntervalMillis, DrainIntervalMillis, TimeUnit.MILLISECONDS);
+        Log.i(TAG, "Flight data recording started: " + directory);
+        return this;
+    }
+
+    //the last drain and the close happen on the recorder's thread after this returns, awaitTermination waits for them
+    public synchronized void stop() {
+        if (!recording) {
+            return;
+        }
+
+        recording = false;
+        final ScheduledThreadPoolExecutor executor = this.executor;
+        executor.getQueue().clear();
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                finish();
+            }
+        });
+        executor.shutdown();
+    }
+
+    public boolean awaitTermination(final long timeoutMillis) throws InterruptedException {
+        final ScheduledThreadPoolExecutor executor;
+        synchronized (this) {
+            executor = this.executor;
+        }
+        return executor == null || executor.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized void finish() {
+        drain();
+        //started again before this ran, so the open segment belongs to the new recording
+        if (recording) {
+            return;
+        }
+
+        closeSegment();
+        Log.i(TAG, "Flight data recording stopped: " + toString());
+    }
+
+    public boolean isRecording() {
+        return recording;
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    //the segments still on disk, oldest first
+    public synchronized List<File> getSegments() {
+        return new ArrayList<>(segments);
+    }
+
+    public synchronized long getDeletedSegmentCount() {
+        return deletedSegmentCount;
+    }
+
+    public long getRecordedCount() {
+        return recordedCount.get();
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    public synchronized long getWrittenBytes() {
+        return writtenBytes;
+    }
+
+    public void recordFlightControllerState(final FlightControllerState state) {
+        record(DJIFlightDataRecord.Type.FLIGHT_CONTROLLER_STATE, 0, state, flightControllerStateWriter);
+    }
+
+    public void recordGimbalState(final int channel, final GimbalState state) {
+        record(DJIFlightDataRecord.Type.GIMBAL_STATE, channel, state, gimbalStateWriter);
+    }
+
+    public void recordCameraSystemState(final int channel, final SystemState state) {
+        record(DJIFlightDataRecord.Type.CAMERA_SYSTEM_STATE, channel, state, cameraSystemStateWriter);
+    }
+
+    public void recordRemoteControllerHardwareState(final HardwareState state) {
+        record(DJIFlightDataRecord.Type.REMOTE_CONTROLLER_HARDWARE_STATE, 0, state, remoteControllerHardwareStateWriter);
+    }
+
+    public void recordBatteryState(final int channel, final BatteryState state) {
+        record(DJIFlightDataRecord.Type.BATTERY_STATE, channel, state, batteryStateWriter);
+    }
+
+    public void recordSignalQuality(final boolean uplink, final int quality) {
+        final ByteBuffer buffer = begin(uplink ? DJIFlightDataRecord.Type.UPLINK_SIGNAL_QUALITY : DJIFlightDataRecord.Type.DOWNLINK_SIGNAL_QUALITY, 0);
+        if (buffer != null) {
+            buffer.put((byte)quality);
+            end(buffer);
+        }
+    }
+
+    private <V> void record(final DJIFlightDataRecord.Type type, final int channel, final V value, final Writer<V> writer) {
+        if (value == null) {
+            return;
+        }
+
+        final ByteBuffer buffer = begin(type, channel);
+        if (buffer == null) {
+            return;
+        }
+
+        try {
+            writer.write(buffer, value);
+        }
+        catch (final RuntimeException e) {
+            free.offer(buffer);
+            droppedCount.incrementAndGet();
+            return;
+        }
+        end(buffer);
+    }
+
+    private ByteBuffer begin(final DJIFlightDataRecord.Type type, final int channel) {
+        if (!recording) {
+            return null;
+        }
+
+        final ByteBuffer buffer = free.poll();
+        if (buffer == null) {
+            droppedCount.incrementAndGet();
+            return null;
+        }
+
+        buffer.clear();
+        buffer.put(type.code);
+        buffer.put((byte)channel);
+        buffer.putShort((short)0);
+        buffer.putLong(System.nanoTime() - startNanos);
+        return buffer;
+    }
+
+    private void end(final ByteBuffer buffer) {
+        buffer.putShort(2, (short)(buffer.position() - DJIFlightDataRecord.HeaderSize));
+        buffer.flip();
+        if (pending.offer(buffer)) {
+            recordedCount.incrementAndGet();
+        }
+        else {
+            free.offer(buffer);
+            droppedCount.incrementAndGet();
+        }
+    }
+
+    private synchronized void drain() {
+        ByteBuffer buffer;
+        while ((buffer = pending.poll()) != null) {
+            try {
+                if (segment != null) {
+                    write(buffer);
+                }
+            }
+            catch (final IOException e) {
+                Log.e(TAG, "Unable to write flight data, recording stopped", e);
+                recording = false;
+                closeSegment();
+                executor.shutdown();
+            }
+            finally {
+                free.offer(buffer);
+            }
+        }
+    }
+
+    private void write(final ByteBuffer record) throws IOException {
+        if (segment.remaining() < record.remaining()) {
+            rotate();
+        }
+
+        final int start = segment.position();
+        final int length = record.remaining();
+        segment.put((byte)0);
+        record.position(1);
+        segment.put(record);
+        //the type goes in last, a record torn by a kill mid copy reads as the end of the segment
+        segment.put(start, record.get(0));
+        writtenBytes += length;
+    }
+
+    private void rotate() throws IOException {
+        closeSegment();
+
+        final File file = new File(directory, String.format(Locale.US, "%d-%04d%s", startMillis, segmentIndex, SegmentExtension));
+        segmentFile = new RandomAccessFile(file, "rw");
+        segment = segmentFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        segment.order(SegmentByteOrder);
+        segment.putInt(SegmentMagic);
+        segment.putShort(SegmentVersion);
+        segment.putShort((short)SegmentHeaderSize);
+        segment.putLong(startMillis);
+        segment.putInt(segmentIndex++);
+        segment.position(SegmentHeaderSize);
+        segments.add(file);
+
+        while (segments.size() > maxSegmentCount) {
+            final File oldest = segments.remove(0);
+            if (!oldest.delete()) {
+                Log.e(TAG, "Unable to delete flight data segment: " + oldest);
+            }
+            deletedSegmentCount++;
+        }
+    }
+
+    private void closeSegment() {
+        if (segment != null) {
+            segment.force();
+            segment = null;
+        }
+
+        if (segmentFile != null) {
+            try {
+                segmentFile.close();
+            }
+            catch (final IOException e) {
+                Log.e(TAG, "Unable to close flight data segment", e);
+            }
+            segmentFile = null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.US, "recorded=%d dropped=%d written=%dB segments=%d deleted=%d", getRecordedCount(), getDroppedCount(), getWrittenBytes(), getSegments().size(), getDeletedSegmentCount());
+    }
+}
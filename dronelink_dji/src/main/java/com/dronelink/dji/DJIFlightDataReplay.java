@@ -0,0 +1,355 @@
+//  DJIFlightDataReplay.java
+//  DronelinkDJI
+//
+//  Created by Jim McAndrew on 10/18/26.
+//  Copyright © 2026 Dronelink. All rights reserved.
+//
+package com.dronelink.dji;
+
+import android.util.Log;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import dji.common.battery.BatteryState;
+import dji.common.camera.SystemState;
+import dji.common.flightcontroller.Attitude;
+import dji.common.flightcontroller.FlightControllerState;
+import dji.common.flightcontroller.FlightMode;
+import dji.common.flightcontroller.GPSSignalLevel;
+import dji.common.flightcontroller.LocationCoordinate2D;
+import dji.common.flightcontroller.LocationCoordinate3D;
+import dji.common.gimbal.GimbalMode;
+import dji.common.gimbal.GimbalState;
+import dji.common.remotecontroller.HardwareState;
+
+//feeds a recorded flight back through the session's update entry points, in record order, on one scheduler task at a time
+public class DJIFlightDataReplay {
+    private static final String TAG = DJIFlightDataReplay.class.getCanonicalName();
+    private static final int AsFastAsPossibleBatchSize = 256;
+
+    public enum Mode {
+        REAL_TIME,
+        ACCELERATED,
+        AS_FAST_AS_POSSIBLE
+    }
+
+    //turns recorded fields back into SDK values, returning null means the decoder can't rebuild that type
+    //those records are skipped (and logged the first time for each type), or end the replay with an error if it fails on skipped records
+    public interface Decoder {
+        FlightControllerState decodeFlightControllerState(DJIFlightDataRecord.FlightController record);
+        GimbalState decodeGimbalState(DJIFlightDataRecord.Gimbal record);
+        SystemState decodeCameraSystemState(DJIFlightDataRecord.CameraSystem record);
+        HardwareState decodeRemoteControllerHardwareState(DJIFlightDataRecord.RemoteController record);
+        BatteryState decodeBatteryState(DJIFlightDataRecord.Battery record);
+    }
+
+    //the SDK only exposes setters / builders for the flight controller and gimbal states, supply a decoder to replay the rest
+    //(camera system, remote controller and battery records are skipped with this one)
+    public static class DefaultDecoder implements Decoder {
+        @Override
+        public FlightControllerState decodeFlightControllerState(final DJIFlightDataRecord.FlightController record) {
+            final FlightControllerState state = new FlightControllerState();
+            state.setAircraftLocation(new LocationCoordinate3D(record.latitude, record.longitude, record.altitude));
+            state.setVelocityX(record.velocityX);
+            state.setVelocityY(record.velocityY);
+            state.setVelocityZ(record.velocityZ);
+            state.setAttitude(new Attitude(record.pitch, record.roll, record.yaw));
+            state.setHomeLocation(new LocationCoordinate2D(record.homeLatitude, record.homeLongitude));
+            state.setHomeLocationSet(record.homeLocationSet);
+            state.setTakeoffLocationAltitude(record.takeoffLocationAltitude);
+            state.setUltrasonicHeightInMeters(record.ultrasonicHeightInMeters);
+            state.setUltrasonicBeingUsed(record.ultrasonicBeingUsed);
+            state.setGoHomeHeight(record.goHomeHeight);
+            state.setFlightMode(value(FlightMode.values(), record.flightMode, FlightMode.UNKNOWN));
+            state.setGPSSignalLevel(value(GPSSignalLevel.values(), record.gpsSignalLevel, GPSSignalLevel.NONE));
+            state.setSatelliteCount(record.satelliteCount);
+            state.setFlying(record.flying);
+            state.setAreMotorsOn(record.motorsOn);
+            state.setHasReachedMaxFlightHeight(record.reachedMaxFlightHeight);
+            state.setHasReachedMaxFlightRadius(record.reachedMaxFlightRadius);
+            return state;
+        }
+
+        @Override
+        public GimbalState decodeGimbalState(final DJIFlightDataRecord.Gimbal record) {
+            return new GimbalState.Builder()
+                    .attitudeInDegrees(new dji.common.gimbal.Attitude(record.pitch, record.roll, record.yaw))
+                    .mode(value(GimbalMode.values(), record.mode, GimbalMode.UNKNOWN))
+                    .build();
+        }
+
+        @Override
+        public SystemState decodeCameraSystemState(final DJIFlightDataRecord.CameraSystem record) {
+            return null;
+        }
+
+        @Override
+        public HardwareState decodeRemoteControllerHardwareState(final DJIFlightDataRecord.RemoteController record) {
+            return null;
+        }
+
+        @Override
+        public BatteryState decodeBatteryState(final DJIFlightDataRecord.Battery record) {
+            return null;
+        }
+
+        protected static <E extends Enum<E>> E value(final E[] values, final int ordinal, final E fallback) {
+            return ordinal >= 0 && ordinal < values.length ? values[ordinal] : fallback;
+        }
+    }
+
+    private final DJIDroneSession session;
+    private final DJIFlightDataReader reader;
+    private final Mode mode;
+    private final double speed;
+    private final Decoder decoder;
+    private final DJISessionScheduler scheduler;
+    private final CountDownLatch finished = new CountDownLatch(1);
+    private volatile boolean failOnSkipped = false;
+    private volatile boolean running = false;
+    private volatile long deliveredCount = 0;
+    private volatile long skippedCount = 0;
+    private final AtomicLongArray skippedCounts = new AtomicLongArray(DJIFlightDataRecord.Type.values().length);
+    private volatile long maxLagNanos = 0;
+    private volatile long startedNanos = 0;
+    private volatile long finishedNanos = 0;
+    private volatile Exception error;
+    private DJIFlightDataRecord next;
+    private long firstTimestampNanos = -1;
+
+    public DJIFlightDataReplay(final DJIDroneSession session, final DJIFlightDataReader reader, final Mode mode) {
+        this(session, reader, mode, mode == Mode.ACCELERATED ? 50 : 1, new DefaultDecoder(), DJISessionScheduler.getInstance());
+    }
+
+    public DJIFlightDataReplay(final DJIDroneSession session, final DJIFlightDataReader reader, final Mode mode, final double speed, final Decoder decoder, final DJISessionScheduler scheduler) {
+        this.session = session;
+        this.reader = reader;
+        this.mode = mode;
+        this.speed = mode == Mode.REAL_TIME ? 1 : Math.max(0.01, speed);
+        this.decoder = decoder;
+        this.scheduler = scheduler;
+    }
+
+    private final Runnable step = new Runnable() {
+        @Override
+        public void run() {
+            try {
+                replay();
+            }
+            catch (final Exception e) {
+                Log.e(TAG, "Replay failed", e);
+                error = e;
+                finish();
+            }
+        }
+    };
+
+    //by default records the decoder can't rebuild are skipped, when set the first one ends the replay with an error instead
+    public DJIFlightDataReplay setFailOnSkipped(final boolean failOnSkipped) {
+        this.failOnSkipped = failOnSkipped;
+        return this;
+    }
+
+    public synchronized DJIFlightDataReplay start() {
+        if (running || finished.getCount() == 0) {
+            return this;
+        }
+
+        running = true;
+        startedNanos = System.nanoTime();
+        scheduler.schedule(step, 0);
+        return this;
+    }
+
+    public void stop() {
+        running = false;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public boolean await(final long timeoutMillis) throws InterruptedException {
+        return finished.await(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public long getDeliveredCount() {
+        return deliveredCount;
+    }
+
+    public long getSkippedCount() {
+        return skippedCount;
+    }
+
+    public long getSkippedCount(final DJIFlightDataRecord.Type type) {
+        return skippedCounts.get(type.ordinal());
+    }
+
+    //how far behind its schedule the replay fell delivering a record, always 0 as fast as possible
+    public double getMaxLagMillis() {
+        return maxLagNanos / 1000000.0;
+    }
+
+    public double getElapsedMillis() {
+        final long started = startedNanos;
+        if (started == 0) {
+            return 0;
+        }
+
+        final long finished = finishedNanos;
+        return ((finished == 0 ? System.nanoTime() : finished) - started) / 1000000.0;
+    }
+
+    public double getRecordsPerSecond() {
+        final double elapsedMillis = getElapsedMillis();
+        return elapsedMillis == 0 ? 0 : deliveredCount / (elapsedMillis / 1000.0);
+    }
+
+    public Exception getError() {
+        return error;
+    }
+
+    private static long timestampNanos(final DJIFlightDataRecord record) {
+        return record.recordingStartMillis * 1000000L + record.elapsedNanos;
+    }
+
+    //only ever runs on one scheduler task at a time, each step reschedules the next
+    private void replay() throws IOException {
+        int batch = 0;
+        while (running && !session.isClosed()) {
+            if (next == null) {
+                next = reader.next();
+                if (next == null) {
+                    finish();
+                    return;
+                }
+            }
+
+            if (firstTimestampNanos < 0) {
+                firstTimestampNanos = timestampNanos(next);
+            }
+
+            if (mode == Mode.AS_FAST_AS_POSSIBLE) {
+                if (batch++ >= AsFastAsPossibleBatchSize) {
+                    //yield the pool thread so the session lanes can keep up
+                    scheduler.schedule(step, 0);
+                    return;
+                }
+            }
+            else {
+                final long dueNanos = startedNanos + (long)((timestampNanos(next) - firstTimestampNanos) / speed);
+                final long waitNanos = dueNanos - System.nanoTime();
+                if (waitNanos > 1000000) {
+                    scheduler.schedule(step, waitNanos / 1000000);
+                    return;
+                }
+
+                if (-waitNanos > maxLagNanos) {
+                    maxLagNanos = -waitNanos;
+                }
+            }
+
+            deliver(next);
+            next = null;
+        }
+
+        finish();
+    }
+
+    private void deliver(final DJIFlightDataRecord record) {
+        boolean delivered = false;
+        switch (record.type) {
+            case FLIGHT_CONTROLLER_STATE: {
+                final FlightControllerState state = decoder.decodeFlightControllerState(record.toFlightController());
+                if (state != null) {
+                    session.updateFlightControllerState(state);
+                    delivered = true;
+                }
+                break;
+            }
+
+            case GIMBAL_STATE: {
+                final GimbalState state = decoder.decodeGimbalState(record.toGimbal());
+                if (state != null) {
+                    session.updateGimbalState(record.channel, state);
+                    delivered = true;
+                }
+                break;
+            }
+
+            case CAMERA_SYSTEM_STATE: {
+                final SystemState state = decoder.decodeCameraSystemState(record.toCameraSystem());
+                if (state != null) {
+                    session.updateCameraSystemState(record.channel, state);
+                    delivered = true;
+                }
+                break;
+            }
+
+            case REMOTE_CONTROLLER_HARDWARE_STATE: {
+                final HardwareState state = decoder.decodeRemoteControllerHardwareState(record.toRemoteController());
+                if (state != null) {
+                    session.updateRemoteControllerHardwareState(state);
+                    delivered = true;
+                }
+                break;
+            }
+
+            case BATTERY_STATE: {
+                final BatteryState state = decoder.decodeBatteryState(record.toBattery());
+                if (state != null) {
+                    session.updateBatteryState(state);
+                    delivered = true;
+                }
+                break;
+            }
+
+            case UPLINK_SIGNAL_QUALITY:
+            case DOWNLINK_SIGNAL_QUALITY:
+                session.updateSignalQuality(record.type == DJIFlightDataRecord.Type.UPLINK_SIGNAL_QUALITY, record.toSignalQuality());
+                delivered = true;
+                break;
+        }
+
+        if (delivered) {
+            deliveredCount++;
+            return;
+        }
+
+        if (failOnSkipped) {
+            throw new IllegalStateException("Unable to decode " + record.type + " flight data record");
+        }
+
+        skippedCount++;
+        if (skippedCounts.getAndIncrement(record.type.ordinal()) == 0) {
+            Log.w(TAG, "Unable to decode " + record.type + " flight data records, skipping them");
+        }
+    }
+
+    private void finish() {
+        if (finished.getCount() == 0) {
+            return;
+        }
+
+        running = false;
+        finishedNanos = System.nanoTime();
+        try {
+            reader.close();
+        }
+        catch (final IOException e) {
+            Log.e(TAG, "Unable to close flight data reader", e);
+        }
+        finished.countDown();
+        Log.i(TAG, "Replay finished: " + toString());
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.US, "mode=%s speed=%.1fx delivered=%d skipped=%d elapsed=%.0fms rate=%.0f/s maxLag=%.2fms",
+                mode, speed, getDeliveredCount(), getSkippedCount(), getElapsedMillis(), getRecordsPerSecond(), getMaxLagMillis());
+    }
+}
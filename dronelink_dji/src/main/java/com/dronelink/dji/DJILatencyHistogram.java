@@ -0,0 +1,123 @@
+//  DJILatencyHistogram.java
+//  DronelinkDJI
+//
+//  Created by Jim McAndrew on 10/18/26.
+//  Copyright © 2026 Dronelink. All rights reserved.
+//
+package com.dronelink.dji;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+//lock-free log-linear histogram (4 sub-buckets per power of two microseconds), cheap enough to record on callback threads
+public class DJILatencyHistogram {
+    private static final int BUCKETS = 128;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong totalNanos = new AtomicLong();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    private static int getBucket(final long micros) {
+        if (micros < 4) {
+            return (int)Math.max(0, micros);
+        }
+
+        final int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        final int mantissa = (int)((micros >>> (exponent - 2)) & 3);
+        return Math.min((exponent - 1) * 4 + mantissa, BUCKETS - 1);
+    }
+
+    private static long getBucketUpperMicros(final int bucket) {
+        if (bucket < 4) {
+            return bucket + 1;
+        }
+
+        final int exponent = bucket / 4 + 1;
+        final int mantissa = bucket % 4;
+        return (long)(5 + mantissa) << (exponent - 2);
+    }
+
+    public void record(final long nanos) {
+        if (nanos < 0) {
+            return;
+        }
+
+        counts.incrementAndGet(getBucket(nanos / 1000));
+        count.incrementAndGet();
+        totalNanos.addAndGet(nanos);
+        long max = maxNanos.get();
+        while (nanos > max && !maxNanos.compareAndSet(max, nanos)) {
+            max = maxNanos.get();
+        }
+    }
+
+    public void recordSince(final long startedNanos) {
+        record(System.nanoTime() - startedNanos);
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    public double getMeanMillis() {
+        final long count = this.count.get();
+        return count == 0 ? 0 : (totalNanos.get() / (double)count) / 1000000.0;
+    }
+
+    public double getMaxMillis() {
+        return maxNanos.get() / 1000000.0;
+    }
+
+    //upper bound of the bucket containing the percentile, so accurate to within 25%
+    public double getPercentileMillis(final double percentile) {
+        final long count = this.count.get();
+        if (count == 0) {
+            return 0;
+        }
+
+        final long target = Math.max(1, (long)Math.ceil(count * Math.min(1.0, Math.max(0.0, percentile))));
+        long cumulative = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            cumulative += counts.get(bucket);
+            if (cumulative >= target) {
+                return Math.min(getBucketUpperMicros(bucket) / 1000.0, getMaxMillis());
+            }
+        }
+        return getMaxMillis();
+    }
+
+    public double getMedianMillis() {
+        return getPercentileMillis(0.5);
+    }
+
+    public void reset() {
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            counts.set(bucket, 0);
+        }
+        count.set(0);
+        totalNanos.set(0);
+        maxNanos.set(0);
+    }
+
+    public JSONObject toJSON() throws JSONException {
+        final JSONObject json = new JSONObject();
+        json.put("count", getCount());
+        json.put("meanMillis", getMeanMillis());
+        json.put("p50Millis", getMedianMillis());
+        json.put("p90Millis", getPercentileMillis(0.9));
+        json.put("p99Millis", getPercentileMillis(0.99));
+        json.put("maxMillis", getMaxMillis());
+        return json;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.US, "count=%d mean=%.2fms p50=%.2fms p99=%.2fms max=%.2fms",
+                getCount(), getMeanMillis(), getMedianMillis(), getPercentileMillis(0.99), getMaxMillis());
+    }
+}
@@ -0,0 +1,65 @@
+//  DJILensStateStore.java
+//  DronelinkDJI
+//
+//  Created by Jim McAndrew on 10/18/26.
+//  Copyright © 2026 Dronelink. All rights reserved.
+//
+package com.dronelink.dji;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+//camera lens values packed by (channel * LensStride + lens) so reads and writes never allocate keys
+public class DJILensStateStore<V> {
+    public static final int LensStride = 8;
+
+    private volatile AtomicReferenceArray<V> values = new AtomicReferenceArray<>(LensStride * 2);
+
+    private static int getIndex(final int channel, final int lens) {
+        if (channel < 0 || lens < 0 || lens >= LensStride) {
+            return -1;
+        }
+        return channel * LensStride + lens;
+    }
+
+    public V get(final int channel, final int lens) {
+        final int index = getIndex(channel, lens);
+        final AtomicReferenceArray<V> values = this.values;
+        if (index < 0 || index >= values.length()) {
+            return null;
+        }
+        return values.get(index);
+    }
+
+    public synchronized void put(final int channel, final int lens, final V value) {
+        final int index = getIndex(channel, lens);
+        if (index < 0) {
+            return;
+        }
+
+        AtomicReferenceArray<V> values = this.values;
+        if (index >= values.length()) {
+            if (value == null) {
+                return;
+            }
+
+            final AtomicReferenceArray<V> grown = new AtomicReferenceArray<>(Math.max((channel + 1) * LensStride, values.length() * 2));
+            for (int i = 0; i < values.length(); i++) {
+                grown.set(i, values.get(i));
+            }
+            this.values = values = grown;
+        }
+        values.set(index, value);
+    }
+
+    public synchronized void clear(final int channel) {
+        final AtomicReferenceArray<V> values = this.values;
+        final int start = getIndex(channel, 0);
+        if (start < 0 || start >= values.length()) {
+            return;
+        }
+
+        for (int i = start; i < start + LensStride; i++) {
+            values.set(i, null);
+        }
+    }
+}
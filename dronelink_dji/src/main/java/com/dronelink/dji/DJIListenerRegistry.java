@@ -0,0 +1,340 @@
+//  DJIListenerRegistry.java
+//  DronelinkDJI
+//
+//  Created by Jim McAndrew on 10/18/26.
+//  Copyright © 2026 Dronelink. All rights reserved.
+//
+package com.dronelink.dji;
+
+import android.util.Log;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+//copy on write set of listeners, each with its own bounded queue drained on its own thread
+//so a listener that blocks only backs up its own events, never the SDK callback or pool thread that dispatched them
+//when a queue is full the overflow policy decides what gives way, only keyed (state) events are ever dropped or replaced
+//events without a key (command finished, file generated, ...) are lifecycle events a listener can't rebuild from later state, so they always queue
+public class DJIListenerRegistry<L> {
+    private static final String TAG = DJIListenerRegistry.class.getCanonicalName();
+    public static final int DefaultCapacity = 1024;
+    public static final long DefaultBlockTimeoutMillis = 100;
+
+    public enum OverflowPolicy {
+        //the oldest queued keyed event is discarded
+        DROP_OLDEST,
+        //a queued event with the same key is replaced, otherwise the oldest queued keyed event is discarded
+        COALESCE,
+        //the dispatching thread waits up to the block timeout for room, then gives way as COALESCE does
+        BLOCK
+    }
+
+    public interface Event<L> {
+        void dispatch(L listener);
+    }
+
+    private static class Queued<L> {
+        final Object key;
+        Event<L> event;
+        long enqueuedNanos;
+
+        Queued(final Object key, final Event<L> event) {
+            this.key = key;
+            this.event = event;
+            this.enqueuedNanos = System.nanoTime();
+        }
+    }
+
+    public class Entry {
+        public final L listener;
+        public final String name;
+        private final ExecutorService executor;
+        private volatile Thread thread;
+        private final Deque<Queued<L>> queue = new ArrayDeque<>();
+        private final DJILatencyHistogram dispatchLatency = new DJILatencyHistogram();
+        private boolean draining = false;
+        private volatile boolean removed = false;
+        private long droppedCount = 0;
+        private long coalescedCount = 0;
+        private long blockedCount = 0;
+        private long overCapacityCount = 0;
+        private int maxDepth = 0;
+
+        private final Runnable drain = new Runnable() {
+            @Override
+            public void run() {
+                while (true) {
+                    final Queued<L> queued;
+                    synchronized (Entry.this) {
+                        queued = queue.poll();
+                        if (queued == null) {
+                            draining = false;
+                            return;
+                        }
+                        if (overflowPolicy == OverflowPolicy.BLOCK) {
+                            Entry.this.notifyAll();
+                        }
+                    }
+
+                    if (removed) {
+                        continue;
+                    }
+
+                    dispatchLatency.recordSince(queued.enqueuedNanos);
+                    try {
+                        queued.event.dispatch(listener);
+                    }
+                    catch (final Exception e) {
+                        Log.e(TAG, "Listener failed", e);
+                    }
+                }
+            }
+        };
+
+        private Entry(final L listener, final String name) {
+            this.listener = listener;
+            this.name = name;
+            this.executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(final Runnable runnable) {
+                    final Thread thread = new Thread(runnable, "DronelinkDJI " + name);
+                    thread.setDaemon(true);
+                    Entry.this.thread = thread;
+                    return thread;
+                }
+            });
+        }
+
+        private void enqueue(final Object key, final Event<L> event) {
+            synchronized (this) {
+                if (removed) {
+                    return;
+                }
+
+                if (queue.size() >= capacity && overflowPolicy == OverflowPolicy.BLOCK) {
+                    await();
+                    if (removed) {
+                        return;
+                    }
+                }
+
+                if (queue.size() >= capacity && !overflow(key, event)) {
+                    return;
+                }
+
+                queue.add(new Queued<>(key, event));
+                maxDepth = Math.max(maxDepth, queue.size());
+                if (draining) {
+                    return;
+                }
+                draining = true;
+            }
+            executor.execute(drain);
+        }
+
+        //called with the queue full and the lock held, waits for the listener to take an event off the queue, bounded by the block timeout
+        //never waits on the listener's own thread, a listener dispatching from its callback would be waiting on itself
+        private void await() {
+            if (Thread.currentThread() == thread) {
+                return;
+            }
+
+            blockedCount++;
+            final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(blockTimeoutMillis);
+            long remaining;
+            while (queue.size() >= capacity && !removed && (remaining = deadline - System.nanoTime()) > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                }
+                catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+
+        //called with the queue full and the lock held, returns false if the event was merged into one already queued
+        //a keyed event makes room by discarding the oldest keyed event, an event without a key is queued past capacity if there is none to discard
+        private boolean overflow(final Object key, final Event<L> event) {
+            if (overflowPolicy != OverflowPolicy.DROP_OLDEST && key != null) {
+                final Iterator<Queued<L>> iterator = queue.descendingIterator();
+                while (iterator.hasNext()) {
+                    final Queued<L> queued = iterator.next();
+                    if (key.equals(queued.key)) {
+                        //keeps its place in line (and its enqueue time) but delivers the latest value
+                        queued.event = event;
+                        coalescedCount++;
+                        return false;
+                    }
+                }
+            }
+
+            final Iterator<Queued<L>> iterator = queue.iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().key != null) {
+                    iterator.remove();
+                    droppedCount++;
+                    return true;
+                }
+            }
+
+            if (key == null) {
+                overCapacityCount++;
+                return true;
+            }
+
+            //only lifecycle events are queued, the new state event is the one that gives way
+            droppedCount++;
+            return false;
+        }
+
+        private void remove() {
+            synchronized (this) {
+                removed = true;
+                queue.clear();
+                notifyAll();
+            }
+            executor.shutdown();
+        }
+
+        //from dispatch to the listener being called
+        public DJILatencyHistogram getDispatchLatency() {
+            return dispatchLatency;
+        }
+
+        public synchronized int getQueueDepth() {
+            return queue.size();
+        }
+
+        public synchronized int getMaxQueueDepth() {
+            return maxDepth;
+        }
+
+        public synchronized long getDroppedCount() {
+            return droppedCount;
+        }
+
+        public synchronized long getCoalescedCount() {
+            return coalescedCount;
+        }
+
+        //dispatches that found the queue full under BLOCK and waited for room
+        public synchronized long getBlockedCount() {
+            return blockedCount;
+        }
+
+        //lifecycle events queued past capacity because there was no keyed event to discard
+        public synchronized long getOverCapacityCount() {
+            return overCapacityCount;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US, "%s: depth=%d maxDepth=%d dropped=%d coalesced=%d blocked=%d overCapacity=%d latency=[%s]",
+                    name, getQueueDepth(), getMaxQueueDepth(), getDroppedCount(), getCoalescedCount(), getBlockedCount(), getOverCapacityCount(), dispatchLatency);
+        }
+    }
+
+    private final String name;
+    private final CopyOnWriteArrayList<Entry> entries = new CopyOnWriteArrayList<>();
+    private volatile int capacity;
+    private volatile OverflowPolicy overflowPolicy;
+    private volatile long blockTimeoutMillis = DefaultBlockTimeoutMillis;
+    private int listenerIndex = 0;
+
+    public DJIListenerRegistry(final String name) {
+        this(name, DefaultCapacity, OverflowPolicy.COALESCE);
+    }
+
+    public DJIListenerRegistry(final String name, final int capacity, final OverflowPolicy overflowPolicy) {
+        this.name = name;
+        this.capacity = Math.max(1, capacity);
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    public void setCapacity(final int capacity) {
+        this.capacity = Math.max(1, capacity);
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void setOverflowPolicy(final OverflowPolicy overflowPolicy) {
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    //how long a dispatch waits for room under BLOCK
+    public void setBlockTimeoutMillis(final long blockTimeoutMillis) {
+        this.blockTimeoutMillis = Math.max(0, blockTimeoutMillis);
+    }
+
+    public long getBlockTimeoutMillis() {
+        return blockTimeoutMillis;
+    }
+
+    //added is the first event the listener receives, ahead of anything dispatched after this returns
+    public synchronized void add(final L listener, final Event<L> added) {
+        for (final Entry entry : entries) {
+            if (entry.listener == listener) {
+                return;
+            }
+        }
+
+        final Entry entry = new Entry(listener, name + "[" + (listenerIndex++) + "]");
+        if (added != null) {
+            entry.enqueue(null, added);
+        }
+        entries.add(entry);
+    }
+
+    public synchronized void remove(final L listener) {
+        for (final Entry entry : entries) {
+            if (entry.listener == listener) {
+                entries.remove(entry);
+                entry.remove();
+                return;
+            }
+        }
+    }
+
+    public synchronized void removeAll() {
+        for (final Entry entry : entries) {
+            entry.remove();
+        }
+        entries.clear();
+    }
+
+    public void dispatch(final Event<L> event) {
+        dispatch(null, event);
+    }
+
+    //events with the same non-null key can replace each other when a listener's queue overflows under COALESCE (or BLOCK after the timeout)
+    //pass a null key for anything a listener must see, it is never dropped
+    public void dispatch(final Object key, final Event<L> event) {
+        for (final Entry entry : entries) {
+            entry.enqueue(key, event);
+        }
+    }
+
+    public List<Entry> getEntries() {
+        return new ArrayList<>(entries);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+}
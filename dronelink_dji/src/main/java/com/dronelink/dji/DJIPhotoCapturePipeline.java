@@ -0,0 +1,313 @@
+//  DJIPhotoCapturePipeline.java
+//  DronelinkDJI
+//
+//  Created by Jim McAndrew on 10/18/26.
+//  Copyright © 2026 Dronelink. All rights reserved.
+//
+package com.dronelink.dji;
+
+import android.util.Log;
+
+import com.dronelink.core.command.Command;
+import com.dronelink.core.command.CommandError;
+
+import java.util.ArrayDeque;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import dji.common.error.DJIError;
+import dji.common.util.CommonCallbacks;
+
+//single photo captures for one camera, a capture finishes as soon as the camera accepts the shot instead of when its file arrives
+//up to window shots can be waiting on their files, the next shot goes out the moment a file lands and the camera reports ready
+//a verified capture still goes through the pipeline, but finishes when its own file lands (or doesn't)
+public class DJIPhotoCapturePipeline {
+    private static final String TAG = DJIPhotoCapturePipeline.class.getCanonicalName();
+    private static final int DefaultWindow = 1;
+    private static final long DefaultResultTimeoutMillis = 5000;
+    private static final long DefaultFileTimeoutMillis = 5000;
+
+    public interface Shooter {
+        void shoot(CommonCallbacks.CompletionCallback callback);
+    }
+
+    public interface Readiness {
+        boolean isReady();
+    }
+
+    private static class Shot {
+        final Shooter shooter;
+        final Command.Finisher finished;
+        //non null for a verified capture, what it finishes with if its file never arrives
+        final CommandError fileMissedError;
+        final AtomicBoolean resulted = new AtomicBoolean(false);
+        boolean fileReceived = false;
+        long issuedNanos;
+        long fileDeadlineNanos;
+        ScheduledFuture<?> resultTimeout;
+        ScheduledFuture<?> fileTimeout;
+
+        Shot(final Shooter shooter, final CommandError fileMissedError, final Command.Finisher finished) {
+            this.shooter = shooter;
+            this.fileMissedError = fileMissedError;
+            this.finished = finished;
+        }
+
+        boolean isVerified() {
+            return fileMissedError != null;
+        }
+    }
+
+    private final DJISessionScheduler scheduler;
+    private final Readiness readiness;
+    private final Queue<Shot> waiting = new ArrayDeque<>();
+    private final Queue<Shot> inFlight = new ArrayDeque<>();
+    private final DJILatencyHistogram shotLatency = new DJILatencyHistogram();
+    private volatile int window = DefaultWindow;
+    private volatile long resultTimeoutMillis = DefaultResultTimeoutMillis;
+    private volatile long fileTimeoutMillis = DefaultFileTimeoutMillis;
+    private Shot issuing;
+    private String lastFileStem;
+    private long completedCount = 0;
+    private long missedCount = 0;
+    private long resultTimedOutCount = 0;
+    private long ignoredFileCount = 0;
+    private long firstIssuedNanos = 0;
+    private long lastCompletedNanos = 0;
+
+    public DJIPhotoCapturePipeline(final DJISessionScheduler scheduler, final Readiness readiness) {
+        this.scheduler = scheduler;
+        this.readiness = readiness;
+    }
+
+    public void setWindow(final int window) {
+        this.window = Math.max(1, window);
+        issue();
+    }
+
+    public int getWindow() {
+        return window;
+    }
+
+    public void setResultTimeoutMillis(final long resultTimeoutMillis) {
+        this.resultTimeoutMillis = Math.max(0, resultTimeoutMillis);
+    }
+
+    public void setFileTimeoutMillis(final long fileTimeoutMillis) {
+        this.fileTimeoutMillis = Math.max(0, fileTimeoutMillis);
+    }
+
+    public void capture(final Shooter shooter, final Command.Finisher finished) {
+        capture(shooter, null, finished);
+    }
+
+    //fileMissedError makes it a verified capture, it finishes when its file arrives or with fileMissedError when the file times out
+    public void capture(final Shooter shooter, final CommandError fileMissedError, final Command.Finisher finished) {
+        synchronized (this) {
+            waiting.add(new Shot(shooter, fileMissedError, finished));
+        }
+        issue();
+    }
+
+    //called from the camera state callbacks
+    public void onCameraStateUpdated() {
+        issue();
+    }
+
+    //called for photo files only, files arrive in shot order so each one completes the oldest shot still waiting on its file
+    //a file received before that shot went out or after its file timeout belongs to something else (a manual shot, a missed shot)
+    //stem is the file name without its extension, so the second file of a RAW + JPEG shot isn't counted as the next shot
+    public void onFileGenerated(final long receivedNanos, final String stem) {
+        final Shot shot;
+        synchronized (this) {
+            if (stem != null && stem.equals(lastFileStem)) {
+                return;
+            }
+
+            final Shot oldest = inFlight.peek();
+            if (oldest == null) {
+                //the file can beat the shot's own result, the shot completes when the result comes in
+                if (issuing != null && !issuing.fileReceived && receivedNanos >= issuing.issuedNanos) {
+                    issuing.fileReceived = true;
+                    lastFileStem = stem;
+                    return;
+                }
+
+                ignoredFileCount++;
+                return;
+            }
+
+            if (receivedNanos < oldest.issuedNanos || receivedNanos > oldest.fileDeadlineNanos) {
+                ignoredFileCount++;
+                return;
+            }
+
+            shot = inFlight.poll();
+            lastFileStem = stem;
+            if (shot.fileTimeout != null) {
+                shot.fileTimeout.cancel(false);
+            }
+            onCompleted(shot);
+        }
+
+        if (shot.isVerified()) {
+            shot.finished.execute(null);
+        }
+        issue();
+    }
+
+    //shots that haven't gone out yet and verified shots waiting on files finish with the error, other shots waiting on files are dropped
+    public void clear(final CommandError error) {
+        final Queue<Shot> cleared = new ArrayDeque<>();
+        synchronized (this) {
+            cleared.addAll(waiting);
+            waiting.clear();
+            for (final Shot shot : inFlight) {
+                if (shot.fileTimeout != null) {
+                    shot.fileTimeout.cancel(false);
+                }
+                if (shot.isVerified()) {
+                    cleared.add(shot);
+                }
+            }
+            inFlight.clear();
+        }
+
+        for (final Shot shot : cleared) {
+            shot.finished.execute(error);
+        }
+    }
+
+    //only one shot is ever between shoot and its result, and the SDK call is made without holding the pipeline
+    private void issue() {
+        final Shot shot;
+        synchronized (this) {
+            if (issuing != null || waiting.isEmpty() || inFlight.size() >= window || !readiness.isReady()) {
+                return;
+            }
+
+            shot = waiting.poll();
+            issuing = shot;
+            shot.issuedNanos = System.nanoTime();
+            if (firstIssuedNanos == 0) {
+                firstIssuedNanos = shot.issuedNanos;
+            }
+            shot.resultTimeout = scheduler.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    onShotResult(shot, DJIError.COMMON_TIMEOUT);
+                }
+            }, resultTimeoutMillis);
+        }
+
+        shot.shooter.shoot(new CommonCallbacks.CompletionCallback() {
+            @Override
+            public void onResult(final DJIError djiError) {
+                onShotResult(shot, djiError);
+            }
+        });
+    }
+
+    private void onShotResult(final Shot shot, final DJIError djiError) {
+        //the SDK has been seen calling back twice for the same shot, and the result timeout races the real result
+        if (!shot.resulted.compareAndSet(false, true)) {
+            return;
+        }
+
+        final boolean completed;
+        synchronized (this) {
+            issuing = null;
+            completed = djiError == null && shot.fileReceived;
+            if (shot.resultTimeout != null) {
+                shot.resultTimeout.cancel(false);
+            }
+
+            if (djiError == DJIError.COMMON_TIMEOUT) {
+                resultTimedOutCount++;
+                Log.e(TAG, "Photo capture result not received after " + resultTimeoutMillis + "ms");
+            }
+            else if (completed) {
+                onCompleted(shot);
+            }
+            else if (djiError == null) {
+                shot.fileDeadlineNanos = System.nanoTime() + fileTimeoutMillis * 1000000L;
+                inFlight.add(shot);
+                shot.fileTimeout = scheduler.schedule(new Runnable() {
+                    @Override
+                    public void run() {
+                        onFileTimeout(shot);
+                    }
+                }, fileTimeoutMillis);
+            }
+        }
+
+        if (djiError != null || !shot.isVerified() || completed) {
+            shot.finished.execute(DronelinkDJI.createCommandError(djiError));
+        }
+        issue();
+    }
+
+    private void onCompleted(final Shot shot) {
+        lastCompletedNanos = System.nanoTime();
+        shotLatency.record(lastCompletedNanos - shot.issuedNanos);
+        completedCount++;
+    }
+
+    private void onFileTimeout(final Shot shot) {
+        synchronized (this) {
+            if (!inFlight.remove(shot)) {
+                return;
+            }
+
+            missedCount++;
+            Log.e(TAG, "Photo capture file not received after " + fileTimeoutMillis + "ms");
+        }
+
+        if (shot.isVerified()) {
+            shot.finished.execute(shot.fileMissedError);
+        }
+        issue();
+    }
+
+    public synchronized int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    public synchronized long getCompletedCount() {
+        return completedCount;
+    }
+
+    public synchronized long getMissedCount() {
+        return missedCount;
+    }
+
+    public synchronized long getResultTimedOutCount() {
+        return resultTimedOutCount;
+    }
+
+    //files that didn't match a pipelined shot
+    public synchronized long getIgnoredFileCount() {
+        return ignoredFileCount;
+    }
+
+    //from the first shot going out to the most recent file arriving
+    public synchronized double getPhotosPerSecond() {
+        if (completedCount == 0 || lastCompletedNanos <= firstIssuedNanos) {
+            return 0;
+        }
+        return completedCount / ((lastCompletedNanos - firstIssuedNanos) / 1000000000.0);
+    }
+
+    //from the shot going out to its file arriving
+    public DJILatencyHistogram getShotLatency() {
+        return shotLatency;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.US, "window=%d inFlight=%d completed=%d missed=%d resultTimedOut=%d ignoredFiles=%d rate=%.2f/s latency=[%s]",
+                getWindow(), getInFlightCount(), getCompletedCount(), getMissedCount(), getResultTimedOutCount(), getIgnoredFileCount(), getPhotosPerSecond(), shotLatency);
+    }
+}
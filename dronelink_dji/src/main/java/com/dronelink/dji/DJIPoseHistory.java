@@ -0,0 +1,148 @@
+//  DJIPoseHistory.java
+//  DronelinkDJI
+//
+//  Created by Jim McAndrew on 10/18/26.
+//  Copyright © 2026 Dronelink. All rights reserved.
+//
+package com.dronelink.dji;
+
+import com.dronelink.core.Convert;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+//fixed size ring of timestamped poses (any number of doubles) that can be read back at any time between the oldest and newest entries
+//one writer at a time, readers never block it: each slot carries a sequence that is odd while it is being written
+//and encodes which write it holds, so a reader that races the writer notices and retries (or skips an overwritten slot)
+//the slot contents are atomics too, so neither side's data accesses can be reordered past the sequence checks around them
+//(the fences that would allow plain arrays need API 33)
+public class DJIPoseHistory {
+    private static final int MaxReadAttempts = 4;
+
+    private final int capacity;
+    private final int fields;
+    private final boolean[] angular;
+    private final long maxGapNanos;
+    private final AtomicLongArray sequences;
+    private final AtomicLongArray timestamps;
+    //raw double bits
+    private final AtomicLongArray values;
+    private final AtomicLong count = new AtomicLong();
+
+    //angular fields are radians and interpolate the short way around, maxGapMillis bounds how far a read can sit from the nearest entry
+    public DJIPoseHistory(final int capacity, final boolean[] angular, final long maxGapMillis) {
+        this.capacity = capacity;
+        this.fields = angular.length;
+        this.angular = angular.clone();
+        this.maxGapNanos = maxGapMillis * 1000000L;
+        this.sequences = new AtomicLongArray(capacity);
+        this.timestamps = new AtomicLongArray(capacity);
+        this.values = new AtomicLongArray(capacity * fields);
+    }
+
+    public int getFields() {
+        return fields;
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    //timestamps must not go backwards
+    public void add(final long nanos, final double[] values) {
+        final long index = count.get();
+        final int slot = (int)(index % capacity);
+        sequences.set(slot, index * 2 + 1);
+        timestamps.set(slot, nanos);
+        for (int i = 0; i < fields; i++) {
+            this.values.set(slot * fields + i, Double.doubleToRawLongBits(values[i]));
+        }
+        sequences.set(slot, index * 2 + 2);
+        count.set(index + 1);
+    }
+
+    public void clear() {
+        //readers only trust slots whose sequence matches the write index they expect, so moving the count past every slot is enough
+        final long count = this.count.get();
+        if (count > 0) {
+            this.count.set(count + capacity);
+        }
+    }
+
+    //fills out with the pose at nanos and returns true, or returns false if there is nothing close enough
+    public boolean get(final long nanos, final double[] out) {
+        final double[] newer = new double[fields];
+        final double[] older = new double[fields];
+        final long[] timestamp = new long[1];
+        long newerNanos = 0;
+        boolean hasNewer = false;
+
+        final long count = this.count.get();
+        for (long index = count - 1; index >= 0 && index >= count - capacity; index--) {
+            if (!read(index, timestamp, older)) {
+                //overwritten while walking back, nothing older is left
+                break;
+            }
+
+            if (timestamp[0] <= nanos) {
+                if (!hasNewer) {
+                    //after the newest entry, hold it
+                    if (nanos - timestamp[0] > maxGapNanos) {
+                        return false;
+                    }
+                    System.arraycopy(older, 0, out, 0, fields);
+                    return true;
+                }
+
+                interpolate(timestamp[0], older, newerNanos, newer, nanos, out);
+                return true;
+            }
+
+            hasNewer = true;
+            newerNanos = timestamp[0];
+            System.arraycopy(older, 0, newer, 0, fields);
+        }
+
+        //before the oldest entry still available, hold it
+        if (hasNewer && newerNanos - nanos <= maxGapNanos) {
+            System.arraycopy(newer, 0, out, 0, fields);
+            return true;
+        }
+        return false;
+    }
+
+    private boolean read(final long index, final long[] timestamp, final double[] out) {
+        final int slot = (int)(index % capacity);
+        final long expected = index * 2 + 2;
+        for (int attempt = 0; attempt < MaxReadAttempts; attempt++) {
+            if (sequences.get(slot) != expected) {
+                //being written, or already holds a newer write
+                if (sequences.get(slot) > expected) {
+                    return false;
+                }
+                continue;
+            }
+
+            timestamp[0] = timestamps.get(slot);
+            for (int i = 0; i < fields; i++) {
+                out[i] = Double.longBitsToDouble(values.get(slot * fields + i));
+            }
+            if (sequences.get(slot) == expected) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void interpolate(final long olderNanos, final double[] older, final long newerNanos, final double[] newer, final long nanos, final double[] out) {
+        final double t = newerNanos == olderNanos ? 0 : (nanos - olderNanos) / (double)(newerNanos - olderNanos);
+        for (int i = 0; i < fields; i++) {
+            if (angular[i]) {
+                out[i] = Convert.AngleDifferenceSigned(older[i] + Convert.AngleDifferenceSigned(newer[i], older[i]) * t, 0);
+            }
+            else {
+                out[i] = older[i] + (newer[i] - older[i]) * t;
+            }
+        }
+    }
+}
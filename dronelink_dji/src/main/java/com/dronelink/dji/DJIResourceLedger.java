@@ -0,0 +1,108 @@
+//  DJIResourceLedger.java
+//  DronelinkDJI
+//
+//  Created by Jim McAndrew on 10/18/26.
+//  Copyright © 2026 Dronelink. All rights reserved.
+//
+package com.dronelink.dji;
+
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+//records every callback, listener and lane a session registers along with how to release it
+public class DJIResourceLedger {
+    private static final String TAG = DJIResourceLedger.class.getCanonicalName();
+
+    public interface Release {
+        void release();
+    }
+
+    private final Map<String, Release> resources = new LinkedHashMap<>();
+    private final Set<String> failed = new LinkedHashSet<>();
+    private int acquiredCount = 0;
+    private int releasedCount = 0;
+    private int failedCount = 0;
+
+    //acquiring a name that is already held replaces its release, the SDK callback setters overwrite the previous registration
+    public synchronized void acquire(final String name, final Release release) {
+        if (resources.put(name, release) == null) {
+            acquiredCount++;
+        }
+        failed.remove(name);
+    }
+
+    public void release(final String name) {
+        final Release release;
+        synchronized (this) {
+            release = resources.get(name);
+        }
+
+        if (release != null) {
+            release(name, release);
+        }
+    }
+
+    public void releaseAll() {
+        final List<Map.Entry<String, Release>> entries;
+        synchronized (this) {
+            entries = new ArrayList<>(resources.entrySet());
+        }
+
+        //release in reverse order of acquisition
+        for (int i = entries.size() - 1; i >= 0; i--) {
+            release(entries.get(i).getKey(), entries.get(i).getValue());
+        }
+    }
+
+    //a resource only leaves the ledger once its release succeeds, failures stay outstanding so the owner can report them
+    private void release(final String name, final Release release) {
+        try {
+            release.release();
+            synchronized (this) {
+                if (resources.get(name) == release) {
+                    resources.remove(name);
+                    failed.remove(name);
+                    releasedCount++;
+                }
+            }
+        }
+        catch (final Exception e) {
+            synchronized (this) {
+                failed.add(name);
+                failedCount++;
+            }
+            Log.e(TAG, "Unable to release " + name, e);
+        }
+    }
+
+    public synchronized List<String> getOutstanding() {
+        return new ArrayList<>(resources.keySet());
+    }
+
+    public synchronized List<String> getFailed() {
+        return new ArrayList<>(failed);
+    }
+
+    public synchronized int getAcquiredCount() {
+        return acquiredCount;
+    }
+
+    public synchronized int getReleasedCount() {
+        return releasedCount;
+    }
+
+    public synchronized int getFailedCount() {
+        return failedCount;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "acquired=" + acquiredCount + " released=" + releasedCount + " failed=" + failedCount + " outstanding=" + resources.keySet() + " failedReleases=" + failed;
+    }
+}
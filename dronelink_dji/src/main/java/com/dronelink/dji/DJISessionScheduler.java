@@ -0,0 +1,185 @@
+//  DJISessionScheduler.java
+//  DronelinkDJI
+//
+//  Created by Jim McAndrew on 10/18/26.
+//  Copyright © 2026 Dronelink. All rights reserved.
+//
+package com.dronelink.dji;
+
+import android.util.Log;
+
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+//one bounded pool shared by every session, work that must stay ordered runs on a serial lane
+public class DJISessionScheduler {
+    private static final String TAG = DJISessionScheduler.class.getCanonicalName();
+    private static final int LaneBatchSize = 64;
+
+    private static DJISessionScheduler instance;
+
+    public static synchronized DJISessionScheduler getInstance() {
+        if (instance == null) {
+            instance = new DJISessionScheduler(Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors())));
+        }
+        return instance;
+    }
+
+    private final ScheduledThreadPoolExecutor executor;
+
+    public DJISessionScheduler(final int threads) {
+        final AtomicInteger threadIndex = new AtomicInteger();
+        executor = new ScheduledThreadPoolExecutor(threads, new ThreadFactory() {
+            @Override
+            public Thread newThread(final Runnable runnable) {
+                final Thread thread = new Thread(runnable, "DronelinkDJI-" + threadIndex.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        executor.setRemoveOnCancelPolicy(true);
+    }
+
+    public int getThreadCount() {
+        return executor.getPoolSize();
+    }
+
+    public Lane createLane(final String name) {
+        return new Lane(name);
+    }
+
+    public ScheduledFuture<?> schedule(final Runnable runnable, final long delayMillis) {
+        return executor.schedule(runnable, Math.max(0, delayMillis), TimeUnit.MILLISECONDS);
+    }
+
+    public ScheduledFuture<?> scheduleWithFixedDelay(final Runnable runnable, final long delayMillis) {
+        return executor.scheduleWithFixedDelay(runnable, delayMillis, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public class Lane implements Executor {
+        public final String name;
+        private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean draining = new AtomicBoolean(false);
+        private final AtomicInteger depth = new AtomicInteger();
+        private final AtomicInteger maxDepth = new AtomicInteger();
+        private final AtomicLong executed = new AtomicLong();
+        private final AtomicLong runNanos = new AtomicLong();
+        private final AtomicLong maxRunNanos = new AtomicLong();
+        private volatile boolean closed = false;
+
+        private final Runnable drain = new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < LaneBatchSize; i++) {
+                    final Runnable task = tasks.poll();
+                    if (task == null) {
+                        break;
+                    }
+
+                    depth.decrementAndGet();
+                    final long started = System.nanoTime();
+                    try {
+                        task.run();
+                    }
+                    catch (final Throwable e) {
+                        Log.e(TAG, "Lane " + name + " task failed", e);
+                    }
+
+                    final long elapsed = System.nanoTime() - started;
+                    executed.incrementAndGet();
+                    runNanos.addAndGet(elapsed);
+                    long max = maxRunNanos.get();
+                    while (elapsed > max && !maxRunNanos.compareAndSet(max, elapsed)) {
+                        max = maxRunNanos.get();
+                    }
+                }
+
+                draining.set(false);
+                //yield the pool thread between batches so one busy lane can't starve the others
+                if (!tasks.isEmpty()) {
+                    submitDrain();
+                }
+            }
+        };
+
+        private Lane(final String name) {
+            this.name = name;
+        }
+
+        private void submitDrain() {
+            if (draining.compareAndSet(false, true)) {
+                executor.execute(drain);
+            }
+        }
+
+        @Override
+        public void execute(final Runnable runnable) {
+            if (closed) {
+                return;
+            }
+
+            tasks.add(runnable);
+            final int depth = this.depth.incrementAndGet();
+            int max = maxDepth.get();
+            while (depth > max && !maxDepth.compareAndSet(max, depth)) {
+                max = maxDepth.get();
+            }
+            submitDrain();
+        }
+
+        public ScheduledFuture<?> executeDelayed(final Runnable runnable, final long delayMillis) {
+            return schedule(new Runnable() {
+                @Override
+                public void run() {
+                    execute(runnable);
+                }
+            }, delayMillis);
+        }
+
+        public void close() {
+            closed = true;
+            tasks.clear();
+            depth.set(0);
+        }
+
+        public boolean isClosed() {
+            return closed;
+        }
+
+        public int getQueueDepth() {
+            return depth.get();
+        }
+
+        public int getMaxQueueDepth() {
+            return maxDepth.get();
+        }
+
+        public long getExecutedCount() {
+            return executed.get();
+        }
+
+        public double getMeanRunMillis() {
+            final long executed = this.executed.get();
+            return executed == 0 ? 0 : (runNanos.get() / (double)executed) / 1000000.0;
+        }
+
+        public double getMaxRunMillis() {
+            return maxRunNanos.get() / 1000000.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US, "%s: depth=%d maxDepth=%d executed=%d meanRun=%.2fms maxRun=%.2fms",
+                    name, getQueueDepth(), getMaxQueueDepth(), getExecutedCount(), getMeanRunMillis(), getMaxRunMillis());
+        }
+    }
+}
@@ -0,0 +1,99 @@
+//  DJISettingsCache.java
+//  DronelinkDJI
+//
+//  Created by Jim McAndrew on 10/18/26.
+//  Copyright © 2026 Dronelink. All rights reserved.
+//
+package com.dronelink.dji;
+
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import dji.keysdk.DJIKey;
+
+//last known value of SDK settings so get-before-set comparisons can be answered locally
+//observed keys are kept current by a key listener and trusted longer, values that were only read expire quickly
+public class DJISettingsCache {
+    private static final long DefaultObservedMaxAgeMillis = 30000;
+    private static final long DefaultReadMaxAgeMillis = 3000;
+
+    private static class Entry {
+        final Object value;
+        final long updatedMillis;
+
+        Entry(final Object value) {
+            this.value = value;
+            this.updatedMillis = System.currentTimeMillis();
+        }
+    }
+
+    private final ConcurrentHashMap<DJIKey, Entry> entries = new ConcurrentHashMap<>();
+    private final Set<DJIKey> observed = Collections.newSetFromMap(new ConcurrentHashMap<DJIKey, Boolean>());
+    private final long observedMaxAgeMillis;
+    private final long readMaxAgeMillis;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public DJISettingsCache() {
+        this(DefaultObservedMaxAgeMillis, DefaultReadMaxAgeMillis);
+    }
+
+    public DJISettingsCache(final long observedMaxAgeMillis, final long readMaxAgeMillis) {
+        this.observedMaxAgeMillis = observedMaxAgeMillis;
+        this.readMaxAgeMillis = readMaxAgeMillis;
+    }
+
+    //called from the key listener
+    public void observe(final DJIKey key, final Object value) {
+        observed.add(key);
+        put(key, value);
+    }
+
+    //called with the result of an SDK getter
+    public void put(final DJIKey key, final Object value) {
+        if (value == null) {
+            entries.remove(key);
+            return;
+        }
+        entries.put(key, new Entry(value));
+    }
+
+    public void invalidate(final DJIKey key) {
+        entries.remove(key);
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    //returns null if the value is missing, stale or not of the expected type
+    public <V> V get(final DJIKey key, final Class<V> type) {
+        final Entry entry = entries.get(key);
+        if (entry != null && type.isInstance(entry.value)) {
+            final long maxAgeMillis = observed.contains(key) ? observedMaxAgeMillis : readMaxAgeMillis;
+            if (System.currentTimeMillis() - entry.updatedMillis <= maxAgeMillis) {
+                hits.incrementAndGet();
+                return type.cast(entry.value);
+            }
+        }
+
+        misses.incrementAndGet();
+        return null;
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.US, "entries=%d hits=%d misses=%d", entries.size(), getHitCount(), getMissCount());
+    }
+}
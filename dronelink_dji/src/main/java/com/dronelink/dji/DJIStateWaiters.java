@@ -0,0 +1,197 @@
+//  DJIStateWaiters.java
+//  DronelinkDJI
+//
+//  Created by Jim McAndrew on 10/18/26.
+//  Copyright © 2026 Dronelink. All rights reserved.
+//
+package com.dronelink.dji;
+
+import android.util.Log;
+
+import com.dronelink.core.DatedValue;
+
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+//conditions waiting on channel state, checked when they are added and again each time the state callbacks deliver new state
+//every waiter finishes exactly once, either with the first state that satisfies it or with the last state it saw when it times out or is cancelled
+public class DJIStateWaiters<V> {
+    private static final String TAG = DJIStateWaiters.class.getCanonicalName();
+
+    public interface Condition<V> {
+        boolean isSatisfied(V value);
+    }
+
+    public interface Listener<V> {
+        void onResult(V value, boolean satisfied);
+    }
+
+    //state that hasn't been observed never satisfies the condition, so the waiter runs to its timeout rather than finishing early
+    public static <V> Condition<DatedValue<V>> whenPresent(final Condition<V> condition) {
+        return new Condition<DatedValue<V>>() {
+            @Override
+            public boolean isSatisfied(final DatedValue<V> value) {
+                return value != null && value.value != null && condition.isSatisfied(value.value);
+            }
+        };
+    }
+
+    private class Waiter {
+        final Queue<Waiter> queue;
+        final Condition<V> condition;
+        final Listener<V> listener;
+        final long startedNanos = System.nanoTime();
+        final AtomicBoolean finished = new AtomicBoolean(false);
+        volatile V value;
+        volatile ScheduledFuture<?> timeout;
+
+        Waiter(final Queue<Waiter> queue, final V value, final Condition<V> condition, final Listener<V> listener) {
+            this.queue = queue;
+            this.value = value;
+            this.condition = condition;
+            this.listener = listener;
+        }
+
+        void evaluate(final V value) {
+            if (finished.get()) {
+                return;
+            }
+
+            this.value = value;
+            if (condition.isSatisfied(value)) {
+                finish(value, true);
+            }
+        }
+
+        void finish(final V value, final boolean satisfied) {
+            finish(value, satisfied, satisfied ? satisfiedCount : timedOutCount);
+        }
+
+        void finish(final V value, final boolean satisfied, final AtomicLong count) {
+            if (!finished.compareAndSet(false, true)) {
+                return;
+            }
+
+            queue.remove(this);
+            final ScheduledFuture<?> timeout = this.timeout;
+            if (timeout != null) {
+                timeout.cancel(false);
+            }
+
+            if (satisfied) {
+                satisfiedNanos.addAndGet(System.nanoTime() - startedNanos);
+            }
+            count.incrementAndGet();
+
+            try {
+                listener.onResult(value, satisfied);
+            }
+            catch (final Exception e) {
+                Log.e(TAG, "Waiter listener failed", e);
+            }
+        }
+    }
+
+    private final DJISessionScheduler scheduler;
+    private final DJIChannelStateStore<Queue<Waiter>> waiters = new DJIChannelStateStore<>();
+    private final Queue<Queue<Waiter>> queues = new ConcurrentLinkedQueue<>();
+    private final AtomicLong satisfiedCount = new AtomicLong();
+    private final AtomicLong satisfiedNanos = new AtomicLong();
+    private final AtomicLong timedOutCount = new AtomicLong();
+    private final AtomicLong cancelledCount = new AtomicLong();
+
+    public DJIStateWaiters(final DJISessionScheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    //value is the current state, if it already satisfies the condition the listener is called before this returns
+    public void await(final int channel, final V value, final long timeoutMillis, final Condition<V> condition, final Listener<V> listener) {
+        final Waiter waiter = new Waiter(queue(channel), value, condition, listener);
+        //added before the first check so state that arrives in between is not missed
+        waiter.queue.add(waiter);
+        waiter.timeout = scheduler.schedule(new Runnable() {
+            @Override
+            public void run() {
+                waiter.finish(waiter.value, false);
+            }
+        }, timeoutMillis);
+        waiter.evaluate(value);
+    }
+
+    public boolean isWaiting(final int channel) {
+        final Queue<Waiter> queue = waiters.get(channel);
+        return queue != null && !queue.isEmpty();
+    }
+
+    public void evaluate(final int channel, final V value) {
+        final Queue<Waiter> queue = waiters.get(channel);
+        if (queue == null) {
+            return;
+        }
+
+        for (final Waiter waiter : queue) {
+            waiter.evaluate(value);
+        }
+    }
+
+    //finishes the channel's waiters unsatisfied with the last state they saw, without waiting for their timeouts
+    public void cancel(final int channel) {
+        final Queue<Waiter> queue = waiters.get(channel);
+        if (queue != null) {
+            cancel(queue);
+        }
+    }
+
+    public void cancelAll() {
+        for (final Queue<Waiter> queue : queues) {
+            cancel(queue);
+        }
+    }
+
+    private void cancel(final Queue<Waiter> queue) {
+        for (final Waiter waiter : queue) {
+            waiter.finish(waiter.value, false, cancelledCount);
+        }
+    }
+
+    private Queue<Waiter> queue(final int channel) {
+        Queue<Waiter> queue = waiters.get(channel);
+        if (queue == null) {
+            synchronized (waiters) {
+                queue = waiters.get(channel);
+                if (queue == null) {
+                    queue = new ConcurrentLinkedQueue<>();
+                    waiters.put(channel, queue);
+                    queues.add(queue);
+                }
+            }
+        }
+        return queue;
+    }
+
+    public long getSatisfiedCount() {
+        return satisfiedCount.get();
+    }
+
+    public long getTimedOutCount() {
+        return timedOutCount.get();
+    }
+
+    public long getCancelledCount() {
+        return cancelledCount.get();
+    }
+
+    public double getMeanSatisfiedMillis() {
+        final long satisfied = satisfiedCount.get();
+        return satisfied == 0 ? 0 : (satisfiedNanos.get() / (double)satisfied) / 1000000.0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.US, "satisfied=%d timedOut=%d cancelled=%d meanSatisfied=%.1fms", getSatisfiedCount(), getTimedOutCount(), getCancelledCount(), getMeanSatisfiedMillis());
+    }
+}
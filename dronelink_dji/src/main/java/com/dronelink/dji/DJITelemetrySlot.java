@@ -0,0 +1,103 @@
+//  DJITelemetrySlot.java
+//  DronelinkDJI
+//
+//  Created by Jim McAndrew on 10/18/26.
+//  Copyright © 2026 Dronelink. All rights reserved.
+//
+package com.dronelink.dji;
+
+import com.dronelink.core.DatedValue;
+
+import java.util.Date;
+
+//latest value of a high rate telemetry stream, updating it never allocates, the DatedValue is only built when someone asks for it
+public class DJITelemetrySlot<V> {
+    private volatile V value;
+    private volatile long updatedMillis;
+    private volatile long updatedNanos;
+    //odd while a write is in progress, so copies can tell they raced one
+    private volatile long sequence;
+    private volatile Dated<V> dated;
+
+    private static class Dated<V> {
+        final long sequence;
+        final DatedValue<V> datedValue;
+
+        Dated(final long sequence, final DatedValue<V> datedValue) {
+            this.sequence = sequence;
+            this.datedValue = datedValue;
+        }
+    }
+
+    public synchronized void set(final V value) {
+        set(value, System.currentTimeMillis(), System.nanoTime());
+    }
+
+    private void set(final V value, final long updatedMillis, final long updatedNanos) {
+        sequence++;
+        this.updatedNanos = updatedNanos;
+        this.updatedMillis = updatedMillis;
+        this.value = value;
+        sequence++;
+    }
+
+    public synchronized void clear() {
+        sequence++;
+        value = null;
+        sequence++;
+    }
+
+    //takes the value and timestamps of another slot as one consistent set, for snapshots nothing else writes to
+    public synchronized void copyFrom(final DJITelemetrySlot<V> slot) {
+        while (true) {
+            final long sequence = slot.sequence;
+            final V value = slot.value;
+            final long updatedMillis = slot.updatedMillis;
+            final long updatedNanos = slot.updatedNanos;
+            if ((sequence & 1) == 0 && sequence == slot.sequence) {
+                set(value, updatedMillis, updatedNanos);
+                this.sequence = sequence;
+                return;
+            }
+            Thread.yield();
+        }
+    }
+
+    //changes with every set and clear
+    public long getSequence() {
+        return sequence;
+    }
+
+    public V getValue() {
+        return value;
+    }
+
+    public long getUpdatedMillis() {
+        return updatedMillis;
+    }
+
+    public long getUpdatedNanos() {
+        return updatedNanos;
+    }
+
+    //reuses the DatedValue until the next set, even when the SDK hands back the same object again
+    public DatedValue<V> get() {
+        final long sequence = this.sequence;
+        final V value = this.value;
+        if (value == null) {
+            return null;
+        }
+
+        final Dated<V> dated = this.dated;
+        if (dated != null && dated.sequence == sequence) {
+            return dated.datedValue;
+        }
+
+        final DatedValue<V> created = new DatedValue<>(value, new Date(updatedMillis));
+        //only cache what was read between writes
+        if ((sequence & 1) == 0 && sequence == this.sequence) {
+            this.dated = new Dated<>(sequence, created);
+        }
+        return created;
+    }
+}
@@ -0,0 +1,251 @@
+//  DJITelemetryStream.java
+//  DronelinkDJI
+//
+//  Created by Jim McAndrew on 10/18/26.
+//  Copyright © 2026 Dronelink. All rights reserved.
+//
+package com.dronelink.dji;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+//fans published values out to subscribers, each on its own thread with a one value mailbox
+//a subscriber that is slow (or asked for a lower rate) only ever gets the latest value, publishing never waits on a subscriber
+//subscribers are caller code, so they never run on the shared session pool where they could hold up state and command lanes
+public class DJITelemetryStream<V> {
+    public interface Subscriber<V> {
+        void onUpdate(V value);
+    }
+
+    public interface Source<V> {
+        V get();
+    }
+
+    private static class Published<V> {
+        final V value;
+        final long nanos;
+
+        Published(final V value, final long nanos) {
+            this.value = value;
+            this.nanos = nanos;
+        }
+    }
+
+    public class Subscription {
+        public final String name;
+        private final Subscriber<V> subscriber;
+        private final long minIntervalNanos;
+        private final ScheduledExecutorService executor;
+        private final AtomicReference<Published<V>> mailbox = new AtomicReference<>();
+        //when the source was first signaled since the last delivery, 0 if it hasn't been
+        private final AtomicLong signaledNanos = new AtomicLong();
+        private final AtomicBoolean scheduled = new AtomicBoolean(false);
+        private final DJILatencyHistogram lag = new DJILatencyHistogram();
+        private final AtomicLong deliveredCount = new AtomicLong();
+        private final AtomicLong coalescedCount = new AtomicLong();
+        private volatile long deliveredNanos = 0;
+        private volatile boolean cancelled = false;
+
+        private final Runnable deliver = new Runnable() {
+            @Override
+            public void run() {
+                //cleared before taking the value so anything published from here on schedules another delivery
+                scheduled.set(false);
+                final Published<V> published = mailbox.getAndSet(null);
+                final long signaled = signaledNanos.getAndSet(0);
+                if (cancelled) {
+                    return;
+                }
+
+                final V value;
+                final long nanos;
+                final Source<V> source = DJITelemetryStream.this.source;
+                if (signaled != 0 && source != null) {
+                    value = source.get();
+                    nanos = signaled;
+                }
+                else if (published != null) {
+                    value = published.value;
+                    nanos = published.nanos;
+                }
+                else {
+                    return;
+                }
+
+                deliveredNanos = System.nanoTime();
+                lag.record(deliveredNanos - nanos);
+                deliveredCount.incrementAndGet();
+                subscriber.onUpdate(value);
+            }
+        };
+
+        private Subscription(final String name, final Subscriber<V> subscriber, final double maxRateHz) {
+            this.name = name;
+            this.subscriber = subscriber;
+            this.minIntervalNanos = maxRateHz <= 0 ? 0 : (long)(1000000000L / maxRateHz);
+            this.executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(final Runnable runnable) {
+                    final Thread thread = new Thread(runnable, "DronelinkDJI " + name);
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+
+        private void offer(final Published<V> published) {
+            if (mailbox.getAndSet(published) != null) {
+                coalescedCount.incrementAndGet();
+            }
+            schedule();
+        }
+
+        private void signal(final long nanos) {
+            if (!signaledNanos.compareAndSet(0, nanos)) {
+                coalescedCount.incrementAndGet();
+            }
+            schedule();
+        }
+
+        private void schedule() {
+            if (!scheduled.compareAndSet(false, true)) {
+                return;
+            }
+
+            if (cancelled) {
+                return;
+            }
+
+            final long waitNanos = deliveredNanos == 0 ? 0 : deliveredNanos + minIntervalNanos - System.nanoTime();
+            try {
+                if (waitNanos > 1000000) {
+                    executor.schedule(deliver, waitNanos, TimeUnit.NANOSECONDS);
+                }
+                else {
+                    executor.execute(deliver);
+                }
+            }
+            catch (final RejectedExecutionException e) {
+                //cancelled while scheduling
+            }
+        }
+
+        public void cancel() {
+            cancelled = true;
+            remove(this);
+            executor.shutdownNow();
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        //from publish to delivery, includes any wait imposed by the max rate
+        public DJILatencyHistogram getLag() {
+            return lag;
+        }
+
+        public long getDeliveredCount() {
+            return deliveredCount.get();
+        }
+
+        //values replaced in the mailbox before the subscriber got to them
+        public long getCoalescedCount() {
+            return coalescedCount.get();
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US, "%s: delivered=%d coalesced=%d lag=[%s]", name, getDeliveredCount(), getCoalescedCount(), lag);
+        }
+    }
+
+    private final String name;
+    //copied on write by hand so publishing can walk it without allocating an iterator
+    private volatile Object[] subscriptions = new Object[0];
+    private volatile Source<V> source;
+
+    public DJITelemetryStream(final String name) {
+        this.name = name;
+    }
+
+    //maxRateHz <= 0 delivers every value the subscriber keeps up with
+    public synchronized Subscription subscribe(final Subscriber<V> subscriber, final double maxRateHz) {
+        final Subscription subscription = new Subscription(name + ".subscriber[" + subscriptions.length + "]", subscriber, maxRateHz);
+        final Object[] subscriptions = Arrays.copyOf(this.subscriptions, this.subscriptions.length + 1);
+        subscriptions[subscriptions.length - 1] = subscription;
+        this.subscriptions = subscriptions;
+        return subscription;
+    }
+
+    private synchronized void remove(final Subscription subscription) {
+        final Object[] subscriptions = this.subscriptions;
+        for (int i = 0; i < subscriptions.length; i++) {
+            if (subscriptions[i] == subscription) {
+                final Object[] removed = new Object[subscriptions.length - 1];
+                System.arraycopy(subscriptions, 0, removed, 0, i);
+                System.arraycopy(subscriptions, i + 1, removed, i, subscriptions.length - i - 1);
+                this.subscriptions = removed;
+                return;
+            }
+        }
+    }
+
+    //what signal() delivers, read on each subscriber's thread
+    public void setSource(final Source<V> source) {
+        this.source = source;
+    }
+
+    public boolean hasSubscribers() {
+        return subscriptions.length > 0;
+    }
+
+    public void publish(final V value) {
+        final Object[] subscriptions = this.subscriptions;
+        if (subscriptions.length == 0) {
+            return;
+        }
+
+        final Published<V> published = new Published<>(value, System.nanoTime());
+        for (final Object subscription : subscriptions) {
+            getSubscription(subscription).offer(published);
+        }
+    }
+
+    //tells subscribers the source changed without building the value, each one reads the source when it is next delivered to
+    //so the caller only pays for scheduling a delivery, and nothing at all while one is already pending
+    public void signal() {
+        final Object[] subscriptions = this.subscriptions;
+        if (subscriptions.length == 0) {
+            return;
+        }
+
+        final long nanos = System.nanoTime();
+        for (final Object subscription : subscriptions) {
+            getSubscription(subscription).signal(nanos);
+        }
+    }
+
+    public void cancelAll() {
+        for (final Object subscription : subscriptions) {
+            getSubscription(subscription).cancel();
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscriptions.length;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Subscription getSubscription(final Object subscription) {
+        return (Subscription)subscription;
+    }
+}
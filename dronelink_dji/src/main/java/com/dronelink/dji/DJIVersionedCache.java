@@ -0,0 +1,66 @@
+//  DJIVersionedCache.java
+//  DronelinkDJI
+//
+//  Created by Jim McAndrew on 10/18/26.
+//  Copyright © 2026 Dronelink. All rights reserved.
+//
+package com.dronelink.dji;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+//channel indexed cache of an assembled value, reused until one of its inputs bumps the channel version or the shared version
+public class DJIVersionedCache<V> {
+    private final DJIChannelStateStore<AtomicLong> versions = new DJIChannelStateStore<>();
+    private final AtomicLong sharedVersion = new AtomicLong();
+    private final DJIChannelStateStore<Entry<V>> entries = new DJIChannelStateStore<>();
+
+    private static class Entry<V> {
+        final Object key;
+        final long version;
+        final V value;
+
+        Entry(final Object key, final long version, final V value) {
+            this.key = key;
+            this.version = version;
+            this.value = value;
+        }
+    }
+
+    //both counters only ever grow, so their sum changes whenever either of them does
+    //read it before the inputs so an update that races with the assembly forces a rebuild on the next call
+    public long getVersion(final int channel) {
+        final AtomicLong version = versions.get(channel);
+        return (version == null ? 0 : version.get()) + sharedVersion.get();
+    }
+
+    //the cached value if it was built from the same key at the same version, otherwise null
+    public V get(final int channel, final Object key, final long version) {
+        final Entry<V> entry = entries.get(channel);
+        if (entry != null && entry.key == key && entry.version == version) {
+            return entry.value;
+        }
+        return null;
+    }
+
+    public void put(final int channel, final Object key, final long version, final V value) {
+        entries.put(channel, new Entry<>(key, version, value));
+    }
+
+    public void invalidate(final int channel) {
+        AtomicLong version = versions.get(channel);
+        if (version == null) {
+            synchronized (versions) {
+                version = versions.get(channel);
+                if (version == null) {
+                    version = new AtomicLong();
+                    versions.put(channel, version);
+                }
+            }
+        }
+        version.incrementAndGet();
+    }
+
+    public void invalidateAll() {
+        sharedVersion.incrementAndGet();
+    }
+}
@@ -0,0 +1,264 @@
+//  DJIVirtualStickSender.java
+//  DronelinkDJI
+//
+//  Created by Jim McAndrew on 10/18/26.
+//  Copyright © 2026 Dronelink. All rights reserved.
+//
+package com.dronelink.dji;
+
+import android.util.Log;
+
+import java.util.Locale;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import dji.common.flightcontroller.virtualstick.FlightControlData;
+import dji.common.flightcontroller.virtualstick.FlightCoordinateSystem;
+import dji.common.flightcontroller.virtualstick.RollPitchControlMode;
+import dji.common.flightcontroller.virtualstick.VerticalControlMode;
+import dji.common.flightcontroller.virtualstick.YawControlMode;
+import dji.common.util.CommonCallbacks;
+import dji.sdk.flightcontroller.FlightController;
+import dji.sdk.products.Aircraft;
+
+//streams virtual stick data to the flight controller at a fixed rate from its own thread, so the control tick never waits behind session work
+//callers only leave the latest setpoint in a mailbox, control modes go out only when they change,
+//and a setpoint that isn't refreshed within the staleness cutoff is replaced by one zero (hover) frame and then nothing
+public class DJIVirtualStickSender {
+    private static final String TAG = DJIVirtualStickSender.class.getCanonicalName();
+    public static final double DefaultRateHz = 25;
+    public static final long DefaultStaleMillis = 500;
+
+    public static class Setpoint {
+        public final Boolean advancedModeEnabled;
+        public final RollPitchControlMode rollPitchControlMode;
+        public final FlightCoordinateSystem rollPitchCoordinateSystem;
+        public final VerticalControlMode verticalControlMode;
+        public final YawControlMode yawControlMode;
+        public final FlightControlData data;
+        private final DJIControlLatencyTracker.Probe probe;
+        private final long writtenNanos = System.nanoTime();
+
+        //advancedModeEnabled null leaves it alone
+        public Setpoint(final Boolean advancedModeEnabled, final RollPitchControlMode rollPitchControlMode, final FlightCoordinateSystem rollPitchCoordinateSystem,
+                        final VerticalControlMode verticalControlMode, final YawControlMode yawControlMode, final FlightControlData data, final DJIControlLatencyTracker.Probe probe) {
+            this.advancedModeEnabled = advancedModeEnabled;
+            this.rollPitchControlMode = rollPitchControlMode;
+            this.rollPitchCoordinateSystem = rollPitchCoordinateSystem;
+            this.verticalControlMode = verticalControlMode;
+            this.yawControlMode = yawControlMode;
+            this.data = data;
+            this.probe = probe;
+        }
+
+        //always velocity in the ground frame with zero data, whatever the caller was using:
+        //zero in angle mode would level the aircraft rather than stop it, and a zero yaw angle would turn it to face north
+        private Setpoint hover() {
+            return new Setpoint(advancedModeEnabled, RollPitchControlMode.VELOCITY, FlightCoordinateSystem.GROUND, VerticalControlMode.VELOCITY, YawControlMode.ANGULAR_VELOCITY, new FlightControlData(0, 0, 0, 0), null);
+        }
+    }
+
+    private final Aircraft drone;
+    private final long periodNanos;
+    private final long staleNanos;
+    private final AtomicReference<Setpoint> mailbox = new AtomicReference<>();
+    private final Object sending = new Object();
+    private final DJILatencyHistogram jitter = new DJILatencyHistogram();
+    private final DJILatencyHistogram latency = new DJILatencyHistogram();
+    private final AtomicLong sentCount = new AtomicLong();
+    private final AtomicLong modeChangeCount = new AtomicLong();
+    private final AtomicLong staleCount = new AtomicLong();
+    private ScheduledThreadPoolExecutor executor;
+
+    //only touched by the control thread
+    private FlightController flightController;
+    private Boolean advancedModeEnabled;
+    private RollPitchControlMode rollPitchControlMode;
+    private FlightCoordinateSystem rollPitchCoordinateSystem;
+    private VerticalControlMode verticalControlMode;
+    private YawControlMode yawControlMode;
+    private Setpoint sent;
+    private long tickNanos = 0;
+    private volatile boolean modesInvalidated = false;
+
+    public DJIVirtualStickSender(final Aircraft drone) {
+        this(drone, DefaultRateHz, DefaultStaleMillis);
+    }
+
+    public DJIVirtualStickSender(final Aircraft drone, final double rateHz, final long staleMillis) {
+        this.drone = drone;
+        this.periodNanos = (long)(1000000000L / Math.max(1, rateHz));
+        this.staleNanos = staleMillis * 1000000L;
+    }
+
+    private final Runnable tick = new Runnable() {
+        @Override
+        public void run() {
+            final long now = System.nanoTime();
+            if (tickNanos > 0) {
+                jitter.record(Math.abs(now - tickNanos - periodNanos));
+            }
+            tickNanos = now;
+
+            synchronized (sending) {
+                Setpoint setpoint = mailbox.get();
+                if (setpoint == null) {
+                    return;
+                }
+
+                if (now - setpoint.writtenNanos > staleNanos) {
+                    //hold position once, then stay quiet until a new setpoint shows up
+                    if (!mailbox.compareAndSet(setpoint, null)) {
+                        return;
+                    }
+                    staleCount.incrementAndGet();
+                    Log.d(TAG, "Virtual stick setpoint stale, sending hover");
+                    setpoint = setpoint.hover();
+                }
+
+                send(setpoint, now);
+            }
+        }
+    };
+
+    public synchronized DJIVirtualStickSender start() {
+        if (executor == null) {
+            executor = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+                @Override
+                public Thread newThread(final Runnable runnable) {
+                    final Thread thread = new Thread(runnable, "DronelinkDJI virtualStick");
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.MAX_PRIORITY);
+                    return thread;
+                }
+            });
+            executor.scheduleAtFixedRate(tick, periodNanos, periodNanos, TimeUnit.NANOSECONDS);
+        }
+        return this;
+    }
+
+    public synchronized void stop() {
+        if (executor != null) {
+            executor.shutdown();
+            executor = null;
+        }
+        mailbox.set(null);
+    }
+
+    public void write(final Setpoint setpoint) {
+        mailbox.set(setpoint);
+    }
+
+    //drops the setpoint so the tick stops resending it, nothing goes out until the next write
+    //waits out a tick already sending, so once this returns the old setpoint can't land after whatever the caller sends next
+    public void clear() {
+        synchronized (sending) {
+            mailbox.set(null);
+        }
+    }
+
+    //the modes were changed outside of the sender, so send them with the next setpoint
+    public void invalidateModes() {
+        modesInvalidated = true;
+    }
+
+    private void send(final Setpoint setpoint, final long now) {
+        final FlightController flightController = drone.getFlightController();
+        if (flightController == null) {
+            return;
+        }
+
+        if (flightController != this.flightController || modesInvalidated) {
+            modesInvalidated = false;
+            this.flightController = flightController;
+            advancedModeEnabled = null;
+            rollPitchControlMode = null;
+            rollPitchCoordinateSystem = null;
+            verticalControlMode = null;
+            yawControlMode = null;
+        }
+
+        boolean modeChanged = false;
+        if (setpoint.advancedModeEnabled != null && setpoint.advancedModeEnabled != advancedModeEnabled) {
+            flightController.setVirtualStickAdvancedModeEnabled(setpoint.advancedModeEnabled);
+            advancedModeEnabled = setpoint.advancedModeEnabled;
+            modeChanged = true;
+        }
+
+        if (setpoint.rollPitchControlMode != rollPitchControlMode) {
+            flightController.setRollPitchControlMode(setpoint.rollPitchControlMode);
+            rollPitchControlMode = setpoint.rollPitchControlMode;
+            modeChanged = true;
+        }
+
+        if (setpoint.rollPitchCoordinateSystem != rollPitchCoordinateSystem) {
+            flightController.setRollPitchCoordinateSystem(setpoint.rollPitchCoordinateSystem);
+            rollPitchCoordinateSystem = setpoint.rollPitchCoordinateSystem;
+            modeChanged = true;
+        }
+
+        if (setpoint.verticalControlMode != verticalControlMode) {
+            flightController.setVerticalControlMode(setpoint.verticalControlMode);
+            verticalControlMode = setpoint.verticalControlMode;
+            modeChanged = true;
+        }
+
+        if (setpoint.yawControlMode != yawControlMode) {
+            flightController.setYawControlMode(setpoint.yawControlMode);
+            yawControlMode = setpoint.yawControlMode;
+            modeChanged = true;
+        }
+
+        if (modeChanged) {
+            modeChangeCount.incrementAndGet();
+        }
+
+        CommonCallbacks.CompletionCallback callback = null;
+        if (setpoint != sent) {
+            //only the first send of a setpoint measures how long it waited in the mailbox
+            latency.record(now - setpoint.writtenNanos);
+            sent = setpoint;
+            if (setpoint.probe != null) {
+                callback = setpoint.probe.onSent();
+            }
+        }
+
+        flightController.sendVirtualStickFlightControlData(setpoint.data, callback);
+        sentCount.incrementAndGet();
+    }
+
+    public double getRateHz() {
+        return 1000000000.0 / periodNanos;
+    }
+
+    //how far each tick landed from one period after the previous tick
+    public DJILatencyHistogram getJitter() {
+        return jitter;
+    }
+
+    //from a setpoint being written to it first going out
+    public DJILatencyHistogram getLatency() {
+        return latency;
+    }
+
+    public long getSentCount() {
+        return sentCount.get();
+    }
+
+    public long getModeChangeCount() {
+        return modeChangeCount.get();
+    }
+
+    public long getStaleCount() {
+        return staleCount.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.US, "rate=%.1fHz sent=%d modeChanges=%d stale=%d jitter=[%s] latency=[%s]",
+                getRateHz(), getSentCount(), getModeChangeCount(), getStaleCount(), jitter, latency);
+    }
+}
@@ -7,17 +7,19 @@
 package com.dronelink.dji;
 
 import android.content.Context;
-import android.os.Handler;
-import android.os.Looper;
 import android.util.Log;
 
 import com.dronelink.core.DatedValue;
 import com.dronelink.core.DroneControlSession;
-import com.dronelink.core.LocaleUtil;
+import com.dronelink.core.adapters.DroneStateAdapter;
 import com.dronelink.core.kernel.core.Message;
 import com.dronelink.core.kernel.core.enums.ExecutionEngine;
 
-import java.util.Date;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicReference;
 
 import dji.common.error.DJIError;
 import dji.common.flightcontroller.FlightControllerState;
@@ -27,8 +29,18 @@ import dji.common.util.CommonCallbacks;
 import dji.sdk.flightcontroller.FlightController;
 import dji.sdk.remotecontroller.RemoteController;
 
+//the state machine advances on flight controller state updates and SDK completions (on its own lane) rather than when activate is polled,
+//activate only starts it and reports where it is
+//every state write is a compare and set against the state it leaves, so a deactivate from any thread is final
 public class DJIVirtualStickSession implements DroneControlSession {
     private static final String TAG = DJIVirtualStickSession.class.getCanonicalName();
+    //the same window the fixed schedule gave (5 attempts 2s apart), the backoff just fits more attempts into it
+    public static final long DefaultVirtualStickTimeoutMillis = 10000;
+    private static final long VirtualStickRetryMinMillis = 250;
+    private static final long VirtualStickRetryMaxMillis = 2000;
+    //virtual stick fails if it's enabled too soon after the soft switch changes
+    private static final long SoftSwitchJoyStickModeSettleMillis = 1000;
+    private static final long FlightModeJoystickTimeoutMillis = 2000;
 
     private enum State {
         TAKEOFF_START,
@@ -43,20 +55,50 @@ public class DJIVirtualStickSession implements DroneControlSession {
         DEACTIVATED
     }
 
+    public enum Phase {
+        TAKEOFF,
+        SOFT_SWITCH_JOYSTICK_MODE,
+        VIRTUAL_STICK,
+        FLIGHT_MODE_JOYSTICK
+    }
+
     private final Context context;
     private final DJIDroneSession droneSession;
-
-    private State state = State.TAKEOFF_START;
-    private int virtualStickAttempts = 0;
-    private Date virtualStickAttemptPrevious = null;
-    private Date flightModeJoystickAttemptingStarted = null;
-    private Message attemptDisengageReason = null;
+    //created by the first activate
+    private volatile DJISessionScheduler.Lane lane;
+    private final Map<Phase, Long> phaseStartedNanos = new EnumMap<>(Phase.class);
+    private final Map<Phase, Long> phaseMillis = new EnumMap<>(Phase.class);
+
+    private final AtomicReference<State> state = new AtomicReference<>(State.TAKEOFF_START);
+    private boolean started = false;
+    private long startedNanos = 0;
+    private volatile Long timeToControlMillis = null;
+    private volatile DJITelemetryStream<DatedValue<DroneStateAdapter>>.Subscription subscription;
+    private volatile ScheduledFuture<?> timer;
+    private volatile long virtualStickTimeoutMillis = DefaultVirtualStickTimeoutMillis;
+    private volatile int virtualStickAttempts = 0;
+    private long virtualStickFirstAttemptNanos = 0;
+    private long virtualStickRetryMillis = VirtualStickRetryMinMillis;
+    private long virtualStickAttemptNextNanos = 0;
+    private volatile Message attemptDisengageReason = null;
+
+    private final Runnable update = new Runnable() {
+        @Override
+        public void run() {
+            update();
+        }
+    };
 
     public DJIVirtualStickSession(final Context context, final DJIDroneSession droneSession) {
         this.context = context;
         this.droneSession = droneSession;
     }
 
+    //how long failed virtual stick enables keep being retried, from the first attempt
+    public void setVirtualStickTimeoutMillis(final long virtualStickTimeoutMillis) {
+        this.virtualStickTimeoutMillis = Math.max(0, virtualStickTimeoutMillis);
+    }
+
     @Override
     public ExecutionEngine getExecutionEngine() {
         return ExecutionEngine.DRONELINK_KERNEL;
@@ -69,7 +111,7 @@ public class DJIVirtualStickSession implements DroneControlSession {
 
         final DatedValue<FlightControllerState> flightControllerState = droneSession.getFlightControllerState();
         if (flightControllerState != null) {
-            if (state == State.FLIGHT_MODE_JOYSTICK_COMPLETE) {
+            if (state.get() == State.FLIGHT_MODE_JOYSTICK_COMPLETE) {
                 if (flightControllerState.value.getFlightMode() != FlightMode.JOYSTICK) {
                     return new Message(context.getString(R.string.MissionDisengageReason_drone_control_override_title), context.getString(R.string.MissionDisengageReason_drone_control_override_details));
                 }
@@ -85,26 +127,64 @@ public class DJIVirtualStickSession implements DroneControlSession {
     }
 
     public Boolean activate() {
-        final FlightController flightController = droneSession.getAdapter().getDrone().getFlightController();
-        if (flightController == null) {
+        final State state = this.state.get();
+        if (state == State.FLIGHT_MODE_JOYSTICK_COMPLETE) {
+            return true;
+        }
+
+        if (state == State.DEACTIVATED) {
+            return false;
+        }
+
+        if (droneSession.getAdapter().getDrone().getFlightController() == null || droneSession.getFlightControllerState() == null) {
             deactivate();
             return false;
         }
 
+        synchronized (this) {
+            if (!started) {
+                started = true;
+                startedNanos = System.nanoTime();
+                lane = DJISessionScheduler.getInstance().createLane("virtualStickSession");
+                subscription = droneSession.subscribeFlightControllerState(new DJITelemetryStream.Subscriber<DatedValue<DroneStateAdapter>>() {
+                    @Override
+                    public void onUpdate(final DatedValue<DroneStateAdapter> value) {
+                        lane.execute(update);
+                    }
+                }, 0);
+                lane.execute(update);
+                //deactivate may have run before the subscription and lane existed to be released
+                if (this.state.get() == State.DEACTIVATED) {
+                    cancelSubscription();
+                    lane.close();
+                }
+            }
+        }
+        return null;
+    }
+
+    //runs on the lane
+    private void update() {
+        final FlightController flightController = droneSession.getAdapter().getDrone().getFlightController();
         final DatedValue<FlightControllerState> flightControllerState = droneSession.getFlightControllerState();
-        if (flightControllerState == null) {
+        if (flightController == null || flightControllerState == null) {
             deactivate();
-            return false;
+            return;
         }
 
-        switch (state) {
+        switch (state.get()) {
             case TAKEOFF_START:
+                startPhase(Phase.TAKEOFF);
                 if (flightControllerState.value.isFlying()) {
-                    state = State.TAKEOFF_COMPLETE;
-                    return activate();
+                    if (advance(State.TAKEOFF_START, State.TAKEOFF_COMPLETE)) {
+                        update();
+                    }
+                    return;
                 }
 
-                state = State.TAKEOFF_ATTEMPTING;
+                if (!advance(State.TAKEOFF_START, State.TAKEOFF_ATTEMPTING)) {
+                    return;
+                }
 
                 Log.i(TAG, "Attempting precision takeoff");
                 flightController.startPrecisionTakeoff(new CommonCallbacks.CompletionCallback() {
@@ -124,42 +204,47 @@ public class DJIVirtualStickSession implements DroneControlSession {
                                     }
 
                                     Log.i(TAG, "Takeoff succeeded");
-                                    state = State.TAKEOFF_COMPLETE;
+                                    transition(State.TAKEOFF_ATTEMPTING, State.TAKEOFF_COMPLETE);
                                 }
                             });
                             return;
                         }
 
                         Log.i(TAG, "Precision takeoff succeeded");
-                        state = State.TAKEOFF_COMPLETE;
+                        transition(State.TAKEOFF_ATTEMPTING, State.TAKEOFF_COMPLETE);
                     }
                 });
-
-                return null;
-
-            case TAKEOFF_ATTEMPTING:
-                return null;
+                return;
 
             case TAKEOFF_COMPLETE:
                 if (flightControllerState.value.isFlying() && flightControllerState.value.getFlightMode() != FlightMode.AUTO_TAKEOFF) {
-                    state = State.SOFT_SWITCH_JOYSTICK_MODE_START;
-                    return activate();
+                    finishPhase(Phase.TAKEOFF);
+                    if (advance(State.TAKEOFF_COMPLETE, State.SOFT_SWITCH_JOYSTICK_MODE_START)) {
+                        update();
+                    }
                 }
-                return null;
+                return;
 
             case SOFT_SWITCH_JOYSTICK_MODE_START:
+                startPhase(Phase.SOFT_SWITCH_JOYSTICK_MODE);
                 final RemoteController remoteController = droneSession.getAdapter().getDrone().getRemoteController();
                 if (remoteController == null) {
-                    state = State.VIRTUAL_STICK_START;
-                    return activate();
+                    finishPhase(Phase.SOFT_SWITCH_JOYSTICK_MODE);
+                    if (advance(State.SOFT_SWITCH_JOYSTICK_MODE_START, State.VIRTUAL_STICK_START)) {
+                        update();
+                    }
+                    return;
                 }
 
+                if (!advance(State.SOFT_SWITCH_JOYSTICK_MODE_START, State.SOFT_SWITCH_JOYSTICK_MODE_ATTEMPTING)) {
+                    return;
+                }
                 Log.i(TAG, "Verifying soft switch joystick mode");
                 remoteController.getSoftSwitchJoyStickMode(new CommonCallbacks.CompletionCallbackWith<SoftSwitchJoyStickMode>() {
                     @Override
                     public void onSuccess(final SoftSwitchJoyStickMode softSwitchJoyStickMode) {
                         if (softSwitchJoyStickMode == SoftSwitchJoyStickMode.POSITION) {
-                            state = State.VIRTUAL_STICK_START;
+                            transition(State.SOFT_SWITCH_JOYSTICK_MODE_ATTEMPTING, State.VIRTUAL_STICK_START);
                             return;
                         }
 
@@ -167,89 +252,195 @@ public class DJIVirtualStickSession implements DroneControlSession {
                         remoteController.setSoftSwitchJoyStickMode(SoftSwitchJoyStickMode.POSITION, new CommonCallbacks.CompletionCallback() {
                             @Override
                             public void onResult(final DJIError djiError) {
-                                //if try to activate virtual stick immediately it can fail, so delay
-                                new Handler(Looper.myLooper()).postDelayed(new Runnable() {
+                                timer = lane.executeDelayed(new Runnable() {
                                     @Override
                                     public void run() {
-                                        state = State.VIRTUAL_STICK_START;
-                                        return;
+                                        if (advance(State.SOFT_SWITCH_JOYSTICK_MODE_ATTEMPTING, State.VIRTUAL_STICK_START)) {
+                                            update();
+                                        }
                                     }
-                                }, 1000);
+                                }, SoftSwitchJoyStickModeSettleMillis);
                             }
                         });
                     }
 
                     @Override
                     public void onFailure(final DJIError djiError) {
-                        state = State.VIRTUAL_STICK_START;
+                        transition(State.SOFT_SWITCH_JOYSTICK_MODE_ATTEMPTING, State.VIRTUAL_STICK_START);
                     }
                 });
-                return null;
-
-            case SOFT_SWITCH_JOYSTICK_MODE_ATTEMPTING:
-                return null;
+                return;
 
             case VIRTUAL_STICK_START:
-                if (virtualStickAttemptPrevious == null || (System.currentTimeMillis() - virtualStickAttemptPrevious.getTime()) > 2000) {
-                    state = State.VIRTUAL_STICK_ATTEMPTING;
-                    virtualStickAttemptPrevious = new Date();
-                    virtualStickAttempts += 1;
-
-                    Log.i(TAG, String.format("Attempting virtual stick mode control: %d", virtualStickAttempts));
-                    flightController.setVirtualStickModeEnabled(true, new CommonCallbacks.CompletionCallback() {
-                        @Override
-                        public void onResult(DJIError djiError) {
-                            if (djiError != null) {
-                                if (virtualStickAttempts >= 5) {
-                                    attemptDisengageReason = new Message(context.getString(R.string.MissionDisengageReason_take_control_failed_title), djiError.getDescription());
-                                    deactivate();
-                                }
-                                else {
-                                    state = State.VIRTUAL_STICK_START;
-                                }
-                                return;
-                            }
+                finishPhase(Phase.SOFT_SWITCH_JOYSTICK_MODE);
+                startPhase(Phase.VIRTUAL_STICK);
+                if (System.nanoTime() < virtualStickAttemptNextNanos) {
+                    //the retry timer will be back
+                    return;
+                }
 
-                            Log.i(TAG, "Virtual stick mode control enabled");
-                            flightModeJoystickAttemptingStarted = new Date();
-                            state = State.FLIGHT_MODE_JOYSTICK_ATTEMPTING;
-                        }
-                    });
+                if (!advance(State.VIRTUAL_STICK_START, State.VIRTUAL_STICK_ATTEMPTING)) {
+                    return;
+                }
+                if (virtualStickAttempts == 0) {
+                    virtualStickFirstAttemptNanos = System.nanoTime();
                 }
-                return null;
+                virtualStickAttempts += 1;
 
-            case VIRTUAL_STICK_ATTEMPTING:
-                return null;
+                Log.i(TAG, String.format("Attempting virtual stick mode control: %d", virtualStickAttempts));
+                flightController.setVirtualStickModeEnabled(true, new CommonCallbacks.CompletionCallback() {
+                    @Override
+                    public void onResult(final DJIError djiError) {
+                        lane.execute(new Runnable() {
+                            @Override
+                            public void run() {
+                                onVirtualStickModeEnabled(djiError);
+                            }
+                        });
+                    }
+                });
+                return;
 
             case FLIGHT_MODE_JOYSTICK_ATTEMPTING:
                 if (flightControllerState.value.getFlightMode() == FlightMode.JOYSTICK) {
-                    Log.i(TAG, "Flight mode joystick achieved");
-                    state = State.FLIGHT_MODE_JOYSTICK_COMPLETE;
-                    return activate();
-                }
-
-                if (flightModeJoystickAttemptingStarted != null) {
-                    if ((System.currentTimeMillis() - flightModeJoystickAttemptingStarted.getTime()) > 2000) {
-                        attemptDisengageReason = new Message(context.getString(R.string.MissionDisengageReason_take_control_failed_title));
-                        deactivate();
-                        return false;
+                    if (!advance(State.FLIGHT_MODE_JOYSTICK_ATTEMPTING, State.FLIGHT_MODE_JOYSTICK_COMPLETE)) {
+                        return;
                     }
+                    cancelTimer();
+                    finishPhase(Phase.FLIGHT_MODE_JOYSTICK);
+                    onComplete();
+                    return;
                 }
 
                 droneSession.sendResetVelocityCommand(null);
-                return null;
+                return;
 
-            case FLIGHT_MODE_JOYSTICK_COMPLETE:
-                return true;
+            default:
+                return;
+        }
+    }
 
-            case DEACTIVATED:
-                return false;
+    //runs on the lane
+    private void onVirtualStickModeEnabled(final DJIError djiError) {
+        if (state.get() != State.VIRTUAL_STICK_ATTEMPTING) {
+            return;
         }
 
-        return false;
+        if (djiError != null) {
+            //no point retrying if the retry would land after the window closes
+            final long elapsedMillis = (System.nanoTime() - virtualStickFirstAttemptNanos) / 1000000L;
+            if (elapsedMillis + virtualStickRetryMillis > virtualStickTimeoutMillis) {
+                attemptDisengageReason = new Message(context.getString(R.string.MissionDisengageReason_take_control_failed_title), djiError.getDescription());
+                deactivate();
+                return;
+            }
+
+            if (!advance(State.VIRTUAL_STICK_ATTEMPTING, State.VIRTUAL_STICK_START)) {
+                return;
+            }
+            Log.i(TAG, "Virtual stick mode control failed, retrying in " + virtualStickRetryMillis + "ms");
+            virtualStickAttemptNextNanos = System.nanoTime() + virtualStickRetryMillis * 1000000L;
+            timer = lane.executeDelayed(update, virtualStickRetryMillis);
+            virtualStickRetryMillis = Math.min(virtualStickRetryMillis * 2, VirtualStickRetryMaxMillis);
+            return;
+        }
+
+        if (!advance(State.VIRTUAL_STICK_ATTEMPTING, State.FLIGHT_MODE_JOYSTICK_ATTEMPTING)) {
+            return;
+        }
+        Log.i(TAG, "Virtual stick mode control enabled");
+        finishPhase(Phase.VIRTUAL_STICK);
+        startPhase(Phase.FLIGHT_MODE_JOYSTICK);
+        timer = lane.executeDelayed(new Runnable() {
+            @Override
+            public void run() {
+                if (state.get() == State.FLIGHT_MODE_JOYSTICK_ATTEMPTING) {
+                    attemptDisengageReason = new Message(context.getString(R.string.MissionDisengageReason_take_control_failed_title));
+                    deactivate();
+                }
+            }
+        }, FlightModeJoystickTimeoutMillis);
+        update();
+    }
+
+    private void onComplete() {
+        cancelSubscription();
+        timeToControlMillis = (System.nanoTime() - startedNanos) / 1000000L;
+        Log.i(TAG, "Flight mode joystick achieved: " + this);
+    }
+
+    //SDK completions come back on their own threads
+    private void transition(final State from, final State to) {
+        lane.execute(new Runnable() {
+            @Override
+            public void run() {
+                if (advance(from, to)) {
+                    update();
+                }
+            }
+        });
+    }
+
+    //false if the state already moved on, deactivate included, in which case the caller stops
+    private boolean advance(final State from, final State to) {
+        return state.compareAndSet(from, to);
+    }
+
+    private synchronized void startPhase(final Phase phase) {
+        if (!phaseStartedNanos.containsKey(phase)) {
+            phaseStartedNanos.put(phase, System.nanoTime());
+        }
+    }
+
+    private synchronized void finishPhase(final Phase phase) {
+        final Long started = phaseStartedNanos.get(phase);
+        if (started != null && !phaseMillis.containsKey(phase)) {
+            phaseMillis.put(phase, (System.nanoTime() - started) / 1000000L);
+        }
+    }
+
+    //null until the phase has finished
+    public synchronized Long getPhaseMillis(final Phase phase) {
+        return phaseMillis.get(phase);
+    }
+
+    //from the first activate to flight mode joystick, null until then
+    public Long getTimeToControlMillis() {
+        return timeToControlMillis;
     }
 
+    public int getVirtualStickAttempts() {
+        return virtualStickAttempts;
+    }
+
+    private void cancelTimer() {
+        final ScheduledFuture<?> timer = this.timer;
+        if (timer != null) {
+            timer.cancel(false);
+            this.timer = null;
+        }
+    }
+
+    private void cancelSubscription() {
+        final DJITelemetryStream<DatedValue<DroneStateAdapter>>.Subscription subscription = this.subscription;
+        if (subscription != null) {
+            subscription.cancel();
+            this.subscription = null;
+        }
+    }
+
+    //terminal, only the first call releases anything
     public void deactivate() {
+        if (state.getAndSet(State.DEACTIVATED) == State.DEACTIVATED) {
+            return;
+        }
+
+        cancelSubscription();
+        cancelTimer();
+        final DJISessionScheduler.Lane lane = this.lane;
+        if (lane != null) {
+            lane.close();
+        }
         droneSession.sendResetVelocityCommand(new CommonCallbacks.CompletionCallback() {
             @Override
             public void onResult(final DJIError djiError) {}
@@ -258,6 +449,12 @@ public class DJIVirtualStickSession implements DroneControlSession {
         if (flightController != null) {
             flightController.setVirtualStickModeEnabled(false, null);
         }
-        state = State.DEACTIVATED;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format(Locale.US, "takeoff=%sms softSwitch=%sms virtualStick=%sms (%d attempts) flightModeJoystick=%sms total=%sms",
+                phaseMillis.get(Phase.TAKEOFF), phaseMillis.get(Phase.SOFT_SWITCH_JOYSTICK_MODE), phaseMillis.get(Phase.VIRTUAL_STICK),
+                virtualStickAttempts, phaseMillis.get(Phase.FLIGHT_MODE_JOYSTICK), timeToControlMillis);
     }
 }
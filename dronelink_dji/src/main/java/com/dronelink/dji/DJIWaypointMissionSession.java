@@ -42,8 +42,6 @@ import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 import dji.common.error.DJIError;
 import dji.common.flightcontroller.FlightControllerState;
@@ -83,7 +81,7 @@ public class DJIWaypointMissionSession implements DroneControlSession {
     private final MissionExecutor missionExecutor;
     private final DJIWaypointMissionComponent[] kernelComponents;
     private final WaypointMission[] djiWaypointMissions;
-    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final DJISessionScheduler.Lane executor = DJISessionScheduler.getInstance().createLane("waypointMission");
 
     private State state = State.READY;
     private Message disengageReason;
@@ -180,7 +178,7 @@ public class DJIWaypointMissionSession implements DroneControlSession {
         switch (state) {
             case READY:
                 state = State.ACTIVATING;
-                executor.submit(new Runnable() {
+                executor.execute(new Runnable() {
                     @Override
                     public void run() {
                         activating();
@@ -239,7 +237,7 @@ public class DJIWaypointMissionSession implements DroneControlSession {
             djiWaypointMissionOperator.stopMission(new CommonCallbacks.CompletionCallback() {
                 @Override
                 public void onResult(final DJIError djiError) {
-                    executor.submit(new Runnable() {
+                    executor.execute(new Runnable() {
                         @Override
                         public void run() {
                             startCurrentMission();
@@ -344,7 +342,7 @@ public class DJIWaypointMissionSession implements DroneControlSession {
         });
     }
 
-    private final WaypointMissionOperatorListener uploadListener = new WaypointMissionOperatorListener() {
+    final WaypointMissionOperatorListener uploadListener = new WaypointMissionOperatorListener() {
         @Override
         public void onDownloadUpdate(final WaypointMissionDownloadEvent event) {}
 
@@ -564,15 +562,12 @@ public class DJIWaypointMissionSession implements DroneControlSession {
 
         switch (flightControllerState.value.getFlightMode()) {
             case GPS_WAYPOINT:
-                executor.submit(new Runnable() {
+                executor.executeDelayed(new Runnable() {
                     @Override
                     public void run() {
-                        try {
-                            Thread.sleep(250);
-                        } catch (final InterruptedException ignored) {}
                         checkMissionFinishedCurrent(attempt + 1);
                     }
-                });
+                }, 250);
                 break;
 
             case JOYSTICK:
@@ -716,15 +711,12 @@ public class DJIWaypointMissionSession implements DroneControlSession {
         //cannot immediately setup a listener because sometimes WaypointMissionState.DISCONNECTED.equals(djiWaypointMissionOperator.getCurrentState()) before the session is closed
         if (!droneSession.isClosed()) {
             Log.i(TAG, "Waiting to start checking if mission finished offline (" + attempt + ")");
-            executor.submit(new Runnable() {
+            executor.executeDelayed(new Runnable() {
                 @Override
                 public void run() {
-                    try {
-                        Thread.sleep(500);
-                    } catch (final InterruptedException ignored) {}
                     startCheckMissionFinishedOffline(attempt + 1);
                 }
-            });
+            }, 500);
             return;
         }
 
@@ -755,15 +747,12 @@ public class DJIWaypointMissionSession implements DroneControlSession {
                 WaypointMissionState.DISCONNECTED,
                 WaypointMissionState.RECOVERING
         })) {
-            executor.submit(new Runnable() {
+            executor.executeDelayed(new Runnable() {
                 @Override
                 public void run() {
-                    try {
-                        Thread.sleep(500);
-                    } catch (final InterruptedException ignored) {}
                     checkMissionFinishedOffline(session, attempt + 1);
                 }
-            });
+            }, 500);
             return;
         }
 
@@ -805,7 +794,7 @@ public class DJIWaypointMissionSession implements DroneControlSession {
                 checkMissionFinishedOffline(session, 0);
             }
 
-            executor.submit(new Runnable() {
+            executor.execute(new Runnable() {
                 @Override
                 public void run() {
                     session.getManager().removeListener(droneSessionManagerListener);
@@ -116,6 +116,20 @@ public class DronelinkDJI {
     public static final double GimbalRotationMinTime = 0.1;
     public static final double DroneMaxVelocity = 15.0;
 
+    //conversion tables derived from the switch based conversions below, built once on first use
+    static class EnumTables {
+        static final DJIEnumTable<CameraAperture, SettingsDefinitions.Aperture> cameraApertureToDJI = new DJIEnumTable<>(CameraAperture.class, DronelinkDJI::mapCameraAperture, SettingsDefinitions.Aperture.UNKNOWN);
+        static final DJIEnumTable<SettingsDefinitions.Aperture, CameraAperture> cameraApertureFromDJI = new DJIEnumTable<>(SettingsDefinitions.Aperture.class, DronelinkDJI::mapCameraAperture, CameraAperture.UNKNOWN);
+        static final DJIEnumTable<CameraExposureCompensation, SettingsDefinitions.ExposureCompensation> cameraExposureCompensationToDJI = new DJIEnumTable<>(CameraExposureCompensation.class, DronelinkDJI::mapCameraExposureCompensation, SettingsDefinitions.ExposureCompensation.UNKNOWN);
+        static final DJIEnumTable<SettingsDefinitions.ExposureCompensation, CameraExposureCompensation> cameraExposureCompensationFromDJI = new DJIEnumTable<>(SettingsDefinitions.ExposureCompensation.class, DronelinkDJI::mapCameraExposureCompensation, CameraExposureCompensation.UNKNOWN);
+        static final DJIEnumTable<CameraISO, SettingsDefinitions.ISO> cameraISOToDJI = new DJIEnumTable<>(CameraISO.class, DronelinkDJI::mapCameraISO, SettingsDefinitions.ISO.UNKNOWN);
+        static final DJIEnumTable<SettingsDefinitions.ISO, CameraISO> cameraISOFromDJI = new DJIEnumTable<>(SettingsDefinitions.ISO.class, DronelinkDJI::mapCameraISO, CameraISO.UNKNOWN);
+        static final DJIEnumTable<CameraShutterSpeed, SettingsDefinitions.ShutterSpeed> cameraShutterSpeedToDJI = new DJIEnumTable<>(CameraShutterSpeed.class, DronelinkDJI::mapCameraShutterSpeed, SettingsDefinitions.ShutterSpeed.UNKNOWN);
+        static final DJIEnumTable<SettingsDefinitions.ShutterSpeed, CameraShutterSpeed> cameraShutterSpeedFromDJI = new DJIEnumTable<>(SettingsDefinitions.ShutterSpeed.class, DronelinkDJI::mapCameraShutterSpeed, CameraShutterSpeed.UNKNOWN);
+        static final DJIEnumTable<CameraVideoResolution, SettingsDefinitions.VideoResolution> cameraVideoResolutionToDJI = new DJIEnumTable<>(CameraVideoResolution.class, DronelinkDJI::mapCameraVideoResolution, SettingsDefinitions.VideoResolution.UNKNOWN);
+        static final DJIEnumTable<SettingsDefinitions.VideoResolution, CameraVideoResolution> cameraVideoResolutionFromDJI = new DJIEnumTable<>(SettingsDefinitions.VideoResolution.class, DronelinkDJI::mapCameraVideoResolution, CameraVideoResolution.UNKNOWN);
+    }
+
     public static CommandError createCommandError(final DJIError error) {
         return error == null ? null : new CommandError(error.getDescription(), error.getErrorCode());
     }
@@ -366,6 +380,10 @@ public class DronelinkDJI {
     }
 
     public static SettingsDefinitions.Aperture getCameraAperture(final CameraAperture value) {
+        return EnumTables.cameraApertureToDJI.get(value);
+    }
+
+    private static SettingsDefinitions.Aperture mapCameraAperture(final CameraAperture value) {
         switch (value) {
             case F_1_DOT_6: return SettingsDefinitions.Aperture.F_1_DOT_6;
             case F_1_DOT_7: return SettingsDefinitions.Aperture.F_1_DOT_7;
@@ -406,6 +424,10 @@ public class DronelinkDJI {
     }
 
     public static CameraAperture getCameraAperture(final SettingsDefinitions.Aperture value) {
+        return EnumTables.cameraApertureFromDJI.get(value);
+    }
+
+    private static CameraAperture mapCameraAperture(final SettingsDefinitions.Aperture value) {
         switch (value) {
             case F_1: return CameraAperture.F_1_DOT_0;
             case F_1_DOT_2: return CameraAperture.F_1_DOT_2;
@@ -510,6 +532,10 @@ public class DronelinkDJI {
     }
 
     public static SettingsDefinitions.ExposureCompensation getCameraExposureCompensation(final CameraExposureCompensation value) {
+        return EnumTables.cameraExposureCompensationToDJI.get(value);
+    }
+
+    private static SettingsDefinitions.ExposureCompensation mapCameraExposureCompensation(final CameraExposureCompensation value) {
         switch (value) {
             case N_5_0: return SettingsDefinitions.ExposureCompensation.N_5_0;
             case N_4_7: return SettingsDefinitions.ExposureCompensation.N_4_7;
@@ -548,6 +574,10 @@ public class DronelinkDJI {
     }
 
     public static CameraExposureCompensation getCameraExposureCompensation(final SettingsDefinitions.ExposureCompensation value) {
+        return EnumTables.cameraExposureCompensationFromDJI.get(value);
+    }
+
+    private static CameraExposureCompensation mapCameraExposureCompensation(final SettingsDefinitions.ExposureCompensation value) {
         switch (value) {
             case N_5_0: return CameraExposureCompensation.N_5_0;
             case N_4_7: return CameraExposureCompensation.N_4_7;
@@ -639,6 +669,10 @@ public class DronelinkDJI {
     }
 
     public static SettingsDefinitions.ISO getCameraISO(final CameraISO value) {
+        return EnumTables.cameraISOToDJI.get(value);
+    }
+
+    private static SettingsDefinitions.ISO mapCameraISO(final CameraISO value) {
         switch (value) {
             case AUTO: return SettingsDefinitions.ISO.AUTO;
             case _100: return SettingsDefinitions.ISO.ISO_100;
@@ -657,6 +691,10 @@ public class DronelinkDJI {
     }
 
     public static CameraISO getCameraISO(final SettingsDefinitions.ISO value) {
+        return EnumTables.cameraISOFromDJI.get(value);
+    }
+
+    private static CameraISO mapCameraISO(final SettingsDefinitions.ISO value) {
         switch (value) {
             case AUTO: return CameraISO.AUTO;
             case ISO_50: return CameraISO.UNKNOWN;
@@ -897,6 +935,10 @@ public class DronelinkDJI {
     }
 
     public static SettingsDefinitions.ShutterSpeed getCameraShutterSpeed(final CameraShutterSpeed value) {
+        return EnumTables.cameraShutterSpeedToDJI.get(value);
+    }
+
+    private static SettingsDefinitions.ShutterSpeed mapCameraShutterSpeed(final CameraShutterSpeed value) {
         switch (value) {
             case AUTO: return SettingsDefinitions.ShutterSpeed.AUTO;
             case _1_20000: return SettingsDefinitions.ShutterSpeed.SHUTTER_SPEED_1_20000;
@@ -984,6 +1026,10 @@ public class DronelinkDJI {
         return SettingsDefinitions.ShutterSpeed.UNKNOWN;
     }
     public static CameraShutterSpeed getCameraShutterSpeed(@Nullable final SettingsDefinitions.ShutterSpeed value) {
+        return EnumTables.cameraShutterSpeedFromDJI.get(value);
+    }
+
+    private static CameraShutterSpeed mapCameraShutterSpeed(final SettingsDefinitions.ShutterSpeed value) {
         if (value == null) {
             return CameraShutterSpeed.UNKNOWN;
         }
@@ -1165,6 +1211,10 @@ public class DronelinkDJI {
     }
 
     public static SettingsDefinitions.VideoResolution getCameraVideoResolution(final CameraVideoResolution value) {
+        return EnumTables.cameraVideoResolutionToDJI.get(value);
+    }
+
+    private static SettingsDefinitions.VideoResolution mapCameraVideoResolution(final CameraVideoResolution value) {
         switch (value) {
             case _336x256: return SettingsDefinitions.VideoResolution.RESOLUTION_336x256;
             case _640x360: return SettingsDefinitions.VideoResolution.RESOLUTION_640x360;
@@ -1197,6 +1247,10 @@ public class DronelinkDJI {
     }
 
     public static CameraVideoResolution getCameraVideoResolution(final SettingsDefinitions.VideoResolution value) {
+        return EnumTables.cameraVideoResolutionFromDJI.get(value);
+    }
+
+    private static CameraVideoResolution mapCameraVideoResolution(final SettingsDefinitions.VideoResolution value) {
         switch (value) {
             case RESOLUTION_640x480: return CameraVideoResolution._640x480;
             case RESOLUTION_640x512: return CameraVideoResolution._640x512;
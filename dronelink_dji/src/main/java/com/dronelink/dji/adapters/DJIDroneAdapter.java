@@ -20,6 +20,9 @@ import com.dronelink.core.command.CommandError;
 import com.dronelink.core.kernel.command.drone.RemoteControllerSticksDroneCommand;
 import com.dronelink.core.kernel.command.drone.VelocityDroneCommand;
 import com.dronelink.core.kernel.core.Vector2;
+import com.dronelink.dji.DJICommandRateLimiter;
+import com.dronelink.dji.DJIControlLatencyTracker;
+import com.dronelink.dji.DJIVirtualStickSender;
 import com.dronelink.dji.DronelinkDJI;
 
 import java.util.Collection;
@@ -46,7 +49,10 @@ public class DJIDroneAdapter implements DroneAdapter {
     private final SortedMap<Integer, RemoteControllerAdapter> remoteControllers = new TreeMap<>();
     private final SortedMap<Integer, CameraAdapter> cameras = new TreeMap<>();
     private final SortedMap<Integer, GimbalAdapter> gimbals = new TreeMap<>();
-    private long previousVelocityCommandMillis = 0;
+    private DJICommandRateLimiter virtualStickRateLimiter;
+    private boolean virtualStickRateLimiterClosed = false;
+    private final DJIControlLatencyTracker controlLatencyTracker = new DJIControlLatencyTracker();
+    private volatile DJIVirtualStickSender virtualStickSender;
 
     public DJIDroneAdapter(Aircraft drone) {
         this.drone = drone;
@@ -56,6 +62,50 @@ public class DJIDroneAdapter implements DroneAdapter {
         return this.drone;
     }
 
+    //when set (and started), stick commands only leave their latest values for the sender to stream
+    public void setVirtualStickSender(final DJIVirtualStickSender virtualStickSender) {
+        this.virtualStickSender = virtualStickSender;
+    }
+
+    public DJIVirtualStickSender getVirtualStickSender() {
+        return virtualStickSender;
+    }
+
+    public DJIControlLatencyTracker getControlLatencyTracker() {
+        return controlLatencyTracker;
+    }
+
+    //resolved once the model is known and kept for the session, models without a profile get a limiter that never holds anything back
+    public synchronized DJICommandRateLimiter getVirtualStickRateLimiter() {
+        if (virtualStickRateLimiter == null && !virtualStickRateLimiterClosed && drone.getModel() != null) {
+            virtualStickRateLimiter = new DJICommandRateLimiter("virtualStickRateLimiter", DJICommandRateLimiter.getVirtualStickMinIntervalMillis(drone.getModel()));
+        }
+        return virtualStickRateLimiter;
+    }
+
+    private void sendVirtualStickCommand(final Runnable command) {
+        final DJICommandRateLimiter virtualStickRateLimiter = getVirtualStickRateLimiter();
+        if (virtualStickRateLimiter == null) {
+            command.run();
+            return;
+        }
+        virtualStickRateLimiter.submit(command);
+    }
+
+    public void clearPendingVirtualStickCommands() {
+        final DJICommandRateLimiter virtualStickRateLimiter = getVirtualStickRateLimiter();
+        if (virtualStickRateLimiter != null) {
+            virtualStickRateLimiter.clear();
+        }
+    }
+
+    public synchronized void closeVirtualStickRateLimiter() {
+        virtualStickRateLimiterClosed = true;
+        if (virtualStickRateLimiter != null) {
+            virtualStickRateLimiter.close();
+        }
+    }
+
     @Override
     public Collection<RemoteControllerAdapter> getRemoteControllers() {
         getRemoteController(0);
@@ -166,74 +216,85 @@ public class DJIDroneAdapter implements DroneAdapter {
 
     @Override
     public void sendVelocityCommand(final VelocityDroneCommand velocityCommand) {
-        final FlightController flightController = drone.getFlightController();
-        if (flightController == null) {
-            return;
+        final FlightControlData data;
+        final YawControlMode yawControlMode;
+        if (velocityCommand == null) {
+            yawControlMode = YawControlMode.ANGULAR_VELOCITY;
+            data = new FlightControlData(0, 0, 0, 0);
         }
-
-        if (ignoreVelocityCommand()) {
-            return;
+        else {
+            yawControlMode = velocityCommand.heading == null ? YawControlMode.ANGULAR_VELOCITY : YawControlMode.ANGLE;
+            final Vector2 horizontal = velocityCommand.velocity.getHorizontal();
+            horizontal.magnitude = Math.min(DronelinkDJI.DroneMaxVelocity, horizontal.magnitude);
+            data = new FlightControlData((float)horizontal.getY(),
+                    (float)horizontal.getX(),
+                    (float)Math.toDegrees(velocityCommand.heading == null ? velocityCommand.velocity.getRotational() : Convert.AngleDifferenceSigned(velocityCommand.heading, 0)),
+                    Math.min(4.0f, Math.max(-4.0f, (float)velocityCommand.velocity.getVertical())));
         }
 
-        previousVelocityCommandMillis = System.currentTimeMillis();
-        flightController.setVirtualStickAdvancedModeEnabled(true);
-        flightController.setRollPitchControlMode(RollPitchControlMode.VELOCITY);
-        flightController.setRollPitchCoordinateSystem(FlightCoordinateSystem.GROUND);
-        flightController.setVerticalControlMode(VerticalControlMode.VELOCITY);
-        if (velocityCommand == null) {
-            flightController.setYawControlMode(YawControlMode.ANGULAR_VELOCITY);
-            flightController.sendVirtualStickFlightControlData(new FlightControlData(0, 0, 0, 0), null);
+        final DJIControlLatencyTracker.Probe probe = controlLatencyTracker.onCommand(true, data);
+        final DJIVirtualStickSender virtualStickSender = this.virtualStickSender;
+        if (virtualStickSender != null) {
+            virtualStickSender.write(new DJIVirtualStickSender.Setpoint(true, RollPitchControlMode.VELOCITY, FlightCoordinateSystem.GROUND, VerticalControlMode.VELOCITY, yawControlMode, data, probe));
             return;
         }
 
-        flightController.setYawControlMode(velocityCommand.heading == null ? YawControlMode.ANGULAR_VELOCITY : YawControlMode.ANGLE);
-        final Vector2 horizontal = velocityCommand.velocity.getHorizontal();
-        horizontal.magnitude = Math.min(DronelinkDJI.DroneMaxVelocity, horizontal.magnitude);
-        flightController.sendVirtualStickFlightControlData(new FlightControlData((float)horizontal.getY(),
-                (float)horizontal.getX(),
-                (float)Math.toDegrees(velocityCommand.heading == null ? velocityCommand.velocity.getRotational() : Convert.AngleDifferenceSigned(velocityCommand.heading, 0)),
-                Math.min(4.0f, Math.max(-4.0f, (float)velocityCommand.velocity.getVertical()))), null);
-    }
+        sendVirtualStickCommand(new Runnable() {
+            @Override
+            public void run() {
+                final FlightController flightController = drone.getFlightController();
+                if (flightController == null) {
+                    return;
+                }
 
-    //kluge: if we send commands to any P4 model faster than 150ms, it results in sudden stopping and resuming every few seconds!
-    private boolean ignoreVelocityCommand() {
-        if (drone.getModel() != null) {
-            switch (drone.getModel()) {
-                case PHANTOM_4:
-                case PHANTOM_4_PRO:
-                case PHANTOM_4_PRO_V2:
-                case PHANTOM_4_ADVANCED:
-                case PHANTOM_4_RTK:
-                    return System.currentTimeMillis() - previousVelocityCommandMillis < 150;
-                default:
-                    break;
+                flightController.setVirtualStickAdvancedModeEnabled(true);
+                flightController.setRollPitchControlMode(RollPitchControlMode.VELOCITY);
+                flightController.setRollPitchCoordinateSystem(FlightCoordinateSystem.GROUND);
+                flightController.setVerticalControlMode(VerticalControlMode.VELOCITY);
+                flightController.setYawControlMode(yawControlMode);
+                flightController.sendVirtualStickFlightControlData(data, probe.onSent());
             }
-        }
-
-        return false;
+        });
     }
 
     @Override
     public void sendRemoteControllerSticksCommand(final RemoteControllerSticksDroneCommand remoteControllerSticks) {
-        final FlightController flightController = drone.getFlightController();
-        if (flightController == null) {
-            return;
+        final FlightControlData data;
+        final YawControlMode yawControlMode;
+        if (remoteControllerSticks == null) {
+            yawControlMode = YawControlMode.ANGULAR_VELOCITY;
+            data = new FlightControlData(0, 0, 0, 0);
+        }
+        else {
+            yawControlMode = remoteControllerSticks.heading == null ? YawControlMode.ANGULAR_VELOCITY : YawControlMode.ANGLE;
+            data = new FlightControlData((float)(-remoteControllerSticks.rightStick.y * 30),
+                    (float)(remoteControllerSticks.rightStick.x * 30),
+                    remoteControllerSticks.heading == null ? (float)(remoteControllerSticks.leftStick.x * 100) : (float)Math.toDegrees(Convert.AngleDifferenceSigned(remoteControllerSticks.heading, 0)),
+                    (float)(remoteControllerSticks.leftStick.y * 4.0));
         }
 
-        flightController.setRollPitchControlMode(RollPitchControlMode.ANGLE);
-        flightController.setRollPitchCoordinateSystem(FlightCoordinateSystem.BODY);
-        flightController.setVerticalControlMode(VerticalControlMode.VELOCITY);
-        if (remoteControllerSticks == null) {
-            flightController.setYawControlMode(YawControlMode.ANGULAR_VELOCITY);
-            flightController.sendVirtualStickFlightControlData(new FlightControlData(0, 0, 0, 0), null);
+        final DJIControlLatencyTracker.Probe probe = controlLatencyTracker.onCommand(false, data);
+        final DJIVirtualStickSender virtualStickSender = this.virtualStickSender;
+        if (virtualStickSender != null) {
+            virtualStickSender.write(new DJIVirtualStickSender.Setpoint(null, RollPitchControlMode.ANGLE, FlightCoordinateSystem.BODY, VerticalControlMode.VELOCITY, yawControlMode, data, probe));
             return;
         }
 
-        flightController.setYawControlMode(remoteControllerSticks.heading == null ? YawControlMode.ANGULAR_VELOCITY : YawControlMode.ANGLE);
-        flightController.sendVirtualStickFlightControlData(new FlightControlData((float)(-remoteControllerSticks.rightStick.y * 30),
-                (float)(remoteControllerSticks.rightStick.x * 30),
-                remoteControllerSticks.heading == null ? (float)(remoteControllerSticks.leftStick.x * 100) : (float)Math.toDegrees(Convert.AngleDifferenceSigned(remoteControllerSticks.heading, 0)),
-                (float)(remoteControllerSticks.leftStick.y * 4.0)), null);
+        sendVirtualStickCommand(new Runnable() {
+            @Override
+            public void run() {
+                final FlightController flightController = drone.getFlightController();
+                if (flightController == null) {
+                    return;
+                }
+
+                flightController.setRollPitchControlMode(RollPitchControlMode.ANGLE);
+                flightController.setRollPitchCoordinateSystem(FlightCoordinateSystem.BODY);
+                flightController.setVerticalControlMode(VerticalControlMode.VELOCITY);
+                flightController.setYawControlMode(yawControlMode);
+                flightController.sendVirtualStickFlightControlData(data, probe.onSent());
+            }
+        });
     }
 
     @Override
@@ -389,8 +450,19 @@ public class DJIDroneAdapter implements DroneAdapter {
     }
 
     public void sendResetVelocityCommand(final CommonCallbacks.CompletionCallback completion) {
+        //a stick command still waiting on the rate limit, or the sender resending the last setpoint, would undo the reset
+        clearPendingVirtualStickCommands();
+        final DJIVirtualStickSender virtualStickSender = this.virtualStickSender;
+        if (virtualStickSender != null) {
+            virtualStickSender.clear();
+        }
+
         final FlightController flightController = drone.getFlightController();
         if (flightController != null) {
+            if (virtualStickSender != null) {
+                //the modes are set directly here, so the sender can't trust what it last sent
+                virtualStickSender.invalidateModes();
+            }
             flightController.setVirtualStickAdvancedModeEnabled(true);
             flightController.setRollPitchControlMode(RollPitchControlMode.VELOCITY);
             flightController.setRollPitchCoordinateSystem(FlightCoordinateSystem.GROUND);
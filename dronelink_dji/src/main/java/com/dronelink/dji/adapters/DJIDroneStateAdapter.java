@@ -19,6 +19,7 @@ import com.dronelink.core.kernel.core.enums.DroneAuxiliaryLightMode;
 import com.dronelink.core.kernel.core.enums.DroneLightbridgeFrequencyBand;
 import com.dronelink.core.kernel.core.enums.DroneObstacleAvoidanceMode;
 import com.dronelink.core.kernel.core.enums.DroneOcuSyncFrequencyBand;
+import com.dronelink.dji.DJITelemetrySlot;
 import com.dronelink.dji.DronelinkDJI;
 
 import java.util.ArrayList;
@@ -47,61 +48,154 @@ import dji.sdk.products.Aircraft;
 public class DJIDroneStateAdapter implements DroneStateAdapter {
     private final Context context;
     private final Aircraft drone;
-    public DatedValue<FlightControllerState> flightControllerState;
-    public DatedValue<AirSenseSystemInformation> flightControllerAirSenseState;
-    public DatedValue<List<Message>> diagnosticsInformationMessages;
-    public DatedValue<CompassState> compassState;
-    public DatedValue<BatteryState> batteryState;
-    public DatedValue<VisionDetectionState> visionDetectionState;
-    public DatedValue<Integer> maxFlightHeight;
-    public DatedValue<Integer> uplinkSignalQuality;
-    public DatedValue<Integer> downlinkSignalQuality;
-    public DatedValue<Integer> lowBatteryWarningThreshold;
-    public DatedValue<LightbridgeFrequencyBand> lightbridgeFrequencyBand;
-    public DatedValue<OcuSyncFrequencyBand> ocuSyncFrequencyBand;
-    public DatedValue<FillLightMode> auxiliaryLightModeBottom;
-    public DatedValue<Integer> remoteControllerGimbalChannel;
+    public final DJITelemetrySlot<FlightControllerState> flightControllerState = new DJITelemetrySlot<>();
+    public final DJITelemetrySlot<AirSenseSystemInformation> flightControllerAirSenseState = new DJITelemetrySlot<>();
+    public volatile DatedValue<List<Message>> diagnosticsInformationMessages;
+    public final DJITelemetrySlot<CompassState> compassState = new DJITelemetrySlot<>();
+    public final DJITelemetrySlot<BatteryState> batteryState = new DJITelemetrySlot<>();
+    public final DJITelemetrySlot<VisionDetectionState> visionDetectionState = new DJITelemetrySlot<>();
+    public volatile DatedValue<Integer> maxFlightHeight;
+    public volatile DatedValue<Integer> uplinkSignalQuality;
+    public volatile DatedValue<Integer> downlinkSignalQuality;
+    public volatile DatedValue<Integer> lowBatteryWarningThreshold;
+    public volatile DatedValue<LightbridgeFrequencyBand> lightbridgeFrequencyBand;
+    public volatile DatedValue<OcuSyncFrequencyBand> ocuSyncFrequencyBand;
+    public volatile DatedValue<FillLightMode> auxiliaryLightModeBottom;
+    public volatile DatedValue<Integer> remoteControllerGimbalChannel;
     public String id = UUID.randomUUID().toString();
-    public String serialNumber;
-    public String name;
-    public String model;
-    public String firmwarePackageVersion;
+    public volatile String serialNumber;
+    public volatile String name;
+    public volatile String model;
+    public volatile String firmwarePackageVersion;
     public boolean initialized = false;
     public boolean located = false;
     public boolean initVirtualStickDisabled = false;
-    public Location lastKnownGroundLocation;
+    public volatile Location lastKnownGroundLocation;
+    private volatile LocationSnapshot locationSnapshot;
+    private final boolean isSnapshot;
+    private final DatedValue<DroneStateAdapter> snapshotDatedValue;
+    private final Location lastKnownGroundLocationSource;
+    private volatile DJIDroneStateAdapter latestSnapshot;
+
+    private static class LocationSnapshot {
+        final long sequence;
+        final Location location;
+
+        LocationSnapshot(final long sequence, final Location location) {
+            this.sequence = sequence;
+            this.location = location;
+        }
+    }
 
     public DJIDroneStateAdapter(final Context context, final Aircraft drone) {
         this.context = context;
         this.drone = drone;
-    }
-
+        this.isSnapshot = false;
+        this.snapshotDatedValue = null;
+        this.lastKnownGroundLocationSource = null;
+    }
+
+    //copies everything the getters read, so the copy never changes after it is handed out
+    private DJIDroneStateAdapter(final DJIDroneStateAdapter source) {
+        this.context = source.context;
+        this.drone = source.drone;
+        this.isSnapshot = true;
+        flightControllerState.copyFrom(source.flightControllerState);
+        flightControllerAirSenseState.copyFrom(source.flightControllerAirSenseState);
+        compassState.copyFrom(source.compassState);
+        batteryState.copyFrom(source.batteryState);
+        visionDetectionState.copyFrom(source.visionDetectionState);
+        diagnosticsInformationMessages = source.diagnosticsInformationMessages;
+        maxFlightHeight = source.maxFlightHeight;
+        uplinkSignalQuality = source.uplinkSignalQuality;
+        downlinkSignalQuality = source.downlinkSignalQuality;
+        lowBatteryWarningThreshold = source.lowBatteryWarningThreshold;
+        lightbridgeFrequencyBand = source.lightbridgeFrequencyBand;
+        ocuSyncFrequencyBand = source.ocuSyncFrequencyBand;
+        auxiliaryLightModeBottom = source.auxiliaryLightModeBottom;
+        remoteControllerGimbalChannel = source.remoteControllerGimbalChannel;
+        id = source.id;
+        serialNumber = source.serialNumber;
+        name = source.name;
+        model = source.model;
+        firmwarePackageVersion = source.firmwarePackageVersion;
+        initialized = source.initialized;
+        located = source.located;
+        initVirtualStickDisabled = source.initVirtualStickDisabled;
+        lastKnownGroundLocationSource = source.lastKnownGroundLocation;
+        lastKnownGroundLocation = lastKnownGroundLocationSource == null ? null : new Location(lastKnownGroundLocationSource);
+        final DatedValue<FlightControllerState> flightControllerState = this.flightControllerState.get();
+        snapshotDatedValue = new DatedValue<DroneStateAdapter>(this, flightControllerState == null ? new Date() : flightControllerState.date);
+    }
+
+    private boolean isSnapshotOf(final DJIDroneStateAdapter source) {
+        return flightControllerState.getSequence() == source.flightControllerState.getSequence()
+                && flightControllerAirSenseState.getSequence() == source.flightControllerAirSenseState.getSequence()
+                && compassState.getSequence() == source.compassState.getSequence()
+                && batteryState.getSequence() == source.batteryState.getSequence()
+                && visionDetectionState.getSequence() == source.visionDetectionState.getSequence()
+                && diagnosticsInformationMessages == source.diagnosticsInformationMessages
+                && maxFlightHeight == source.maxFlightHeight
+                && uplinkSignalQuality == source.uplinkSignalQuality
+                && downlinkSignalQuality == source.downlinkSignalQuality
+                && lowBatteryWarningThreshold == source.lowBatteryWarningThreshold
+                && lightbridgeFrequencyBand == source.lightbridgeFrequencyBand
+                && ocuSyncFrequencyBand == source.ocuSyncFrequencyBand
+                && auxiliaryLightModeBottom == source.auxiliaryLightModeBottom
+                && remoteControllerGimbalChannel == source.remoteControllerGimbalChannel
+                && id == source.id
+                && serialNumber == source.serialNumber
+                && name == source.name
+                && model == source.model
+                && firmwarePackageVersion == source.firmwarePackageVersion
+                && initialized == source.initialized
+                && located == source.located
+                && initVirtualStickDisabled == source.initVirtualStickDisabled
+                && lastKnownGroundLocationSource == source.lastKnownGroundLocation;
+    }
+
+    //hands out an immutable snapshot, readers share it until something in the state changes
     public DatedValue<DroneStateAdapter> toDatedValue() {
-        return new DatedValue<>(this, flightControllerState == null ? new Date() : flightControllerState.date);
+        if (isSnapshot) {
+            return snapshotDatedValue;
+        }
+
+        final DJIDroneStateAdapter latestSnapshot = this.latestSnapshot;
+        if (latestSnapshot != null && latestSnapshot.isSnapshotOf(this)) {
+            return latestSnapshot.snapshotDatedValue;
+        }
+
+        final DJIDroneStateAdapter snapshot = new DJIDroneStateAdapter(this);
+        //without flight controller state the date is just the time of the copy, so don't hand it out again later
+        if (snapshot.flightControllerState.getValue() != null) {
+            this.latestSnapshot = snapshot;
+        }
+        return snapshot.snapshotDatedValue;
     }
 
     @Override
     public List<Message> getStatusMessages() {
         final List<Message> messages = new ArrayList<>();
 
-        final DatedValue<FlightControllerState> flightControllerState = this.flightControllerState;
-        if (flightControllerState != null && flightControllerState.value != null) {
-            messages.addAll(DronelinkDJI.getStatusMessages(context, flightControllerState.value));
+        final FlightControllerState flightControllerState = this.flightControllerState.getValue();
+        if (flightControllerState != null) {
+            messages.addAll(DronelinkDJI.getStatusMessages(context, flightControllerState));
         }
         else {
             messages.add(new Message(context.getString(com.dronelink.dji.R.string.DJIDroneSession_telemetry_unavailable), Message.Level.DANGER));
         }
 
-        if (compassState != null && compassState.value != null) {
-            final Message message = DronelinkDJI.getMessage(context, compassState.value.getSensorState());
+        final CompassState compassState = this.compassState.getValue();
+        if (compassState != null) {
+            final Message message = DronelinkDJI.getMessage(context, compassState.getSensorState());
             if (message != null) {
                 messages.add(message);
             }
         }
 
-        final DatedValue<AirSenseSystemInformation> airSenseState = flightControllerAirSenseState;
-        if (airSenseState != null && airSenseState.value != null) {
-            final List<Message> statusMessages = DronelinkDJI.getStatusMessages(context, airSenseState.value);
+        final AirSenseSystemInformation airSenseState = flightControllerAirSenseState.getValue();
+        if (airSenseState != null) {
+            final List<Message> statusMessages = DronelinkDJI.getStatusMessages(context, airSenseState);
             if (!statusMessages.isEmpty()) {
                 messages.addAll(statusMessages);
             }
@@ -117,26 +211,26 @@ public class DJIDroneStateAdapter implements DroneStateAdapter {
 
     @Override
     public String getMode() {
-        final DatedValue<FlightControllerState> flightControllerState = this.flightControllerState;
-        return flightControllerState != null ? flightControllerState.value.getFlightModeString() : null;
+        final FlightControllerState flightControllerState = this.flightControllerState.getValue();
+        return flightControllerState != null ? flightControllerState.getFlightModeString() : null;
     }
 
     @Override
     public boolean isFlying() {
-        final DatedValue<FlightControllerState> flightControllerState = this.flightControllerState;
-        return flightControllerState != null && flightControllerState.value.isFlying();
+        final FlightControllerState flightControllerState = this.flightControllerState.getValue();
+        return flightControllerState != null && flightControllerState.isFlying();
     }
 
     @Override
     public boolean isReturningHome() {
-        final DatedValue<FlightControllerState> flightControllerState = this.flightControllerState;
-        return flightControllerState != null && flightControllerState.value.getFlightMode() == FlightMode.GO_HOME;
+        final FlightControllerState flightControllerState = this.flightControllerState.getValue();
+        return flightControllerState != null && flightControllerState.getFlightMode() == FlightMode.GO_HOME;
     }
 
     @Override
     public boolean isLanding() {
-        final DatedValue<FlightControllerState> flightControllerState = this.flightControllerState;
-        return flightControllerState != null && flightControllerState.value.getFlightMode() == FlightMode.AUTO_LANDING;
+        final FlightControllerState flightControllerState = this.flightControllerState.getValue();
+        return flightControllerState != null && flightControllerState.getFlightMode() == FlightMode.AUTO_LANDING;
     }
 
     @Override
@@ -165,13 +259,33 @@ public class DJIDroneStateAdapter implements DroneStateAdapter {
 
     @Override
     public Location getLocation() {
-        final DatedValue<FlightControllerState> flightControllerState = this.flightControllerState;
+        final long sequence = this.flightControllerState.getSequence();
+        final FlightControllerState flightControllerState = this.flightControllerState.getValue();
         if (flightControllerState == null) {
             return null;
         }
 
-        final LocationCoordinate3D aircraftLocation = flightControllerState.value.getAircraftLocation();
-        if (aircraftLocation == null || flightControllerState.value.getSatelliteCount() == 0 || Double.isNaN(aircraftLocation.getLatitude()) || Double.isNaN(aircraftLocation.getLongitude())) {
+        //the location only changes with the flight controller state, so only convert it once per update
+        //Location is mutable, so every caller gets its own copy of the converted one
+        final LocationSnapshot locationSnapshot = this.locationSnapshot;
+        if (locationSnapshot != null && locationSnapshot.sequence == sequence) {
+            return copy(locationSnapshot.location);
+        }
+
+        final Location location = getLocation(flightControllerState);
+        if ((sequence & 1) == 0 && sequence == this.flightControllerState.getSequence()) {
+            this.locationSnapshot = new LocationSnapshot(sequence, location);
+        }
+        return copy(location);
+    }
+
+    private static Location copy(final Location location) {
+        return location == null ? null : new Location(location);
+    }
+
+    private Location getLocation(final FlightControllerState flightControllerState) {
+        final LocationCoordinate3D aircraftLocation = flightControllerState.getAircraftLocation();
+        if (aircraftLocation == null || flightControllerState.getSatelliteCount() == 0 || Double.isNaN(aircraftLocation.getLatitude()) || Double.isNaN(aircraftLocation.getLongitude())) {
             return null;
         }
 
@@ -184,12 +298,12 @@ public class DJIDroneStateAdapter implements DroneStateAdapter {
 
     @Override
     public Location getHomeLocation() {
-        final DatedValue<FlightControllerState> flightControllerState = this.flightControllerState;
-        if (flightControllerState == null || !flightControllerState.value.isHomeLocationSet()) {
+        final FlightControllerState flightControllerState = this.flightControllerState.getValue();
+        if (flightControllerState == null || !flightControllerState.isHomeLocationSet()) {
             return null;
         }
 
-        final LocationCoordinate2D homeLocation = flightControllerState.value.getHomeLocation();
+        final LocationCoordinate2D homeLocation = flightControllerState.getHomeLocation();
         if (homeLocation == null) {
             return null;
         }
@@ -199,18 +313,19 @@ public class DJIDroneStateAdapter implements DroneStateAdapter {
 
     @Override
     public Location getLastKnownGroundLocation() {
-        return lastKnownGroundLocation;
+        return copy(lastKnownGroundLocation);
     }
 
     @Override
     public Location getTakeoffLocation() {
-        final DatedValue<FlightControllerState> flightControllerState = this.flightControllerState;
-        if (flightControllerState != null && flightControllerState.value.isFlying()) {
+        final FlightControllerState flightControllerState = this.flightControllerState.getValue();
+        if (flightControllerState != null && flightControllerState.isFlying()) {
+            final Location lastKnownGroundLocation = this.lastKnownGroundLocation;
             if (lastKnownGroundLocation != null) {
-                return lastKnownGroundLocation;
+                return copy(lastKnownGroundLocation);
             }
 
-            if (flightControllerState.value.isHomeLocationSet()) {
+            if (flightControllerState.isHomeLocationSet()) {
                 return getHomeLocation();
             }
         }
@@ -222,8 +337,8 @@ public class DJIDroneStateAdapter implements DroneStateAdapter {
     public Double getTakeoffAltitude() {
         //DJI reports "MSL" altitude based on barometer...no good
         //if (getTakeoffLocation() != null) {
-        //    final float altitude = flightControllerState.value.getTakeoffLocationAltitude();
-        //    return altitude == 0 ? null : new Double(flightControllerState.value.getTakeoffLocationAltitude());
+        //    final float altitude = flightControllerState.getTakeoffLocationAltitude();
+        //    return altitude == 0 ? null : new Double(flightControllerState.getTakeoffLocationAltitude());
         //}
 
         return null;
@@ -231,30 +346,36 @@ public class DJIDroneStateAdapter implements DroneStateAdapter {
 
     @Override
     public double getCourse() {
-        final DatedValue<FlightControllerState> flightControllerState = this.flightControllerState;
-        return flightControllerState == null ? 0 : Math.atan2(flightControllerState.value.getVelocityY(), flightControllerState.value.getVelocityX());
+        final FlightControllerState flightControllerState = this.flightControllerState.getValue();
+        return flightControllerState == null ? 0 : Math.atan2(flightControllerState.getVelocityY(), flightControllerState.getVelocityX());
     }
 
     @Override
     public double getHorizontalSpeed() {
-        final DatedValue<FlightControllerState> flightControllerState = this.flightControllerState;
-        return flightControllerState == null ? 0 : Math.sqrt(Math.pow(flightControllerState.value.getVelocityX(), 2) + Math.pow(flightControllerState.value.getVelocityY(), 2));
+        final FlightControllerState flightControllerState = this.flightControllerState.getValue();
+        if (flightControllerState == null) {
+            return 0;
+        }
+
+        final double velocityX = flightControllerState.getVelocityX();
+        final double velocityY = flightControllerState.getVelocityY();
+        return Math.sqrt(velocityX * velocityX + velocityY * velocityY);
     }
 
     @Override
     public double getVerticalSpeed() {
-        final DatedValue<FlightControllerState> flightControllerState = this.flightControllerState;
-        return flightControllerState == null ? 0 : flightControllerState.value.getVelocityZ() == 0 ? 0 : -flightControllerState.value.getVelocityZ();
+        final FlightControllerState flightControllerState = this.flightControllerState.getValue();
+        return flightControllerState == null ? 0 : flightControllerState.getVelocityZ() == 0 ? 0 : -flightControllerState.getVelocityZ();
     }
 
     @Override
     public double getAltitude() {
-        final DatedValue<FlightControllerState> flightControllerState = this.flightControllerState;
+        final FlightControllerState flightControllerState = this.flightControllerState.getValue();
         if (flightControllerState == null) {
             return 0;
         }
 
-        final LocationCoordinate3D location = flightControllerState.value.getAircraftLocation();
+        final LocationCoordinate3D location = flightControllerState.getAircraftLocation();
         if (location == null) {
             return 0;
         }
@@ -264,13 +385,13 @@ public class DJIDroneStateAdapter implements DroneStateAdapter {
 
     @Override
     public Double getUltrasonicAltitude() {
-        final DatedValue<FlightControllerState> flightControllerState = this.flightControllerState;
+        final FlightControllerState flightControllerState = this.flightControllerState.getValue();
         if (flightControllerState == null) {
             return null;
         }
 
-        if (flightControllerState.value.isUltrasonicBeingUsed()) {
-            return (double)flightControllerState.value.getUltrasonicHeightInMeters();
+        if (flightControllerState.isUltrasonicBeingUsed()) {
+            return (double)flightControllerState.getUltrasonicHeightInMeters();
         }
 
         return null;
@@ -278,12 +399,12 @@ public class DJIDroneStateAdapter implements DroneStateAdapter {
 
     @Override
     public Double getReturnHomeAltitude() {
-        final DatedValue<FlightControllerState> flightControllerState = this.flightControllerState;
+        final FlightControllerState flightControllerState = this.flightControllerState.getValue();
         if (flightControllerState == null) {
             return null;
         }
 
-        return (double)flightControllerState.value.getGoHomeHeight();
+        return (double)flightControllerState.getGoHomeHeight();
     }
 
     @Override
@@ -296,12 +417,12 @@ public class DJIDroneStateAdapter implements DroneStateAdapter {
 
     @Override
     public Double getBatteryPercent() {
-        final DatedValue<BatteryState> batteryState = this.batteryState;
+        final BatteryState batteryState = this.batteryState.getValue();
         if (batteryState == null) {
             return null;
         }
 
-        return (double)batteryState.value.getChargeRemainingInPercent() / 100.0;
+        return (double)batteryState.getChargeRemainingInPercent() / 100.0;
     }
 
     @Override
@@ -314,9 +435,9 @@ public class DJIDroneStateAdapter implements DroneStateAdapter {
 
     @Override
     public Double getFlightTimeRemaining() {
-        final DatedValue<FlightControllerState> flightControllerState = this.flightControllerState;
+        final FlightControllerState flightControllerState = this.flightControllerState.getValue();
         if (flightControllerState != null) {
-            final GoHomeAssessment goHomeAssessment = flightControllerState.value.getGoHomeAssessment();
+            final GoHomeAssessment goHomeAssessment = flightControllerState.getGoHomeAssessment();
             return (double)goHomeAssessment.getRemainingFlightTime();
         }
 
@@ -330,13 +451,13 @@ public class DJIDroneStateAdapter implements DroneStateAdapter {
 
     @Override
     public Double getObstacleDistance() {
-        final DatedValue<VisionDetectionState> visionDetectionState = this.visionDetectionState;
+        final VisionDetectionState visionDetectionState = this.visionDetectionState.getValue();
         if (visionDetectionState == null) {
             return null;
         }
 
         double minObstacleDistance = 0.0;
-        final ObstacleDetectionSector[] detectionSectors = visionDetectionState.value.getDetectionSectors();
+        final ObstacleDetectionSector[] detectionSectors = visionDetectionState.getDetectionSectors();
         if (detectionSectors != null) {
             for (final ObstacleDetectionSector detectionSector : detectionSectors) {
                 minObstacleDistance = minObstacleDistance == 0 ? detectionSector.getObstacleDistanceInMeters() : Math.min(minObstacleDistance, detectionSector.getObstacleDistanceInMeters());
@@ -352,10 +473,10 @@ public class DJIDroneStateAdapter implements DroneStateAdapter {
 
     @Override
     public Orientation3 getOrientation() {
-        final DatedValue<FlightControllerState> flightControllerState = this.flightControllerState;
+        final FlightControllerState flightControllerState = this.flightControllerState.getValue();
         final Orientation3 orientation = new Orientation3();
         if (flightControllerState != null) {
-            final Attitude attitude = flightControllerState.value.getAttitude();
+            final Attitude attitude = flightControllerState.getAttitude();
             orientation.x = Convert.DegreesToRadians(attitude.pitch);
             orientation.y = Convert.DegreesToRadians(attitude.roll);
             orientation.z = Convert.DegreesToRadians(attitude.yaw);
@@ -365,14 +486,14 @@ public class DJIDroneStateAdapter implements DroneStateAdapter {
 
     @Override
     public Integer getGPSSatellites() {
-        final DatedValue<FlightControllerState> flightControllerState = this.flightControllerState;
-        return flightControllerState == null ? null : flightControllerState.value.getSatelliteCount();
+        final FlightControllerState flightControllerState = this.flightControllerState.getValue();
+        return flightControllerState == null ? null : flightControllerState.getSatelliteCount();
     }
 
     @Override
     public Double getGPSSignalStrength() {
-        final DatedValue<FlightControllerState> flightControllerState = this.flightControllerState;
-        return flightControllerState == null ? null : DronelinkDJI.getGPSSignalValue(flightControllerState.value.getGPSSignalLevel());
+        final FlightControllerState flightControllerState = this.flightControllerState.getValue();
+        return flightControllerState == null ? null : DronelinkDJI.getGPSSignalValue(flightControllerState.getGPSSignalLevel());
     }
 
     @Override
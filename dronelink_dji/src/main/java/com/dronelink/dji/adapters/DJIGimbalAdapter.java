@@ -18,20 +18,14 @@ import com.dronelink.dji.DronelinkDJI;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 import dji.common.gimbal.Rotation;
 import dji.common.gimbal.RotationMode;
 import dji.sdk.gimbal.Gimbal;
 
 public class DJIGimbalAdapter implements GimbalAdapter {
-    private ExecutorService serialQueue = Executors.newSingleThreadExecutor();
-
     public final Gimbal gimbal;
-    private Rotation.Builder pendingSpeedRotationBuilder;
+    private volatile Rotation.Builder pendingSpeedRotationBuilder;
 
     public DJIGimbalAdapter(final Gimbal gimbal) {
         this.gimbal = gimbal;
@@ -73,26 +67,11 @@ public class DJIGimbalAdapter implements GimbalAdapter {
     }
 
     public Rotation.Builder getPendingSpeedRotation() {
-        try {
-            return serialQueue.submit(new Callable<Rotation.Builder>() {
-                @Override
-                public Rotation.Builder call() {
-                    return pendingSpeedRotationBuilder;
-                }
-            }).get();
-        }
-        catch (final ExecutionException | InterruptedException e) {
-            return null;
-        }
+        return pendingSpeedRotationBuilder;
     }
 
     public void setPendingSpeedRotationBuilder(final Rotation.Builder newPendingSpeedRotationBuilder) {
-        serialQueue.execute(new Runnable() {
-            @Override
-            public void run() {
-                pendingSpeedRotationBuilder = newPendingSpeedRotationBuilder;
-            }
-        });
+        pendingSpeedRotationBuilder = newPendingSpeedRotationBuilder;
     }
 
     @Override
@@ -0,0 +1,127 @@
+//  DJICommandPumpTest.java
+//  DronelinkDJI
+//
+//  Created by Jim McAndrew on 10/18/26.
+//  Copyright © 2026 Dronelink. All rights reserved.
+//
+package com.dronelink.dji;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class DJICommandPumpTest {
+    private static final int Samples = 200;
+    private static final int PolledSamples = 10;
+
+    private DJISessionScheduler scheduler;
+
+    @Before
+    public void setUp() {
+        //the pool threads are daemons, so each test's scheduler goes away with the test run
+        scheduler = new DJISessionScheduler(2);
+    }
+
+    @Test
+    public void signalsCollapseIntoOnePendingRun() throws InterruptedException {
+        final DJISessionScheduler.Lane lane = scheduler.createLane("pump");
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger runs = new AtomicInteger();
+        final DJICommandPump pump = new DJICommandPump(lane, new Runnable() {
+            @Override
+            public void run() {
+                if (runs.incrementAndGet() == 1) {
+                    blocked.countDown();
+                    try {
+                        release.await();
+                    }
+                    catch (final InterruptedException ignored) {}
+                }
+            }
+        });
+
+        pump.signal();
+        assertTrue(blocked.await(1, TimeUnit.SECONDS));
+        for (int i = 0; i < 100; i++) {
+            pump.signal();
+        }
+        release.countDown();
+
+        //the lane runs in order, so this comes after the one run the signals collapsed into
+        final CountDownLatch drained = new CountDownLatch(1);
+        lane.execute(new Runnable() {
+            @Override
+            public void run() {
+                drained.countDown();
+            }
+        });
+        assertTrue(drained.await(1, TimeUnit.SECONDS));
+        assertEquals(2, runs.get());
+    }
+
+    //enqueue-to-execute latency of the wake on signal pump against the 100ms polling loop it replaced
+    @Test
+    public void enqueueToExecuteLatency() throws InterruptedException {
+        final DJILatencyHistogram signaled = new DJILatencyHistogram();
+        final AtomicLong enqueuedNanos = new AtomicLong();
+        final AtomicReference<CountDownLatch> executed = new AtomicReference<>();
+        final DJICommandPump pump = new DJICommandPump(scheduler.createLane("pump"), new Runnable() {
+            @Override
+            public void run() {
+                final long enqueued = enqueuedNanos.getAndSet(0);
+                if (enqueued > 0) {
+                    signaled.recordSince(enqueued);
+                    executed.get().countDown();
+                }
+            }
+        });
+
+        for (int i = 0; i < Samples; i++) {
+            executed.set(new CountDownLatch(1));
+            enqueuedNanos.set(System.nanoTime());
+            pump.signal();
+            assertTrue(executed.get().await(1, TimeUnit.SECONDS));
+        }
+
+        final DJILatencyHistogram polled = new DJILatencyHistogram();
+        final Thread poller = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                while (!Thread.currentThread().isInterrupted()) {
+                    final long enqueued = enqueuedNanos.getAndSet(0);
+                    if (enqueued > 0) {
+                        polled.recordSince(enqueued);
+                        executed.get().countDown();
+                    }
+                    try {
+                        Thread.sleep(100);
+                    }
+                    catch (final InterruptedException e) {
+                        return;
+                    }
+                }
+            }
+        });
+        poller.start();
+        for (int i = 0; i < PolledSamples; i++) {
+            executed.set(new CountDownLatch(1));
+            enqueuedNanos.set(System.nanoTime());
+            assertTrue(executed.get().await(1, TimeUnit.SECONDS));
+        }
+        poller.interrupt();
+        poller.join();
+
+        assertEquals(Samples, signaled.getCount());
+        assertEquals(PolledSamples, polled.getCount());
+        assertTrue(signaled.getMedianMillis() < polled.getMedianMillis());
+    }
+}
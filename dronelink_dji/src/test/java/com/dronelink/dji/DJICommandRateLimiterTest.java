@@ -0,0 +1,116 @@
+//  DJICommandRateLimiterTest.java
+//  DronelinkDJI
+//
+//  Created by Jim McAndrew on 10/18/26.
+//  Copyright © 2026 Dronelink. All rights reserved.
+//
+package com.dronelink.dji;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DJICommandRateLimiterTest {
+    private static final long TimeoutMillis = 5000;
+    //long enough that nothing pending goes out while a test is looking at it
+    private static final long HoldMillis = TimeUnit.MINUTES.toMillis(1);
+
+    private DJICommandRateLimiter limiter;
+
+    @After
+    public void tearDown() {
+        if (limiter != null) {
+            limiter.close();
+        }
+    }
+
+    private static class Command implements Runnable {
+        final int value;
+        final List<Integer> sent;
+
+        Command(final int value, final List<Integer> sent) {
+            this.value = value;
+            this.sent = sent;
+        }
+
+        @Override
+        public void run() {
+            sent.add(value);
+        }
+    }
+
+    @Test
+    public void commandsWithinTheIntervalCoalesce() {
+        limiter = new DJICommandRateLimiter("test", HoldMillis);
+        final List<Integer> sent = new CopyOnWriteArrayList<>();
+        limiter.submit(new Command(0, sent));
+        assertEquals(1, sent.size());
+
+        for (int i = 1; i <= 5; i++) {
+            limiter.submit(new Command(i, sent));
+        }
+        assertEquals(1, sent.size());
+        assertEquals(6, limiter.getSubmittedCount());
+        assertEquals(4, limiter.getCoalescedCount());
+
+        limiter.clear();
+        assertEquals(1, limiter.getDroppedCount());
+        assertEquals(1, limiter.getSentCount());
+    }
+
+    //a pending command goes out on the limiter's own thread, not the caller's or a shared pool thread, and never holding the limiter
+    @Test
+    public void pendingCommandGoesOutOnTheLimitersThread() throws InterruptedException {
+        limiter = new DJICommandRateLimiter("virtualStickRateLimiter", 10);
+        final AtomicReference<Thread> thread = new AtomicReference<>();
+        final AtomicReference<Boolean> locked = new AtomicReference<>();
+        final CountDownLatch flushed = new CountDownLatch(1);
+        limiter.submit(new Runnable() {
+            @Override
+            public void run() {
+                locked.set(Thread.holdsLock(limiter));
+            }
+        });
+        assertFalse(locked.get());
+
+        limiter.submit(new Runnable() {
+            @Override
+            public void run() {
+                thread.set(Thread.currentThread());
+                locked.set(Thread.holdsLock(limiter));
+                flushed.countDown();
+            }
+        });
+        assertTrue(flushed.await(TimeoutMillis, TimeUnit.MILLISECONDS));
+        assertEquals("DronelinkDJI virtualStickRateLimiter", thread.get().getName());
+        assertFalse(locked.get());
+        assertEquals(2, limiter.getSentCount());
+
+        limiter.close();
+        thread.get().join(TimeoutMillis);
+        assertFalse(thread.get().isAlive());
+    }
+
+    @Test
+    public void closedLimiterIgnoresCommands() {
+        limiter = new DJICommandRateLimiter("test", HoldMillis);
+        final List<Integer> sent = new CopyOnWriteArrayList<>();
+        limiter.submit(new Command(0, sent));
+        limiter.submit(new Command(1, sent));
+        limiter.close();
+        assertEquals(1, limiter.getDroppedCount());
+
+        limiter.submit(new Command(2, sent));
+        assertEquals(1, sent.size());
+        assertEquals(2, limiter.getSubmittedCount());
+    }
+}
@@ -0,0 +1,317 @@
+//  DJICommandRegistryTest.java
+//  DronelinkDJI
+//
+//  Created by Jim McAndrew on 10/18/26.
+//  Copyright © 2026 Dronelink. All rights reserved.
+//
+package com.dronelink.dji;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class DJICommandRegistryTest {
+    private static final int Rounds = 20_000;
+    private static final int Trials = 10;
+
+    interface Command {}
+    interface Tagged extends Command {}
+    static class CameraCommand implements Command {}
+    static class TaggedCommand extends CameraCommand implements Tagged {}
+    static class UnknownCommand implements Command {}
+
+    //stand ins for the camera commands executeCameraCommand used to walk one instanceof at a time
+    static class Command0 extends CameraCommand {}
+    static class Command1 extends CameraCommand {}
+    static class Command2 extends CameraCommand {}
+    static class Command3 extends CameraCommand {}
+    static class Command4 extends CameraCommand {}
+    static class Command5 extends CameraCommand {}
+    static class Command6 extends CameraCommand {}
+    static class Command7 extends CameraCommand {}
+    static class Command8 extends CameraCommand {}
+    static class Command9 extends CameraCommand {}
+    static class Command10 extends CameraCommand {}
+    static class Command11 extends CameraCommand {}
+    static class Command12 extends CameraCommand {}
+    static class Command13 extends CameraCommand {}
+    static class Command14 extends CameraCommand {}
+    static class Command15 extends CameraCommand {}
+    static class Command16 extends CameraCommand {}
+    static class Command17 extends CameraCommand {}
+    static class Command18 extends CameraCommand {}
+    static class Command19 extends CameraCommand {}
+    static class Command20 extends CameraCommand {}
+    static class Command21 extends CameraCommand {}
+    static class Command22 extends CameraCommand {}
+    static class Command23 extends CameraCommand {}
+    static class Command24 extends CameraCommand {}
+    static class Command25 extends CameraCommand {}
+    static class Command26 extends CameraCommand {}
+    static class Command27 extends CameraCommand {}
+    static class Command28 extends CameraCommand {}
+    static class Command29 extends CameraCommand {}
+    static class Command30 extends CameraCommand {}
+    static class Command31 extends CameraCommand {}
+    static class Command32 extends CameraCommand {}
+    static class Command33 extends CameraCommand {}
+    static class Command34 extends CameraCommand {}
+    static class Command35 extends CameraCommand {}
+    static class Command36 extends CameraCommand {}
+    static class Command37 extends CameraCommand {}
+    static class Command38 extends CameraCommand {}
+    static class Command39 extends CameraCommand {}
+    static class Command40 extends CameraCommand {}
+    static class Command41 extends CameraCommand {}
+    static class Command42 extends CameraCommand {}
+    static class Command43 extends CameraCommand {}
+    static class Command44 extends CameraCommand {}
+
+    private static final Command[] Commands = { new Command0(), new Command1(), new Command2(), new Command3(), new Command4(), new Command5(), new Command6(), new Command7(), new Command8(), new Command9(), new Command10(), new Command11(), new Command12(), new Command13(), new Command14(), new Command15(), new Command16(), new Command17(), new Command18(), new Command19(), new Command20(), new Command21(), new Command22(), new Command23(), new Command24(), new Command25(), new Command26(), new Command27(), new Command28(), new Command29(), new Command30(), new Command31(), new Command32(), new Command33(), new Command34(), new Command35(), new Command36(), new Command37(), new Command38(), new Command39(), new Command40(), new Command41(), new Command42(), new Command43(), new Command44() };
+
+    @Test
+    public void resolvesNearestRegisteredType() {
+        final DJICommandRegistry<Command, String> registry = new DJICommandRegistry<>();
+        registry.register(CameraCommand.class, "camera").register(Tagged.class, "tagged").register(Command0.class, "command0");
+        assertEquals("command0", registry.get(new Command0()));
+        assertEquals("camera", registry.get(new Command1()));
+        assertEquals("camera", registry.get(new TaggedCommand()));
+        assertNull(registry.get(new UnknownCommand()));
+        assertNull(registry.get((Command)null));
+
+        registry.register(TaggedCommand.class, "taggedCommand");
+        assertEquals("taggedCommand", registry.get(new TaggedCommand()));
+    }
+
+    @Test
+    public void fallsBackToInterfaces() {
+        final DJICommandRegistry<Command, String> registry = new DJICommandRegistry<>();
+        registry.register(Tagged.class, "tagged");
+        assertEquals("tagged", registry.get(new TaggedCommand()));
+        assertNull(registry.get(new Command0()));
+    }
+
+    //registry lookups against the instanceof chain they replaced, over every command in the chain
+    @Test
+    public void dispatchAgainstInstanceofChain() {
+        final DJICommandRegistry<Command, Integer> registry = new DJICommandRegistry<>();
+        registry.register(Command0.class, 0);
+        registry.register(Command1.class, 1);
+        registry.register(Command2.class, 2);
+        registry.register(Command3.class, 3);
+        registry.register(Command4.class, 4);
+        registry.register(Command5.class, 5);
+        registry.register(Command6.class, 6);
+        registry.register(Command7.class, 7);
+        registry.register(Command8.class, 8);
+        registry.register(Command9.class, 9);
+        registry.register(Command10.class, 10);
+        registry.register(Command11.class, 11);
+        registry.register(Command12.class, 12);
+        registry.register(Command13.class, 13);
+        registry.register(Command14.class, 14);
+        registry.register(Command15.class, 15);
+        registry.register(Command16.class, 16);
+        registry.register(Command17.class, 17);
+        registry.register(Command18.class, 18);
+        registry.register(Command19.class, 19);
+        registry.register(Command20.class, 20);
+        registry.register(Command21.class, 21);
+        registry.register(Command22.class, 22);
+        registry.register(Command23.class, 23);
+        registry.register(Command24.class, 24);
+        registry.register(Command25.class, 25);
+        registry.register(Command26.class, 26);
+        registry.register(Command27.class, 27);
+        registry.register(Command28.class, 28);
+        registry.register(Command29.class, 29);
+        registry.register(Command30.class, 30);
+        registry.register(Command31.class, 31);
+        registry.register(Command32.class, 32);
+        registry.register(Command33.class, 33);
+        registry.register(Command34.class, 34);
+        registry.register(Command35.class, 35);
+        registry.register(Command36.class, 36);
+        registry.register(Command37.class, 37);
+        registry.register(Command38.class, 38);
+        registry.register(Command39.class, 39);
+        registry.register(Command40.class, 40);
+        registry.register(Command41.class, 41);
+        registry.register(Command42.class, 42);
+        registry.register(Command43.class, 43);
+        registry.register(Command44.class, 44);
+
+        for (final Command command : Commands) {
+            assertEquals(dispatchInstanceof(command), (int)registry.get(command));
+        }
+
+        //the commands at the end of the chain walk every instanceof before them, that's what the registry replaced
+        final Command[] deep = Arrays.copyOfRange(Commands, Commands.length - 10, Commands.length);
+        long chainNanos = Long.MAX_VALUE;
+        long registryNanos = Long.MAX_VALUE;
+        int sink = 0;
+        for (int trial = 0; trial < Trials; trial++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < Rounds; i++) {
+                for (final Command command : deep) {
+                    sink += dispatchInstanceof(command);
+                }
+            }
+            chainNanos = Math.min(chainNanos, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            for (int i = 0; i < Rounds; i++) {
+                for (final Command command : deep) {
+                    sink += registry.get(command);
+                }
+            }
+            registryNanos = Math.min(registryNanos, System.nanoTime() - start);
+        }
+
+        assertTrue(sink != 0);
+        assertTrue("registry " + registryNanos + "ns, instanceof chain " + chainNanos + "ns", registryNanos < chainNanos);
+    }
+
+    private static int dispatchInstanceof(final Command command) {
+        if (command instanceof Command0) {
+            return 0;
+        }
+        else if (command instanceof Command1) {
+            return 1;
+        }
+        else if (command instanceof Command2) {
+            return 2;
+        }
+        else if (command instanceof Command3) {
+            return 3;
+        }
+        else if (command instanceof Command4) {
+            return 4;
+        }
+        else if (command instanceof Command5) {
+            return 5;
+        }
+        else if (command instanceof Command6) {
+            return 6;
+        }
+        else if (command instanceof Command7) {
+            return 7;
+        }
+        else if (command instanceof Command8) {
+            return 8;
+        }
+        else if (command instanceof Command9) {
+            return 9;
+        }
+        else if (command instanceof Command10) {
+            return 10;
+        }
+        else if (command instanceof Command11) {
+            return 11;
+        }
+        else if (command instanceof Command12) {
+            return 12;
+        }
+        else if (command instanceof Command13) {
+            return 13;
+        }
+        else if (command instanceof Command14) {
+            return 14;
+        }
+        else if (command instanceof Command15) {
+            return 15;
+        }
+        else if (command instanceof Command16) {
+            return 16;
+        }
+        else if (command instanceof Command17) {
+            return 17;
+        }
+        else if (command instanceof Command18) {
+            return 18;
+        }
+        else if (command instanceof Command19) {
+            return 19;
+        }
+        else if (command instanceof Command20) {
+            return 20;
+        }
+        else if (command instanceof Command21) {
+            return 21;
+        }
+        else if (command instanceof Command22) {
+            return 22;
+        }
+        else if (command instanceof Command23) {
+            return 23;
+        }
+        else if (command instanceof Command24) {
+            return 24;
+        }
+        else if (command instanceof Command25) {
+            return 25;
+        }
+        else if (command instanceof Command26) {
+            return 26;
+        }
+        else if (command instanceof Command27) {
+            return 27;
+        }
+        else if (command instanceof Command28) {
+            return 28;
+        }
+        else if (command instanceof Command29) {
+            return 29;
+        }
+        else if (command instanceof Command30) {
+            return 30;
+        }
+        else if (command instanceof Command31) {
+            return 31;
+        }
+        else if (command instanceof Command32) {
+            return 32;
+        }
+        else if (command instanceof Command33) {
+            return 33;
+        }
+        else if (command instanceof Command34) {
+            return 34;
+        }
+        else if (command instanceof Command35) {
+            return 35;
+        }
+        else if (command instanceof Command36) {
+            return 36;
+        }
+        else if (command instanceof Command37) {
+            return 37;
+        }
+        else if (command instanceof Command38) {
+            return 38;
+        }
+        else if (command instanceof Command39) {
+            return 39;
+        }
+        else if (command instanceof Command40) {
+            return 40;
+        }
+        else if (command instanceof Command41) {
+            return 41;
+        }
+        else if (command instanceof Command42) {
+            return 42;
+        }
+        else if (command instanceof Command43) {
+            return 43;
+        }
+        else if (command instanceof Command44) {
+            return 44;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,121 @@
+//  DJICompletionFaultInjector.java
+//  DronelinkDJI
+//
+//  Created by Jim McAndrew on 10/18/26.
+//  Copyright © 2026 Dronelink. All rights reserved.
+//
+package com.dronelink.dji;
+
+import org.mockito.stubbing.Answer;
+
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import dji.common.error.DJIError;
+import dji.common.util.CommonCallbacks;
+
+//answers the stand-in SDK's completion callbacks, late and with errors when asked, so command throughput can be exercised without an aircraft
+//stub an SDK call with doAnswer(injector.completion()) or doAnswer(injector.completionWith(value)), the callback being its last argument
+public class DJICompletionFaultInjector implements AutoCloseable {
+    //completions arrive on an SDK thread, never the caller's
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+    private final Random random = new Random();
+    private volatile long latencyMillis = 0;
+    private volatile double errorRate = 0;
+    private volatile DJIError error;
+    private final AtomicLong completedCount = new AtomicLong();
+    private final AtomicLong injectedErrorCount = new AtomicLong();
+
+    public void setLatencyMillis(final long latencyMillis) {
+        this.latencyMillis = Math.max(0, latencyMillis);
+    }
+
+    public void setError(final double errorRate, final DJIError error) {
+        this.error = error;
+        this.errorRate = error == null ? 0 : Math.min(1.0, Math.max(0.0, errorRate));
+    }
+
+    public long getCompletedCount() {
+        return completedCount.get();
+    }
+
+    public long getInjectedErrorCount() {
+        return injectedErrorCount.get();
+    }
+
+    private DJIError nextError() {
+        final DJIError error = this.error;
+        final double errorRate = this.errorRate;
+        if (error == null || errorRate <= 0) {
+            return null;
+        }
+
+        final boolean inject;
+        synchronized (random) {
+            inject = random.nextDouble() < errorRate;
+        }
+
+        if (inject) {
+            injectedErrorCount.incrementAndGet();
+            return error;
+        }
+        return null;
+    }
+
+    private void run(final Runnable completion) {
+        executor.schedule(new Runnable() {
+            @Override
+            public void run() {
+                completedCount.incrementAndGet();
+                completion.run();
+            }
+        }, latencyMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public Answer<Void> completion() {
+        return invocation -> {
+            final CommonCallbacks.CompletionCallback callback = invocation.getArgument(invocation.getArguments().length - 1);
+            final DJIError error = nextError();
+            run(new Runnable() {
+                @Override
+                public void run() {
+                    if (callback != null) {
+                        callback.onResult(error);
+                    }
+                }
+            });
+            return null;
+        };
+    }
+
+    public <V> Answer<Void> completionWith(final V value) {
+        return invocation -> {
+            final CommonCallbacks.CompletionCallbackWith<V> callback = invocation.getArgument(invocation.getArguments().length - 1);
+            final DJIError error = nextError();
+            run(new Runnable() {
+                @Override
+                public void run() {
+                    if (callback == null) {
+                        return;
+                    }
+
+                    if (error == null) {
+                        callback.onSuccess(value);
+                    }
+                    else {
+                        callback.onFailure(error);
+                    }
+                }
+            });
+            return null;
+        };
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
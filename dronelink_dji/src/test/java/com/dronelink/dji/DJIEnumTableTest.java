@@ -0,0 +1,76 @@
+//  DJIEnumTableTest.java
+//  DronelinkDJI
+//
+//  Created by Jim McAndrew on 10/18/26.
+//  Copyright © 2026 Dronelink. All rights reserved.
+//
+package com.dronelink.dji;
+
+import com.dronelink.core.kernel.core.enums.CameraAperture;
+import com.dronelink.core.kernel.core.enums.CameraExposureCompensation;
+import com.dronelink.core.kernel.core.enums.CameraISO;
+import com.dronelink.core.kernel.core.enums.CameraShutterSpeed;
+import com.dronelink.core.kernel.core.enums.CameraVideoResolution;
+
+import org.junit.Test;
+
+import java.util.Collections;
+
+import dji.common.camera.SettingsDefinitions;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class DJIEnumTableTest {
+    private enum Source { A, B, C, UNMAPPED }
+    private enum Target { A, B, C, UNKNOWN }
+
+    private static Target map(final Source value) {
+        switch (value) {
+            case A: return Target.A;
+            case B: return Target.B;
+            case C: return Target.C;
+            default: return null;
+        }
+    }
+
+    private static Source map(final Target value) {
+        switch (value) {
+            case A: return Source.A;
+            case B: return Source.B;
+            //deliberately wrong so the mismatch shows up
+            case C: return Source.A;
+            default: return Source.UNMAPPED;
+        }
+    }
+
+    @Test
+    public void unmappedAndNullValuesFallBack() {
+        final DJIEnumTable<Source, Target> table = new DJIEnumTable<>(Source.class, DJIEnumTableTest::map, Target.UNKNOWN);
+        assertSame(Target.B, table.get(Source.B));
+        assertSame(Target.UNKNOWN, table.get(Source.UNMAPPED));
+        assertSame(Target.UNKNOWN, table.get(null));
+    }
+
+    @Test
+    public void reportsRoundTripMismatches() {
+        final DJIEnumTable<Source, Target> to = new DJIEnumTable<>(Source.class, DJIEnumTableTest::map, Target.UNKNOWN);
+        final DJIEnumTable<Target, Source> from = new DJIEnumTable<>(Target.class, DJIEnumTableTest::map, Source.UNMAPPED);
+        assertEquals(Collections.singletonList(Source.C), to.getRoundTripMismatches(from));
+    }
+
+    //every camera setting the tables can convert has to come back as the value it started from
+    @Test
+    public void cameraTablesRoundTrip() {
+        assertEquals(Collections.<CameraAperture>emptyList(), DronelinkDJI.EnumTables.cameraApertureToDJI.getRoundTripMismatches(DronelinkDJI.EnumTables.cameraApertureFromDJI));
+        assertEquals(Collections.<SettingsDefinitions.Aperture>emptyList(), DronelinkDJI.EnumTables.cameraApertureFromDJI.getRoundTripMismatches(DronelinkDJI.EnumTables.cameraApertureToDJI));
+        assertEquals(Collections.<CameraExposureCompensation>emptyList(), DronelinkDJI.EnumTables.cameraExposureCompensationToDJI.getRoundTripMismatches(DronelinkDJI.EnumTables.cameraExposureCompensationFromDJI));
+        assertEquals(Collections.<SettingsDefinitions.ExposureCompensation>emptyList(), DronelinkDJI.EnumTables.cameraExposureCompensationFromDJI.getRoundTripMismatches(DronelinkDJI.EnumTables.cameraExposureCompensationToDJI));
+        assertEquals(Collections.<CameraISO>emptyList(), DronelinkDJI.EnumTables.cameraISOToDJI.getRoundTripMismatches(DronelinkDJI.EnumTables.cameraISOFromDJI));
+        assertEquals(Collections.<SettingsDefinitions.ISO>emptyList(), DronelinkDJI.EnumTables.cameraISOFromDJI.getRoundTripMismatches(DronelinkDJI.EnumTables.cameraISOToDJI));
+        assertEquals(Collections.<CameraShutterSpeed>emptyList(), DronelinkDJI.EnumTables.cameraShutterSpeedToDJI.getRoundTripMismatches(DronelinkDJI.EnumTables.cameraShutterSpeedFromDJI));
+        assertEquals(Collections.<SettingsDefinitions.ShutterSpeed>emptyList(), DronelinkDJI.EnumTables.cameraShutterSpeedFromDJI.getRoundTripMismatches(DronelinkDJI.EnumTables.cameraShutterSpeedToDJI));
+        assertEquals(Collections.<CameraVideoResolution>emptyList(), DronelinkDJI.EnumTables.cameraVideoResolutionToDJI.getRoundTripMismatches(DronelinkDJI.EnumTables.cameraVideoResolutionFromDJI));
+        assertEquals(Collections.<SettingsDefinitions.VideoResolution>emptyList(), DronelinkDJI.EnumTables.cameraVideoResolutionFromDJI.getRoundTripMismatches(DronelinkDJI.EnumTables.cameraVideoResolutionToDJI));
+    }
+}
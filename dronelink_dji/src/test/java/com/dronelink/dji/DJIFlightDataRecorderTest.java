@@ -0,0 +1,201 @@
+//  DJIFlightDataRecorderTest.java
+//  DronelinkDJI
+//
+//  Created by Jim McAndrew on 10/18/26.
+//  Copyright © 2026 Dronelink. All rights reserved.
+//
+package com.dronelink.dji;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.List;
+
+import dji.common.flightcontroller.Attitude;
+import dji.common.flightcontroller.FlightControllerState;
+import dji.common.flightcontroller.LocationCoordinate3D;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class DJIFlightDataRecorderTest {
+    private static final long TimeoutMillis = 5000;
+    //a signal quality record is the header and one byte
+    private static final int SignalQualityRecordSize = DJIFlightDataRecord.HeaderSize + 1;
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private DJIFlightDataRecorder createRecorder(final File directory, final int maxSegmentCount) {
+        //a segment size this small is raised to the minimum, room for one record of the largest type
+        return new DJIFlightDataRecorder(directory, 0, 1024, maxSegmentCount);
+    }
+
+    private static int getSegmentCapacity() {
+        return DJIFlightDataRecord.MaxSize / SignalQualityRecordSize;
+    }
+
+    private static void recordSignalQuality(final DJIFlightDataRecorder recorder, final int count) {
+        for (int i = 0; i < count; i++) {
+            recorder.recordSignalQuality(i % 2 == 0, i % 100);
+        }
+    }
+
+    private static void stop(final DJIFlightDataRecorder recorder) throws InterruptedException {
+        recorder.stop();
+        assertTrue(recorder.awaitTermination(TimeoutMillis));
+    }
+
+    @Test
+    public void recordsReadBackInOrderAcrossSegments() throws Exception {
+        final File directory = folder.newFolder();
+        final DJIFlightDataRecorder recorder = createRecorder(directory, 100).start();
+        final int count = getSegmentCapacity() * 3 + 1;
+        recordSignalQuality(recorder, count);
+        stop(recorder);
+
+        assertEquals(count, recorder.getRecordedCount());
+        assertEquals(0, recorder.getDroppedCount());
+        assertEquals(4, recorder.getSegments().size());
+        try (final DJIFlightDataReader reader = new DJIFlightDataReader(directory)) {
+            final List<DJIFlightDataRecord> records = reader.readAll();
+            assertEquals(count, records.size());
+            long elapsedNanos = 0;
+            for (int i = 0; i < count; i++) {
+                final DJIFlightDataRecord record = records.get(i);
+                assertEquals(i % 2 == 0 ? DJIFlightDataRecord.Type.UPLINK_SIGNAL_QUALITY : DJIFlightDataRecord.Type.DOWNLINK_SIGNAL_QUALITY, record.type);
+                assertEquals(i % 100, record.toSignalQuality());
+                assertTrue(record.elapsedNanos >= elapsedNanos);
+                elapsedNanos = record.elapsedNanos;
+            }
+        }
+    }
+
+    @Test
+    public void flightControllerStateRoundTrips() throws Exception {
+        final File directory = folder.newFolder();
+        final DJIFlightDataRecorder recorder = createRecorder(directory, 100).start();
+        final FlightControllerState state = new FlightControllerState();
+        state.setAircraftLocation(new LocationCoordinate3D(37.5, -122.25, 42.5f));
+        state.setAttitude(new Attitude(-5, 2.5, 90));
+        state.setVelocityX(1.5f);
+        state.setSatelliteCount(14);
+        state.setFlying(true);
+        state.setAreMotorsOn(true);
+        recorder.recordFlightControllerState(state);
+        stop(recorder);
+
+        try (final DJIFlightDataReader reader = new DJIFlightDataReader(directory)) {
+            final DJIFlightDataRecord record = reader.next();
+            assertNotNull(record);
+            final DJIFlightDataRecord.FlightController flightController = record.toFlightController();
+            assertEquals(37.5, flightController.latitude, 0);
+            assertEquals(-122.25, flightController.longitude, 0);
+            assertEquals(42.5f, flightController.altitude, 0);
+            assertEquals(-5f, flightController.pitch, 0);
+            assertEquals(2.5f, flightController.roll, 0);
+            assertEquals(90f, flightController.yaw, 0);
+            assertEquals(1.5f, flightController.velocityX, 0);
+            assertEquals(14, flightController.satelliteCount);
+            assertTrue(flightController.flying);
+            assertTrue(flightController.motorsOn);
+            assertFalse(flightController.homeLocationSet);
+            assertEquals(null, reader.next());
+        }
+    }
+
+    //a kill can land mid copy, the reader has to stop cleanly at the last whole record however the tail was left
+    @Test
+    public void tornTailReadsAsTheEndOfTheSegment() throws Exception {
+        final int whole = 5;
+        final long tail = DJIFlightDataRecorder.SegmentHeaderSize + whole * SignalQualityRecordSize;
+
+        //the type goes in last, so a copy torn before it leaves a zero there
+        assertEquals(whole, readAfterTearing(new Tear() {
+            @Override
+            public void tear(final RandomAccessFile file) throws IOException {
+                file.seek(tail);
+                file.write(0);
+            }
+        }, whole + 1));
+
+        //cut inside the header of the next record
+        assertEquals(whole, readAfterTearing(new Tear() {
+            @Override
+            public void tear(final RandomAccessFile file) throws IOException {
+                file.setLength(tail + DJIFlightDataRecord.HeaderSize / 2);
+            }
+        }, whole + 1));
+
+        //cut after the header, so the payload length runs past the end of the file
+        assertEquals(whole, readAfterTearing(new Tear() {
+            @Override
+            public void tear(final RandomAccessFile file) throws IOException {
+                file.setLength(tail + DJIFlightDataRecord.HeaderSize);
+            }
+        }, whole + 1));
+    }
+
+    private interface Tear {
+        void tear(RandomAccessFile file) throws IOException;
+    }
+
+    private int readAfterTearing(final Tear tear, final int count) throws Exception {
+        final File directory = folder.newFolder();
+        final DJIFlightDataRecorder recorder = createRecorder(directory, 100).start();
+        recordSignalQuality(recorder, count);
+        stop(recorder);
+
+        final List<File> segments = recorder.getSegments();
+        assertEquals(1, segments.size());
+        try (final RandomAccessFile file = new RandomAccessFile(segments.get(0), "rw")) {
+            tear.tear(file);
+        }
+
+        try (final DJIFlightDataReader reader = new DJIFlightDataReader(directory)) {
+            return reader.readAll().size();
+        }
+    }
+
+    @Test
+    public void onlyTheNewestSegmentsAreKept() throws Exception {
+        final File directory = folder.newFolder();
+        final DJIFlightDataRecorder recorder = createRecorder(directory, 2).start();
+        final int count = getSegmentCapacity() * 5;
+        recordSignalQuality(recorder, count);
+        stop(recorder);
+
+        assertEquals(2, recorder.getSegments().size());
+        assertEquals(3, recorder.getDeletedSegmentCount());
+        assertEquals(recorder.getSegments(), DJIFlightDataReader.getSegments(directory));
+        try (final DJIFlightDataReader reader = new DJIFlightDataReader(directory)) {
+            final List<DJIFlightDataRecord> records = reader.readAll();
+            assertEquals(getSegmentCapacity() * 2, records.size());
+            assertEquals((count - 1) % 100, records.get(records.size() - 1).toSignalQuality());
+        }
+    }
+
+    //segments are written, rotated and forced on the recorder's own thread, and the thread goes when recording stops
+    @Test
+    public void drainsOnItsOwnThread() throws Exception {
+        final DJIFlightDataRecorder recorder = createRecorder(folder.newFolder(), 100).start();
+        Thread drainThread = null;
+        for (final Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().equals("DronelinkDJI flightDataRecorder")) {
+                drainThread = thread;
+            }
+        }
+        assertNotNull(drainThread);
+        assertTrue(drainThread.isDaemon());
+
+        stop(recorder);
+        drainThread.join(TimeoutMillis);
+        assertFalse(drainThread.isAlive());
+    }
+}
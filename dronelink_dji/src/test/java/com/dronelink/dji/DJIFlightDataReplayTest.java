@@ -0,0 +1,117 @@
+//  DJIFlightDataReplayTest.java
+//  DronelinkDJI
+//
+//  Created by Jim McAndrew on 10/18/26.
+//  Copyright © 2026 Dronelink. All rights reserved.
+//
+package com.dronelink.dji;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.dronelink.core.DroneSession;
+
+import java.io.File;
+
+import dji.common.battery.BatteryState;
+import dji.common.camera.SystemState;
+import dji.common.flightcontroller.Attitude;
+import dji.common.flightcontroller.FlightControllerState;
+import dji.common.flightcontroller.LocationCoordinate3D;
+import dji.common.product.Model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+//records a short flight, reads it back and replays it into a real session opened for a stand-in aircraft
+public class DJIFlightDataReplayTest {
+    private static final long TimeoutMillis = 5000;
+    private static final int FlightControllerStates = 50;
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private static double latitude(final int tick) {
+        return 37.0 + tick * 0.00001;
+    }
+
+    private static FlightControllerState flightControllerState(final int tick) {
+        final FlightControllerState state = new FlightControllerState();
+        state.setAircraftLocation(new LocationCoordinate3D(latitude(tick), -122.0, 10));
+        state.setAttitude(new Attitude(0, 0, tick));
+        state.setSatelliteCount(12);
+        state.setFlying(false);
+        state.setAreMotorsOn(tick >= FlightControllerStates / 2);
+        return state;
+    }
+
+    //the flight controller states and a signal quality record can be replayed with the default decoder, the camera and battery records can't
+    private File record() throws Exception {
+        final File directory = folder.newFolder();
+        final DJIFlightDataRecorder recorder = new DJIFlightDataRecorder(directory).start();
+        for (int i = 0; i < FlightControllerStates; i++) {
+            recorder.recordFlightControllerState(flightControllerState(i));
+        }
+        recorder.recordSignalQuality(true, 80);
+        recorder.recordCameraSystemState(0, mock(SystemState.class));
+        recorder.recordBatteryState(0, mock(BatteryState.class));
+        recorder.stop();
+        assertTrue(recorder.awaitTermination(TimeoutMillis));
+        assertEquals(FlightControllerStates + 3, recorder.getRecordedCount());
+        assertEquals(0, recorder.getDroppedCount());
+        return directory;
+    }
+
+    @Test
+    public void recordedFlightReplaysIntoASession() throws Exception {
+        final File directory = record();
+        try (final DJIFakeSdk sdk = new DJIFakeSdk()) {
+            final DJIDroneSessionManager manager = new DJIDroneSessionManager(sdk.context);
+            final DJIDroneSession session = manager.openSession(sdk.createAircraft(Model.MAVIC_2_PRO).aircraft);
+            final DroneSession.Listener listener = mock(DroneSession.Listener.class);
+            session.addListener(listener);
+
+            final DJIFlightDataReplay replay = new DJIFlightDataReplay(session, new DJIFlightDataReader(directory), DJIFlightDataReplay.Mode.AS_FAST_AS_POSSIBLE).start();
+            assertTrue(replay.await(TimeoutMillis));
+            assertNull(replay.getError());
+            assertEquals(FlightControllerStates + 1, replay.getDeliveredCount());
+            assertEquals(2, replay.getSkippedCount());
+            assertEquals(1, replay.getSkippedCount(DJIFlightDataRecord.Type.CAMERA_SYSTEM_STATE));
+            assertEquals(1, replay.getSkippedCount(DJIFlightDataRecord.Type.BATTERY_STATE));
+            assertEquals(0, replay.getSkippedCount(DJIFlightDataRecord.Type.FLIGHT_CONTROLLER_STATE));
+
+            //the session ends up where the recording did, and saw what happened on the way
+            final FlightControllerState last = session.getFlightControllerState().value;
+            assertEquals(latitude(FlightControllerStates - 1), last.getAircraftLocation().getLatitude(), 0.0000001);
+            assertEquals(FlightControllerStates - 1, last.getAttitude().yaw, 0.001);
+            assertTrue(last.areMotorsOn());
+            verify(listener, timeout(TimeoutMillis)).onMotorsChanged(session, true);
+
+            manager.closeSession();
+        }
+    }
+
+    @Test
+    public void failOnSkippedEndsTheReplayAtTheFirstRecordItCantDecode() throws Exception {
+        final File directory = record();
+        try (final DJIFakeSdk sdk = new DJIFakeSdk()) {
+            final DJIDroneSessionManager manager = new DJIDroneSessionManager(sdk.context);
+            final DJIDroneSession session = manager.openSession(sdk.createAircraft(Model.MAVIC_2_PRO).aircraft);
+
+            final DJIFlightDataReplay replay = new DJIFlightDataReplay(session, new DJIFlightDataReader(directory), DJIFlightDataReplay.Mode.AS_FAST_AS_POSSIBLE)
+                    .setFailOnSkipped(true)
+                    .start();
+            assertTrue(replay.await(TimeoutMillis));
+            assertTrue(replay.getError() instanceof IllegalStateException);
+            assertEquals(FlightControllerStates + 1, replay.getDeliveredCount());
+            assertEquals(0, replay.getSkippedCount());
+
+            manager.closeSession();
+        }
+    }
+}
@@ -0,0 +1,258 @@
+//  DJIListenerRegistryTest.java
+//  DronelinkDJI
+//
+//  Created by Jim McAndrew on 10/18/26.
+//  Copyright © 2026 Dronelink. All rights reserved.
+//
+package com.dronelink.dji;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class DJIListenerRegistryTest {
+    private interface Listener {
+        void onValue(int value);
+    }
+
+    private static DJIListenerRegistry.Event<Listener> value(final int value) {
+        return new DJIListenerRegistry.Event<Listener>() {
+            @Override
+            public void dispatch(final Listener listener) {
+                listener.onValue(value);
+            }
+        };
+    }
+
+    @Test
+    public void coalesceIsTheDefault() {
+        assertEquals(DJIListenerRegistry.OverflowPolicy.COALESCE, new DJIListenerRegistry<Listener>("test").getOverflowPolicy());
+    }
+
+    //a listener stuck in its callback must not hold up the thread dispatching, or any other listener
+    @Test
+    public void blockedListenerNeverBlocksDispatch() throws InterruptedException {
+        final DJIListenerRegistry<Listener> registry = new DJIListenerRegistry<>("test", 1, DJIListenerRegistry.OverflowPolicy.COALESCE);
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch slowFinished = new CountDownLatch(2);
+        final List<Integer> slow = new CopyOnWriteArrayList<>();
+        registry.add(new Listener() {
+            @Override
+            public void onValue(final int value) {
+                slow.add(value);
+                if (value == 0) {
+                    blocked.countDown();
+                    try {
+                        release.await();
+                    }
+                    catch (final InterruptedException ignored) {}
+                }
+                slowFinished.countDown();
+            }
+        }, null);
+
+        final CountDownLatch fastFinished = new CountDownLatch(1);
+        registry.add(new Listener() {
+            @Override
+            public void onValue(final int value) {
+                if (value == 999) {
+                    fastFinished.countDown();
+                }
+            }
+        }, null);
+
+        registry.dispatch("motors", value(0));
+        assertTrue(blocked.await(1, TimeUnit.SECONDS));
+
+        //dispatch returning at all with the slow listener parked shows it never waits on it
+        for (int i = 1; i < 1000; i++) {
+            registry.dispatch("motors", value(i));
+        }
+        assertTrue(fastFinished.await(1, TimeUnit.SECONDS));
+
+        final DJIListenerRegistry<Listener>.Entry entry = registry.getEntries().get(0);
+        assertEquals(1, entry.getQueueDepth());
+        assertEquals(998, entry.getCoalescedCount());
+        assertEquals(0, entry.getDroppedCount());
+
+        release.countDown();
+        assertTrue(slowFinished.await(1, TimeUnit.SECONDS));
+        //the coalesced event delivers the latest value
+        assertEquals(2, slow.size());
+        assertEquals(999, (int)slow.get(1));
+        registry.removeAll();
+    }
+
+    @Test
+    public void dropOldestKeepsTheNewestEvents() throws InterruptedException {
+        final DJIListenerRegistry<Listener> registry = new DJIListenerRegistry<>("test", 2, DJIListenerRegistry.OverflowPolicy.DROP_OLDEST);
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch finished = new CountDownLatch(3);
+        final List<Integer> received = new CopyOnWriteArrayList<>();
+        registry.add(new Listener() {
+            @Override
+            public void onValue(final int value) {
+                received.add(value);
+                if (value == 0) {
+                    blocked.countDown();
+                    try {
+                        release.await();
+                    }
+                    catch (final InterruptedException ignored) {}
+                }
+                finished.countDown();
+            }
+        }, null);
+
+        registry.dispatch("value", value(0));
+        assertTrue(blocked.await(1, TimeUnit.SECONDS));
+        for (int i = 1; i <= 5; i++) {
+            registry.dispatch("value", value(i));
+        }
+        assertEquals(3, registry.getEntries().get(0).getDroppedCount());
+        assertEquals(0, registry.getEntries().get(0).getCoalescedCount());
+
+        release.countDown();
+        assertTrue(finished.await(1, TimeUnit.SECONDS));
+        assertEquals(0, (int)received.get(0));
+        assertEquals(4, (int)received.get(1));
+        assertEquals(5, (int)received.get(2));
+        registry.removeAll();
+    }
+
+    //state events make room for lifecycle events, and lifecycle events queue past capacity rather than being dropped
+    @Test
+    public void lifecycleEventsAreNeverDropped() throws InterruptedException {
+        for (final DJIListenerRegistry.OverflowPolicy policy : DJIListenerRegistry.OverflowPolicy.values()) {
+            final DJIListenerRegistry<Listener> registry = new DJIListenerRegistry<>("test", 2, policy);
+            registry.setBlockTimeoutMillis(0);
+            final CountDownLatch blocked = new CountDownLatch(1);
+            final CountDownLatch release = new CountDownLatch(1);
+            final CountDownLatch finished = new CountDownLatch(4);
+            final List<Integer> received = new CopyOnWriteArrayList<>();
+            registry.add(new Listener() {
+                @Override
+                public void onValue(final int value) {
+                    received.add(value);
+                    if (value == 0) {
+                        blocked.countDown();
+                        try {
+                            release.await();
+                        }
+                        catch (final InterruptedException ignored) {}
+                    }
+                    finished.countDown();
+                }
+            }, null);
+
+            registry.dispatch(value(0));
+            assertTrue(blocked.await(1, TimeUnit.SECONDS));
+            registry.dispatch("motors", value(1));
+            registry.dispatch(value(2));
+            registry.dispatch(value(3));
+            registry.dispatch(value(4));
+            registry.dispatch("motors", value(5));
+
+            final DJIListenerRegistry<Listener>.Entry entry = registry.getEntries().get(0);
+            //1 made room for 3, 4 went past capacity and then 5 had nothing it could replace
+            assertEquals(3, entry.getQueueDepth());
+            assertEquals(2, entry.getDroppedCount());
+            assertEquals(1, entry.getOverCapacityCount());
+
+            release.countDown();
+            assertTrue(finished.await(1, TimeUnit.SECONDS));
+            assertEquals(Arrays.asList(0, 2, 3, 4), received);
+            registry.removeAll();
+        }
+    }
+
+    //under BLOCK a full queue holds the dispatching thread until the listener takes an event off it
+    @Test
+    public void blockWaitsForRoom() throws InterruptedException {
+        final DJIListenerRegistry<Listener> registry = new DJIListenerRegistry<>("test", 1, DJIListenerRegistry.OverflowPolicy.BLOCK);
+        registry.setBlockTimeoutMillis(TimeUnit.SECONDS.toMillis(5));
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch finished = new CountDownLatch(3);
+        final List<Integer> received = new CopyOnWriteArrayList<>();
+        registry.add(new Listener() {
+            @Override
+            public void onValue(final int value) {
+                received.add(value);
+                if (value == 0) {
+                    blocked.countDown();
+                    try {
+                        release.await();
+                    }
+                    catch (final InterruptedException ignored) {}
+                }
+                finished.countDown();
+            }
+        }, null);
+
+        registry.dispatch("motors", value(0));
+        assertTrue(blocked.await(1, TimeUnit.SECONDS));
+        registry.dispatch("motors", value(1));
+
+        final Thread dispatcher = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                registry.dispatch("motors", value(2));
+            }
+        });
+        dispatcher.start();
+        final DJIListenerRegistry<Listener>.Entry entry = registry.getEntries().get(0);
+        while (dispatcher.getState() != Thread.State.TIMED_WAITING) {
+            assertTrue(dispatcher.isAlive());
+            Thread.yield();
+        }
+        assertEquals(1, entry.getBlockedCount());
+
+        release.countDown();
+        dispatcher.join(TimeUnit.SECONDS.toMillis(5));
+        assertFalse(dispatcher.isAlive());
+        assertTrue(finished.await(1, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList(0, 1, 2), received);
+        assertEquals(0, entry.getDroppedCount());
+        assertEquals(0, entry.getCoalescedCount());
+        registry.removeAll();
+    }
+
+    //callbacks run on the listener's own thread, never the caller's or a shared pool thread, and the thread goes with the listener
+    @Test
+    public void listenerRunsOnItsOwnThread() throws InterruptedException {
+        final DJIListenerRegistry<Listener> registry = new DJIListenerRegistry<>("test");
+        final AtomicReference<Thread> thread = new AtomicReference<>();
+        final CountDownLatch called = new CountDownLatch(1);
+        final Listener listener = new Listener() {
+            @Override
+            public void onValue(final int value) {
+                thread.set(Thread.currentThread());
+                called.countDown();
+            }
+        };
+        registry.add(listener, value(0));
+
+        assertTrue(called.await(1, TimeUnit.SECONDS));
+        assertNotEquals(Thread.currentThread(), thread.get());
+        assertTrue(thread.get().getName().startsWith("DronelinkDJI test["));
+        assertFalse(thread.get().getName().startsWith("DronelinkDJI-"));
+
+        registry.remove(listener);
+        thread.get().join(1000);
+        assertFalse(thread.get().isAlive());
+        assertEquals(0, registry.size());
+    }
+}
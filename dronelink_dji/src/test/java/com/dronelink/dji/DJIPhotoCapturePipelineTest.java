@@ -0,0 +1,221 @@
+//  DJIPhotoCapturePipelineTest.java
+//  DronelinkDJI
+//
+//  Created by Jim McAndrew on 10/18/26.
+//  Copyright © 2026 Dronelink. All rights reserved.
+//
+package com.dronelink.dji;
+
+import com.dronelink.core.command.Command;
+import com.dronelink.core.command.CommandError;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import dji.common.error.DJIError;
+import dji.common.util.CommonCallbacks;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class DJIPhotoCapturePipelineTest {
+    private static final long TimeoutMillis = 5000;
+
+    //holds on to each shot's callback so the test decides when (and whether) the camera answers
+    private class Camera implements DJIPhotoCapturePipeline.Shooter {
+        final List<CommonCallbacks.CompletionCallback> shots = new ArrayList<>();
+        volatile boolean shotWhileLocked = false;
+
+        @Override
+        public synchronized void shoot(final CommonCallbacks.CompletionCallback callback) {
+            shotWhileLocked |= Thread.holdsLock(pipeline);
+            shots.add(callback);
+        }
+
+        synchronized int getShotCount() {
+            return shots.size();
+        }
+
+        void accept(final int shot) {
+            final CommonCallbacks.CompletionCallback callback;
+            synchronized (this) {
+                callback = shots.get(shot);
+            }
+            callback.onResult(null);
+        }
+    }
+
+    private static class Result implements Command.Finisher {
+        final CountDownLatch finished = new CountDownLatch(1);
+        final AtomicInteger count = new AtomicInteger();
+        final AtomicReference<CommandError> error = new AtomicReference<>();
+
+        @Override
+        public void execute(final CommandError error) {
+            this.error.set(error);
+            count.incrementAndGet();
+            finished.countDown();
+        }
+
+        void await() throws InterruptedException {
+            assertTrue(finished.await(TimeoutMillis, TimeUnit.MILLISECONDS));
+        }
+
+        boolean isFinished() {
+            return count.get() > 0;
+        }
+    }
+
+    private DJIPhotoCapturePipeline pipeline;
+    private Camera camera;
+
+    @Before
+    public void setUp() {
+        pipeline = new DJIPhotoCapturePipeline(new DJISessionScheduler(1), new DJIPhotoCapturePipeline.Readiness() {
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+        });
+        camera = new Camera();
+    }
+
+    @Test
+    public void shotFinishesWhenAcceptedAndTheNextWaitsForItsFile() {
+        final Result first = new Result();
+        final Result second = new Result();
+        pipeline.capture(camera, first);
+        pipeline.capture(camera, second);
+        assertEquals(1, camera.getShotCount());
+
+        camera.accept(0);
+        assertTrue(first.isFinished());
+        assertNull(first.error.get());
+        assertEquals(1, pipeline.getInFlightCount());
+        assertEquals(1, camera.getShotCount());
+
+        pipeline.onFileGenerated(System.nanoTime(), "DJI_0001");
+        assertEquals(1, pipeline.getCompletedCount());
+        assertEquals(2, camera.getShotCount());
+        assertFalse(camera.shotWhileLocked);
+    }
+
+    @Test
+    public void resultTimeoutFailsTheShotAndFreesThePipeline() throws InterruptedException {
+        pipeline.setResultTimeoutMillis(10);
+        final Result first = new Result();
+        pipeline.capture(camera, first);
+        first.await();
+        assertNotNull(first.error.get());
+        assertEquals(1, pipeline.getResultTimedOutCount());
+        assertEquals(0, pipeline.getInFlightCount());
+
+        //the camera answering after the timeout changes nothing
+        camera.accept(0);
+        assertEquals(1, first.count.get());
+        assertEquals(0, pipeline.getInFlightCount());
+
+        pipeline.capture(camera, new Result());
+        assertEquals(2, camera.getShotCount());
+    }
+
+    @Test
+    public void onlyFilesInTheShotsWindowCount() {
+        //nothing in flight, a manual shot or an interval photo
+        pipeline.onFileGenerated(System.nanoTime(), "DJI_0001");
+        assertEquals(1, pipeline.getIgnoredFileCount());
+
+        final long beforeShot = System.nanoTime();
+        pipeline.capture(camera, new Result());
+        camera.accept(0);
+
+        //received before the shot went out, so it belongs to an earlier one
+        pipeline.onFileGenerated(beforeShot, "DJI_0002");
+        assertEquals(2, pipeline.getIgnoredFileCount());
+        assertEquals(1, pipeline.getInFlightCount());
+
+        pipeline.onFileGenerated(System.nanoTime(), "DJI_0003");
+        assertEquals(1, pipeline.getCompletedCount());
+        assertEquals(0, pipeline.getInFlightCount());
+    }
+
+    @Test
+    public void rawAndJpegOfOneShotCountOnce() {
+        pipeline.setWindow(2);
+        pipeline.capture(camera, new Result());
+        camera.accept(0);
+        pipeline.capture(camera, new Result());
+        camera.accept(1);
+        assertEquals(2, pipeline.getInFlightCount());
+
+        pipeline.onFileGenerated(System.nanoTime(), "DJI_0001");
+        pipeline.onFileGenerated(System.nanoTime(), "DJI_0001");
+        assertEquals(1, pipeline.getCompletedCount());
+        assertEquals(1, pipeline.getInFlightCount());
+    }
+
+    @Test
+    public void fileBeforeTheResultCompletesTheShot() {
+        final Result result = new Result();
+        pipeline.capture(camera, result);
+        pipeline.onFileGenerated(System.nanoTime(), "DJI_0001");
+        camera.accept(0);
+        assertTrue(result.isFinished());
+        assertEquals(1, pipeline.getCompletedCount());
+        assertEquals(0, pipeline.getInFlightCount());
+    }
+
+    @Test
+    public void verifiedShotFinishesOnItsOwnFile() throws InterruptedException {
+        final CommandError noFile = new CommandError("no file");
+        final Result verified = new Result();
+        pipeline.capture(camera, noFile, verified);
+        camera.accept(0);
+        assertFalse(verified.isFinished());
+
+        pipeline.onFileGenerated(System.nanoTime(), "DJI_0001");
+        assertTrue(verified.isFinished());
+        assertNull(verified.error.get());
+
+        pipeline.setFileTimeoutMillis(10);
+        final Result missed = new Result();
+        pipeline.capture(camera, noFile, missed);
+        camera.accept(1);
+        missed.await();
+        assertSame(noFile, missed.error.get());
+        assertEquals(1, pipeline.getMissedCount());
+    }
+
+    @Test
+    public void clearFinishesWaitingAndVerifiedShots() {
+        pipeline.setWindow(2);
+        final Result verified = new Result();
+        final Result unverified = new Result();
+        final Result waiting = new Result();
+        pipeline.capture(camera, new CommandError("no file"), verified);
+        camera.accept(0);
+        pipeline.capture(camera, unverified);
+        camera.accept(1);
+        pipeline.capture(camera, waiting);
+        assertEquals(2, camera.getShotCount());
+
+        final CommandError error = new CommandError("camera unavailable");
+        pipeline.clear(error);
+        assertSame(error, verified.error.get());
+        assertSame(error, waiting.error.get());
+        assertEquals(1, unverified.count.get());
+        assertNull(unverified.error.get());
+        assertEquals(0, pipeline.getInFlightCount());
+    }
+}
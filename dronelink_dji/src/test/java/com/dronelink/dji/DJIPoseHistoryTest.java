@@ -0,0 +1,153 @@
+//  DJIPoseHistoryTest.java
+//  DronelinkDJI
+//
+//  Created by Jim McAndrew on 10/18/26.
+//  Copyright © 2026 Dronelink. All rights reserved.
+//
+package com.dronelink.dji;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class DJIPoseHistoryTest {
+    private static final long MillisToNanos = 1000000L;
+    private static final int Reads = 2_000_000;
+
+    //x moves at 5 m/s, yaw turns at 90 deg/s and wraps through +-180
+    private static double getX(final long nanos) {
+        return 5.0 * nanos / 1e9;
+    }
+
+    private static double getYaw(final long nanos) {
+        return wrap(Math.toRadians(170) + Math.toRadians(90) * nanos / 1e9);
+    }
+
+    private static double wrap(final double radians) {
+        double wrapped = radians;
+        while (wrapped > Math.PI) {
+            wrapped -= 2 * Math.PI;
+        }
+        while (wrapped < -Math.PI) {
+            wrapped += 2 * Math.PI;
+        }
+        return wrapped;
+    }
+
+    //telemetry arrives at 10Hz with up to 20ms of jitter, a shutter time anywhere in between has to land on the trajectory
+    @Test
+    public void interpolatesJitteredTenHertzTrajectory() {
+        final DJIPoseHistory history = new DJIPoseHistory(256, new boolean[] { false, true }, 1000);
+        final Random random = new Random(42);
+        long nanos = 0;
+        for (int i = 0; i < 200; i++) {
+            nanos = i * 100 * MillisToNanos + (long)(random.nextDouble() * 20 * MillisToNanos);
+            history.add(nanos, new double[] { getX(nanos), getYaw(nanos) });
+        }
+
+        final double[] pose = new double[2];
+        double maxPositionError = 0;
+        double maxYawError = 0;
+        for (int i = 0; i < 1000; i++) {
+            final long captured = 2 * 1000 * MillisToNanos + (long)(random.nextDouble() * 15 * 1000 * MillisToNanos);
+            assertTrue(history.get(captured, pose));
+            maxPositionError = Math.max(maxPositionError, Math.abs(pose[0] - getX(captured)));
+            maxYawError = Math.max(maxYawError, Math.abs(wrap(pose[1] - getYaw(captured))));
+        }
+
+        //the trajectory is linear between samples, so interpolation should be exact to rounding
+        assertEquals(0, maxPositionError, 1e-6);
+        assertEquals(0, maxYawError, 1e-6);
+    }
+
+    @Test
+    public void interpolatesAngleTheShortWayAround() {
+        final DJIPoseHistory history = new DJIPoseHistory(8, new boolean[] { true }, 1000);
+        history.add(0, new double[] { Math.toRadians(170) });
+        history.add(100 * MillisToNanos, new double[] { Math.toRadians(-170) });
+
+        final double[] pose = new double[1];
+        assertTrue(history.get(50 * MillisToNanos, pose));
+        assertEquals(180, Math.abs(Math.toDegrees(pose[0])), 1e-9);
+        assertTrue(history.get(75 * MillisToNanos, pose));
+        assertEquals(-175, Math.toDegrees(pose[0]), 1e-9);
+    }
+
+    @Test
+    public void holdsEndsWithinMaxGap() {
+        final DJIPoseHistory history = new DJIPoseHistory(8, new boolean[] { false }, 500);
+        history.add(1000 * MillisToNanos, new double[] { 1 });
+        history.add(1100 * MillisToNanos, new double[] { 2 });
+
+        final double[] pose = new double[1];
+        assertTrue(history.get(1400 * MillisToNanos, pose));
+        assertEquals(2, pose[0], 0);
+        assertFalse(history.get(1700 * MillisToNanos, pose));
+        assertTrue(history.get(600 * MillisToNanos, pose));
+        assertEquals(1, pose[0], 0);
+        assertFalse(history.get(400 * MillisToNanos, pose));
+
+        history.clear();
+        assertFalse(history.get(1100 * MillisToNanos, pose));
+    }
+
+    @Test
+    public void readsOnlyWhatTheRingStillHolds() {
+        final DJIPoseHistory history = new DJIPoseHistory(4, new boolean[] { false }, 1000);
+        for (int i = 0; i < 10; i++) {
+            history.add(i * 100 * MillisToNanos, new double[] { i });
+        }
+
+        final double[] pose = new double[1];
+        assertTrue(history.get(650 * MillisToNanos, pose));
+        assertEquals(6.5, pose[0], 1e-9);
+        //older than the oldest entry left, held from that entry
+        assertTrue(history.get(500 * MillisToNanos, pose));
+        assertEquals(6, pose[0], 0);
+    }
+
+    //every field of a pose is written as the same value, a torn read would mix values from two writes
+    @Test
+    public void concurrentReadsNeverTear() throws InterruptedException {
+        final DJIPoseHistory history = new DJIPoseHistory(4, new boolean[] { false, false, false, false, false, false }, 1000000);
+        final AtomicBoolean running = new AtomicBoolean(true);
+        final AtomicReference<String> torn = new AtomicReference<>();
+        final Thread writer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                final double[] pose = new double[6];
+                long i = 0;
+                while (running.get()) {
+                    Arrays.fill(pose, i);
+                    history.add(i * MillisToNanos, pose);
+                    i++;
+                }
+            }
+        });
+        writer.start();
+
+        final double[] pose = new double[6];
+        for (int read = 0; read < Reads && torn.get() == null; read++) {
+            final long count = history.getCount();
+            if (count > 0 && history.get((count - 1) * MillisToNanos, pose)) {
+                for (int i = 1; i < pose.length; i++) {
+                    if (Math.abs(pose[i] - pose[0]) > 1e-9) {
+                        torn.set(Arrays.toString(pose));
+                    }
+                }
+            }
+        }
+
+        running.set(false);
+        writer.join();
+        assertNull(torn.get());
+    }
+}
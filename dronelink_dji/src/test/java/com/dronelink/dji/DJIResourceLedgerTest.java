@@ -0,0 +1,110 @@
+//  DJIResourceLedgerTest.java
+//  DronelinkDJI
+//
+//  Created by Jim McAndrew on 10/18/26.
+//  Copyright © 2026 Dronelink. All rights reserved.
+//
+package com.dronelink.dji;
+
+import org.junit.Test;
+
+import com.dronelink.core.DroneSession;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import dji.common.product.Model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class DJIResourceLedgerTest {
+    private static final int Cycles = 100;
+
+    @Test
+    public void releasesInReverseOrder() {
+        final List<String> released = new CopyOnWriteArrayList<>();
+        final DJIResourceLedger ledger = new DJIResourceLedger();
+        for (final String name : Arrays.asList("a", "b", "c")) {
+            ledger.acquire(name, new DJIResourceLedger.Release() {
+                @Override
+                public void release() {
+                    released.add(name);
+                }
+            });
+        }
+
+        ledger.releaseAll();
+        assertEquals(Arrays.asList("c", "b", "a"), released);
+        assertTrue(ledger.getOutstanding().isEmpty());
+        assertEquals(3, ledger.getReleasedCount());
+    }
+
+    @Test
+    public void failedReleasesStayOutstanding() {
+        final DJIResourceLedger ledger = new DJIResourceLedger();
+        ledger.acquire("lane", new DJIResourceLedger.Release() {
+            @Override
+            public void release() {}
+        });
+        ledger.acquire("callback", new DJIResourceLedger.Release() {
+            @Override
+            public void release() {
+                throw new IllegalStateException("component gone");
+            }
+        });
+
+        ledger.releaseAll();
+        assertEquals(Arrays.asList("callback"), ledger.getOutstanding());
+        assertEquals(Arrays.asList("callback"), ledger.getFailed());
+        assertEquals(1, ledger.getReleasedCount());
+        assertEquals(1, ledger.getFailedCount());
+
+        ledger.acquire("callback", new DJIResourceLedger.Release() {
+            @Override
+            public void release() {}
+        });
+        ledger.releaseAll();
+        assertTrue(ledger.getOutstanding().isEmpty());
+        assertTrue(ledger.getFailed().isEmpty());
+    }
+
+    //each cycle opens a session for a (stand-in) aircraft and closes it through the manager, the closed session's ledger has to come back empty
+    @Test
+    public void closeSessionReleasesEverythingTheSessionRegistered() throws InterruptedException {
+        try (final DJIFakeSdk sdk = new DJIFakeSdk()) {
+            final DJIDroneSessionManager manager = new DJIDroneSessionManager(sdk.context);
+            final Set<Thread> threads = DJISessionSchedulerTest.getModuleThreads();
+
+            for (int cycle = 0; cycle < Cycles; cycle++) {
+                final DJIFakeSdk.FakeAircraft aircraft = sdk.createAircraft(Model.MAVIC_2_PRO);
+                final DJIDroneSession session = manager.openSession(aircraft.aircraft);
+                session.addListener(mock(DroneSession.Listener.class));
+                assertNotNull(aircraft.getFlightControllerStateCallback());
+                assertTrue(sdk.getKeyListenerCount() > 0);
+                assertEquals(1, sdk.getPhysicalSourceListenerCount());
+
+                manager.closeSession();
+                final DJIResourceLedger ledger = manager.getClosedSessionResourceLedger();
+                assertSame(session.getResourceLedger(), ledger);
+                assertTrue(ledger.getOutstanding().isEmpty());
+                assertTrue(ledger.getFailed().isEmpty());
+                assertTrue(ledger.getReleasedCount() > 0);
+                assertNull(aircraft.getFlightControllerStateCallback());
+                for (final DJISessionScheduler.Lane lane : session.getLanes()) {
+                    assertTrue(lane.isClosed());
+                }
+                assertEquals(0, sdk.getKeyListenerCount());
+                assertEquals(0, sdk.getPhysicalSourceListenerCount());
+            }
+
+            assertTrue(DJISessionSchedulerTest.awaitModuleThreads(threads));
+        }
+    }
+}
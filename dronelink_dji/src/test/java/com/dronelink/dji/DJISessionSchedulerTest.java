@@ -0,0 +1,176 @@
+//  DJISessionSchedulerTest.java
+//  DronelinkDJI
+//
+//  Created by Jim McAndrew on 10/18/26.
+//  Copyright © 2026 Dronelink. All rights reserved.
+//
+package com.dronelink.dji;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.dronelink.core.DroneSession;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import dji.common.product.Model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class DJISessionSchedulerTest {
+    private static final int Threads = 4;
+    private static final int Cycles = 100;
+    private static final String[] Lanes = { "listeners", "state", "remoteController", "camera", "gimbal", "waypointMission" };
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void laneKeepsSubmissionOrder() throws InterruptedException {
+        final DJISessionScheduler scheduler = new DJISessionScheduler(Threads);
+        final DJISessionScheduler.Lane lane = scheduler.createLane("state");
+        final List<Integer> executed = new ArrayList<>();
+        final CountDownLatch finished = new CountDownLatch(1);
+        for (int i = 0; i < 1000; i++) {
+            final int index = i;
+            lane.execute(new Runnable() {
+                @Override
+                public void run() {
+                    executed.add(index);
+                    if (index == 999) {
+                        finished.countDown();
+                    }
+                }
+            });
+        }
+
+        assertTrue(finished.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < executed.size(); i++) {
+            assertEquals(i, (int)executed.get(i));
+        }
+    }
+
+    //opens and closes a session's worth of lanes and timers, the thread count has to stay where it started
+    @Test
+    public void threadCountStaysFlatAcrossOpenCloseCycles() throws InterruptedException {
+        final DJISessionScheduler scheduler = new DJISessionScheduler(Threads);
+        openAndClose(scheduler);
+        final Set<Thread> baseline = getModuleThreads();
+
+        int peak = baseline.size();
+        for (int cycle = 0; cycle < Cycles; cycle++) {
+            openAndClose(scheduler);
+            peak = Math.max(peak, getModuleThreads().size());
+        }
+
+        assertTrue(scheduler.getThreadCount() <= Threads);
+        assertTrue(awaitModuleThreads(baseline));
+        assertTrue(peak <= baseline.size() + Threads);
+    }
+
+    //the same through real sessions, each opened for a (stand-in) aircraft with a listener, a telemetry subscriber, a virtual stick sender and a flight data recorder and then closed by the manager
+    @Test
+    public void threadCountStaysFlatAcrossSessionOpenCloseCycles() throws InterruptedException, IOException {
+        try (final DJIFakeSdk sdk = new DJIFakeSdk()) {
+            final DJIDroneSessionManager manager = new DJIDroneSessionManager(sdk.context);
+            openAndClose(sdk, manager);
+            final Set<Thread> baseline = getModuleThreads();
+
+            for (int cycle = 0; cycle < Cycles; cycle++) {
+                openAndClose(sdk, manager);
+            }
+
+            assertTrue(awaitModuleThreads(baseline));
+            assertTrue(DJISessionScheduler.getInstance().getThreadCount() <= Threads);
+            assertEquals(0, sdk.getKeyListenerCount());
+            assertEquals(0, sdk.getPhysicalSourceListenerCount());
+        }
+    }
+
+    //every thread the module starts is named DronelinkDJI...
+    static Set<Thread> getModuleThreads() {
+        final Set<Thread> threads = new HashSet<>();
+        for (final Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().startsWith("DronelinkDJI") && thread.isAlive()) {
+                threads.add(thread);
+            }
+        }
+        return threads;
+    }
+
+    //threads that were shut down finish on their own time, waits for each one started since the baseline to exit
+    //pool threads (DronelinkDJI-n) are left out, the pools start them lazily up to their bound and keep them
+    static boolean awaitModuleThreads(final Set<Thread> baseline) throws InterruptedException {
+        for (final Thread thread : getModuleThreads()) {
+            if (!baseline.contains(thread) && !isPoolThread(thread)) {
+                thread.join(TimeUnit.SECONDS.toMillis(5));
+            }
+        }
+
+        for (final Thread thread : getModuleThreads()) {
+            if (!baseline.contains(thread) && !isPoolThread(thread)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isPoolThread(final Thread thread) {
+        return thread.getName().startsWith("DronelinkDJI-");
+    }
+
+    @SuppressWarnings("unchecked")
+    private void openAndClose(final DJIFakeSdk sdk, final DJIDroneSessionManager manager) throws IOException {
+        final DJIDroneSession session = manager.openSession(sdk.createAircraft(Model.MAVIC_2_PRO).aircraft);
+        session.addListener(mock(DroneSession.Listener.class));
+        session.subscribeFlightControllerState(mock(DJITelemetryStream.Subscriber.class), 10);
+        session.startVirtualStickSender(DJIVirtualStickSender.DefaultRateHz);
+        session.startRecordingFlightData(folder.newFolder());
+        manager.closeSession();
+        assertTrue(session.isClosed());
+    }
+
+    private void openAndClose(final DJISessionScheduler scheduler) throws InterruptedException {
+        final List<DJISessionScheduler.Lane> lanes = new ArrayList<>();
+        for (final String name : Lanes) {
+            lanes.add(scheduler.createLane(name));
+        }
+
+        final AtomicInteger polls = new AtomicInteger();
+        final ScheduledFuture<?> housekeeping = scheduler.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                polls.incrementAndGet();
+            }
+        }, 1);
+
+        final CountDownLatch executed = new CountDownLatch(lanes.size() * 10);
+        for (final DJISessionScheduler.Lane lane : lanes) {
+            for (int i = 0; i < 10; i++) {
+                lane.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        executed.countDown();
+                    }
+                });
+            }
+        }
+        assertTrue(executed.await(5, TimeUnit.SECONDS));
+
+        housekeeping.cancel(false);
+        for (final DJISessionScheduler.Lane lane : lanes) {
+            lane.close();
+        }
+    }
+}
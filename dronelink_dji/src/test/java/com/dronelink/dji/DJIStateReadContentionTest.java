@@ -0,0 +1,154 @@
+//  DJIStateReadContentionTest.java
+//  DronelinkDJI
+//
+//  Created by Jim McAndrew on 10/18/26.
+//  Copyright © 2026 Dronelink. All rights reserved.
+//
+package com.dronelink.dji;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+//p99 read latency of reader threads against 10Hz writers, reads serialized through the state thread against snapshot reads
+public class DJIStateReadContentionTest {
+    private static final int Readers = 4;
+    private static final int Writers = 5;
+    //readers keep going until every writer has applied this many updates, so reads overlap the same amount of write work either way
+    private static final int UpdatesPerWriter = 10;
+    //time a writer spends applying one update, the cost readers queue behind when they share its thread
+    private static final long WriteWorkNanos = 200_000;
+
+    private interface Reader {
+        Object read() throws Exception;
+    }
+
+    @Test
+    public void snapshotReadsDoNotQueueBehindWriters() throws Exception {
+        final ExecutorService stateThread = Executors.newSingleThreadExecutor();
+        final List<DJITelemetrySlot<String>> serialized = new ArrayList<>();
+        for (int i = 0; i < Writers; i++) {
+            serialized.add(new DJITelemetrySlot<String>());
+        }
+        final DJILatencyHistogram before = measure(serialized, stateThread, new Reader() {
+            @Override
+            public Object read() throws Exception {
+                return stateThread.submit(new Callable<Object>() {
+                    @Override
+                    public Object call() {
+                        return serialized.get(0).get();
+                    }
+                }).get();
+            }
+        });
+        stateThread.shutdownNow();
+
+        final List<DJITelemetrySlot<String>> slots = new ArrayList<>();
+        for (int i = 0; i < Writers; i++) {
+            slots.add(new DJITelemetrySlot<String>());
+        }
+        final DJILatencyHistogram after = measure(slots, null, new Reader() {
+            @Override
+            public Object read() {
+                return slots.get(0).get();
+            }
+        });
+
+        assertTrue(after.getCount() > 0 && before.getCount() > 0);
+        assertTrue(after.getPercentileMillis(0.99) < before.getPercentileMillis(0.99));
+    }
+
+    @Test
+    public void snapshotCopiesAreConsistent() throws Exception {
+        final DJITelemetrySlot<String> slot = new DJITelemetrySlot<>();
+        slot.set("start");
+        final Thread writer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                long i = 0;
+                while (!Thread.currentThread().isInterrupted()) {
+                    slot.set(Long.toString(i++));
+                }
+            }
+        });
+        writer.start();
+        try {
+            final DJITelemetrySlot<String> copy = new DJITelemetrySlot<>();
+            for (int i = 0; i < 10_000; i++) {
+                copy.copyFrom(slot);
+                assertTrue((copy.getSequence() & 1) == 0);
+                assertNotNull(copy.getValue());
+            }
+        }
+        finally {
+            writer.interrupt();
+            writer.join();
+        }
+    }
+
+    private DJILatencyHistogram measure(final List<DJITelemetrySlot<String>> slots, final ExecutorService stateThread, final Reader reader) throws Exception {
+        final ScheduledExecutorService writers = Executors.newScheduledThreadPool(Writers);
+        final AtomicInteger updates = new AtomicInteger();
+        for (final DJITelemetrySlot<String> slot : slots) {
+            slot.set("0");
+            writers.scheduleAtFixedRate(new Runnable() {
+                @Override
+                public void run() {
+                    final Runnable update = new Runnable() {
+                        @Override
+                        public void run() {
+                            final long start = System.nanoTime();
+                            while (System.nanoTime() - start < WriteWorkNanos) {}
+                            slot.set(Long.toString(start));
+                            updates.incrementAndGet();
+                        }
+                    };
+                    if (stateThread == null) {
+                        update.run();
+                    }
+                    else {
+                        stateThread.execute(update);
+                    }
+                }
+            }, 0, 100, TimeUnit.MILLISECONDS);
+        }
+
+        final DJILatencyHistogram histogram = new DJILatencyHistogram();
+        final List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < Readers; i++) {
+            final Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    while (updates.get() < Writers * UpdatesPerWriter) {
+                        final long start = System.nanoTime();
+                        try {
+                            reader.read();
+                        }
+                        catch (final Exception e) {
+                            return;
+                        }
+                        histogram.recordSince(start);
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        writers.shutdownNow();
+        return histogram;
+    }
+}
@@ -0,0 +1,163 @@
+//  DJIStateWaitersTest.java
+//  DronelinkDJI
+//
+//  Created by Jim McAndrew on 10/18/26.
+//  Copyright © 2026 Dronelink. All rights reserved.
+//
+package com.dronelink.dji;
+
+import com.dronelink.core.DatedValue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DJIStateWaitersTest {
+    private static final int Channel = 0;
+    private static final long TimeoutMillis = 5000;
+
+    private static final DJIStateWaiters.Condition<String> IsReady = new DJIStateWaiters.Condition<String>() {
+        @Override
+        public boolean isSatisfied(final String value) {
+            return "ready".equals(value);
+        }
+    };
+
+    private static class Result<V> implements DJIStateWaiters.Listener<V> {
+        final CountDownLatch finished = new CountDownLatch(1);
+        final AtomicInteger count = new AtomicInteger();
+        final AtomicReference<V> value = new AtomicReference<>();
+        volatile boolean satisfied;
+
+        @Override
+        public void onResult(final V value, final boolean satisfied) {
+            this.value.set(value);
+            this.satisfied = satisfied;
+            count.incrementAndGet();
+            finished.countDown();
+        }
+
+        void await() throws InterruptedException {
+            assertTrue(finished.await(TimeoutMillis, TimeUnit.MILLISECONDS));
+        }
+    }
+
+    private DJISessionScheduler scheduler;
+    private DJIStateWaiters<String> waiters;
+
+    @Before
+    public void setUp() {
+        scheduler = new DJISessionScheduler(1);
+        waiters = new DJIStateWaiters<>(scheduler);
+    }
+
+    @Test
+    public void satisfiedOnArrivalFinishesBeforeAwaitReturns() {
+        final Result<String> result = new Result<>();
+        waiters.await(Channel, "ready", TimeoutMillis, IsReady, result);
+        assertEquals(1, result.count.get());
+        assertTrue(result.satisfied);
+        assertEquals("ready", result.value.get());
+        assertFalse(waiters.isWaiting(Channel));
+        assertEquals(1, waiters.getSatisfiedCount());
+    }
+
+    @Test
+    public void laterStateSatisfiesOnlyItsChannel() throws InterruptedException {
+        final Result<String> result = new Result<>();
+        waiters.await(Channel, "busy", TimeoutMillis, IsReady, result);
+        assertTrue(waiters.isWaiting(Channel));
+
+        waiters.evaluate(Channel + 1, "ready");
+        waiters.evaluate(Channel, "busy");
+        assertEquals(0, result.count.get());
+
+        waiters.evaluate(Channel, "ready");
+        result.await();
+        assertTrue(result.satisfied);
+        assertFalse(waiters.isWaiting(Channel));
+
+        //state after the waiter finished doesn't reach it again
+        waiters.evaluate(Channel, "ready");
+        assertEquals(1, result.count.get());
+    }
+
+    @Test
+    public void timeoutFinishesWithTheLastStateSeen() throws InterruptedException {
+        final Result<String> result = new Result<>();
+        waiters.await(Channel, "busy", 10, IsReady, result);
+        waiters.evaluate(Channel, "still busy");
+        result.await();
+        assertFalse(result.satisfied);
+        assertEquals("still busy", result.value.get());
+        assertFalse(waiters.isWaiting(Channel));
+        assertEquals(1, waiters.getTimedOutCount());
+        assertEquals(0, waiters.getSatisfiedCount());
+
+        waiters.evaluate(Channel, "ready");
+        assertEquals(1, result.count.get());
+    }
+
+    @Test
+    public void cancelFinishesWithoutWaitingForTheTimeout() {
+        final Result<String> first = new Result<>();
+        final Result<String> second = new Result<>();
+        final Result<String> other = new Result<>();
+        waiters.await(Channel, "busy", TimeoutMillis, IsReady, first);
+        waiters.await(Channel, "busy", TimeoutMillis, IsReady, second);
+        waiters.await(Channel + 1, "busy", TimeoutMillis, IsReady, other);
+
+        waiters.cancel(Channel);
+        assertEquals(1, first.count.get());
+        assertEquals(1, second.count.get());
+        assertFalse(first.satisfied);
+        assertEquals("busy", first.value.get());
+        assertFalse(waiters.isWaiting(Channel));
+        assertTrue(waiters.isWaiting(Channel + 1));
+
+        waiters.cancelAll();
+        assertEquals(1, other.count.get());
+        assertFalse(waiters.isWaiting(Channel + 1));
+        assertEquals(3, waiters.getCancelledCount());
+        assertEquals(0, waiters.getTimedOutCount());
+
+        //cancelling again finishes nothing twice
+        waiters.cancelAll();
+        assertEquals(1, first.count.get());
+        assertEquals(3, waiters.getCancelledCount());
+    }
+
+    //mode commands wait on camera and gimbal state that may not have arrived, that has to run to the timeout rather than count as observed
+    @Test
+    public void absentStateNeverSatisfies() throws InterruptedException {
+        final DJIStateWaiters<DatedValue<String>> datedWaiters = new DJIStateWaiters<>(scheduler);
+        final DJIStateWaiters.Condition<DatedValue<String>> isReady = DJIStateWaiters.whenPresent(IsReady);
+
+        final Result<DatedValue<String>> waiting = new Result<>();
+        datedWaiters.await(Channel, null, TimeoutMillis, isReady, waiting);
+        datedWaiters.evaluate(Channel, null);
+        datedWaiters.evaluate(Channel, new DatedValue<String>(null));
+        assertEquals(0, waiting.count.get());
+        assertTrue(datedWaiters.isWaiting(Channel));
+        datedWaiters.cancel(Channel);
+
+        final Result<DatedValue<String>> timedOut = new Result<>();
+        datedWaiters.await(Channel, null, 10, isReady, timedOut);
+        timedOut.await();
+        assertFalse(timedOut.satisfied);
+        assertEquals(1, datedWaiters.getTimedOutCount());
+
+        final Result<DatedValue<String>> present = new Result<>();
+        datedWaiters.await(Channel, new DatedValue<>("ready"), TimeoutMillis, isReady, present);
+        assertEquals(1, present.count.get());
+        assertTrue(present.satisfied);
+    }
+}
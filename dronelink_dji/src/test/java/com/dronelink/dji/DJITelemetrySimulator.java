@@ -0,0 +1,160 @@
+//  DJITelemetrySimulator.java
+//  DronelinkDJI
+//
+//  Created by Jim McAndrew on 10/18/26.
+//  Copyright © 2026 Dronelink. All rights reserved.
+//
+package com.dronelink.dji;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import dji.common.camera.SystemState;
+import dji.common.flightcontroller.FlightControllerState;
+import dji.common.gimbal.GimbalState;
+import dji.common.mission.waypoint.WaypointMissionExecutionEvent;
+import dji.common.mission.waypoint.WaypointMissionUploadEvent;
+import dji.keysdk.DJIKey;
+import dji.sdk.media.MediaFile;
+
+//drives a session through the same entry points the SDK callbacks use, the factories supply the (stand-in) SDK values for each tick
+//values arrive on the simulator's own thread the way SDK callbacks arrive on the SDK's, never on the session's pool
+public class DJITelemetrySimulator implements AutoCloseable {
+    public interface Factory<V> {
+        V create(long tick);
+    }
+
+    private final DJIDroneSession session;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+    private final List<ScheduledFuture<?>> streams = new ArrayList<>();
+    private final AtomicLong deliveredCount = new AtomicLong();
+
+    public DJITelemetrySimulator(final DJIDroneSession session) {
+        this.session = session;
+    }
+
+    public long getDeliveredCount() {
+        return deliveredCount.get();
+    }
+
+    private synchronized void stream(final double hz, final Runnable tick) {
+        if (hz <= 0) {
+            return;
+        }
+
+        final long periodMicros = Math.max(1, (long)(1000000.0 / hz));
+        streams.add(executor.scheduleAtFixedRate(new Runnable() {
+            @Override
+            public void run() {
+                if (session.isClosed()) {
+                    return;
+                }
+
+                tick.run();
+                deliveredCount.incrementAndGet();
+            }
+        }, periodMicros, periodMicros, TimeUnit.MICROSECONDS));
+    }
+
+    public DJITelemetrySimulator flightControllerState(final double hz, final Factory<FlightControllerState> factory) {
+        stream(hz, new Runnable() {
+            private long tick = 0;
+
+            @Override
+            public void run() {
+                session.updateFlightControllerState(factory.create(tick++));
+            }
+        });
+        return this;
+    }
+
+    public DJITelemetrySimulator gimbalState(final int channel, final double hz, final Factory<GimbalState> factory) {
+        stream(hz, new Runnable() {
+            private long tick = 0;
+
+            @Override
+            public void run() {
+                session.updateGimbalState(channel, factory.create(tick++));
+            }
+        });
+        return this;
+    }
+
+    public DJITelemetrySimulator cameraSystemState(final int channel, final double hz, final Factory<SystemState> factory) {
+        stream(hz, new Runnable() {
+            private long tick = 0;
+
+            @Override
+            public void run() {
+                session.updateCameraSystemState(channel, factory.create(tick++));
+            }
+        });
+        return this;
+    }
+
+    public DJITelemetrySimulator cameraMediaFile(final int channel, final double hz, final Factory<MediaFile> factory) {
+        stream(hz, new Runnable() {
+            private long tick = 0;
+
+            @Override
+            public void run() {
+                session.updateCameraMediaFile(channel, factory.create(tick++));
+            }
+        });
+        return this;
+    }
+
+    public DJITelemetrySimulator keyValue(final DJIKey key, final double hz, final Factory<Object> factory) {
+        stream(hz, new Runnable() {
+            private long tick = 0;
+
+            @Override
+            public void run() {
+                session.updateKeyValue(key, factory.create(tick++));
+            }
+        });
+        return this;
+    }
+
+    public DJITelemetrySimulator waypointMissionUpload(final DJIWaypointMissionSession missionSession, final double hz, final Factory<WaypointMissionUploadEvent> factory) {
+        stream(hz, new Runnable() {
+            private long tick = 0;
+
+            @Override
+            public void run() {
+                missionSession.uploadListener.onUploadUpdate(factory.create(tick++));
+            }
+        });
+        return this;
+    }
+
+    public DJITelemetrySimulator waypointMissionExecution(final DJIWaypointMissionSession missionSession, final double hz, final Factory<WaypointMissionExecutionEvent> factory) {
+        stream(hz, new Runnable() {
+            private long tick = 0;
+
+            @Override
+            public void run() {
+                missionSession.progressListener.onExecutionUpdate(factory.create(tick++));
+            }
+        });
+        return this;
+    }
+
+    public synchronized void stop() {
+        for (final ScheduledFuture<?> stream : streams) {
+            stream.cancel(false);
+        }
+        streams.clear();
+    }
+
+    @Override
+    public void close() {
+        stop();
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,113 @@
+//  DJITelemetrySimulatorTest.java
+//  DronelinkDJI
+//
+//  Created by Jim McAndrew on 10/18/26.
+//  Copyright © 2026 Dronelink. All rights reserved.
+//
+package com.dronelink.dji;
+
+import org.junit.Test;
+
+import com.dronelink.core.DroneSession;
+import com.dronelink.core.kernel.command.drone.HomeLocationDroneCommand;
+import com.dronelink.core.kernel.core.GeoCoordinate;
+
+import dji.common.error.DJIError;
+import dji.common.flightcontroller.Attitude;
+import dji.common.flightcontroller.FlightControllerState;
+import dji.common.flightcontroller.LocationCoordinate2D;
+import dji.common.flightcontroller.LocationCoordinate3D;
+import dji.common.product.Model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.ArgumentMatchers.notNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+//drives real sessions, opened through the manager for a stand-in aircraft, with simulated telemetry and late or failing SDK completions
+public class DJITelemetrySimulatorTest {
+    private static final long TimeoutMillis = 5000;
+
+    private static FlightControllerState flightControllerState(final long tick) {
+        final FlightControllerState state = new FlightControllerState();
+        state.setAircraftLocation(new LocationCoordinate3D(37.0 + tick * 0.000001, -122.0, 10));
+        state.setAttitude(new Attitude(0, 0, tick % 360));
+        state.setSatelliteCount(12);
+        state.setFlying(false);
+        state.setAreMotorsOn(true);
+        return state;
+    }
+
+    private static HomeLocationDroneCommand homeLocation() {
+        final HomeLocationDroneCommand command = new HomeLocationDroneCommand();
+        command.coordinate = new GeoCoordinate(37.0, -122.0);
+        return command;
+    }
+
+    @Test
+    public void streamedFlightControllerStatesReachTheSession() {
+        try (final DJIFakeSdk sdk = new DJIFakeSdk()) {
+            final DJIDroneSessionManager manager = new DJIDroneSessionManager(sdk.context);
+            final DJIDroneSession session = manager.openSession(sdk.createAircraft(Model.MAVIC_2_PRO).aircraft);
+            final DroneSession.Listener listener = mock(DroneSession.Listener.class);
+            session.addListener(listener);
+
+            try (final DJITelemetrySimulator simulator = new DJITelemetrySimulator(session)) {
+                simulator.flightControllerState(50, new DJITelemetrySimulator.Factory<FlightControllerState>() {
+                    @Override
+                    public FlightControllerState create(final long tick) {
+                        return flightControllerState(tick);
+                    }
+                });
+
+                //each reaches the listener once, however many states stream in
+                verify(listener, timeout(TimeoutMillis)).onMotorsChanged(session, true);
+                verify(listener, timeout(TimeoutMillis)).onLocated(session);
+                assertTrue(simulator.getDeliveredCount() > 0);
+                assertTrue(session.getFlightControllerState().value.areMotorsOn());
+                assertTrue(session.isLocated());
+            }
+
+            manager.closeSession();
+            verify(listener, times(1)).onMotorsChanged(session, true);
+            verify(listener, times(1)).onLocated(session);
+        }
+    }
+
+    @Test
+    public void commandsFinishThroughLateAndFailingCompletions() throws Exception {
+        try (final DJIFakeSdk sdk = new DJIFakeSdk();
+             final DJICompletionFaultInjector injector = new DJICompletionFaultInjector()) {
+            final DJIFakeSdk.FakeAircraft aircraft = sdk.createAircraft(Model.MAVIC_2_PRO);
+            doAnswer(injector.completion()).when(aircraft.flightController).setHomeLocation(any(LocationCoordinate2D.class), any());
+
+            final DJIDroneSessionManager manager = new DJIDroneSessionManager(sdk.context);
+            final DJIDroneSession session = manager.openSession(aircraft.aircraft);
+            final DroneSession.Listener listener = mock(DroneSession.Listener.class);
+            session.addListener(listener);
+
+            injector.setLatencyMillis(50);
+            final HomeLocationDroneCommand succeeds = homeLocation();
+            session.addCommand(succeeds);
+            verify(listener, timeout(TimeoutMillis)).onCommandFinished(eq(session), eq(succeeds), isNull());
+
+            //the session doesn't retry an error the hardware reports as unsupported, so this one finishes on the first attempt
+            injector.setError(1.0, DJIError.COMMAND_NOT_SUPPORTED_BY_HARDWARE);
+            final HomeLocationDroneCommand fails = homeLocation();
+            session.addCommand(fails);
+            verify(listener, timeout(TimeoutMillis)).onCommandFinished(eq(session), eq(fails), notNull());
+
+            verify(aircraft.flightController, times(2)).setHomeLocation(any(LocationCoordinate2D.class), any());
+            assertEquals(2, injector.getCompletedCount());
+            assertEquals(1, injector.getInjectedErrorCount());
+            manager.closeSession();
+        }
+    }
+}
@@ -0,0 +1,131 @@
+//  DJITelemetrySlotTest.java
+//  DronelinkDJI
+//
+//  Created by Jim McAndrew on 10/18/26.
+//  Copyright © 2026 Dronelink. All rights reserved.
+//
+package com.dronelink.dji;
+
+import com.dronelink.core.DatedValue;
+
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class DJITelemetrySlotTest {
+    private static final int Updates = 100_000;
+
+    @Test
+    public void sameObjectSetAgainGetsNewDate() {
+        final DJITelemetrySlot<Object> slot = new DJITelemetrySlot<>();
+        final Object state = new Object();
+        slot.set(state);
+        final DatedValue<Object> first = slot.get();
+        assertSame(first, slot.get());
+
+        //the SDK reuses its state objects, so the same reference can arrive again later
+        slot.set(state);
+        final DatedValue<Object> second = slot.get();
+        assertNotSame(first, second);
+        assertSame(state, second.value);
+        assertTrue(second.date.getTime() >= first.date.getTime());
+    }
+
+    //regression check for the ingest path, the telemetry callback sets the slot at the SDK's full rate
+    @Test
+    public void ingestDoesNotAllocate() {
+        final DJITelemetrySlot<Object> slot = new DJITelemetrySlot<>();
+        final Object[] states = { new Object(), new Object() };
+        for (int i = 0; i < Updates; i++) {
+            slot.set(states[i & 1]);
+            slot.getValue();
+        }
+
+        final long start = getAllocatedBytes();
+        for (int i = 0; i < Updates; i++) {
+            slot.set(states[i & 1]);
+            slot.getValue();
+            slot.getSequence();
+        }
+        final double bytes = (getAllocatedBytes() - start) / (double)Updates;
+        assertTrue(bytes < 1);
+    }
+
+    @Test
+    public void repeatedReadsDoNotAllocate() {
+        final DJITelemetrySlot<Object> slot = new DJITelemetrySlot<>();
+        slot.set(new Object());
+        for (int i = 0; i < Updates; i++) {
+            slot.get();
+        }
+
+        final long start = getAllocatedBytes();
+        for (int i = 0; i < Updates; i++) {
+            slot.get();
+        }
+        final double bytes = (getAllocatedBytes() - start) / (double)Updates;
+        assertTrue(bytes < 1);
+    }
+
+    //with a delivery already pending a signal costs nothing, the subscriber reads the latest value when it runs
+    @Test
+    public void signalWithPendingDeliveryDoesNotAllocate() throws InterruptedException {
+        final DJITelemetrySlot<Object> slot = new DJITelemetrySlot<>();
+        final DJITelemetryStream<DatedValue<Object>> stream = new DJITelemetryStream<>("test");
+        stream.setSource(slot::get);
+
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger delivered = new AtomicInteger();
+        final AtomicReference<Object> latest = new AtomicReference<>();
+        final CountDownLatch finished = new CountDownLatch(2);
+        stream.subscribe(new DJITelemetryStream.Subscriber<DatedValue<Object>>() {
+            @Override
+            public void onUpdate(final DatedValue<Object> value) {
+                latest.set(value.value);
+                if (delivered.incrementAndGet() == 1) {
+                    blocked.countDown();
+                    try {
+                        release.await();
+                    }
+                    catch (final InterruptedException ignored) {}
+                }
+                finished.countDown();
+            }
+        }, 0);
+
+        slot.set(new Object());
+        stream.signal();
+        assertTrue(blocked.await(1, TimeUnit.SECONDS));
+
+        final Object[] states = { new Object(), new Object() };
+        slot.set(states[0]);
+        stream.signal();
+        final long start = getAllocatedBytes();
+        for (int i = 0; i < Updates; i++) {
+            slot.set(states[i & 1]);
+            stream.signal();
+        }
+        final double bytes = (getAllocatedBytes() - start) / (double)Updates;
+
+        release.countDown();
+        assertTrue(finished.await(1, TimeUnit.SECONDS));
+        assertEquals(2, delivered.get());
+        assertSame(states[(Updates - 1) & 1], latest.get());
+        assertTrue(bytes < 1);
+    }
+
+    private static long getAllocatedBytes() {
+        final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+        return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
@@ -0,0 +1,86 @@
+//  DJITelemetryStreamTest.java
+//  DronelinkDJI
+//
+//  Created by Jim McAndrew on 10/18/26.
+//  Copyright © 2026 Dronelink. All rights reserved.
+//
+package com.dronelink.dji;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DJITelemetryStreamTest {
+    private static final long TimeoutMillis = 5000;
+
+    //subscribers run on a thread of their own, never on a shared pool thread (DronelinkDJI-n)
+    @Test
+    public void subscriberRunsOnItsOwnThread() throws InterruptedException {
+        final DJITelemetryStream<Integer> stream = new DJITelemetryStream<>("flightController");
+        final AtomicReference<Thread> delivered = new AtomicReference<>();
+        final CountDownLatch finished = new CountDownLatch(1);
+        final DJITelemetryStream<Integer>.Subscription subscription = stream.subscribe(new DJITelemetryStream.Subscriber<Integer>() {
+            @Override
+            public void onUpdate(final Integer value) {
+                delivered.set(Thread.currentThread());
+                finished.countDown();
+            }
+        }, 0);
+
+        stream.publish(1);
+        assertTrue(finished.await(TimeoutMillis, TimeUnit.MILLISECONDS));
+        assertEquals("DronelinkDJI " + subscription.name, delivered.get().getName());
+
+        subscription.cancel();
+        delivered.get().join(TimeoutMillis);
+        assertFalse(delivered.get().isAlive());
+        assertEquals(0, stream.getSubscriberCount());
+    }
+
+    //a subscriber stuck in its callback only gets the latest value once it returns, and publishing never waits for it
+    @Test
+    public void blockedSubscriberGetsTheLatestValue() throws InterruptedException {
+        final DJITelemetryStream<Integer> stream = new DJITelemetryStream<>("camera[0]");
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch finished = new CountDownLatch(1);
+        final AtomicReference<Integer> last = new AtomicReference<>();
+        final DJITelemetryStream<Integer>.Subscription subscription = stream.subscribe(new DJITelemetryStream.Subscriber<Integer>() {
+            @Override
+            public void onUpdate(final Integer value) {
+                last.set(value);
+                entered.countDown();
+                if (value == 0) {
+                    try {
+                        release.await();
+                    }
+                    catch (final InterruptedException e) {
+                        return;
+                    }
+                }
+                if (value == 100) {
+                    finished.countDown();
+                }
+            }
+        }, 0);
+
+        stream.publish(0);
+        assertTrue(entered.await(TimeoutMillis, TimeUnit.MILLISECONDS));
+        for (int i = 1; i <= 100; i++) {
+            stream.publish(i);
+        }
+        release.countDown();
+
+        assertTrue(finished.await(TimeoutMillis, TimeUnit.MILLISECONDS));
+        assertEquals(100, (int)last.get());
+        assertEquals(2, subscription.getDeliveredCount());
+        assertEquals(99, subscription.getCoalescedCount());
+        subscription.cancel();
+    }
+}
@@ -0,0 +1,101 @@
+//  DJIVersionedCacheTest.java
+//  DronelinkDJI
+//
+//  Created by Jim McAndrew on 10/18/26.
+//  Copyright © 2026 Dronelink. All rights reserved.
+//
+package com.dronelink.dji;
+
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class DJIVersionedCacheTest {
+    private static final int Calls = 100_000;
+
+    private final Object camera = new Object();
+
+    @Test
+    public void invalidationForcesRebuild() {
+        final DJIVersionedCache<String> cache = new DJIVersionedCache<>();
+        long version = cache.getVersion(0);
+        cache.put(0, camera, version, "state");
+        assertSame("state", cache.get(0, camera, cache.getVersion(0)));
+        assertNull(cache.get(0, new Object(), cache.getVersion(0)));
+
+        cache.invalidate(1);
+        assertSame("state", cache.get(0, camera, cache.getVersion(0)));
+
+        cache.invalidate(0);
+        assertNull(cache.get(0, camera, cache.getVersion(0)));
+
+        version = cache.getVersion(0);
+        cache.put(0, camera, version, "state");
+        cache.invalidateAll();
+        assertNull(cache.get(0, camera, cache.getVersion(0)));
+    }
+
+    @Test
+    public void updateDuringAssemblyForcesRebuild() {
+        final DJIVersionedCache<String> cache = new DJIVersionedCache<>();
+        final long version = cache.getVersion(0);
+        cache.invalidate(0);
+        cache.put(0, camera, version, "stale");
+        assertNull(cache.get(0, camera, cache.getVersion(0)));
+    }
+
+    //allocation per getCameraState call on a cache hit against rebuilding the state every call
+    @Test
+    public void cacheHitDoesNotAllocate() {
+        final DJIVersionedCache<Object[]> cache = new DJIVersionedCache<>();
+        cache.invalidate(0);
+        for (int i = 0; i < Calls; i++) {
+            hit(cache);
+            rebuild(cache);
+        }
+
+        long start = getAllocatedBytes();
+        for (int i = 0; i < Calls; i++) {
+            hit(cache);
+        }
+        final double hitBytes = (getAllocatedBytes() - start) / (double)Calls;
+
+        start = getAllocatedBytes();
+        for (int i = 0; i < Calls; i++) {
+            rebuild(cache);
+        }
+        final double rebuildBytes = (getAllocatedBytes() - start) / (double)Calls;
+
+        assertTrue(hitBytes < 1);
+        //a rebuild allocates at least the state array, a hit nothing at all
+        assertTrue(rebuildBytes > hitBytes + 29 * 4);
+    }
+
+    private Object[] hit(final DJIVersionedCache<Object[]> cache) {
+        final long version = cache.getVersion(0);
+        final Object[] cached = cache.get(0, camera, version);
+        if (cached != null) {
+            return cached;
+        }
+
+        final Object[] state = new Object[29];
+        cache.put(0, camera, version, state);
+        return state;
+    }
+
+    private Object[] rebuild(final DJIVersionedCache<Object[]> cache) {
+        cache.invalidate(0);
+        return hit(cache);
+    }
+
+    private static long getAllocatedBytes() {
+        final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+        final long allocated = threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+        assertTrue(allocated >= 0);
+        return allocated;
+    }
+}
@@ -0,0 +1,50 @@
+//  DJIVirtualStickSenderTest.java
+//  DronelinkDJI
+//
+//  Created by Jim McAndrew on 10/18/26.
+//  Copyright © 2026 Dronelink. All rights reserved.
+//
+package com.dronelink.dji;
+
+import org.junit.Test;
+
+import dji.common.flightcontroller.virtualstick.FlightControlData;
+import dji.common.flightcontroller.virtualstick.FlightCoordinateSystem;
+import dji.common.flightcontroller.virtualstick.RollPitchControlMode;
+import dji.common.flightcontroller.virtualstick.VerticalControlMode;
+import dji.common.flightcontroller.virtualstick.YawControlMode;
+import dji.common.product.Model;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+public class DJIVirtualStickSenderTest {
+    private static final long TimeoutMillis = 5000;
+
+    //the staleness cutoff is long enough that only clear() can stop the setpoint going out
+    @Test
+    public void clearStopsTheTickResendingTheLastSetpoint() throws InterruptedException {
+        try (final DJIFakeSdk sdk = new DJIFakeSdk()) {
+            final DJIFakeSdk.FakeAircraft aircraft = sdk.createAircraft(Model.MAVIC_2_PRO);
+            final DJIVirtualStickSender sender = new DJIVirtualStickSender(aircraft.aircraft, 100, TimeoutMillis).start();
+            final FlightControlData data = new FlightControlData(1, 0, 0, 0);
+            sender.write(new DJIVirtualStickSender.Setpoint(true, RollPitchControlMode.VELOCITY, FlightCoordinateSystem.GROUND, VerticalControlMode.VELOCITY, YawControlMode.ANGULAR_VELOCITY, data, null));
+            verify(aircraft.flightController, timeout(TimeoutMillis).atLeast(2)).sendVirtualStickFlightControlData(same(data), any());
+
+            sender.clear();
+            final long sent = sender.getSentCount();
+            final long ticks = sender.getJitter().getCount();
+            while (sender.getJitter().getCount() < ticks + 5) {
+                Thread.yield();
+            }
+            assertEquals(sent, sender.getSentCount());
+            assertEquals(0, sender.getStaleCount());
+            verify(aircraft.flightController, atLeastOnce()).sendVirtualStickFlightControlData(same(data), any());
+            sender.stop();
+        }
+    }
+}
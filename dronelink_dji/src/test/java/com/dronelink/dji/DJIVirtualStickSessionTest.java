@@ -0,0 +1,143 @@
+//  DJIVirtualStickSessionTest.java
+//  DronelinkDJI
+//
+//  Created by Jim McAndrew on 10/18/26.
+//  Copyright © 2026 Dronelink. All rights reserved.
+//
+package com.dronelink.dji;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+
+import java.util.concurrent.TimeUnit;
+
+import dji.common.error.DJIError;
+import dji.common.flightcontroller.FlightControllerState;
+import dji.common.flightcontroller.FlightMode;
+import dji.common.product.Model;
+import dji.common.remotecontroller.SoftSwitchJoyStickMode;
+import dji.common.util.CommonCallbacks;
+import dji.sdk.remotecontroller.RemoteController;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+//drives the take control state machine through a session opened for a stand-in aircraft that is already flying
+public class DJIVirtualStickSessionTest {
+    private static final long TimeoutMillis = 5000;
+
+    private DJIFakeSdk sdk;
+    private DJIFakeSdk.FakeAircraft aircraft;
+    private DJIDroneSessionManager manager;
+    private DJIDroneSession droneSession;
+
+    @Before
+    public void setUp() {
+        sdk = new DJIFakeSdk();
+        aircraft = sdk.createAircraft(Model.MAVIC_2_PRO);
+        manager = new DJIDroneSessionManager(sdk.context);
+        droneSession = manager.openSession(aircraft.aircraft);
+
+        final FlightControllerState state = new FlightControllerState();
+        state.setFlying(true);
+        state.setFlightMode(FlightMode.JOYSTICK);
+        assertTrue(aircraft.updateFlightControllerState(state));
+    }
+
+    @After
+    public void tearDown() {
+        manager.closeSession();
+        sdk.close();
+    }
+
+    private void answerVirtualStickModeEnabled(final DJIError djiError) {
+        doAnswer(invocation -> {
+            final CommonCallbacks.CompletionCallback callback = invocation.getArgument(1);
+            callback.onResult(djiError);
+            return null;
+        }).when(aircraft.flightController).setVirtualStickModeEnabled(eq(true), any());
+    }
+
+    //activate only reports where the state machine is, null until it gets somewhere
+    private static Boolean awaitActivated(final DJIVirtualStickSession session) {
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(TimeoutMillis);
+        Boolean activated = session.activate();
+        while (activated == null && System.nanoTime() < deadline) {
+            Thread.yield();
+            activated = session.activate();
+        }
+        return activated;
+    }
+
+    @Test
+    public void takesControlWhenAlreadyFlying() {
+        answerVirtualStickModeEnabled(null);
+        final DJIVirtualStickSession session = new DJIVirtualStickSession(sdk.context, droneSession);
+        assertEquals(Boolean.TRUE, awaitActivated(session));
+        assertEquals(1, session.getVirtualStickAttempts());
+        assertNotNull(session.getTimeToControlMillis());
+        assertNull(session.getDisengageReason());
+        verify(aircraft.flightController, never()).startTakeoff(any());
+    }
+
+    //failures are retried with a growing delay until the next retry would land past the window: attempts at 0 and 250ms, the next would be at 750ms
+    @Test
+    public void retriesUntilTheWindowCloses() {
+        answerVirtualStickModeEnabled(mock(DJIError.class));
+        final DJIVirtualStickSession session = new DJIVirtualStickSession(sdk.context, droneSession);
+        session.setVirtualStickTimeoutMillis(600);
+        assertEquals(Boolean.FALSE, awaitActivated(session));
+        assertEquals(2, session.getVirtualStickAttempts());
+        assertNotNull(session.getDisengageReason());
+        verify(aircraft.flightController).setVirtualStickModeEnabled(eq(false), isNull());
+    }
+
+    //virtual stick isn't enabled until the soft switch has had time to settle
+    @Test
+    public void waitsForTheSoftSwitchToSettle() {
+        final RemoteController remoteController = mock(RemoteController.class);
+        when(aircraft.aircraft.getRemoteController()).thenReturn(remoteController);
+        doAnswer(invocation -> {
+            final CommonCallbacks.CompletionCallbackWith<SoftSwitchJoyStickMode> callback = invocation.getArgument(0);
+            callback.onSuccess(SoftSwitchJoyStickMode.SPORT);
+            return null;
+        }).when(remoteController).getSoftSwitchJoyStickMode(any());
+        doAnswer(invocation -> {
+            final CommonCallbacks.CompletionCallback callback = invocation.getArgument(1);
+            callback.onResult(null);
+            return null;
+        }).when(remoteController).setSoftSwitchJoyStickMode(eq(SoftSwitchJoyStickMode.POSITION), any());
+        answerVirtualStickModeEnabled(null);
+
+        final DJIVirtualStickSession session = new DJIVirtualStickSession(sdk.context, droneSession);
+        assertEquals(Boolean.TRUE, awaitActivated(session));
+        assertTrue(session.getPhaseMillis(DJIVirtualStickSession.Phase.SOFT_SWITCH_JOYSTICK_MODE) >= 1000);
+        final InOrder inOrder = inOrder(remoteController, aircraft.flightController);
+        inOrder.verify(remoteController).setSoftSwitchJoyStickMode(eq(SoftSwitchJoyStickMode.POSITION), any());
+        inOrder.verify(aircraft.flightController).setVirtualStickModeEnabled(eq(true), any());
+    }
+
+    @Test
+    public void deactivateBeforeActivateIsFinal() {
+        final DJIVirtualStickSession session = new DJIVirtualStickSession(sdk.context, droneSession);
+        session.deactivate();
+        assertFalse(session.activate());
+        session.deactivate();
+        verify(aircraft.flightController).setVirtualStickModeEnabled(eq(false), isNull());
+        verify(aircraft.flightController, never()).setVirtualStickModeEnabled(eq(true), any());
+    }
+}
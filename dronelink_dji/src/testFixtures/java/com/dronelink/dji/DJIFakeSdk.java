@@ -0,0 +1,119 @@
+//  DJIFakeSdk.java
+//  DronelinkDJI
+//
+//  Created by Jim McAndrew on 10/18/26.
+//  Copyright © 2026 Dronelink. All rights reserved.
+//
+package com.dronelink.dji;
+
+import android.content.Context;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.mockito.MockedStatic;
+
+import dji.common.flightcontroller.FlightControllerState;
+import dji.common.product.Model;
+import dji.keysdk.DJIKey;
+import dji.keysdk.KeyManager;
+import dji.keysdk.callback.KeyListener;
+import dji.sdk.camera.VideoFeeder;
+import dji.sdk.flightcontroller.FlightController;
+import dji.sdk.products.Aircraft;
+import dji.sdk.sdkmanager.DJISDKManager;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.when;
+
+//stands in for the DJI SDK so a session can be opened, driven and closed on a plain JVM
+//the SDK singletons are static mocks, which only apply to the thread that created them, so open and close sessions from that thread
+public class DJIFakeSdk implements AutoCloseable {
+    public final Context context = mock(Context.class);
+    public final DJISDKManager sdkManager = mock(DJISDKManager.class);
+    public final KeyManager keyManager = mock(KeyManager.class);
+    public final VideoFeeder videoFeeder = mock(VideoFeeder.class);
+    private final MockedStatic<DJISDKManager> sdkManagerInstance = mockStatic(DJISDKManager.class);
+    private final MockedStatic<VideoFeeder> videoFeederInstance = mockStatic(VideoFeeder.class);
+    private final Set<KeyListener> keyListeners = Collections.newSetFromMap(new ConcurrentHashMap<KeyListener, Boolean>());
+    private final Set<VideoFeeder.PhysicalSourceListener> physicalSourceListeners = Collections.newSetFromMap(new ConcurrentHashMap<VideoFeeder.PhysicalSourceListener, Boolean>());
+
+    public DJIFakeSdk() {
+        sdkManagerInstance.when(DJISDKManager::getInstance).thenReturn(sdkManager);
+        videoFeederInstance.when(VideoFeeder::getInstance).thenReturn(videoFeeder);
+        when(sdkManager.getKeyManager()).thenReturn(keyManager);
+
+        doAnswer(invocation -> {
+            keyListeners.add(invocation.getArgument(1));
+            return null;
+        }).when(keyManager).addListener(any(DJIKey.class), any(KeyListener.class));
+        doAnswer(invocation -> {
+            keyListeners.remove(invocation.getArgument(0));
+            return null;
+        }).when(keyManager).removeListener(any(KeyListener.class));
+
+        doAnswer(invocation -> {
+            physicalSourceListeners.add(invocation.getArgument(0));
+            return null;
+        }).when(videoFeeder).addPhysicalSourceListener(any(VideoFeeder.PhysicalSourceListener.class));
+        doAnswer(invocation -> {
+            physicalSourceListeners.remove(invocation.getArgument(0));
+            return null;
+        }).when(videoFeeder).removePhysicalSourceListener(any(VideoFeeder.PhysicalSourceListener.class));
+    }
+
+    public FakeAircraft createAircraft(final Model model) {
+        return new FakeAircraft(model);
+    }
+
+    //what the sessions still have registered with the SDK
+    public int getKeyListenerCount() {
+        return keyListeners.size();
+    }
+
+    public int getPhysicalSourceListenerCount() {
+        return physicalSourceListeners.size();
+    }
+
+    @Override
+    public void close() {
+        videoFeederInstance.close();
+        sdkManagerInstance.close();
+    }
+
+    public static class FakeAircraft {
+        public final Aircraft aircraft = mock(Aircraft.class);
+        public final FlightController flightController = mock(FlightController.class);
+        private final AtomicReference<FlightControllerState.Callback> flightControllerStateCallback = new AtomicReference<>();
+
+        private FakeAircraft(final Model model) {
+            when(aircraft.getModel()).thenReturn(model);
+            when(aircraft.getFlightController()).thenReturn(flightController);
+            doAnswer(invocation -> {
+                flightControllerStateCallback.set(invocation.getArgument(0));
+                return null;
+            }).when(flightController).setStateCallback(any());
+        }
+
+        //null once the session has let go of it
+        public FlightControllerState.Callback getFlightControllerStateCallback() {
+            return flightControllerStateCallback.get();
+        }
+
+        //delivers the state the way the SDK does, through the callback the session registered
+        public boolean updateFlightControllerState(final FlightControllerState state) {
+            final FlightControllerState.Callback callback = flightControllerStateCallback.get();
+            if (callback == null) {
+                return false;
+            }
+
+            callback.onUpdate(state);
+            return true;
+        }
+    }
+}